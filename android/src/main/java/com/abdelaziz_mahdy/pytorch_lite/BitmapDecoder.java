@@ -0,0 +1,263 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.util.Log;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes encoded images (jpeg, png, ...) for one model.
+ * <p>
+ * The image bounds are read first and the image is decoded with the coarsest
+ * power of two {@code inSampleSize} that still covers the model input, so a
+ * 12 MP photo never materializes at full resolution. Decoded bitmaps go back
+ * to a small pool and are handed to the next decode as {@code inBitmap}, and
+ * the resize to the model input happens while the tensor is filled, so no
+ * scaled bitmap is created at all.
+ * <p>
+ * With an {@link ImageCrop} only the crop is decoded, with a
+ * {@link BitmapRegionDecoder}, and its sample size is picked from the crop
+ * size. Formats the region decoder does not support are decoded whole at the
+ * sample size the crop needs and cropped while the tensor is filled.
+ */
+public class BitmapDecoder {
+    private static final String TAG = "PytorchLitePlugin";
+    static final int MAX_POOLED_BITMAPS = 2;
+
+    final int mImageWidth;
+    final int mImageHeight;
+    private final ConcurrentLinkedQueue<Bitmap> mFreeBitmaps = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mPooledCount = new AtomicInteger();
+
+    BitmapDecoder(int imageWidth, int imageHeight) {
+        mImageWidth = imageWidth;
+        mImageHeight = imageHeight;
+    }
+
+    /**
+     * Largest power of two that keeps the decoded image at least
+     * {@code targetWidth x targetHeight}.
+     */
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= targetWidth && height / (inSampleSize * 2) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * Decodes {@code imageData} and writes it as a normalized 3 x mImageHeight x
+     * mImageWidth float tensor into {@code out}.
+     */
+    void decodeToFloatBuffer(byte[] imageData, float[] mean, float[] std, FloatBuffer out) {
+        decodeToFloatBuffer(imageData, mean, std, out, 0);
+    }
+
+    /**
+     * Same as {@link #decodeToFloatBuffer(byte[], float[], float[], FloatBuffer)}
+     * but writes the tensor starting at {@code outOffset}, used to stack the
+     * images of a batch into one buffer.
+     */
+    void decodeToFloatBuffer(byte[] imageData, float[] mean, float[] std, FloatBuffer out, int outOffset) {
+        decodeToFloatBuffer(imageData, null, mean, std, out, outOffset);
+    }
+
+    /**
+     * Same as {@link #decodeToFloatBuffer(byte[], float[], float[], FloatBuffer, int)}
+     * but only the {@code crop} of the image fills the tensor, a null crop
+     * takes the whole image.
+     */
+    void decodeToFloatBuffer(byte[] imageData, ImageCrop crop, float[] mean, float[] std, FloatBuffer out,
+            int outOffset) {
+        Bitmap bitmap = crop == null ? null : decodeRegion(imageData, crop);
+        // the whole image, still to be cropped
+        ImageCrop remainingCrop = bitmap == null ? crop : null;
+        if (bitmap == null) {
+            bitmap = decode(imageData, remainingCrop);
+        }
+        try {
+            bitmapToFloatBuffer(bitmap, remainingCrop, mean, std, out, outOffset);
+        } finally {
+            release(bitmap);
+        }
+    }
+
+    Bitmap decode(byte[] imageData) {
+        return decode(imageData, null);
+    }
+
+    /**
+     * Decodes the whole image, sampled finely enough for {@code crop} to
+     * still cover the model input once cropped.
+     */
+    private Bitmap decode(byte[] imageData, ImageCrop crop) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IllegalArgumentException("unable to decode image");
+        }
+
+        int sampledWidth = crop == null ? options.outWidth : crop.columns(options.outWidth);
+        int sampledHeight = crop == null ? options.outHeight : crop.rows(options.outHeight);
+        int inSampleSize = calculateInSampleSize(sampledWidth, sampledHeight, mImageWidth, mImageHeight);
+        int decodedWidth = (options.outWidth + inSampleSize - 1) / inSampleSize;
+        int decodedHeight = (options.outHeight + inSampleSize - 1) / inSampleSize;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = inSampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        options.inMutable = true;
+        options.inBitmap = takeBitmap(decodedWidth * decodedHeight * 4);
+
+        Bitmap bitmap;
+        try {
+            bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+        } catch (IllegalArgumentException e) {
+            // the decoder refused the pooled bitmap, decode into a fresh one
+            Log.w(TAG, "unable to reuse bitmap for decoding", e);
+            if (options.inBitmap != null) {
+                options.inBitmap.recycle();
+            }
+            options.inBitmap = null;
+            bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+        }
+        if (bitmap == null) {
+            release(options.inBitmap);
+            throw new IllegalArgumentException("unable to decode image");
+        }
+        return bitmap;
+    }
+
+    /**
+     * Decodes only the {@code crop} of the image, returns null when the
+     * format has no region decoder.
+     */
+    @SuppressWarnings("deprecation")
+    private Bitmap decodeRegion(byte[] imageData, ImageCrop crop) {
+        BitmapRegionDecoder regionDecoder;
+        try {
+            regionDecoder = BitmapRegionDecoder.newInstance(imageData, 0, imageData.length, false);
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            int width = regionDecoder.getWidth();
+            int height = regionDecoder.getHeight();
+            int left = crop.firstColumn(width);
+            int top = crop.firstRow(height);
+            Rect region = new Rect(left, top, left + crop.columns(width), top + crop.rows(height));
+
+            int inSampleSize = calculateInSampleSize(region.width(), region.height(), mImageWidth, mImageHeight);
+            int decodedWidth = (region.width() + inSampleSize - 1) / inSampleSize;
+            int decodedHeight = (region.height() + inSampleSize - 1) / inSampleSize;
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = inSampleSize;
+            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+            options.inMutable = true;
+            options.inBitmap = takeBitmap(decodedWidth * decodedHeight * 4);
+
+            Bitmap bitmap;
+            try {
+                bitmap = regionDecoder.decodeRegion(region, options);
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "unable to reuse bitmap for decoding", e);
+                if (options.inBitmap != null) {
+                    options.inBitmap.recycle();
+                }
+                options.inBitmap = null;
+                bitmap = regionDecoder.decodeRegion(region, options);
+            }
+            if (bitmap == null) {
+                release(options.inBitmap);
+                throw new IllegalArgumentException("unable to decode image");
+            }
+            return bitmap;
+        } finally {
+            regionDecoder.recycle();
+        }
+    }
+
+    /**
+     * Nearest neighbour resize of the whole bitmap to the model input, same
+     * as {@code Bitmap.createScaledBitmap(bitmap, w, h, false)} followed by
+     * {@code TensorImageUtils.bitmapToFloatBuffer}.
+     */
+    void bitmapToFloatBuffer(Bitmap bitmap, float[] mean, float[] std, FloatBuffer out, int outOffset) {
+        bitmapToFloatBuffer(bitmap, null, mean, std, out, outOffset);
+    }
+
+    /**
+     * Same as {@link #bitmapToFloatBuffer(Bitmap, float[], float[], FloatBuffer, int)}
+     * for the {@code crop} of the bitmap only, a null crop takes the whole
+     * bitmap.
+     */
+    void bitmapToFloatBuffer(Bitmap bitmap, ImageCrop crop, float[] mean, float[] std, FloatBuffer out,
+            int outOffset) {
+        int bitmapWidth = bitmap.getWidth();
+        int bitmapHeight = bitmap.getHeight();
+        int cropX = crop == null ? 0 : crop.firstColumn(bitmapWidth);
+        int cropY = crop == null ? 0 : crop.firstRow(bitmapHeight);
+        int width = crop == null ? bitmapWidth : crop.columns(bitmapWidth);
+        int height = crop == null ? bitmapHeight : crop.rows(bitmapHeight);
+        int[] columnMap = new int[mImageWidth];
+        for (int ox = 0; ox < mImageWidth; ox++) {
+            columnMap[ox] = (int) ((long) ox * width / mImageWidth);
+        }
+
+        int planeSize = mImageWidth * mImageHeight;
+        int[] row = new int[width];
+        int i = outOffset;
+        for (int oy = 0; oy < mImageHeight; oy++) {
+            int sy = cropY + (int) ((long) oy * height / mImageHeight);
+            bitmap.getPixels(row, 0, width, cropX, sy, width, 1);
+            for (int ox = 0; ox < mImageWidth; ox++, i++) {
+                int pixel = row[columnMap[ox]];
+                out.put(i, (((pixel >> 16) & 0xff) / 255.0f - mean[0]) / std[0]);
+                out.put(planeSize + i, (((pixel >> 8) & 0xff) / 255.0f - mean[1]) / std[1]);
+                out.put(2 * planeSize + i, ((pixel & 0xff) / 255.0f - mean[2]) / std[2]);
+            }
+        }
+    }
+
+    // first pooled bitmap large enough for the decode, if any
+    private Bitmap takeBitmap(int byteCount) {
+        Iterator<Bitmap> iterator = mFreeBitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getAllocationByteCount() >= byteCount && mFreeBitmaps.remove(bitmap)) {
+                mPooledCount.decrementAndGet();
+                return bitmap;
+            }
+        }
+        return null;
+    }
+
+    void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (!bitmap.isMutable()) {
+            bitmap.recycle();
+            return;
+        }
+        if (mPooledCount.incrementAndGet() > MAX_POOLED_BITMAPS) {
+            // keep the most recently used sizes around
+            Bitmap evicted = mFreeBitmaps.poll();
+            if (evicted != null) {
+                evicted.recycle();
+            }
+            mPooledCount.decrementAndGet();
+        }
+        mFreeBitmaps.offer(bitmap);
+    }
+}
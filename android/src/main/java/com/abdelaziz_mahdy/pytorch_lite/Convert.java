@@ -1,5 +1,12 @@
 package com.abdelaziz_mahdy.pytorch_lite;
 
+import org.pytorch.DType;
+import org.pytorch.Tensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
 public class Convert {
 
     public static String dtypeAsPrimitive(String dtype) {
@@ -68,4 +75,81 @@ public class Convert {
         }
         return primitives;
     }
+
+    public static int elementSize(DType dtype) {
+        switch (dtype) {
+            case FLOAT64:
+            case INT64:
+                return 8;
+            case FLOAT32:
+            case INT32:
+                return 4;
+            case INT8:
+            case UINT8:
+                return 1;
+            default:
+                throw new IllegalArgumentException("unsupported dtype " + dtype);
+        }
+    }
+
+    /**
+     * Builds a tensor from native order bytes. The bytes are copied once into
+     * a direct buffer that backs the tensor, no element is boxed or converted.
+     */
+    public static Tensor toTensor(byte[] data, long[] shape, DType dtype) {
+        long byteCount = Tensor.numel(shape) * elementSize(dtype);
+        if (data.length != byteCount) {
+            throw new IllegalArgumentException("input has " + data.length + " bytes, shape "
+                    + Arrays.toString(shape) + " of " + dtype + " needs " + byteCount);
+        }
+        ByteBuffer buffer = Tensor.allocateByteBuffer(data.length);
+        buffer.put(data);
+        buffer.rewind();
+        switch (dtype) {
+            case FLOAT32:
+                return Tensor.fromBlob(buffer.asFloatBuffer(), shape);
+            case FLOAT64:
+                return Tensor.fromBlob(buffer.asDoubleBuffer(), shape);
+            case INT32:
+                return Tensor.fromBlob(buffer.asIntBuffer(), shape);
+            case INT64:
+                return Tensor.fromBlob(buffer.asLongBuffer(), shape);
+            case INT8:
+                return Tensor.fromBlob(buffer, shape);
+            case UINT8:
+                return Tensor.fromBlobUnsigned(buffer, shape);
+            default:
+                throw new IllegalArgumentException("unsupported dtype " + dtype);
+        }
+    }
+
+    /** Returns the elements of {@code tensor} as native order bytes. */
+    public static byte[] toBytes(Tensor tensor) {
+        DType dtype = tensor.dtype();
+        if (dtype == DType.INT8) {
+            return tensor.getDataAsByteArray();
+        }
+        if (dtype == DType.UINT8) {
+            return tensor.getDataAsUnsignedByteArray();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) tensor.numel() * elementSize(dtype))
+                .order(ByteOrder.nativeOrder());
+        switch (dtype) {
+            case FLOAT32:
+                buffer.asFloatBuffer().put(tensor.getDataAsFloatArray());
+                break;
+            case FLOAT64:
+                buffer.asDoubleBuffer().put(tensor.getDataAsDoubleArray());
+                break;
+            case INT32:
+                buffer.asIntBuffer().put(tensor.getDataAsIntArray());
+                break;
+            case INT64:
+                buffer.asLongBuffer().put(tensor.getDataAsLongArray());
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported dtype " + dtype);
+        }
+        return buffer.array();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.Arrays;
+
+/**
+ * Decoded boxes above the score threshold, in model input pixels.
+ * <p>
+ * The boxes are kept in parallel primitive arrays so that ranking and
+ * suppressing thousands of candidates neither boxes a score nor builds a
+ * {@link Pigeon.ResultObjectDetection} for boxes that are dropped anyway.
+ * The arrays, and the scratch space {@link NonMaxSuppression} needs, only
+ * ever grow, so a pooled instance decodes frame after frame without
+ * allocating.
+ */
+final class DetectionCandidates {
+    private static final int INITIAL_CAPACITY = 64;
+
+    int size;
+    float[] left = new float[INITIAL_CAPACITY];
+    float[] top = new float[INITIAL_CAPACITY];
+    float[] right = new float[INITIAL_CAPACITY];
+    float[] bottom = new float[INITIAL_CAPACITY];
+    float[] score = new float[INITIAL_CAPACITY];
+    int[] classIndex = new int[INITIAL_CAPACITY];
+
+    // scratch space of NonMaxSuppression and PrePostProcessor
+    int[] order = new int[0];
+    int[] keep = new int[0];
+    int[] comparedWith = new int[0];
+    long[] sortKeys = new long[0];
+    float[] blockScores = new float[0];
+    int[] blockClasses = new int[0];
+    NonMaxSuppression.Grid grid;
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(float left, float top, float right, float bottom, float score, int classIndex) {
+        if (size == this.score.length) {
+            grow();
+        }
+        this.left[size] = left;
+        this.top[size] = top;
+        this.right[size] = right;
+        this.bottom[size] = bottom;
+        this.score[size] = score;
+        this.classIndex[size] = classIndex;
+        size++;
+    }
+
+    /** Appends the candidates of {@code other}, in their order. */
+    void addAll(DetectionCandidates other) {
+        while (score.length < size + other.size) {
+            grow();
+        }
+        System.arraycopy(other.left, 0, left, size, other.size);
+        System.arraycopy(other.top, 0, top, size, other.size);
+        System.arraycopy(other.right, 0, right, size, other.size);
+        System.arraycopy(other.bottom, 0, bottom, size, other.size);
+        System.arraycopy(other.score, 0, score, size, other.size);
+        System.arraycopy(other.classIndex, 0, classIndex, size, other.size);
+        size += other.size;
+    }
+
+    /** Intersection over union of candidates {@code a} and {@code b}. */
+    float iou(int a, int b) {
+        float areaA = (right[a] - left[a]) * (bottom[a] - top[a]);
+        if (areaA <= 0.0f) {
+            return 0.0f;
+        }
+        float areaB = (right[b] - left[b]) * (bottom[b] - top[b]);
+        if (areaB <= 0.0f) {
+            return 0.0f;
+        }
+        float intersectionWidth = Math.min(right[a], right[b]) - Math.max(left[a], left[b]);
+        float intersectionHeight = Math.min(bottom[a], bottom[b]) - Math.max(top[a], top[b]);
+        if (intersectionWidth <= 0.0f || intersectionHeight <= 0.0f) {
+            return 0.0f;
+        }
+        float intersectionArea = intersectionWidth * intersectionHeight;
+        return intersectionArea / (areaA + areaB - intersectionArea);
+    }
+
+    /** {@code array} if it holds {@code length} values, a larger array otherwise. */
+    static int[] ensureCapacity(int[] array, int length) {
+        return array.length >= length ? array : new int[Math.max(length, array.length * 2)];
+    }
+
+    static float[] ensureCapacity(float[] array, int length) {
+        return array.length >= length ? array : new float[Math.max(length, array.length * 2)];
+    }
+
+    static long[] ensureCapacity(long[] array, int length) {
+        return array.length >= length ? array : new long[Math.max(length, array.length * 2)];
+    }
+
+    private void grow() {
+        int capacity = score.length * 2;
+        left = Arrays.copyOf(left, capacity);
+        top = Arrays.copyOf(top, capacity);
+        right = Arrays.copyOf(right, capacity);
+        bottom = Arrays.copyOf(bottom, capacity);
+        score = Arrays.copyOf(score, capacity);
+        classIndex = Arrays.copyOf(classIndex, capacity);
+    }
+}
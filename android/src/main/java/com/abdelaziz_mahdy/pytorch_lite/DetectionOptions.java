@@ -0,0 +1,40 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+/**
+ * Score threshold, IOU threshold and box limit of one detection call.
+ * <p>
+ * The options are immutable and handed down to the decode and the NMS of the
+ * call, so concurrent calls on the same model can use different thresholds.
+ * A model keeps default options in {@link PrePostProcessor#mDetectionDefaults},
+ * calls only pass the values they want to change.
+ */
+final class DetectionOptions {
+    /** Same defaults as the dart side. */
+    static final DetectionOptions DEFAULT = new DetectionOptions(0.5f, 0.5f, 10);
+
+    // score above which a detection is generated
+    final float scoreThreshold;
+    // boxes overlapping a kept box by more than this are suppressed
+    final float iouThreshold;
+    final int nmsLimit;
+
+    DetectionOptions(float scoreThreshold, float iouThreshold, int nmsLimit) {
+        this.scoreThreshold = scoreThreshold;
+        this.iouThreshold = iouThreshold;
+        this.nmsLimit = nmsLimit;
+    }
+
+    /**
+     * These options with the non null values replaced, returns this when
+     * there is nothing to replace.
+     */
+    DetectionOptions with(Double scoreThreshold, Double iouThreshold, Long nmsLimit) {
+        if (scoreThreshold == null && iouThreshold == null && nmsLimit == null) {
+            return this;
+        }
+        return new DetectionOptions(
+                scoreThreshold == null ? this.scoreThreshold : scoreThreshold.floatValue(),
+                iouThreshold == null ? this.iouThreshold : iouThreshold.floatValue(),
+                nmsLimit == null ? this.nmsLimit : nmsLimit.intValue());
+    }
+}
@@ -0,0 +1,89 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stream of camera frames detected on one model with fixed options.
+ * <p>
+ * Frames are pushed with a call that only queues them on the session's
+ * {@link FrameScheduler}, and every frame comes back as one event on the
+ * {@link #EVENTS_CHANNEL} event channel, tagged with the session and frame
+ * ids. The events of all the sessions share the channel.
+ */
+class DetectionSession {
+    static final String EVENTS_CHANNEL = "pytorch_lite/detection_sessions";
+
+    final long id;
+    final Long modelIndex;
+    final DetectionOptions options;
+    // null for whole frames
+    final ImageCrop crop;
+    final FrameScheduler frameScheduler;
+    // null without tracking, only used by the frames, which run one at a time
+    final ObjectTracker tracker;
+    // frames still queued when the session is closed send no event
+    volatile boolean closed;
+
+    DetectionSession(long id, Long modelIndex, DetectionOptions options, ImageCrop crop,
+            FrameScheduler frameScheduler, ObjectTracker tracker) {
+        this.id = id;
+        this.modelIndex = modelIndex;
+        this.options = options;
+        this.crop = crop;
+        this.frameScheduler = frameScheduler;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Event of a frame that ran, the detections are packed, see
+     * {@link PackedDetections}, with their track ids alongside when the
+     * session tracks. {@code detected} is false when the tracker carried the
+     * boxes over without running the detector.
+     */
+    Map<String, Object> detectedEvent(long frameId, long droppedFrames,
+            List<Pigeon.ResultObjectDetection> detections, boolean detected) {
+        Map<String, Object> event = event(frameId, false, droppedFrames);
+        event.put("detections", PackedDetections.pack(detections));
+        event.put("detected", detected);
+        if (tracker != null) {
+            long[] trackIds = new long[detections.size()];
+            for (int i = 0; i < trackIds.length; i++) {
+                trackIds[i] = detections.get(i).getTrackId();
+            }
+            event.put("trackIds", trackIds);
+        }
+        return event;
+    }
+
+    /**
+     * Event of a frame that ran the detector on a session that does not
+     * track, {@code detections} packed already.
+     */
+    Map<String, Object> detectedEvent(long frameId, long droppedFrames, byte[] detections) {
+        Map<String, Object> event = event(frameId, false, droppedFrames);
+        event.put("detections", detections);
+        event.put("detected", true);
+        return event;
+    }
+
+    Map<String, Object> droppedEvent(long frameId, long droppedFrames) {
+        return event(frameId, true, droppedFrames);
+    }
+
+    Map<String, Object> errorEvent(long frameId, long droppedFrames, Exception e) {
+        Map<String, Object> event = event(frameId, false, droppedFrames);
+        event.put("error", e.toString());
+        return event;
+    }
+
+    private Map<String, Object> event(long frameId, boolean dropped, long droppedFrames) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("sessionId", id);
+        event.put("frameId", frameId);
+        event.put("dropped", dropped);
+        event.put("droppedFrames", droppedFrames);
+        return event;
+    }
+}
@@ -0,0 +1,121 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the camera frames of one model, latest frame wins.
+ * <p>
+ * At most one frame runs and one frame waits at a time. A frame submitted
+ * while another one is waiting replaces it, the replaced frame is dropped
+ * right away instead of being run late, so a frame never waits for more than
+ * the inference in progress. The frames run one after the other on
+ * {@code executor}, never on the thread that submits them.
+ */
+class FrameScheduler {
+    interface Frame {
+        /**
+         * Runs the frame, {@code droppedFrames} frames were dropped since the
+         * previous frame that ran. Errors are reported by the frame itself,
+         * it should not throw.
+         */
+        void run(long droppedFrames);
+
+        /**
+         * Called instead of {@link #run(long)} when a newer frame replaced
+         * this one, {@code droppedFrames} counts this frame too.
+         */
+        void drop(long droppedFrames);
+    }
+
+    private final Executor mExecutor;
+    private Frame mPending;
+    private boolean mDraining;
+    // dropped since the last frame that ran
+    private long mDroppedFrames;
+
+    FrameScheduler(Executor executor) {
+        mExecutor = executor;
+    }
+
+    void submit(Frame frame) {
+        Frame replaced;
+        long droppedFrames;
+        boolean start;
+        synchronized (this) {
+            replaced = mPending;
+            mPending = frame;
+            if (replaced != null) {
+                mDroppedFrames++;
+            }
+            droppedFrames = mDroppedFrames;
+            start = !mDraining;
+            mDraining = true;
+        }
+        if (replaced != null) {
+            replaced.drop(droppedFrames);
+        }
+        if (start) {
+            try {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        drain();
+                    }
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    mDraining = false;
+                    if (mPending == frame) {
+                        mPending = null;
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        boolean done = false;
+        try {
+            while (true) {
+                Frame frame;
+                long droppedFrames;
+                synchronized (this) {
+                    frame = mPending;
+                    if (frame == null) {
+                        mDraining = false;
+                        done = true;
+                        return;
+                    }
+                    mPending = null;
+                    droppedFrames = mDroppedFrames;
+                    mDroppedFrames = 0;
+                }
+                frame.run(droppedFrames);
+            }
+        } finally {
+            if (!done) {
+                abandon();
+            }
+        }
+    }
+
+    // a frame threw, the next submit starts a new drain and the frame
+    // waiting now is dropped rather than left without a reply
+    private void abandon() {
+        Frame pending;
+        long droppedFrames;
+        synchronized (this) {
+            mDraining = false;
+            pending = mPending;
+            mPending = null;
+            if (pending != null) {
+                mDroppedFrames++;
+            }
+            droppedFrames = mDroppedFrames;
+        }
+        if (pending != null) {
+            pending.drop(droppedFrames);
+        }
+    }
+}
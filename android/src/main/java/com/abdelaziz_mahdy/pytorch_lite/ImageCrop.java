@@ -0,0 +1,79 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.List;
+
+/**
+ * Region of a frame the model looks at instead of the whole frame.
+ * <p>
+ * The edges are normalized to the frame, 0 to 1, in the orientation the
+ * detections are returned in (after the camera rotation). The crop is applied
+ * while the image is decoded or converted into the input tensor, so the model
+ * input covers only the region at the full input resolution, and
+ * {@link #toFrame(List)} maps the boxes found in it back to the whole frame.
+ */
+final class ImageCrop {
+    final float left;
+    final float top;
+    final float right;
+    final float bottom;
+
+    ImageCrop(float left, float top, float right, float bottom) {
+        if (!(left >= 0 && top >= 0 && left < right && top < bottom && right <= 1 && bottom <= 1)) {
+            throw new IllegalArgumentException("crop should be a non empty rect within 0 and 1, got left " + left
+                    + ", top " + top + ", right " + right + ", bottom " + bottom);
+        }
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /** The crop of a call, null when the call passes none. */
+    static ImageCrop from(Pigeon.CropRect rect) {
+        if (rect == null) {
+            return null;
+        }
+        return new ImageCrop(rect.getLeft().floatValue(), rect.getTop().floatValue(),
+                rect.getRight().floatValue(), rect.getBottom().floatValue());
+    }
+
+    /** First column of an image {@code width} pixels wide inside the crop. */
+    int firstColumn(int width) {
+        return Math.min((int) (left * width), width - 1);
+    }
+
+    /** Columns of an image {@code width} pixels wide inside the crop, at least one. */
+    int columns(int width) {
+        int first = firstColumn(width);
+        return Math.max(Math.min((int) Math.ceil(right * width), width) - first, 1);
+    }
+
+    /** First row of an image {@code height} pixels high inside the crop. */
+    int firstRow(int height) {
+        return Math.min((int) (top * height), height - 1);
+    }
+
+    /** Rows of an image {@code height} pixels high inside the crop, at least one. */
+    int rows(int height) {
+        int first = firstRow(height);
+        return Math.max(Math.min((int) Math.ceil(bottom * height), height) - first, 1);
+    }
+
+    /**
+     * Maps boxes normalized to the crop, as the model finds them, to boxes
+     * normalized to the whole frame, in place.
+     */
+    void toFrame(List<Pigeon.ResultObjectDetection> detections) {
+        double width = right - left;
+        double height = bottom - top;
+        for (Pigeon.ResultObjectDetection detection : detections) {
+            Pigeon.PyTorchRect rect = detection.getRect();
+            rect.setLeft(left + rect.getLeft() * width);
+            rect.setTop(top + rect.getTop() * height);
+            rect.setRight(left + rect.getRight() * width);
+            rect.setBottom(top + rect.getBottom() * height);
+            rect.setWidth(rect.getWidth() * width);
+            rect.setHeight(rect.getHeight() * height);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import org.pytorch.MemoryFormat;
+import org.pytorch.Tensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of preallocated direct float buffers, each wrapped once in a
+ * {@link Tensor} of shape [batchSize, 3, height, width].
+ * <p>
+ * A call checks an input out with {@link #acquire()}, fills its buffer in
+ * place, runs the model on {@link PooledInput#tensor} and hands it back with
+ * {@link #release(PooledInput)}. An input is never handed to two callers at
+ * the same time; when every pooled input is checked out a new one is
+ * allocated, and it is only kept on release while the pool is below
+ * {@link #MAX_POOLED_INPUTS} ({@link #MAX_POOLED_BATCH_INPUTS} for batched
+ * inputs, which are a lot larger).
+ */
+public class InputTensorPool {
+    // pigeon gives every channel its own background queue, so a handful of
+    // calls can be in flight for the same model at once
+    static final int MAX_POOLED_INPUTS = 4;
+    static final int MAX_POOLED_BATCH_INPUTS = 1;
+
+    final int mImageWidth;
+    final int mImageHeight;
+    final int mBatchSize;
+    private final int mMaxPooledInputs;
+    private final long[] mShape;
+    private final ConcurrentLinkedQueue<PooledInput> mFreeInputs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mPooledCount = new AtomicInteger();
+
+    InputTensorPool(int imageWidth, int imageHeight) {
+        this(imageWidth, imageHeight, 1);
+    }
+
+    InputTensorPool(int imageWidth, int imageHeight, int batchSize) {
+        mImageWidth = imageWidth;
+        mImageHeight = imageHeight;
+        mBatchSize = batchSize;
+        mMaxPooledInputs = batchSize == 1 ? MAX_POOLED_INPUTS : MAX_POOLED_BATCH_INPUTS;
+        mShape = new long[] { batchSize, 3, imageHeight, imageWidth };
+    }
+
+    /**
+     * Checks out an input that no other caller is using, allocating one if
+     * the pool is empty. The buffer is rewound but keeps its previous content.
+     */
+    PooledInput acquire() {
+        PooledInput input = mFreeInputs.poll();
+        if (input == null) {
+            int imageSize = 3 * mImageWidth * mImageHeight;
+            input = new PooledInput(Tensor.allocateFloatBuffer(mBatchSize * imageSize), mShape, imageSize);
+        }
+        input.mCheckedOut.set(true);
+        input.buffer.clear();
+        return input;
+    }
+
+    /**
+     * Returns an input acquired from this pool. Releasing the same input twice
+     * is ignored so it can never end up in the free list twice.
+     */
+    void release(PooledInput input) {
+        if (input == null || !input.mCheckedOut.compareAndSet(true, false)) {
+            return;
+        }
+        if (input.mPooled || mPooledCount.incrementAndGet() <= mMaxPooledInputs) {
+            input.mPooled = true;
+            mFreeInputs.offer(input);
+        } else {
+            mPooledCount.decrementAndGet();
+        }
+    }
+
+    static final class PooledInput {
+        final FloatBuffer buffer;
+        final Tensor tensor;
+        // number of floats of one image in the batch
+        final int imageSize;
+        private final AtomicBoolean mCheckedOut = new AtomicBoolean();
+        private boolean mPooled;
+
+        private PooledInput(FloatBuffer buffer, long[] shape, int imageSize) {
+            this.buffer = buffer;
+            this.tensor = Tensor.fromBlob(buffer, shape, MemoryFormat.CONTIGUOUS);
+            this.imageSize = imageSize;
+        }
+
+        /** Offset of image {@code imageIndex} of the batch in {@link #buffer}. */
+        int imageOffset(int imageIndex) {
+            return imageIndex * imageSize;
+        }
+
+        /**
+         * Copies native-order float32 bytes (as produced by the dart side
+         * preprocessing) into the buffer, zero filling whatever the data does
+         * not cover so nothing from the previous call leaks into this one.
+         */
+        void fill(byte[] floatBytes) {
+            buffer.clear();
+            buffer.put(ByteBuffer.wrap(floatBytes).order(ByteOrder.nativeOrder()).asFloatBuffer());
+            while (buffer.hasRemaining()) {
+                buffer.put(0.0f);
+            }
+            buffer.flip();
+        }
+
+        /**
+         * Same as {@link #fill(byte[])} for a single image of the batch, the
+         * other images are left untouched.
+         */
+        void fill(int imageIndex, byte[] floatBytes) {
+            FloatBuffer source = ByteBuffer.wrap(floatBytes).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            if (source.remaining() > imageSize) {
+                throw new IllegalArgumentException("image " + imageIndex + " is larger than the model input");
+            }
+            int end = imageOffset(imageIndex) + imageSize;
+            buffer.clear();
+            buffer.position(imageOffset(imageIndex));
+            buffer.put(source);
+            while (buffer.position() < end) {
+                buffer.put(0.0f);
+            }
+            buffer.clear();
+        }
+    }
+}
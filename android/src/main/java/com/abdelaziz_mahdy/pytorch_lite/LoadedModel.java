@@ -0,0 +1,342 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import org.pytorch.IValue;
+import org.pytorch.Module;
+import org.pytorch.Tensor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A model loaded by the plugin together with its pre/post processing.
+ * <p>
+ * Pigeon runs every channel on its own background queue, so calls for the
+ * same model can arrive on several threads at once. Every forward call goes
+ * through a gate that lets at most {@link #maxConcurrency} of them run on the
+ * model at the same time, the pre and post processing around it is not
+ * gated.
+ * <p>
+ * The model file can be loaded into several replicas. Each call checks out an
+ * idle replica with a compare-and-set on its busy count, starting from a
+ * rotating replica, so parallel calls land on different modules without
+ * taking a lock. A call only shares a busy replica when more calls than
+ * replicas are allowed to run.
+ * <p>
+ * Calls also register with the plugin wide {@link ThreadBudget}, which sizes
+ * the thread pool PyTorch shares between all running models, capped by
+ * {@link #numThreads} when the model asks for a thread count.
+ * <p>
+ * The modules can be released while the model stays registered, either for
+ * good by {@link #close()} or by {@link #evict()} to fit a memory budget, in
+ * which case the next call loads them again. Running calls pin the modules so
+ * they are never released under them.
+ * <p>
+ * Freshly loaded modules are slow on their first passes while allocators and
+ * kernels warm up, so each replica can run {@link #warmUpRuns} passes on a
+ * zero image of the model input size before it takes calls.
+ */
+class LoadedModel {
+    /** {@link #maxConcurrency} value that leaves the model ungated. */
+    static final int UNLIMITED = 0;
+
+    /** Told when a call had to load the evicted modules again. */
+    interface ReloadListener {
+        void onReloaded(LoadedModel model);
+    }
+
+    final PrePostProcessor prePostProcessor;
+    final int maxConcurrency;
+    /** Threads asked for at load time, {@link ThreadBudget#DEFAULT} when unset. */
+    final int numThreads;
+    final int warmUpRuns;
+    private final ThreadBudget mThreadBudget;
+    private final ModuleLoader mLoader;
+    private final int mReplicaCount;
+    // null when unlimited
+    private final Semaphore mGate;
+    // running calls per replica
+    private final AtomicIntegerArray mBusy;
+    private final AtomicLongArray mInferences;
+    private final AtomicLongArray mBusyNanos;
+    private final AtomicInteger mNextReplica = new AtomicInteger();
+    private final long mLoadedAtNanos = System.nanoTime();
+    private volatile int mLastThreads = ThreadBudget.DEFAULT;
+    private volatile long mLastUsedNanos = System.nanoTime();
+    // first pass after the last load, -1 until it ran
+    private final AtomicLong mColdNanos = new AtomicLong(-1);
+    // mean warm-up pass after the first one, -1 with less than two warm-up runs
+    private volatile long mWarmNanos = -1;
+    private volatile ReloadListener mReloadListener;
+
+    // guarded by this, mReplicas is null while not loaded
+    private Module[] mReplicas;
+    private long mResidentBytes;
+    private int mPinned;
+    private boolean mClosed;
+
+    LoadedModel(ModuleLoader loader, int replicas, PrePostProcessor prePostProcessor, int maxConcurrency,
+            int numThreads, int warmUpRuns, ThreadBudget threadBudget) {
+        if (replicas < 1) {
+            throw new IllegalArgumentException("a model needs at least one replica");
+        }
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("maxConcurrency should not be negative");
+        }
+        if (numThreads < 0) {
+            throw new IllegalArgumentException("numThreads should not be negative");
+        }
+        if (warmUpRuns < 0) {
+            throw new IllegalArgumentException("warmUpRuns should not be negative");
+        }
+        this.mLoader = loader;
+        this.mReplicaCount = replicas;
+        this.prePostProcessor = prePostProcessor;
+        this.maxConcurrency = maxConcurrency;
+        this.numThreads = numThreads;
+        this.warmUpRuns = warmUpRuns;
+        this.mThreadBudget = threadBudget;
+        this.mGate = maxConcurrency == UNLIMITED ? null : new Semaphore(maxConcurrency, true);
+        this.mBusy = new AtomicIntegerArray(replicas);
+        this.mInferences = new AtomicLongArray(replicas);
+        this.mBusyNanos = new AtomicLongArray(replicas);
+    }
+
+    void setReloadListener(ReloadListener listener) {
+        mReloadListener = listener;
+    }
+
+    int replicaCount() {
+        return mReplicaCount;
+    }
+
+    /**
+     * Loads the modules unless they are loaded already, returns whether it had
+     * to load them.
+     */
+    synchronized boolean ensureLoaded() {
+        if (mClosed) {
+            throw new IllegalStateException("the model was unloaded");
+        }
+        if (mReplicas != null) {
+            return false;
+        }
+        Module[] replicas = new Module[mReplicaCount];
+        long residentBytes = 0;
+        mColdNanos.set(-1);
+        try {
+            for (int i = 0; i < mReplicaCount; i++) {
+                replicas[i] = mLoader.load();
+                residentBytes += mLoader.loadedBytes();
+            }
+            if (warmUpRuns > 0) {
+                warmUp(replicas);
+            }
+        } catch (RuntimeException e) {
+            for (Module replica : replicas) {
+                if (replica != null) {
+                    mLoader.release(replica);
+                }
+            }
+            throw e;
+        }
+        mReplicas = replicas;
+        mResidentBytes = residentBytes;
+        return true;
+    }
+
+    // runs the warm-up passes on every replica, the first replica times them
+    private void warmUp(Module[] replicas) {
+        int width = prePostProcessor.mImageWidth;
+        int height = prePostProcessor.mImageHeight;
+        Tensor input = Tensor.fromBlob(Tensor.allocateFloatBuffer(3 * width * height),
+                new long[]{1, 3, height, width});
+        long warmNanos = 0;
+        for (int i = 0; i < replicas.length; i++) {
+            for (int run = 0; run < warmUpRuns; run++) {
+                long start = System.nanoTime();
+                replicas[i].forward(IValue.from(input));
+                long elapsed = System.nanoTime() - start;
+                if (i > 0) {
+                    continue;
+                }
+                if (run == 0) {
+                    mColdNanos.set(elapsed);
+                } else {
+                    warmNanos += elapsed;
+                }
+            }
+        }
+        mWarmNanos = warmUpRuns > 1 ? warmNanos / (warmUpRuns - 1) : -1;
+    }
+
+    synchronized boolean isLoaded() {
+        return mReplicas != null;
+    }
+
+    synchronized long residentBytes() {
+        return mResidentBytes;
+    }
+
+    long lastUsedNanos() {
+        return mLastUsedNanos;
+    }
+
+    /** Releases the modules unless a call is running, they load again on the next call. */
+    synchronized boolean evict() {
+        if (mPinned > 0 || mReplicas == null) {
+            return false;
+        }
+        releaseReplicas();
+        return true;
+    }
+
+    /** Releases the modules for good, once the running calls are done. */
+    synchronized void close() {
+        mClosed = true;
+        if (mPinned == 0) {
+            releaseReplicas();
+        }
+    }
+
+    private Module[] pin() {
+        boolean reloaded;
+        Module[] replicas;
+        synchronized (this) {
+            reloaded = ensureLoaded();
+            mPinned++;
+            mLastUsedNanos = System.nanoTime();
+            replicas = mReplicas;
+        }
+        // outside the lock, the listener takes the locks of other models
+        ReloadListener listener = mReloadListener;
+        if (reloaded && listener != null) {
+            listener.onReloaded(this);
+        }
+        return replicas;
+    }
+
+    private synchronized void unpin() {
+        mPinned--;
+        if (mClosed && mPinned == 0) {
+            releaseReplicas();
+        }
+    }
+
+    private void releaseReplicas() {
+        if (mReplicas == null) {
+            return;
+        }
+        for (Module replica : mReplicas) {
+            mLoader.release(replica);
+        }
+        mReplicas = null;
+        mResidentBytes = 0;
+    }
+
+    IValue forward(IValue... inputs) {
+        return run(null, inputs);
+    }
+
+    IValue runMethod(String methodName, IValue... inputs) {
+        return run(methodName, inputs);
+    }
+
+    // runs forward when methodName is null
+    private IValue run(String methodName, IValue[] inputs) {
+        // every step is undone whatever the next one throws, a leaked permit
+        // would block the later calls for good
+        acquire();
+        try {
+            Module[] replicas = pin();
+            try {
+                int replica = checkout();
+                try {
+                    mLastThreads = mThreadBudget.enter(this, numThreads);
+                    long start = System.nanoTime();
+                    try {
+                        Module module = replicas[replica];
+                        return methodName == null ? module.forward(inputs) : module.runMethod(methodName, inputs);
+                    } finally {
+                        long elapsed = System.nanoTime() - start;
+                        mColdNanos.compareAndSet(-1, elapsed);
+                        mBusyNanos.addAndGet(replica, elapsed);
+                        mInferences.incrementAndGet(replica);
+                        mThreadBudget.exit(this);
+                    }
+                } finally {
+                    checkin(replica);
+                }
+            } finally {
+                unpin();
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /** Reserves an idle replica, or shares the next one when all are busy. */
+    int checkout() {
+        int count = mReplicaCount;
+        int first = (mNextReplica.getAndIncrement() & Integer.MAX_VALUE) % count;
+        for (int i = 0; i < count; i++) {
+            int replica = (first + i) % count;
+            if (mBusy.compareAndSet(replica, 0, 1)) {
+                return replica;
+            }
+        }
+        mBusy.incrementAndGet(first);
+        return first;
+    }
+
+    void checkin(int replica) {
+        mBusy.decrementAndGet(replica);
+    }
+
+    // null for the -1 of a latency that was not measured
+    private static Double toMillis(long nanos) {
+        return nanos < 0 ? null : nanos / 1e6;
+    }
+
+    Pigeon.ModelStats stats() {
+        int count = mReplicaCount;
+        long running = 0;
+        long busyNanos = 0;
+        List<Long> inferences = new ArrayList<>(count);
+        for (int replica = 0; replica < count; replica++) {
+            running += mBusy.get(replica);
+            busyNanos += mBusyNanos.get(replica);
+            inferences.add(mInferences.get(replica));
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - mLoadedAtNanos);
+        return new Pigeon.ModelStats.Builder()
+                .setReplicas((long) count)
+                .setMaxConcurrency((long) maxConcurrency)
+                .setRunningInferences(running)
+                .setInferencesPerReplica(inferences)
+                .setUtilization(Math.min(1.0, (double) busyNanos / ((double) elapsedNanos * count)))
+                .setNumThreads((long) numThreads)
+                .setAllocatedThreads((long) mLastThreads)
+                .setLoaded(isLoaded())
+                .setResidentBytes(residentBytes())
+                .setColdLatencyMillis(toMillis(mColdNanos.get()))
+                .setWarmLatencyMillis(toMillis(mWarmNanos))
+                .build();
+    }
+
+    private void acquire() {
+        if (mGate != null) {
+            mGate.acquireUninterruptibly();
+        }
+    }
+
+    private void release() {
+        if (mGate != null) {
+            mGate.release();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The loaded models, keyed by the handle {@code loadModel} returns to dart.
+ * Handles are never reused, loads and lookups may happen from any thread.
+ * <p>
+ * With a memory budget, loading a model evicts the least recently used idle
+ * models until the resident models fit in it again. Evicted models keep
+ * their handle and are loaded again by the next {@link #get(Long)}, or by a
+ * call on a model evicted after it was looked up. Both reloads count against
+ * the budget like a load.
+ */
+class ModelRegistry {
+    private static final String TAG = "PytorchLitePlugin";
+    /** Memory budget that never evicts models. */
+    static final long UNLIMITED = 0;
+
+    private final ConcurrentHashMap<Long, LoadedModel> mModels = new ConcurrentHashMap<>();
+    private final AtomicLong mNextHandle = new AtomicLong();
+    private long mMemoryBudget = UNLIMITED;
+    private final LoadedModel.ReloadListener mReloadListener = new LoadedModel.ReloadListener() {
+        @Override
+        public void onReloaded(LoadedModel model) {
+            enforceMemoryBudget(model);
+        }
+    };
+
+    /** Loads the modules of {@code model} and registers it. */
+    long add(LoadedModel model) {
+        model.ensureLoaded();
+        model.setReloadListener(mReloadListener);
+        long handle = mNextHandle.getAndIncrement();
+        mModels.put(handle, model);
+        enforceMemoryBudget(model);
+        return handle;
+    }
+
+    /** Returns the model of {@code handle}, loading it again if it was evicted. */
+    LoadedModel get(Long handle) {
+        LoadedModel model = peek(handle);
+        if (model.ensureLoaded()) {
+            enforceMemoryBudget(model);
+        }
+        return model;
+    }
+
+    /** Returns the model of {@code handle} as is, without loading it again. */
+    LoadedModel peek(Long handle) {
+        LoadedModel model = mModels.get(handle);
+        if (model == null) {
+            throw new IllegalArgumentException("no model loaded for handle " + handle);
+        }
+        return model;
+    }
+
+    /** Unregisters the model, its modules are released once its running calls are done. */
+    void remove(Long handle) {
+        LoadedModel model = mModels.remove(handle);
+        if (model == null) {
+            throw new IllegalArgumentException("no model loaded for handle " + handle);
+        }
+        model.close();
+    }
+
+    void clear() {
+        for (Long handle : new ArrayList<>(mModels.keySet())) {
+            LoadedModel model = mModels.remove(handle);
+            if (model != null) {
+                model.close();
+            }
+        }
+    }
+
+    int size() {
+        return mModels.size();
+    }
+
+    synchronized void setMemoryBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("the memory budget should not be negative");
+        }
+        mMemoryBudget = bytes;
+        enforceMemoryBudget(null);
+    }
+
+    // evicts the least recently used idle models other than keep until the
+    // resident ones fit in the budget, or nothing more can be evicted
+    private synchronized void enforceMemoryBudget(LoadedModel keep) {
+        if (mMemoryBudget == UNLIMITED) {
+            return;
+        }
+        long residentBytes = 0;
+        List<LoadedModel> candidates = new ArrayList<>();
+        for (LoadedModel model : mModels.values()) {
+            residentBytes += model.residentBytes();
+            if (model != keep && model.isLoaded()) {
+                candidates.add(model);
+            }
+        }
+        Collections.sort(candidates, new Comparator<LoadedModel>() {
+            @Override
+            public int compare(LoadedModel a, LoadedModel b) {
+                return Long.compare(a.lastUsedNanos(), b.lastUsedNanos());
+            }
+        });
+        for (LoadedModel model : candidates) {
+            if (residentBytes <= mMemoryBudget) {
+                return;
+            }
+            long modelBytes = model.residentBytes();
+            if (model.evict()) {
+                residentBytes -= modelBytes;
+            }
+        }
+        if (residentBytes > mMemoryBudget) {
+            Log.w(TAG, "resident models take " + residentBytes + " bytes, over the budget of " + mMemoryBudget);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.os.Debug;
+import android.util.Log;
+
+import org.pytorch.LiteModuleLoader;
+import org.pytorch.Module;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Loads the modules of a model, again after they were evicted to save
+ * memory, and releases them.
+ */
+abstract class ModuleLoader {
+    private static final String TAG = "PytorchLitePlugin";
+
+    abstract Module load();
+
+    /** Memory taken by the module returned by the last {@link #load()}, in bytes. */
+    abstract long loadedBytes();
+
+    void release(Module module) {
+        module.destroy();
+    }
+
+    /**
+     * Loads a TorchScript file, or with {@code lite} a model saved for the
+     * lite interpreter ({@code _save_for_lite_interpreter}, usually .ptl).
+     */
+    static ModuleLoader fromFile(final String modelPath, final boolean lite) {
+        return new MeasuredLoader(new File(modelPath).length()) {
+            @Override
+            Module loadModule() {
+                return lite ? LiteModuleLoader.load(modelPath) : Module.load(modelPath);
+            }
+        };
+    }
+
+    /**
+     * Loads a model from the APK assets. Lite models are read straight from
+     * the APK, PyTorch maps assets stored uncompressed and inflates compressed
+     * ones into memory first. The full runtime can only load files, so full
+     * models are copied into {@code cacheDir} on their first load and loaded
+     * from there. The copies are kept per {@code appUpdateTime}, the install
+     * time of the APK, so an app update never loads the model it replaced.
+     */
+    static ModuleLoader fromAsset(final AssetManager assets, final String assetPath, final boolean lite,
+            final File cacheDir, final long appUpdateTime) {
+        return new MeasuredLoader(assetLength(assets, assetPath)) {
+            @Override
+            Module loadModule() {
+                if (lite) {
+                    return LiteModuleLoader.loadModuleFromAsset(assets, assetPath);
+                }
+                return Module.load(cachedAsset(assets, assetPath, cacheDir, appUpdateTime).getAbsolutePath());
+            }
+        };
+    }
+
+    // copies the asset unless this install copied it already, the copies of
+    // earlier installs are deleted
+    private static File cachedAsset(AssetManager assets, String assetPath, File cacheDir, long appUpdateTime) {
+        File root = new File(cacheDir, "pytorch_lite_assets");
+        File install = new File(root, Long.toString(appUpdateTime));
+        File file = new File(install, assetPath);
+        // copies only appear under their name once complete
+        if (file.isFile()) {
+            return file;
+        }
+        File[] installs = root.listFiles();
+        if (installs != null) {
+            for (File stale : installs) {
+                if (!stale.equals(install)) {
+                    deleteRecursively(stale);
+                }
+            }
+        }
+        File partial = null;
+        try {
+            File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("can't create " + directory);
+            }
+            // each load copies into its own file, concurrent loads of the
+            // same asset then both rename a complete copy
+            partial = File.createTempFile(file.getName(), ".partial", directory);
+            InputStream input = assets.open(assetPath);
+            try {
+                OutputStream output = new FileOutputStream(partial);
+                try {
+                    byte[] buffer = new byte[64 * 1024];
+                    int read;
+                    while ((read = input.read(buffer)) != -1) {
+                        output.write(buffer, 0, read);
+                    }
+                } finally {
+                    output.close();
+                }
+            } finally {
+                input.close();
+            }
+            if (!partial.renameTo(file) && !file.isFile()) {
+                throw new IOException("can't move the copy to " + file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("could not copy the asset " + assetPath + " to the cache", e);
+        } finally {
+            if (partial != null && partial.exists()) {
+                partial.delete();
+            }
+        }
+        return file;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    // 0 for compressed assets, which can't be opened as a file descriptor
+    private static long assetLength(AssetManager assets, String assetPath) {
+        try {
+            AssetFileDescriptor descriptor = assets.openFd(assetPath);
+            try {
+                return descriptor.getLength();
+            } finally {
+                descriptor.close();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, assetPath + " is compressed, store models uncompressed so they can be mapped");
+            return 0;
+        }
+    }
+
+    /**
+     * The memory of a module is the native heap growth during its load, which
+     * other loads running at the same time inflate, and at least the size of
+     * the model file.
+     */
+    private abstract static class MeasuredLoader extends ModuleLoader {
+        private final long mFileBytes;
+        private long mLoadedBytes;
+
+        MeasuredLoader(long fileBytes) {
+            mFileBytes = fileBytes;
+        }
+
+        abstract Module loadModule();
+
+        @Override
+        Module load() {
+            long before = Debug.getNativeHeapAllocatedSize();
+            Module module;
+            try {
+                module = loadModule();
+            } catch (UnsatisfiedLinkError e) {
+                // each PyTorch runtime only ships the interpreter it was built with
+                throw new IllegalStateException("the model does not match the PyTorch runtime, lite models need"
+                        + " pytorchLiteRuntime=lite in gradle.properties and full ones the default runtime", e);
+            }
+            long grown = Debug.getNativeHeapAllocatedSize() - before;
+            mLoadedBytes = Math.max(grown, mFileBytes);
+            return module;
+        }
+
+        @Override
+        long loadedBytes() {
+            return mLoadedBytes;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Greedy non maximum suppression over {@link DetectionCandidates}.
+ * <p>
+ * The {@link #EXHAUSTIVE} engine is the plain greedy algorithm: it ranks
+ * every candidate and compares each one with every kept box, O(n * limit).
+ * <p>
+ * The {@link #GRID} engine returns at most {@code limit} boxes too, so instead
+ * of sorting every candidate it only ranks the best
+ * {@link #CANDIDATES_PER_BOX} per returned box, picked with a bounded heap in
+ * O(n log k). It files the kept boxes in a coarse grid over the candidates,
+ * about one box per cell, and only compares a candidate with the kept boxes
+ * of the cells it covers. Boxes that do not intersect can't overlap by more
+ * than a non negative threshold, so the grid only skips comparisons that are
+ * bound to fail, which is most of them in crowded scenes. Both engines keep
+ * the same boxes unless more candidates than that cap pass the score
+ * threshold, then the grid engine may keep boxes the exhaustive one
+ * suppressed by a candidate past the cap, or miss some past it.
+ * <p>
+ * {@link #selectPerClass} only lets boxes of the same class suppress each
+ * other. The classes are suppressed on their own, in parallel on the
+ * {@link ParallelTasks} pool when there is enough work, and the best boxes of all
+ * classes are kept up to the limit.
+ */
+final class NonMaxSuppression {
+    /** Candidates the {@link #GRID} engine ranks per box that may be returned. */
+    static final int CANDIDATES_PER_BOX = 30;
+
+    /** Ranks every candidate and compares it with every kept box. */
+    static final int EXHAUSTIVE = 0;
+    /** Only compares candidates with the kept boxes around them. */
+    static final int GRID = 1;
+
+    private static final int MAX_CELLS_PER_SIDE = 64;
+    // fewer candidates are suppressed on the calling thread
+    static final int MIN_PARALLEL_CANDIDATES = 256;
+
+    private NonMaxSuppression() {
+    }
+
+    /**
+     * Writes the indices of boxes to keep, best first, into {@code keep} and
+     * returns how many there are. A box is dropped when it overlaps a better
+     * kept box by more than {@code iouThreshold}.
+     */
+    static int select(DetectionCandidates candidates, float iouThreshold, int limit, int[] keep) {
+        return select(candidates, iouThreshold, limit, keep, GRID);
+    }
+
+    /** Same as {@link #select(DetectionCandidates, float, int, int[])} with the given engine. */
+    static int select(DetectionCandidates candidates, float iouThreshold, int limit, int[] keep, int engine) {
+        int k = candidates.size;
+        if (engine == GRID) {
+            k = Math.min(k, Math.max(limit, 1) * CANDIDATES_PER_BOX);
+        }
+        candidates.order = DetectionCandidates.ensureCapacity(candidates.order, k);
+        int[] order = candidates.order;
+        int count = topK(candidates, k);
+        // with a negative threshold boxes apart suppress each other too
+        if (engine == GRID && iouThreshold >= 0.0f && count > 0) {
+            return selectWithGrid(candidates, order, count, iouThreshold, limit, keep);
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int candidate = order[i];
+            boolean suppressed = false;
+            for (int j = 0; j < kept; j++) {
+                if (candidates.iou(keep[j], candidate) > iouThreshold) {
+                    suppressed = true;
+                    break;
+                }
+            }
+            if (!suppressed) {
+                keep[kept++] = candidate;
+                if (kept >= limit) {
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Same as {@link #select(DetectionCandidates, float, int, int[], int)}
+     * but boxes are only suppressed by kept boxes of their own class.
+     */
+    static int selectPerClass(DetectionCandidates candidates, final float iouThreshold, final int limit, int[] keep,
+            final int engine) {
+        int classCount = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            classCount = Math.max(classCount, candidates.classIndex[i] + 1);
+        }
+        final DetectionCandidates[] classCandidates = new DetectionCandidates[classCount];
+        final int[][] classRows = new int[classCount][];
+        int[] classSizes = new int[classCount];
+        for (int i = 0; i < candidates.size; i++) {
+            classSizes[candidates.classIndex[i]]++;
+        }
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int cls = 0; cls < classCount; cls++) {
+            if (classSizes[cls] == 0) {
+                continue;
+            }
+            classCandidates[cls] = new DetectionCandidates();
+            classRows[cls] = new int[classSizes[cls]];
+            final int taskClass = cls;
+            tasks.add(new Callable<int[]>() {
+                @Override
+                public int[] call() {
+                    DetectionCandidates own = classCandidates[taskClass];
+                    int[] ownKeep = new int[Math.min(own.size, Math.max(limit, 1))];
+                    int kept = select(own, iouThreshold, limit, ownKeep, engine);
+                    // back to the rows of all candidates
+                    int[] rows = new int[kept];
+                    for (int i = 0; i < kept; i++) {
+                        rows[i] = classRows[taskClass][ownKeep[i]];
+                    }
+                    return rows;
+                }
+            });
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int cls = candidates.classIndex[i];
+            DetectionCandidates own = classCandidates[cls];
+            classRows[cls][own.size] = i;
+            own.add(candidates.left[i], candidates.top[i], candidates.right[i], candidates.bottom[i],
+                    candidates.score[i], cls);
+        }
+
+        List<int[]> classKept = ParallelTasks.run(tasks,
+                candidates.size >= MIN_PARALLEL_CANDIDATES && tasks.size() > 1);
+        int mergedCount = 0;
+        for (int[] rows : classKept) {
+            mergedCount += rows.length;
+        }
+        // in row order, so equal scores of different classes rank like in select
+        int[] merged = new int[mergedCount];
+        int position = 0;
+        for (int[] rows : classKept) {
+            System.arraycopy(rows, 0, merged, position, rows.length);
+            position += rows.length;
+        }
+        Arrays.sort(merged);
+        float[] mergedScores = new float[mergedCount];
+        for (int i = 0; i < mergedCount; i++) {
+            mergedScores[i] = candidates.score[merged[i]];
+        }
+        int[] order = new int[Math.min(mergedCount, Math.max(limit, 1))];
+        int kept = topK(mergedScores, mergedCount, order.length, order);
+        for (int i = 0; i < kept; i++) {
+            keep[i] = merged[order[i]];
+        }
+        return kept;
+    }
+
+    private static int selectWithGrid(DetectionCandidates candidates, int[] order, int count, float iouThreshold,
+            int limit, int[] keep) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        float widthSum = 0.0f;
+        float heightSum = 0.0f;
+        for (int i = 0; i < count; i++) {
+            int box = order[i];
+            minX = Math.min(minX, candidates.left[box]);
+            minY = Math.min(minY, candidates.top[box]);
+            maxX = Math.max(maxX, candidates.right[box]);
+            maxY = Math.max(maxY, candidates.bottom[box]);
+            widthSum += Math.max(candidates.right[box] - candidates.left[box], 0.0f);
+            heightSum += Math.max(candidates.bottom[box] - candidates.top[box], 0.0f);
+        }
+        // cells of about the mean box size, but no more than MAX_CELLS_PER_SIDE
+        float cellWidth = Math.max(widthSum / count, (maxX - minX) / MAX_CELLS_PER_SIDE);
+        float cellHeight = Math.max(heightSum / count, (maxY - minY) / MAX_CELLS_PER_SIDE);
+        if (!(cellWidth > 0.0f) || !(cellHeight > 0.0f)) {
+            // all boxes are empty, none overlaps another
+            cellWidth = Math.max(maxX - minX, 1.0f);
+            cellHeight = Math.max(maxY - minY, 1.0f);
+        }
+        if (candidates.grid == null) {
+            candidates.grid = new Grid();
+        }
+        Grid grid = candidates.grid;
+        grid.reset(minX, minY, cellWidth, cellHeight,
+                Math.min((int) ((maxX - minX) / cellWidth) + 1, MAX_CELLS_PER_SIDE),
+                Math.min((int) ((maxY - minY) / cellHeight) + 1, MAX_CELLS_PER_SIDE));
+        // candidate that last compared itself with each kept box
+        int keptCapacity = Math.min(count, keep.length);
+        candidates.comparedWith = DetectionCandidates.ensureCapacity(candidates.comparedWith, keptCapacity);
+        int[] comparedWith = candidates.comparedWith;
+        Arrays.fill(comparedWith, 0, keptCapacity, -1);
+
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int candidate = order[i];
+            int firstColumn = grid.column(candidates.left[candidate]);
+            int lastColumn = grid.column(candidates.right[candidate]);
+            int firstRow = grid.row(candidates.top[candidate]);
+            int lastRow = grid.row(candidates.bottom[candidate]);
+            boolean suppressed = false;
+            for (int row = firstRow; row <= lastRow && !suppressed; row++) {
+                for (int column = firstColumn; column <= lastColumn && !suppressed; column++) {
+                    for (int entry = grid.first(row, column); entry >= 0; entry = grid.next(entry)) {
+                        int keptIndex = grid.keptIndex(entry);
+                        if (comparedWith[keptIndex] == i) {
+                            continue;
+                        }
+                        comparedWith[keptIndex] = i;
+                        if (candidates.iou(keep[keptIndex], candidate) > iouThreshold) {
+                            suppressed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (!suppressed) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        grid.add(row, column, kept);
+                    }
+                }
+                keep[kept++] = candidate;
+                if (kept >= limit) {
+                    break;
+                }
+            }
+        }
+        return kept;
+    }
+
+    // kept boxes per cell, as linked lists in flat arrays reused by reset
+    static final class Grid {
+        private float mMinX;
+        private float mMinY;
+        private float mCellWidth;
+        private float mCellHeight;
+        private int mColumns;
+        private int mRows;
+        private int[] mFirst = new int[0];
+        private int[] mKeptIndex = new int[64];
+        private int[] mNext = new int[64];
+        private int mEntries;
+
+        void reset(float minX, float minY, float cellWidth, float cellHeight, int columns, int rows) {
+            mMinX = minX;
+            mMinY = minY;
+            mCellWidth = cellWidth;
+            mCellHeight = cellHeight;
+            mColumns = columns;
+            mRows = rows;
+            mFirst = DetectionCandidates.ensureCapacity(mFirst, columns * rows);
+            Arrays.fill(mFirst, 0, columns * rows, -1);
+            mEntries = 0;
+        }
+
+        int column(float x) {
+            return clamp((int) ((x - mMinX) / mCellWidth), mColumns);
+        }
+
+        int row(float y) {
+            return clamp((int) ((y - mMinY) / mCellHeight), mRows);
+        }
+
+        int first(int row, int column) {
+            return mFirst[row * mColumns + column];
+        }
+
+        int next(int entry) {
+            return mNext[entry];
+        }
+
+        int keptIndex(int entry) {
+            return mKeptIndex[entry];
+        }
+
+        void add(int row, int column, int keptIndex) {
+            if (mEntries == mNext.length) {
+                mKeptIndex = Arrays.copyOf(mKeptIndex, mEntries * 2);
+                mNext = Arrays.copyOf(mNext, mEntries * 2);
+            }
+            int cell = row * mColumns + column;
+            mKeptIndex[mEntries] = keptIndex;
+            mNext[mEntries] = mFirst[cell];
+            mFirst[cell] = mEntries;
+            mEntries++;
+        }
+
+        private static int clamp(int cell, int cells) {
+            return Math.max(0, Math.min(cell, cells - 1));
+        }
+    }
+
+    /**
+     * Writes the indices of the {@code k} highest of the first {@code count}
+     * scores into {@code out}, highest first, and returns how many were
+     * written. Equal scores keep their order, like a stable sort would.
+     */
+    static int topK(float[] scores, int count, int k, int[] out) {
+        return topK(scores, count, k, out, null);
+    }
+
+    // best k candidates into candidates.order, sorting with its scratch keys
+    private static int topK(DetectionCandidates candidates, int k) {
+        if (k >= candidates.size / 2) {
+            candidates.sortKeys = DetectionCandidates.ensureCapacity(candidates.sortKeys, candidates.size);
+        }
+        return topK(candidates.score, candidates.size, k, candidates.order, candidates.sortKeys);
+    }
+
+    private static int topK(float[] scores, int count, int k, int[] out, long[] sortKeys) {
+        if (k <= 0) {
+            return 0;
+        }
+        if (k >= count / 2) {
+            // most of the scores are kept, sorting them all is cheaper
+            if (sortKeys == null || sortKeys.length < count) {
+                sortKeys = new long[count];
+            }
+            return sortedTopK(scores, count, k, out, sortKeys);
+        }
+        // min heap on out[0, size), its root is the worst score kept so far
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size < k) {
+                out[size] = i;
+                siftUp(scores, out, size);
+                size++;
+            } else if (isWorse(scores, out[0], i)) {
+                out[0] = i;
+                siftDown(scores, out, 0, size);
+            }
+        }
+        // heap sort, moving the worst remaining index to the end each time
+        for (int end = size - 1; end > 0; end--) {
+            int worst = out[0];
+            out[0] = out[end];
+            out[end] = worst;
+            siftDown(scores, out, 0, end);
+        }
+        return size;
+    }
+
+    // sorts the scores as longs, best score and then lowest index first
+    private static int sortedTopK(float[] scores, int count, int k, int[] out, long[] keys) {
+        for (int i = 0; i < count; i++) {
+            int bits = Float.floatToIntBits(scores[i]);
+            // flip the magnitude of negative floats so that the bits order like the floats
+            int ordered = bits ^ ((bits >> 31) & 0x7fffffff);
+            keys[i] = ((long) ~ordered << 32) | i;
+        }
+        Arrays.sort(keys, 0, count);
+        int size = Math.min(k, count);
+        for (int i = 0; i < size; i++) {
+            out[i] = (int) keys[i];
+        }
+        return size;
+    }
+
+    // a ranks after b
+    private static boolean isWorse(float[] scores, int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(float[] scores, int[] heap, int index) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isWorse(scores, value, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(float[] scores, int[] heap, int index, int size) {
+        int value = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWorse(scores, heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isWorse(scores, heap[child], value)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,270 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gives stable ids to the detections of a stream of frames and carries the
+ * boxes over the frames the detector skips, in the spirit of SORT.
+ * <p>
+ * Every track follows the center, width and height of its box with a
+ * constant velocity Kalman filter, one independent filter per coordinate.
+ * On a detected frame the predicted tracks are matched greedily by IoU to
+ * the detections of their class, instead of the Hungarian assignment of
+ * SORT, which picks the same pairs as long as the boxes of a class do not
+ * overlap much. Matched tracks are corrected with their detection,
+ * unmatched detections start new tracks and tracks missed by
+ * {@link #MAX_MISSES} detections in a row are dropped.
+ * <p>
+ * On the other frames the tracks are only predicted and their score decays
+ * by {@link #SCORE_DECAY} per frame. The detector runs again every
+ * {@code detectEveryFrames} frames, or as soon as the score of a track falls
+ * below {@code minimumScore}.
+ * <p>
+ * Not thread safe, a tracker follows one stream of frames.
+ */
+class ObjectTracker {
+    static final int MAX_MISSES = 2;
+    static final float SCORE_DECAY = 0.9f;
+    // tracks and detections overlapping less are never matched
+    static final float MATCH_IOU = 0.3f;
+    // kalman noises, in normalized image units
+    static final float MEASUREMENT_VARIANCE = 1e-4f;
+    static final float PROCESS_VARIANCE = 1e-5f;
+    static final float INITIAL_VELOCITY_VARIANCE = 1e-2f;
+
+    // center x, center y, width and height
+    private static final int COORDINATES = 4;
+
+    private static final class Track {
+        final long id;
+        final int classIndex;
+        float score;
+        // frames since the last detection matched the track
+        long age;
+        // detections in a row that missed the track
+        int misses;
+        final float[] position = new float[COORDINATES];
+        final float[] velocity = new float[COORDINATES];
+        // covariance of each coordinate: position, position x velocity, velocity
+        final float[] pp = new float[COORDINATES];
+        final float[] pv = new float[COORDINATES];
+        final float[] vv = new float[COORDINATES];
+
+        Track(long id, Pigeon.ResultObjectDetection detection) {
+            this.id = id;
+            this.classIndex = detection.getClassIndex().intValue();
+            this.score = detection.getScore().floatValue();
+            measure(detection.getRect(), position);
+            Arrays.fill(pp, MEASUREMENT_VARIANCE);
+            Arrays.fill(vv, INITIAL_VELOCITY_VARIANCE);
+        }
+
+        void predict(long frames) {
+            for (int i = 0; i < COORDINATES; i++) {
+                position[i] += velocity[i] * frames;
+                pp[i] += 2 * frames * pv[i] + frames * frames * vv[i] + PROCESS_VARIANCE * frames;
+                pv[i] += frames * vv[i];
+                vv[i] += PROCESS_VARIANCE * frames;
+            }
+            age += frames;
+        }
+
+        void correct(Pigeon.ResultObjectDetection detection, float[] measurement) {
+            measure(detection.getRect(), measurement);
+            for (int i = 0; i < COORDINATES; i++) {
+                float innovation = pp[i] + MEASUREMENT_VARIANCE;
+                float positionGain = pp[i] / innovation;
+                float velocityGain = pv[i] / innovation;
+                float residual = measurement[i] - position[i];
+                position[i] += positionGain * residual;
+                velocity[i] += velocityGain * residual;
+                vv[i] -= velocityGain * pv[i];
+                pp[i] *= 1 - positionGain;
+                pv[i] *= 1 - positionGain;
+            }
+            score = detection.getScore().floatValue();
+            age = 0;
+            misses = 0;
+        }
+
+        float decayedScore() {
+            return score * (float) Math.pow(SCORE_DECAY, age);
+        }
+
+        Pigeon.ResultObjectDetection toDetection() {
+            float width = Math.max(position[2], 0);
+            float height = Math.max(position[3], 0);
+            float left = position[0] - width / 2;
+            float top = position[1] - height / 2;
+            Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder()
+                    .setLeft((double) left)
+                    .setTop((double) top)
+                    .setRight((double) (left + width))
+                    .setBottom((double) (top + height))
+                    .setWidth((double) width)
+                    .setHeight((double) height)
+                    .build();
+            return new Pigeon.ResultObjectDetection.Builder()
+                    .setClassIndex((long) classIndex)
+                    .setScore((double) decayedScore())
+                    .setRect(rect)
+                    .setTrackId(id)
+                    .build();
+        }
+    }
+
+    private static void measure(Pigeon.PyTorchRect rect, float[] out) {
+        float left = rect.getLeft().floatValue();
+        float top = rect.getTop().floatValue();
+        float right = rect.getRight().floatValue();
+        float bottom = rect.getBottom().floatValue();
+        out[0] = (left + right) / 2;
+        out[1] = (top + bottom) / 2;
+        out[2] = right - left;
+        out[3] = bottom - top;
+    }
+
+    private static float iou(float[] a, Pigeon.PyTorchRect b) {
+        float left = Math.max(a[0] - a[2] / 2, b.getLeft().floatValue());
+        float top = Math.max(a[1] - a[3] / 2, b.getTop().floatValue());
+        float right = Math.min(a[0] + a[2] / 2, b.getRight().floatValue());
+        float bottom = Math.min(a[1] + a[3] / 2, b.getBottom().floatValue());
+        float intersection = Math.max(right - left, 0) * Math.max(bottom - top, 0);
+        float areaA = Math.max(a[2], 0) * Math.max(a[3], 0);
+        float areaB = (b.getRight().floatValue() - b.getLeft().floatValue())
+                * (b.getBottom().floatValue() - b.getTop().floatValue());
+        float union = areaA + areaB - intersection;
+        return union <= 0 ? 0 : intersection / union;
+    }
+
+    private static final Comparator<Pigeon.ResultObjectDetection> BY_SCORE =
+            new Comparator<Pigeon.ResultObjectDetection>() {
+                @Override
+                public int compare(Pigeon.ResultObjectDetection a, Pigeon.ResultObjectDetection b) {
+                    return Double.compare(b.getScore(), a.getScore());
+                }
+            };
+
+    private final int mDetectEveryFrames;
+    private final float mMinimumScore;
+    private final ArrayList<Track> mTracks = new ArrayList<>();
+    private final float[] mMeasurement = new float[COORDINATES];
+    private long mNextTrackId;
+    private long mFramesSinceDetection;
+    private boolean mDetected;
+
+    ObjectTracker(int detectEveryFrames, float minimumScore) {
+        if (detectEveryFrames < 1) {
+            throw new IllegalArgumentException("detectEveryFrames should be at least 1");
+        }
+        mDetectEveryFrames = detectEveryFrames;
+        mMinimumScore = minimumScore;
+    }
+
+    /**
+     * Whether the detector should run on the frame that comes {@code frames}
+     * frames after the previous one.
+     */
+    boolean needsDetection(long frames) {
+        if (!mDetected || mFramesSinceDetection + frames >= mDetectEveryFrames) {
+            return true;
+        }
+        for (Track track : mTracks) {
+            if (track.misses == 0
+                    && track.score * Math.pow(SCORE_DECAY, track.age + frames) < mMinimumScore) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches the detections of the frame that comes {@code frames} frames
+     * after the previous one to the tracks, returns the tracked boxes.
+     */
+    ArrayList<Pigeon.ResultObjectDetection> update(List<Pigeon.ResultObjectDetection> detections, long frames) {
+        for (Track track : mTracks) {
+            track.predict(frames);
+        }
+
+        // every pair of a track and a detection of its class that overlap
+        // enough, as iou bits << 32 | track << 16 | detection, best first
+        int trackCount = Math.min(mTracks.size(), 0xffff);
+        int detectionCount = Math.min(detections.size(), 0xffff);
+        long[] pairs = new long[trackCount * detectionCount];
+        int pairCount = 0;
+        for (int t = 0; t < trackCount; t++) {
+            Track track = mTracks.get(t);
+            for (int d = 0; d < detectionCount; d++) {
+                Pigeon.ResultObjectDetection detection = detections.get(d);
+                if (detection.getClassIndex() != track.classIndex) {
+                    continue;
+                }
+                float iou = iou(track.position, detection.getRect());
+                if (iou >= MATCH_IOU) {
+                    pairs[pairCount++] = ((long) Float.floatToIntBits(iou) << 32) | ((long) t << 16) | d;
+                }
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        boolean[] trackMatched = new boolean[trackCount];
+        boolean[] detectionMatched = new boolean[detections.size()];
+        for (int i = pairCount - 1; i >= 0; i--) {
+            int t = (int) (pairs[i] >>> 16) & 0xffff;
+            int d = (int) pairs[i] & 0xffff;
+            if (!trackMatched[t] && !detectionMatched[d]) {
+                trackMatched[t] = true;
+                detectionMatched[d] = true;
+                mTracks.get(t).correct(detections.get(d), mMeasurement);
+            }
+        }
+
+        for (int t = mTracks.size() - 1; t >= 0; t--) {
+            if (t >= trackCount || !trackMatched[t]) {
+                Track track = mTracks.get(t);
+                track.misses++;
+                if (track.misses >= MAX_MISSES) {
+                    mTracks.remove(t);
+                }
+            }
+        }
+        for (int d = 0; d < detections.size(); d++) {
+            if (!detectionMatched[d]) {
+                mTracks.add(new Track(mNextTrackId++, detections.get(d)));
+            }
+        }
+
+        mFramesSinceDetection = 0;
+        mDetected = true;
+        return tracked();
+    }
+
+    /**
+     * Predicts the tracks on the frame that comes {@code frames} frames after
+     * the previous one, without detections, returns the tracked boxes.
+     */
+    ArrayList<Pigeon.ResultObjectDetection> predict(long frames) {
+        for (Track track : mTracks) {
+            track.predict(frames);
+        }
+        mFramesSinceDetection += frames;
+        return tracked();
+    }
+
+    // the tracks the last detection saw, best score first
+    private ArrayList<Pigeon.ResultObjectDetection> tracked() {
+        ArrayList<Pigeon.ResultObjectDetection> tracked = new ArrayList<>(mTracks.size());
+        for (Track track : mTracks) {
+            if (track.misses == 0) {
+                tracked.add(track.toDetection());
+            }
+        }
+        Collections.sort(tracked, BY_SCORE);
+        return tracked;
+    }
+}
@@ -0,0 +1,88 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Flat encoding of object detection results, sent over the channel as one
+ * byte payload instead of a {@link Pigeon.ResultObjectDetection} plus a
+ * {@link Pigeon.PyTorchRect} per detection.
+ * <p>
+ * Every detection is a record of {@link #RECORD_SIZE} native order float32
+ * values: class index, score, left, top, right, bottom, width and height.
+ * The dart side reads it back with {@code PackedObjectDetections}.
+ */
+public class PackedDetections {
+    static final int RECORD_SIZE = 8;
+
+    static final int CLASS_INDEX = 0;
+    static final int SCORE = 1;
+    static final int LEFT = 2;
+    static final int TOP = 3;
+    static final int RIGHT = 4;
+    static final int BOTTOM = 5;
+    static final int WIDTH = 6;
+    static final int HEIGHT = 7;
+
+    private PackedDetections() {
+    }
+
+    /**
+     * Packs the {@code kept} candidates listed in {@code keep}, as
+     * {@link NonMaxSuppression} selects them, with their boxes normalized to
+     * an image of {@code imageWidth} by {@code imageHeight} and, with a
+     * {@code crop}, mapped from the crop to the whole frame. No object is
+     * created per box.
+     */
+    static byte[] pack(DetectionCandidates candidates, int[] keep, int kept, float imageWidth, float imageHeight,
+            ImageCrop crop) {
+        float offsetX = 0.0f;
+        float offsetY = 0.0f;
+        float scaleX = 1.0f / imageWidth;
+        float scaleY = 1.0f / imageHeight;
+        if (crop != null) {
+            offsetX = crop.left;
+            offsetY = crop.top;
+            scaleX *= crop.right - crop.left;
+            scaleY *= crop.bottom - crop.top;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(kept * RECORD_SIZE * 4).order(ByteOrder.nativeOrder());
+        FloatBuffer records = bytes.asFloatBuffer();
+        for (int i = 0; i < kept; i++) {
+            int box = keep[i];
+            float left = candidates.left[box];
+            float top = candidates.top[box];
+            float right = candidates.right[box];
+            float bottom = candidates.bottom[box];
+            records.put(candidates.classIndex[box]);
+            records.put(candidates.score[box]);
+            records.put(offsetX + left * scaleX);
+            records.put(offsetY + top * scaleY);
+            records.put(offsetX + right * scaleX);
+            records.put(offsetY + bottom * scaleY);
+            records.put((right - left) * scaleX);
+            records.put((bottom - top) * scaleY);
+        }
+        return bytes.array();
+    }
+
+    /** Packs detections that exist as objects already, the boxes of tracked sessions. */
+    static byte[] pack(List<Pigeon.ResultObjectDetection> detections) {
+        ByteBuffer bytes = ByteBuffer.allocate(detections.size() * RECORD_SIZE * 4).order(ByteOrder.nativeOrder());
+        FloatBuffer records = bytes.asFloatBuffer();
+        for (Pigeon.ResultObjectDetection detection : detections) {
+            Pigeon.PyTorchRect rect = detection.getRect();
+            records.put(detection.getClassIndex());
+            records.put(detection.getScore().floatValue());
+            records.put(rect.getLeft().floatValue());
+            records.put(rect.getTop().floatValue());
+            records.put(rect.getRight().floatValue());
+            records.put(rect.getBottom().floatValue());
+            records.put(rect.getWidth().floatValue());
+            records.put(rect.getHeight().floatValue());
+        }
+        return bytes.array();
+    }
+}
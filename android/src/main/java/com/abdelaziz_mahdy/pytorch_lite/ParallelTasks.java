@@ -0,0 +1,56 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Fork/join pool shared by the post processing of all models, used to split
+ * decoding and suppression of large outputs over the cores.
+ */
+final class ParallelTasks {
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    // ForkJoinPool.commonPool needs API 24
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * Runs the tasks, on the pool when {@code parallel} and on the calling
+     * thread otherwise, and returns their results in order.
+     */
+    static <T> List<T> run(List<Callable<T>> tasks, boolean parallel) {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (!parallel) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return results;
+        }
+        try {
+            for (Future<T> future : POOL.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while post processing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("unable to post process the outputs", cause);
+        }
+        return results;
+    }
+}
@@ -255,6 +255,144 @@ public class Pigeon {
     }
   }
 
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class CropRect {
+    private @NonNull Double left;
+
+    public @NonNull Double getLeft() {
+      return left;
+    }
+
+    public void setLeft(@NonNull Double setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"left\" is null.");
+      }
+      this.left = setterArg;
+    }
+
+    private @NonNull Double top;
+
+    public @NonNull Double getTop() {
+      return top;
+    }
+
+    public void setTop(@NonNull Double setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"top\" is null.");
+      }
+      this.top = setterArg;
+    }
+
+    private @NonNull Double right;
+
+    public @NonNull Double getRight() {
+      return right;
+    }
+
+    public void setRight(@NonNull Double setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"right\" is null.");
+      }
+      this.right = setterArg;
+    }
+
+    private @NonNull Double bottom;
+
+    public @NonNull Double getBottom() {
+      return bottom;
+    }
+
+    public void setBottom(@NonNull Double setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"bottom\" is null.");
+      }
+      this.bottom = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    CropRect() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      CropRect that = (CropRect) o;
+      return left.equals(that.left) && top.equals(that.top) && right.equals(that.right) && bottom.equals(that.bottom);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(left, top, right, bottom);
+    }
+
+    public static final class Builder {
+
+      private @Nullable Double left;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setLeft(@NonNull Double setterArg) {
+        this.left = setterArg;
+        return this;
+      }
+
+      private @Nullable Double top;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setTop(@NonNull Double setterArg) {
+        this.top = setterArg;
+        return this;
+      }
+
+      private @Nullable Double right;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setRight(@NonNull Double setterArg) {
+        this.right = setterArg;
+        return this;
+      }
+
+      private @Nullable Double bottom;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setBottom(@NonNull Double setterArg) {
+        this.bottom = setterArg;
+        return this;
+      }
+
+      public @NonNull CropRect build() {
+        CropRect pigeonReturn = new CropRect();
+        pigeonReturn.setLeft(left);
+        pigeonReturn.setTop(top);
+        pigeonReturn.setRight(right);
+        pigeonReturn.setBottom(bottom);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(4);
+      toListResult.add(left);
+      toListResult.add(top);
+      toListResult.add(right);
+      toListResult.add(bottom);
+      return toListResult;
+    }
+
+    static @NonNull CropRect fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      CropRect pigeonResult = new CropRect();
+      Object left = pigeonVar_list.get(0);
+      pigeonResult.setLeft((Double) left);
+      Object top = pigeonVar_list.get(1);
+      pigeonResult.setTop((Double) top);
+      Object right = pigeonVar_list.get(2);
+      pigeonResult.setRight((Double) right);
+      Object bottom = pigeonVar_list.get(3);
+      pigeonResult.setBottom((Double) bottom);
+      return pigeonResult;
+    }
+  }
+
   /** Generated class from Pigeon that represents data sent in messages. */
   public static final class ResultObjectDetection {
     private @NonNull Long classIndex;
@@ -306,6 +444,22 @@ public class Pigeon {
       this.rect = setterArg;
     }
 
+    /** Stable id of the tracked object, set by detection sessions opened with
+ tracking. */
+    private @Nullable Long trackId;
+
+    /** Stable id of the tracked object, set by detection sessions opened with
+ tracking. */
+    public @Nullable Long getTrackId() {
+      return trackId;
+    }
+
+    /** Stable id of the tracked object, set by detection sessions opened with
+ tracking. */
+    public void setTrackId(@Nullable Long setterArg) {
+      this.trackId = setterArg;
+    }
+
     /** Constructor is non-public to enforce null safety; use Builder. */
     ResultObjectDetection() {}
 
@@ -314,12 +468,12 @@ public class Pigeon {
       if (this == o) { return true; }
       if (o == null || getClass() != o.getClass()) { return false; }
       ResultObjectDetection that = (ResultObjectDetection) o;
-      return classIndex.equals(that.classIndex) && Objects.equals(className, that.className) && score.equals(that.score) && rect.equals(that.rect);
+      return classIndex.equals(that.classIndex) && Objects.equals(className, that.className) && score.equals(that.score) && rect.equals(that.rect) && Objects.equals(trackId, that.trackId);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(classIndex, className, score, rect);
+      return Objects.hash(classIndex, className, score, rect, trackId);
     }
 
     public static final class Builder {
@@ -356,23 +510,33 @@ public class Pigeon {
         return this;
       }
 
+      private @Nullable Long trackId;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setTrackId(@Nullable Long setterArg) {
+        this.trackId = setterArg;
+        return this;
+      }
+
       public @NonNull ResultObjectDetection build() {
         ResultObjectDetection pigeonReturn = new ResultObjectDetection();
         pigeonReturn.setClassIndex(classIndex);
         pigeonReturn.setClassName(className);
         pigeonReturn.setScore(score);
         pigeonReturn.setRect(rect);
+        pigeonReturn.setTrackId(trackId);
         return pigeonReturn;
       }
     }
 
     @NonNull
     ArrayList<Object> toList() {
-      ArrayList<Object> toListResult = new ArrayList<>(4);
+      ArrayList<Object> toListResult = new ArrayList<>(5);
       toListResult.add(classIndex);
       toListResult.add(className);
       toListResult.add(score);
       toListResult.add(rect);
+      toListResult.add(trackId);
       return toListResult;
     }
 
@@ -386,106 +550,1701 @@ public class Pigeon {
       pigeonResult.setScore((Double) score);
       Object rect = pigeonVar_list.get(3);
       pigeonResult.setRect((PyTorchRect) rect);
+      Object trackId = pigeonVar_list.get(4);
+      pigeonResult.setTrackId((Long) trackId);
       return pigeonResult;
     }
   }
 
-  private static class PigeonCodec extends StandardMessageCodec {
-    public static final PigeonCodec INSTANCE = new PigeonCodec();
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class ResultClassification {
+    private @NonNull List<Double> scores;
 
-    private PigeonCodec() {}
+    public @NonNull List<Double> getScores() {
+      return scores;
+    }
 
-    @Override
-    protected Object readValueOfType(byte type, @NonNull ByteBuffer buffer) {
-      switch (type) {
-        case (byte) 129:
-          return PyTorchRect.fromList((ArrayList<Object>) readValue(buffer));
-        case (byte) 130:
-          return ResultObjectDetection.fromList((ArrayList<Object>) readValue(buffer));
-        default:
-          return super.readValueOfType(type, buffer);
+    public void setScores(@NonNull List<Double> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"scores\" is null.");
       }
+      this.scores = setterArg;
     }
 
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    ResultClassification() {}
+
     @Override
-    protected void writeValue(@NonNull ByteArrayOutputStream stream, Object value) {
-      if (value instanceof PyTorchRect) {
-        stream.write(129);
-        writeValue(stream, ((PyTorchRect) value).toList());
-      } else if (value instanceof ResultObjectDetection) {
-        stream.write(130);
-        writeValue(stream, ((ResultObjectDetection) value).toList());
-      } else {
-        super.writeValue(stream, value);
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      ResultClassification that = (ResultClassification) o;
+      return scores.equals(that.scores);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(scores);
+    }
+
+    public static final class Builder {
+
+      private @Nullable List<Double> scores;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setScores(@NonNull List<Double> setterArg) {
+        this.scores = setterArg;
+        return this;
       }
+
+      public @NonNull ResultClassification build() {
+        ResultClassification pigeonReturn = new ResultClassification();
+        pigeonReturn.setScores(scores);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(1);
+      toListResult.add(scores);
+      return toListResult;
+    }
+
+    static @NonNull ResultClassification fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      ResultClassification pigeonResult = new ResultClassification();
+      Object scores = pigeonVar_list.get(0);
+      pigeonResult.setScores((List<Double>) scores);
+      return pigeonResult;
     }
   }
 
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class ResultObjectDetectionList {
+    private @NonNull List<ResultObjectDetection> detections;
+
+    public @NonNull List<ResultObjectDetection> getDetections() {
+      return detections;
+    }
 
-  /** Asynchronous error handling return type for non-nullable API method returns. */
-  public interface Result<T> {
-    /** Success case callback method for handling returns. */
-    void success(@NonNull T result);
+    public void setDetections(@NonNull List<ResultObjectDetection> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"detections\" is null.");
+      }
+      this.detections = setterArg;
+    }
 
-    /** Failure case callback method for handling errors. */
-    void error(@NonNull Throwable error);
-  }
-  /** Asynchronous error handling return type for nullable API method returns. */
-  public interface NullableResult<T> {
-    /** Success case callback method for handling returns. */
-    void success(@Nullable T result);
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    ResultObjectDetectionList() {}
 
-    /** Failure case callback method for handling errors. */
-    void error(@NonNull Throwable error);
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      ResultObjectDetectionList that = (ResultObjectDetectionList) o;
+      return detections.equals(that.detections);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(detections);
+    }
+
+    public static final class Builder {
+
+      private @Nullable List<ResultObjectDetection> detections;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setDetections(@NonNull List<ResultObjectDetection> setterArg) {
+        this.detections = setterArg;
+        return this;
+      }
+
+      public @NonNull ResultObjectDetectionList build() {
+        ResultObjectDetectionList pigeonReturn = new ResultObjectDetectionList();
+        pigeonReturn.setDetections(detections);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(1);
+      toListResult.add(detections);
+      return toListResult;
+    }
+
+    static @NonNull ResultObjectDetectionList fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      ResultObjectDetectionList pigeonResult = new ResultObjectDetectionList();
+      Object detections = pigeonVar_list.get(0);
+      pigeonResult.setDetections((List<ResultObjectDetection>) detections);
+      return pigeonResult;
+    }
   }
-  /** Asynchronous error handling return type for void API method returns. */
-  public interface VoidResult {
-    /** Success case callback method for handling returns. */
-    void success();
 
-    /** Failure case callback method for handling errors. */
-    void error(@NonNull Throwable error);
-  }
-  /** Generated interface from Pigeon that represents a handler of messages from Flutter. */
-  public interface ModelApi {
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class CameraFrameResult {
+    /** Null when the frame was dropped. */
+    private @Nullable List<ResultObjectDetection> detections;
+
+    /** Null when the frame was dropped. */
+    public @Nullable List<ResultObjectDetection> getDetections() {
+      return detections;
+    }
+
+    /** Null when the frame was dropped. */
+    public void setDetections(@Nullable List<ResultObjectDetection> setterArg) {
+      this.detections = setterArg;
+    }
+
+    /** The frame was replaced by a newer one before it could run. */
+    private @NonNull Boolean dropped;
+
+    /** The frame was replaced by a newer one before it could run. */
+    public @NonNull Boolean getDropped() {
+      return dropped;
+    }
+
+    /** The frame was replaced by a newer one before it could run. */
+    public void setDropped(@NonNull Boolean setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"dropped\" is null.");
+      }
+      this.dropped = setterArg;
+    }
+
+    /** Frames dropped since the previous frame that ran, this one included
+ when it was dropped. */
+    private @NonNull Long droppedFrames;
+
+    /** Frames dropped since the previous frame that ran, this one included
+ when it was dropped. */
+    public @NonNull Long getDroppedFrames() {
+      return droppedFrames;
+    }
+
+    /** Frames dropped since the previous frame that ran, this one included
+ when it was dropped. */
+    public void setDroppedFrames(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"droppedFrames\" is null.");
+      }
+      this.droppedFrames = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    CameraFrameResult() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      CameraFrameResult that = (CameraFrameResult) o;
+      return Objects.equals(detections, that.detections) && dropped.equals(that.dropped) && droppedFrames.equals(that.droppedFrames);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(detections, dropped, droppedFrames);
+    }
+
+    public static final class Builder {
+
+      private @Nullable List<ResultObjectDetection> detections;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setDetections(@Nullable List<ResultObjectDetection> setterArg) {
+        this.detections = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean dropped;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setDropped(@NonNull Boolean setterArg) {
+        this.dropped = setterArg;
+        return this;
+      }
+
+      private @Nullable Long droppedFrames;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setDroppedFrames(@NonNull Long setterArg) {
+        this.droppedFrames = setterArg;
+        return this;
+      }
+
+      public @NonNull CameraFrameResult build() {
+        CameraFrameResult pigeonReturn = new CameraFrameResult();
+        pigeonReturn.setDetections(detections);
+        pigeonReturn.setDropped(dropped);
+        pigeonReturn.setDroppedFrames(droppedFrames);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(3);
+      toListResult.add(detections);
+      toListResult.add(dropped);
+      toListResult.add(droppedFrames);
+      return toListResult;
+    }
+
+    static @NonNull CameraFrameResult fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      CameraFrameResult pigeonResult = new CameraFrameResult();
+      Object detections = pigeonVar_list.get(0);
+      pigeonResult.setDetections((List<ResultObjectDetection>) detections);
+      Object dropped = pigeonVar_list.get(1);
+      pigeonResult.setDropped((Boolean) dropped);
+      Object droppedFrames = pigeonVar_list.get(2);
+      pigeonResult.setDroppedFrames((Long) droppedFrames);
+      return pigeonResult;
+    }
+  }
+
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class TensorData {
+    /** The tensor elements as native order bytes, row major. */
+    private @NonNull byte[] data;
+
+    /** The tensor elements as native order bytes, row major. */
+    public @NonNull byte[] getData() {
+      return data;
+    }
+
+    /** The tensor elements as native order bytes, row major. */
+    public void setData(@NonNull byte[] setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"data\" is null.");
+      }
+      this.data = setterArg;
+    }
+
+    private @NonNull List<Long> shape;
+
+    public @NonNull List<Long> getShape() {
+      return shape;
+    }
+
+    public void setShape(@NonNull List<Long> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"shape\" is null.");
+      }
+      this.shape = setterArg;
+    }
+
+    /** One of float32, float64, int32, int64, int8, uint8. */
+    private @NonNull String dtype;
+
+    /** One of float32, float64, int32, int64, int8, uint8. */
+    public @NonNull String getDtype() {
+      return dtype;
+    }
+
+    /** One of float32, float64, int32, int64, int8, uint8. */
+    public void setDtype(@NonNull String setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"dtype\" is null.");
+      }
+      this.dtype = setterArg;
+    }
+
+    /** The key of an output returned in a dict. */
+    private @Nullable String name;
+
+    /** The key of an output returned in a dict. */
+    public @Nullable String getName() {
+      return name;
+    }
+
+    /** The key of an output returned in a dict. */
+    public void setName(@Nullable String setterArg) {
+      this.name = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    TensorData() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      TensorData that = (TensorData) o;
+      return Arrays.equals(data, that.data) && shape.equals(that.shape) && dtype.equals(that.dtype) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      int pigeonVar_result = Objects.hash(shape, dtype, name);
+      pigeonVar_result = 31 * pigeonVar_result + Arrays.hashCode(data);
+      return pigeonVar_result;
+    }
+
+    public static final class Builder {
+
+      private @Nullable byte[] data;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setData(@NonNull byte[] setterArg) {
+        this.data = setterArg;
+        return this;
+      }
+
+      private @Nullable List<Long> shape;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setShape(@NonNull List<Long> setterArg) {
+        this.shape = setterArg;
+        return this;
+      }
+
+      private @Nullable String dtype;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setDtype(@NonNull String setterArg) {
+        this.dtype = setterArg;
+        return this;
+      }
+
+      private @Nullable String name;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setName(@Nullable String setterArg) {
+        this.name = setterArg;
+        return this;
+      }
+
+      public @NonNull TensorData build() {
+        TensorData pigeonReturn = new TensorData();
+        pigeonReturn.setData(data);
+        pigeonReturn.setShape(shape);
+        pigeonReturn.setDtype(dtype);
+        pigeonReturn.setName(name);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(4);
+      toListResult.add(data);
+      toListResult.add(shape);
+      toListResult.add(dtype);
+      toListResult.add(name);
+      return toListResult;
+    }
+
+    static @NonNull TensorData fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      TensorData pigeonResult = new TensorData();
+      Object data = pigeonVar_list.get(0);
+      pigeonResult.setData((byte[]) data);
+      Object shape = pigeonVar_list.get(1);
+      pigeonResult.setShape((List<Long>) shape);
+      Object dtype = pigeonVar_list.get(2);
+      pigeonResult.setDtype((String) dtype);
+      Object name = pigeonVar_list.get(3);
+      pigeonResult.setName((String) name);
+      return pigeonResult;
+    }
+  }
+
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class ModelLoadOptions {
+    /** How many inferences may run on the model at once, 0 does not limit
+ them. Defaults to the number of replicas, so a model loaded once runs
+ them one after the other. */
+    private @Nullable Long maxConcurrency;
+
+    /** How many inferences may run on the model at once, 0 does not limit
+ them. Defaults to the number of replicas, so a model loaded once runs
+ them one after the other. */
+    public @Nullable Long getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    /** How many inferences may run on the model at once, 0 does not limit
+ them. Defaults to the number of replicas, so a model loaded once runs
+ them one after the other. */
+    public void setMaxConcurrency(@Nullable Long setterArg) {
+      this.maxConcurrency = setterArg;
+    }
+
+    /** How many copies of the model to load (1 by default), calls are spread
+ over the idle ones. */
+    private @Nullable Long replicas;
+
+    /** How many copies of the model to load (1 by default), calls are spread
+ over the idle ones. */
+    public @Nullable Long getReplicas() {
+      return replicas;
+    }
+
+    /** How many copies of the model to load (1 by default), calls are spread
+ over the idle ones. */
+    public void setReplicas(@Nullable Long setterArg) {
+      this.replicas = setterArg;
+    }
+
+    /** Most CPU threads the shared thread pool may have while the model runs,
+ the pool is also capped by the plugin wide CPU thread budget. Unset
+ leaves it to PyTorch. On Android this needs the lite runtime, the calls
+ of the model fail with the full one. */
+    private @Nullable Long numThreads;
+
+    /** Most CPU threads the shared thread pool may have while the model runs,
+ the pool is also capped by the plugin wide CPU thread budget. Unset
+ leaves it to PyTorch. On Android this needs the lite runtime, the calls
+ of the model fail with the full one. */
+    public @Nullable Long getNumThreads() {
+      return numThreads;
+    }
+
+    /** Most CPU threads the shared thread pool may have while the model runs,
+ the pool is also capped by the plugin wide CPU thread budget. Unset
+ leaves it to PyTorch. On Android this needs the lite runtime, the calls
+ of the model fail with the full one. */
+    public void setNumThreads(@Nullable Long setterArg) {
+      this.numThreads = setterArg;
+    }
+
+    /** Forward passes run on a zero image of the model input size before the
+ load returns, and again whenever an evicted model is loaded back. Needs
+ the image size, 0 by default. */
+    private @Nullable Long warmUpRuns;
+
+    /** Forward passes run on a zero image of the model input size before the
+ load returns, and again whenever an evicted model is loaded back. Needs
+ the image size, 0 by default. */
+    public @Nullable Long getWarmUpRuns() {
+      return warmUpRuns;
+    }
+
+    /** Forward passes run on a zero image of the model input size before the
+ load returns, and again whenever an evicted model is loaded back. Needs
+ the image size, 0 by default. */
+    public void setWarmUpRuns(@Nullable Long setterArg) {
+      this.warmUpRuns = setterArg;
+    }
+
+    /** Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+ full TorchScript model. Android only, false by default. */
+    private @Nullable Boolean lite;
+
+    /** Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+ full TorchScript model. Android only, false by default. */
+    public @Nullable Boolean getLite() {
+      return lite;
+    }
+
+    /** Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+ full TorchScript model. Android only, false by default. */
+    public void setLite(@Nullable Boolean setterArg) {
+      this.lite = setterArg;
+    }
+
+    /** The model path is the key of a flutter asset, read straight from the
+ application bundle instead of a file. False by default. */
+    private @Nullable Boolean fromAsset;
+
+    /** The model path is the key of a flutter asset, read straight from the
+ application bundle instead of a file. False by default. */
+    public @Nullable Boolean getFromAsset() {
+      return fromAsset;
+    }
+
+    /** The model path is the key of a flutter asset, read straight from the
+ application bundle instead of a file. False by default. */
+    public void setFromAsset(@Nullable Boolean setterArg) {
+      this.fromAsset = setterArg;
+    }
+
+    /** How detection boxes are suppressed (Android only): "grid" (default)
+ only compares boxes that are close to each other and ranks at most 30
+ candidates per returned box, "exhaustive" ranks every candidate and
+ compares every pair, the plain greedy NMS. */
+    private @Nullable String nmsEngine;
+
+    /** How detection boxes are suppressed (Android only): "grid" (default)
+ only compares boxes that are close to each other and ranks at most 30
+ candidates per returned box, "exhaustive" ranks every candidate and
+ compares every pair, the plain greedy NMS. */
+    public @Nullable String getNmsEngine() {
+      return nmsEngine;
+    }
+
+    /** How detection boxes are suppressed (Android only): "grid" (default)
+ only compares boxes that are close to each other and ranks at most 30
+ candidates per returned box, "exhaustive" ranks every candidate and
+ compares every pair, the plain greedy NMS. */
+    public void setNmsEngine(@Nullable String setterArg) {
+      this.nmsEngine = setterArg;
+    }
+
+    /** Only lets boxes of the same class suppress each other (Android only),
+ false by default. */
+    private @Nullable Boolean classAwareNms;
+
+    /** Only lets boxes of the same class suppress each other (Android only),
+ false by default. */
+    public @Nullable Boolean getClassAwareNms() {
+      return classAwareNms;
+    }
+
+    /** Only lets boxes of the same class suppress each other (Android only),
+ false by default. */
+    public void setClassAwareNms(@Nullable Boolean setterArg) {
+      this.classAwareNms = setterArg;
+    }
+
+    /** Splits the decode of large detection outputs over the CPU cores
+ (Android only), false by default. */
+    private @Nullable Boolean parallelDecode;
+
+    /** Splits the decode of large detection outputs over the CPU cores
+ (Android only), false by default. */
+    public @Nullable Boolean getParallelDecode() {
+      return parallelDecode;
+    }
+
+    /** Splits the decode of large detection outputs over the CPU cores
+ (Android only), false by default. */
+    public void setParallelDecode(@Nullable Boolean setterArg) {
+      this.parallelDecode = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    ModelLoadOptions() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      ModelLoadOptions that = (ModelLoadOptions) o;
+      return Objects.equals(maxConcurrency, that.maxConcurrency) && Objects.equals(replicas, that.replicas) && Objects.equals(numThreads, that.numThreads) && Objects.equals(warmUpRuns, that.warmUpRuns) && Objects.equals(lite, that.lite) && Objects.equals(fromAsset, that.fromAsset) && Objects.equals(nmsEngine, that.nmsEngine) && Objects.equals(classAwareNms, that.classAwareNms) && Objects.equals(parallelDecode, that.parallelDecode);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(maxConcurrency, replicas, numThreads, warmUpRuns, lite, fromAsset, nmsEngine, classAwareNms, parallelDecode);
+    }
+
+    public static final class Builder {
+
+      private @Nullable Long maxConcurrency;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setMaxConcurrency(@Nullable Long setterArg) {
+        this.maxConcurrency = setterArg;
+        return this;
+      }
+
+      private @Nullable Long replicas;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setReplicas(@Nullable Long setterArg) {
+        this.replicas = setterArg;
+        return this;
+      }
+
+      private @Nullable Long numThreads;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setNumThreads(@Nullable Long setterArg) {
+        this.numThreads = setterArg;
+        return this;
+      }
+
+      private @Nullable Long warmUpRuns;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setWarmUpRuns(@Nullable Long setterArg) {
+        this.warmUpRuns = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean lite;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setLite(@Nullable Boolean setterArg) {
+        this.lite = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean fromAsset;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setFromAsset(@Nullable Boolean setterArg) {
+        this.fromAsset = setterArg;
+        return this;
+      }
+
+      private @Nullable String nmsEngine;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setNmsEngine(@Nullable String setterArg) {
+        this.nmsEngine = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean classAwareNms;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setClassAwareNms(@Nullable Boolean setterArg) {
+        this.classAwareNms = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean parallelDecode;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setParallelDecode(@Nullable Boolean setterArg) {
+        this.parallelDecode = setterArg;
+        return this;
+      }
+
+      public @NonNull ModelLoadOptions build() {
+        ModelLoadOptions pigeonReturn = new ModelLoadOptions();
+        pigeonReturn.setMaxConcurrency(maxConcurrency);
+        pigeonReturn.setReplicas(replicas);
+        pigeonReturn.setNumThreads(numThreads);
+        pigeonReturn.setWarmUpRuns(warmUpRuns);
+        pigeonReturn.setLite(lite);
+        pigeonReturn.setFromAsset(fromAsset);
+        pigeonReturn.setNmsEngine(nmsEngine);
+        pigeonReturn.setClassAwareNms(classAwareNms);
+        pigeonReturn.setParallelDecode(parallelDecode);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(9);
+      toListResult.add(maxConcurrency);
+      toListResult.add(replicas);
+      toListResult.add(numThreads);
+      toListResult.add(warmUpRuns);
+      toListResult.add(lite);
+      toListResult.add(fromAsset);
+      toListResult.add(nmsEngine);
+      toListResult.add(classAwareNms);
+      toListResult.add(parallelDecode);
+      return toListResult;
+    }
+
+    static @NonNull ModelLoadOptions fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      ModelLoadOptions pigeonResult = new ModelLoadOptions();
+      Object maxConcurrency = pigeonVar_list.get(0);
+      pigeonResult.setMaxConcurrency((Long) maxConcurrency);
+      Object replicas = pigeonVar_list.get(1);
+      pigeonResult.setReplicas((Long) replicas);
+      Object numThreads = pigeonVar_list.get(2);
+      pigeonResult.setNumThreads((Long) numThreads);
+      Object warmUpRuns = pigeonVar_list.get(3);
+      pigeonResult.setWarmUpRuns((Long) warmUpRuns);
+      Object lite = pigeonVar_list.get(4);
+      pigeonResult.setLite((Boolean) lite);
+      Object fromAsset = pigeonVar_list.get(5);
+      pigeonResult.setFromAsset((Boolean) fromAsset);
+      Object nmsEngine = pigeonVar_list.get(6);
+      pigeonResult.setNmsEngine((String) nmsEngine);
+      Object classAwareNms = pigeonVar_list.get(7);
+      pigeonResult.setClassAwareNms((Boolean) classAwareNms);
+      Object parallelDecode = pigeonVar_list.get(8);
+      pigeonResult.setParallelDecode((Boolean) parallelDecode);
+      return pigeonResult;
+    }
+  }
+
+  /** Generated class from Pigeon that represents data sent in messages. */
+  public static final class ModelStats {
+    private @NonNull Long replicas;
+
+    public @NonNull Long getReplicas() {
+      return replicas;
+    }
+
+    public void setReplicas(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"replicas\" is null.");
+      }
+      this.replicas = setterArg;
+    }
+
+    private @NonNull Long maxConcurrency;
+
+    public @NonNull Long getMaxConcurrency() {
+      return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"maxConcurrency\" is null.");
+      }
+      this.maxConcurrency = setterArg;
+    }
+
+    /** Inferences running right now. */
+    private @NonNull Long runningInferences;
+
+    /** Inferences running right now. */
+    public @NonNull Long getRunningInferences() {
+      return runningInferences;
+    }
+
+    /** Inferences running right now. */
+    public void setRunningInferences(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"runningInferences\" is null.");
+      }
+      this.runningInferences = setterArg;
+    }
+
+    /** Inferences completed by each replica since the model was loaded. */
+    private @NonNull List<Long> inferencesPerReplica;
+
+    /** Inferences completed by each replica since the model was loaded. */
+    public @NonNull List<Long> getInferencesPerReplica() {
+      return inferencesPerReplica;
+    }
+
+    /** Inferences completed by each replica since the model was loaded. */
+    public void setInferencesPerReplica(@NonNull List<Long> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"inferencesPerReplica\" is null.");
+      }
+      this.inferencesPerReplica = setterArg;
+    }
+
+    /** Share of the replicas time spent running inferences since the model
+ was loaded, between 0 and 1. */
+    private @NonNull Double utilization;
+
+    /** Share of the replicas time spent running inferences since the model
+ was loaded, between 0 and 1. */
+    public @NonNull Double getUtilization() {
+      return utilization;
+    }
+
+    /** Share of the replicas time spent running inferences since the model
+ was loaded, between 0 and 1. */
+    public void setUtilization(@NonNull Double setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"utilization\" is null.");
+      }
+      this.utilization = setterArg;
+    }
+
+    /** Threads asked for at load time, 0 when unset. */
+    private @NonNull Long numThreads;
+
+    /** Threads asked for at load time, 0 when unset. */
+    public @NonNull Long getNumThreads() {
+      return numThreads;
+    }
+
+    /** Threads asked for at load time, 0 when unset. */
+    public void setNumThreads(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"numThreads\" is null.");
+      }
+      this.numThreads = setterArg;
+    }
+
+    /** Size of the shared thread pool when the last inference started, 0 when
+ left to PyTorch. */
+    private @NonNull Long allocatedThreads;
+
+    /** Size of the shared thread pool when the last inference started, 0 when
+ left to PyTorch. */
+    public @NonNull Long getAllocatedThreads() {
+      return allocatedThreads;
+    }
+
+    /** Size of the shared thread pool when the last inference started, 0 when
+ left to PyTorch. */
+    public void setAllocatedThreads(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"allocatedThreads\" is null.");
+      }
+      this.allocatedThreads = setterArg;
+    }
+
+    /** False while the model is evicted to fit the memory budget. */
+    private @NonNull Boolean loaded;
+
+    /** False while the model is evicted to fit the memory budget. */
+    public @NonNull Boolean getLoaded() {
+      return loaded;
+    }
+
+    /** False while the model is evicted to fit the memory budget. */
+    public void setLoaded(@NonNull Boolean setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"loaded\" is null.");
+      }
+      this.loaded = setterArg;
+    }
+
+    /** Estimated native memory taken by the loaded replicas, in bytes. */
+    private @NonNull Long residentBytes;
+
+    /** Estimated native memory taken by the loaded replicas, in bytes. */
+    public @NonNull Long getResidentBytes() {
+      return residentBytes;
+    }
+
+    /** Estimated native memory taken by the loaded replicas, in bytes. */
+    public void setResidentBytes(@NonNull Long setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"residentBytes\" is null.");
+      }
+      this.residentBytes = setterArg;
+    }
+
+    /** Latency of the first forward pass after the model was loaded, warm-up
+ included, in milliseconds. Null until it ran. */
+    private @Nullable Double coldLatencyMillis;
+
+    /** Latency of the first forward pass after the model was loaded, warm-up
+ included, in milliseconds. Null until it ran. */
+    public @Nullable Double getColdLatencyMillis() {
+      return coldLatencyMillis;
+    }
+
+    /** Latency of the first forward pass after the model was loaded, warm-up
+ included, in milliseconds. Null until it ran. */
+    public void setColdLatencyMillis(@Nullable Double setterArg) {
+      this.coldLatencyMillis = setterArg;
+    }
+
+    /** Mean latency of the warm-up passes after the first one, in
+ milliseconds. Null with less than two warm-up runs, as nothing warm was
+ measured. */
+    private @Nullable Double warmLatencyMillis;
+
+    /** Mean latency of the warm-up passes after the first one, in
+ milliseconds. Null with less than two warm-up runs, as nothing warm was
+ measured. */
+    public @Nullable Double getWarmLatencyMillis() {
+      return warmLatencyMillis;
+    }
+
+    /** Mean latency of the warm-up passes after the first one, in
+ milliseconds. Null with less than two warm-up runs, as nothing warm was
+ measured. */
+    public void setWarmLatencyMillis(@Nullable Double setterArg) {
+      this.warmLatencyMillis = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    ModelStats() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) { return true; }
+      if (o == null || getClass() != o.getClass()) { return false; }
+      ModelStats that = (ModelStats) o;
+      return replicas.equals(that.replicas) && maxConcurrency.equals(that.maxConcurrency) && runningInferences.equals(that.runningInferences) && inferencesPerReplica.equals(that.inferencesPerReplica) && utilization.equals(that.utilization) && numThreads.equals(that.numThreads) && allocatedThreads.equals(that.allocatedThreads) && loaded.equals(that.loaded) && residentBytes.equals(that.residentBytes) && Objects.equals(coldLatencyMillis, that.coldLatencyMillis) && Objects.equals(warmLatencyMillis, that.warmLatencyMillis);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(replicas, maxConcurrency, runningInferences, inferencesPerReplica, utilization, numThreads, allocatedThreads, loaded, residentBytes, coldLatencyMillis, warmLatencyMillis);
+    }
+
+    public static final class Builder {
+
+      private @Nullable Long replicas;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setReplicas(@NonNull Long setterArg) {
+        this.replicas = setterArg;
+        return this;
+      }
+
+      private @Nullable Long maxConcurrency;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setMaxConcurrency(@NonNull Long setterArg) {
+        this.maxConcurrency = setterArg;
+        return this;
+      }
+
+      private @Nullable Long runningInferences;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setRunningInferences(@NonNull Long setterArg) {
+        this.runningInferences = setterArg;
+        return this;
+      }
+
+      private @Nullable List<Long> inferencesPerReplica;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setInferencesPerReplica(@NonNull List<Long> setterArg) {
+        this.inferencesPerReplica = setterArg;
+        return this;
+      }
+
+      private @Nullable Double utilization;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setUtilization(@NonNull Double setterArg) {
+        this.utilization = setterArg;
+        return this;
+      }
+
+      private @Nullable Long numThreads;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setNumThreads(@NonNull Long setterArg) {
+        this.numThreads = setterArg;
+        return this;
+      }
+
+      private @Nullable Long allocatedThreads;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setAllocatedThreads(@NonNull Long setterArg) {
+        this.allocatedThreads = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean loaded;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setLoaded(@NonNull Boolean setterArg) {
+        this.loaded = setterArg;
+        return this;
+      }
+
+      private @Nullable Long residentBytes;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setResidentBytes(@NonNull Long setterArg) {
+        this.residentBytes = setterArg;
+        return this;
+      }
+
+      private @Nullable Double coldLatencyMillis;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setColdLatencyMillis(@Nullable Double setterArg) {
+        this.coldLatencyMillis = setterArg;
+        return this;
+      }
+
+      private @Nullable Double warmLatencyMillis;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setWarmLatencyMillis(@Nullable Double setterArg) {
+        this.warmLatencyMillis = setterArg;
+        return this;
+      }
+
+      public @NonNull ModelStats build() {
+        ModelStats pigeonReturn = new ModelStats();
+        pigeonReturn.setReplicas(replicas);
+        pigeonReturn.setMaxConcurrency(maxConcurrency);
+        pigeonReturn.setRunningInferences(runningInferences);
+        pigeonReturn.setInferencesPerReplica(inferencesPerReplica);
+        pigeonReturn.setUtilization(utilization);
+        pigeonReturn.setNumThreads(numThreads);
+        pigeonReturn.setAllocatedThreads(allocatedThreads);
+        pigeonReturn.setLoaded(loaded);
+        pigeonReturn.setResidentBytes(residentBytes);
+        pigeonReturn.setColdLatencyMillis(coldLatencyMillis);
+        pigeonReturn.setWarmLatencyMillis(warmLatencyMillis);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(11);
+      toListResult.add(replicas);
+      toListResult.add(maxConcurrency);
+      toListResult.add(runningInferences);
+      toListResult.add(inferencesPerReplica);
+      toListResult.add(utilization);
+      toListResult.add(numThreads);
+      toListResult.add(allocatedThreads);
+      toListResult.add(loaded);
+      toListResult.add(residentBytes);
+      toListResult.add(coldLatencyMillis);
+      toListResult.add(warmLatencyMillis);
+      return toListResult;
+    }
+
+    static @NonNull ModelStats fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      ModelStats pigeonResult = new ModelStats();
+      Object replicas = pigeonVar_list.get(0);
+      pigeonResult.setReplicas((Long) replicas);
+      Object maxConcurrency = pigeonVar_list.get(1);
+      pigeonResult.setMaxConcurrency((Long) maxConcurrency);
+      Object runningInferences = pigeonVar_list.get(2);
+      pigeonResult.setRunningInferences((Long) runningInferences);
+      Object inferencesPerReplica = pigeonVar_list.get(3);
+      pigeonResult.setInferencesPerReplica((List<Long>) inferencesPerReplica);
+      Object utilization = pigeonVar_list.get(4);
+      pigeonResult.setUtilization((Double) utilization);
+      Object numThreads = pigeonVar_list.get(5);
+      pigeonResult.setNumThreads((Long) numThreads);
+      Object allocatedThreads = pigeonVar_list.get(6);
+      pigeonResult.setAllocatedThreads((Long) allocatedThreads);
+      Object loaded = pigeonVar_list.get(7);
+      pigeonResult.setLoaded((Boolean) loaded);
+      Object residentBytes = pigeonVar_list.get(8);
+      pigeonResult.setResidentBytes((Long) residentBytes);
+      Object coldLatencyMillis = pigeonVar_list.get(9);
+      pigeonResult.setColdLatencyMillis((Double) coldLatencyMillis);
+      Object warmLatencyMillis = pigeonVar_list.get(10);
+      pigeonResult.setWarmLatencyMillis((Double) warmLatencyMillis);
+      return pigeonResult;
+    }
+  }
+
+  private static class PigeonCodec extends StandardMessageCodec {
+    public static final PigeonCodec INSTANCE = new PigeonCodec();
+
+    private PigeonCodec() {}
+
+    @Override
+    protected Object readValueOfType(byte type, @NonNull ByteBuffer buffer) {
+      switch (type) {
+        case (byte) 129:
+          return PyTorchRect.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 130:
+          return CropRect.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 131:
+          return ResultObjectDetection.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 132:
+          return ResultClassification.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 133:
+          return ResultObjectDetectionList.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 134:
+          return CameraFrameResult.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 135:
+          return TensorData.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 136:
+          return ModelLoadOptions.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 137:
+          return ModelStats.fromList((ArrayList<Object>) readValue(buffer));
+        default:
+          return super.readValueOfType(type, buffer);
+      }
+    }
+
+    @Override
+    protected void writeValue(@NonNull ByteArrayOutputStream stream, Object value) {
+      if (value instanceof PyTorchRect) {
+        stream.write(129);
+        writeValue(stream, ((PyTorchRect) value).toList());
+      } else if (value instanceof CropRect) {
+        stream.write(130);
+        writeValue(stream, ((CropRect) value).toList());
+      } else if (value instanceof ResultObjectDetection) {
+        stream.write(131);
+        writeValue(stream, ((ResultObjectDetection) value).toList());
+      } else if (value instanceof ResultClassification) {
+        stream.write(132);
+        writeValue(stream, ((ResultClassification) value).toList());
+      } else if (value instanceof ResultObjectDetectionList) {
+        stream.write(133);
+        writeValue(stream, ((ResultObjectDetectionList) value).toList());
+      } else if (value instanceof CameraFrameResult) {
+        stream.write(134);
+        writeValue(stream, ((CameraFrameResult) value).toList());
+      } else if (value instanceof TensorData) {
+        stream.write(135);
+        writeValue(stream, ((TensorData) value).toList());
+      } else if (value instanceof ModelLoadOptions) {
+        stream.write(136);
+        writeValue(stream, ((ModelLoadOptions) value).toList());
+      } else if (value instanceof ModelStats) {
+        stream.write(137);
+        writeValue(stream, ((ModelStats) value).toList());
+      } else {
+        super.writeValue(stream, value);
+      }
+    }
+  }
+
+
+  /** Asynchronous error handling return type for non-nullable API method returns. */
+  public interface Result<T> {
+    /** Success case callback method for handling returns. */
+    void success(@NonNull T result);
+
+    /** Failure case callback method for handling errors. */
+    void error(@NonNull Throwable error);
+  }
+  /** Asynchronous error handling return type for nullable API method returns. */
+  public interface NullableResult<T> {
+    /** Success case callback method for handling returns. */
+    void success(@Nullable T result);
+
+    /** Failure case callback method for handling errors. */
+    void error(@NonNull Throwable error);
+  }
+  /** Asynchronous error handling return type for void API method returns. */
+  public interface VoidResult {
+    /** Success case callback method for handling returns. */
+    void success();
+
+    /** Failure case callback method for handling errors. */
+    void error(@NonNull Throwable error);
+  }
+  /** Generated interface from Pigeon that represents a handler of messages from Flutter. */
+  public interface ModelApi {
+
+    void loadModel(@NonNull String modelPath, @Nullable Long numberOfClasses, @Nullable Long imageWidth, @Nullable Long imageHeight, @Nullable Long objectDetectionModelType, @Nullable ModelLoadOptions options, @NonNull Result<Long> result);
+    /**returns how the replicas of a model are used */
+    void getModelStats(@NonNull Long index, @NonNull Result<ModelStats> result);
+    /**releases a model, its index is not valid anymore */
+    void unloadModel(@NonNull Long index, @NonNull VoidResult result);
+    /**sets the memory the loaded models may take, least recently used models are evicted and loaded again on use, 0 disables it */
+    void setModelMemoryBudget(@NonNull Long bytes, @NonNull VoidResult result);
+    /**sets the detection thresholds and box limit used by the calls of a model that do not pass their own */
+    void setDetectionDefaults(@NonNull Long index, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @NonNull VoidResult result);
+    /**sets how many CPU threads the running models share, 0 leaves it to PyTorch */
+    void setCpuThreadBudget(@NonNull Long threads, @NonNull VoidResult result);
+    /**predicts abstract number input */
+    void getPredictionCustom(@NonNull Long index, @NonNull List<Double> input, @NonNull List<Long> shape, @NonNull String dtype, @NonNull NullableResult<List<Object>> result);
+    /**predicts a typed tensor input, returns the output tensor with its shape and dtype */
+    void getPredictionCustomTensor(@NonNull Long index, @NonNull TensorData input, @NonNull Result<TensorData> result);
+    /**runs a method of the model on typed inputs, returns every tensor of its tuple, list or dict output */
+    void runMethod(@NonNull Long index, @NonNull String methodName, @NonNull List<TensorData> inputs, @NonNull Result<List<TensorData>> result);
+    /**predicts raw image but returns the raw net output */
+    void getRawImagePredictionList(@NonNull Long index, @NonNull byte[] imageData, @NonNull Result<List<Double>> result);
+    /**predicts raw image but returns the raw net output */
+    void getRawImagePredictionListObjectDetection(@NonNull Long index, @NonNull byte[] imageData, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @NonNull Result<List<ResultObjectDetection>> result);
+    /**predicts image or the crop of it but returns the raw net output */
+    void getImagePredictionList(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @Nullable List<Long> rowStridesForBytesList, @Nullable List<Long> pixelStridesForBytesList, @NonNull List<Double> mean, @NonNull List<Double> std, @Nullable CropRect crop, @NonNull Result<List<Double>> result);
+    /**predicts image or the crop of it but returns the output detections, in whole image coordinates */
+    void getImagePredictionListObjectDetection(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @Nullable List<Long> rowStridesForBytesList, @Nullable List<Long> pixelStridesForBytesList, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @Nullable CropRect crop, @NonNull Result<List<ResultObjectDetection>> result);
+    /**detects objects in a camera frame, at most one frame per model waits while another runs and a newer frame replaces it, the replaced one completes as dropped */
+    void detectObjectsInLatestCameraFrame(@NonNull Long index, @NonNull List<byte[]> imageBytesList, @NonNull Long imageWidth, @NonNull Long imageHeight, @Nullable List<Long> rowStrides, @Nullable List<Long> pixelStrides, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @Nullable CropRect crop, @NonNull Result<CameraFrameResult> result);
+    /**opens a detection session on a model with fixed detection parameters, returns its id, the results of its frames come on the pytorch_lite/detection_sessions event channel, with track the boxes get track ids and the detector only runs every detectEveryFrames frames, with crop only that region of the frames is detected */
+    void openDetectionSession(@NonNull Long index, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @Nullable Boolean track, @Nullable Long detectEveryFrames, @Nullable CropRect crop, @NonNull Result<Long> result);
+    /**queues a camera frame of a detection session and returns, latest frame wins, the result is sent as an event tagged with frameId */
+    void pushDetectionSessionFrame(@NonNull Long sessionId, @NonNull Long frameId, @NonNull List<byte[]> imageBytesList, @NonNull Long imageWidth, @NonNull Long imageHeight, @Nullable List<Long> rowStrides, @Nullable List<Long> pixelStrides, @NonNull VoidResult result);
+    /**closes a detection session, frames still queued send no event */
+    void closeDetectionSession(@NonNull Long sessionId, @NonNull VoidResult result);
+    /**predicts raw image, returns the raw net output as native order float32 bytes */
+    void getRawImagePredictionFloat32List(@NonNull Long index, @NonNull byte[] imageData, @NonNull Result<byte[]> result);
+    /**predicts image or the crop of it, returns the raw net output as native order float32 bytes */
+    void getImagePredictionFloat32List(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @Nullable List<Long> rowStridesForBytesList, @Nullable List<Long> pixelStridesForBytesList, @NonNull List<Double> mean, @NonNull List<Double> std, @Nullable CropRect crop, @NonNull Result<byte[]> result);
+    /**predicts raw image, returns the output detections as packed float32 records (see PackedObjectDetections) */
+    void getRawImagePredictionListObjectDetectionPacked(@NonNull Long index, @NonNull byte[] imageData, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @NonNull Result<byte[]> result);
+    /**predicts image or the crop of it, returns the output detections in whole image coordinates as packed float32 records (see PackedObjectDetections) */
+    void getImagePredictionListObjectDetectionPacked(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @Nullable List<Long> rowStridesForBytesList, @Nullable List<Long> pixelStridesForBytesList, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @Nullable CropRect crop, @NonNull Result<byte[]> result);
+    /**predicts a batch of raw images in one forward call, returns the raw net output of each image */
+    void getRawImagePredictionListBatch(@NonNull Long index, @NonNull List<byte[]> imagesData, @NonNull Result<List<ResultClassification>> result);
+    /**predicts a batch of raw images in one forward call, returns the output detections of each image */
+    void getRawImagePredictionListObjectDetectionBatch(@NonNull Long index, @NonNull List<byte[]> imagesData, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @NonNull Result<List<ResultObjectDetectionList>> result);
+    /**predicts a batch of images in one forward call, returns the raw net output of each image */
+    void getImagePredictionListBatch(@NonNull Long index, @NonNull List<byte[]> imagesData, @NonNull List<Double> mean, @NonNull List<Double> std, @NonNull Result<List<ResultClassification>> result);
+    /**predicts a batch of images in one forward call, returns the output detections of each image */
+    void getImagePredictionListObjectDetectionBatch(@NonNull Long index, @NonNull List<byte[]> imagesData, @Nullable Double minimumScore, @Nullable Double IOUThreshold, @Nullable Long boxesLimit, @NonNull Result<List<ResultObjectDetectionList>> result);
+
+    /** The codec used by ModelApi. */
+    static @NonNull MessageCodec<Object> getCodec() {
+      return PigeonCodec.INSTANCE;
+    }
+    /**Sets up an instance of `ModelApi` to handle messages through the `binaryMessenger`. */
+    static void setUp(@NonNull BinaryMessenger binaryMessenger, @Nullable ModelApi api) {
+      setUp(binaryMessenger, "", api);
+    }
+    static void setUp(@NonNull BinaryMessenger binaryMessenger, @NonNull String messageChannelSuffix, @Nullable ModelApi api) {
+      messageChannelSuffix = messageChannelSuffix.isEmpty() ? "" : "." + messageChannelSuffix;
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.loadModel" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                String modelPathArg = (String) args.get(0);
+                Long numberOfClassesArg = (Long) args.get(1);
+                Long imageWidthArg = (Long) args.get(2);
+                Long imageHeightArg = (Long) args.get(3);
+                Long objectDetectionModelTypeArg = (Long) args.get(4);
+                ModelLoadOptions optionsArg = (ModelLoadOptions) args.get(5);
+                Result<Long> resultCallback =
+                    new Result<Long>() {
+                      public void success(Long result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.loadModel(modelPathArg, numberOfClassesArg, imageWidthArg, imageHeightArg, objectDetectionModelTypeArg, optionsArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getModelStats" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                Result<ModelStats> resultCallback =
+                    new Result<ModelStats>() {
+                      public void success(ModelStats result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getModelStats(indexArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.unloadModel" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.unloadModel(indexArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.setModelMemoryBudget" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long bytesArg = (Long) args.get(0);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.setModelMemoryBudget(bytesArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.setDetectionDefaults" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                Double minimumScoreArg = (Double) args.get(1);
+                Double IOUThresholdArg = (Double) args.get(2);
+                Long boxesLimitArg = (Long) args.get(3);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.setDetectionDefaults(indexArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.setCpuThreadBudget" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long threadsArg = (Long) args.get(0);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.setCpuThreadBudget(threadsArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustom" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                List<Double> inputArg = (List<Double>) args.get(1);
+                List<Long> shapeArg = (List<Long>) args.get(2);
+                String dtypeArg = (String) args.get(3);
+                NullableResult<List<Object>> resultCallback =
+                    new NullableResult<List<Object>>() {
+                      public void success(List<Object> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getPredictionCustom(indexArg, inputArg, shapeArg, dtypeArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustomTensor" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                TensorData inputArg = (TensorData) args.get(1);
+                Result<TensorData> resultCallback =
+                    new Result<TensorData>() {
+                      public void success(TensorData result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getPredictionCustomTensor(indexArg, inputArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.runMethod" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                String methodNameArg = (String) args.get(1);
+                List<TensorData> inputsArg = (List<TensorData>) args.get(2);
+                Result<List<TensorData>> resultCallback =
+                    new Result<List<TensorData>>() {
+                      public void success(List<TensorData> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.runMethod(indexArg, methodNameArg, inputsArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionList" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                byte[] imageDataArg = (byte[]) args.get(1);
+                Result<List<Double>> resultCallback =
+                    new Result<List<Double>>() {
+                      public void success(List<Double> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getRawImagePredictionList(indexArg, imageDataArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetection" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                byte[] imageDataArg = (byte[]) args.get(1);
+                Double minimumScoreArg = (Double) args.get(2);
+                Double IOUThresholdArg = (Double) args.get(3);
+                Long boxesLimitArg = (Long) args.get(4);
+                Result<List<ResultObjectDetection>> resultCallback =
+                    new Result<List<ResultObjectDetection>>() {
+                      public void success(List<ResultObjectDetection> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getRawImagePredictionListObjectDetection(indexArg, imageDataArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionList" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                byte[] imageDataArg = (byte[]) args.get(1);
+                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
+                Long imageWidthForBytesListArg = (Long) args.get(3);
+                Long imageHeightForBytesListArg = (Long) args.get(4);
+                List<Long> rowStridesForBytesListArg = (List<Long>) args.get(5);
+                List<Long> pixelStridesForBytesListArg = (List<Long>) args.get(6);
+                List<Double> meanArg = (List<Double>) args.get(7);
+                List<Double> stdArg = (List<Double>) args.get(8);
+                CropRect cropArg = (CropRect) args.get(9);
+                Result<List<Double>> resultCallback =
+                    new Result<List<Double>>() {
+                      public void success(List<Double> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
 
-    void loadModel(@NonNull String modelPath, @Nullable Long numberOfClasses, @Nullable Long imageWidth, @Nullable Long imageHeight, @Nullable Long objectDetectionModelType, @NonNull Result<Long> result);
-    /**predicts abstract number input */
-    void getPredictionCustom(@NonNull Long index, @NonNull List<Double> input, @NonNull List<Long> shape, @NonNull String dtype, @NonNull NullableResult<List<Object>> result);
-    /**predicts raw image but returns the raw net output */
-    void getRawImagePredictionList(@NonNull Long index, @NonNull byte[] imageData, @NonNull Result<List<Double>> result);
-    /**predicts raw image but returns the raw net output */
-    void getRawImagePredictionListObjectDetection(@NonNull Long index, @NonNull byte[] imageData, @NonNull Double minimumScore, @NonNull Double IOUThreshold, @NonNull Long boxesLimit, @NonNull Result<List<ResultObjectDetection>> result);
-    /**predicts image but returns the raw net output */
-    void getImagePredictionList(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @NonNull List<Double> mean, @NonNull List<Double> std, @NonNull Result<List<Double>> result);
-    /**predicts image but returns the output detections */
-    void getImagePredictionListObjectDetection(@NonNull Long index, @Nullable byte[] imageData, @Nullable List<byte[]> imageBytesList, @Nullable Long imageWidthForBytesList, @Nullable Long imageHeightForBytesList, @NonNull Double minimumScore, @NonNull Double IOUThreshold, @NonNull Long boxesLimit, @NonNull Result<List<ResultObjectDetection>> result);
+                api.getImagePredictionList(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, rowStridesForBytesListArg, pixelStridesForBytesListArg, meanArg, stdArg, cropArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetection" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                byte[] imageDataArg = (byte[]) args.get(1);
+                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
+                Long imageWidthForBytesListArg = (Long) args.get(3);
+                Long imageHeightForBytesListArg = (Long) args.get(4);
+                List<Long> rowStridesForBytesListArg = (List<Long>) args.get(5);
+                List<Long> pixelStridesForBytesListArg = (List<Long>) args.get(6);
+                Double minimumScoreArg = (Double) args.get(7);
+                Double IOUThresholdArg = (Double) args.get(8);
+                Long boxesLimitArg = (Long) args.get(9);
+                CropRect cropArg = (CropRect) args.get(10);
+                Result<List<ResultObjectDetection>> resultCallback =
+                    new Result<List<ResultObjectDetection>>() {
+                      public void success(List<ResultObjectDetection> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
 
-    /** The codec used by ModelApi. */
-    static @NonNull MessageCodec<Object> getCodec() {
-      return PigeonCodec.INSTANCE;
-    }
-    /**Sets up an instance of `ModelApi` to handle messages through the `binaryMessenger`. */
-    static void setUp(@NonNull BinaryMessenger binaryMessenger, @Nullable ModelApi api) {
-      setUp(binaryMessenger, "", api);
-    }
-    static void setUp(@NonNull BinaryMessenger binaryMessenger, @NonNull String messageChannelSuffix, @Nullable ModelApi api) {
-      messageChannelSuffix = messageChannelSuffix.isEmpty() ? "" : "." + messageChannelSuffix;
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getImagePredictionListObjectDetection(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, rowStridesForBytesListArg, pixelStridesForBytesListArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, cropArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
       {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.loadModel" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.detectObjectsInLatestCameraFrame" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
                 ArrayList<Object> wrapped = new ArrayList<>();
                 ArrayList<Object> args = (ArrayList<Object>) message;
-                String modelPathArg = (String) args.get(0);
-                Long numberOfClassesArg = (Long) args.get(1);
+                Long indexArg = (Long) args.get(0);
+                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(1);
                 Long imageWidthArg = (Long) args.get(2);
                 Long imageHeightArg = (Long) args.get(3);
-                Long objectDetectionModelTypeArg = (Long) args.get(4);
+                List<Long> rowStridesArg = (List<Long>) args.get(4);
+                List<Long> pixelStridesArg = (List<Long>) args.get(5);
+                Double minimumScoreArg = (Double) args.get(6);
+                Double IOUThresholdArg = (Double) args.get(7);
+                Long boxesLimitArg = (Long) args.get(8);
+                CropRect cropArg = (CropRect) args.get(9);
+                Result<CameraFrameResult> resultCallback =
+                    new Result<CameraFrameResult>() {
+                      public void success(CameraFrameResult result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.detectObjectsInLatestCameraFrame(indexArg, imageBytesListArg, imageWidthArg, imageHeightArg, rowStridesArg, pixelStridesArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, cropArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.openDetectionSession" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                Double minimumScoreArg = (Double) args.get(1);
+                Double IOUThresholdArg = (Double) args.get(2);
+                Long boxesLimitArg = (Long) args.get(3);
+                Boolean trackArg = (Boolean) args.get(4);
+                Long detectEveryFramesArg = (Long) args.get(5);
+                CropRect cropArg = (CropRect) args.get(6);
                 Result<Long> resultCallback =
                     new Result<Long>() {
                       public void success(Long result) {
@@ -499,7 +2258,7 @@ public class Pigeon {
                       }
                     };
 
-                api.loadModel(modelPathArg, numberOfClassesArg, imageWidthArg, imageHeightArg, objectDetectionModelTypeArg, resultCallback);
+                api.openDetectionSession(indexArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, trackArg, detectEveryFramesArg, cropArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -509,19 +2268,83 @@ public class Pigeon {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustom" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.pushDetectionSessionFrame" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long sessionIdArg = (Long) args.get(0);
+                Long frameIdArg = (Long) args.get(1);
+                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
+                Long imageWidthArg = (Long) args.get(3);
+                Long imageHeightArg = (Long) args.get(4);
+                List<Long> rowStridesArg = (List<Long>) args.get(5);
+                List<Long> pixelStridesArg = (List<Long>) args.get(6);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.pushDetectionSessionFrame(sessionIdArg, frameIdArg, imageBytesListArg, imageWidthArg, imageHeightArg, rowStridesArg, pixelStridesArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.closeDetectionSession" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long sessionIdArg = (Long) args.get(0);
+                VoidResult resultCallback =
+                    new VoidResult() {
+                      public void success() {
+                        wrapped.add(0, null);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.closeDetectionSession(sessionIdArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionFloat32List" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
                 ArrayList<Object> wrapped = new ArrayList<>();
                 ArrayList<Object> args = (ArrayList<Object>) message;
                 Long indexArg = (Long) args.get(0);
-                List<Double> inputArg = (List<Double>) args.get(1);
-                List<Long> shapeArg = (List<Long>) args.get(2);
-                String dtypeArg = (String) args.get(3);
-                NullableResult<List<Object>> resultCallback =
-                    new NullableResult<List<Object>>() {
-                      public void success(List<Object> result) {
+                byte[] imageDataArg = (byte[]) args.get(1);
+                Result<byte[]> resultCallback =
+                    new Result<byte[]>() {
+                      public void success(byte[] result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -532,7 +2355,7 @@ public class Pigeon {
                       }
                     };
 
-                api.getPredictionCustom(indexArg, inputArg, shapeArg, dtypeArg, resultCallback);
+                api.getRawImagePredictionFloat32List(indexArg, imageDataArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -542,7 +2365,7 @@ public class Pigeon {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionList" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionFloat32List" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
@@ -550,9 +2373,17 @@ public class Pigeon {
                 ArrayList<Object> args = (ArrayList<Object>) message;
                 Long indexArg = (Long) args.get(0);
                 byte[] imageDataArg = (byte[]) args.get(1);
-                Result<List<Double>> resultCallback =
-                    new Result<List<Double>>() {
-                      public void success(List<Double> result) {
+                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
+                Long imageWidthForBytesListArg = (Long) args.get(3);
+                Long imageHeightForBytesListArg = (Long) args.get(4);
+                List<Long> rowStridesForBytesListArg = (List<Long>) args.get(5);
+                List<Long> pixelStridesForBytesListArg = (List<Long>) args.get(6);
+                List<Double> meanArg = (List<Double>) args.get(7);
+                List<Double> stdArg = (List<Double>) args.get(8);
+                CropRect cropArg = (CropRect) args.get(9);
+                Result<byte[]> resultCallback =
+                    new Result<byte[]>() {
+                      public void success(byte[] result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -563,7 +2394,7 @@ public class Pigeon {
                       }
                     };
 
-                api.getRawImagePredictionList(indexArg, imageDataArg, resultCallback);
+                api.getImagePredictionFloat32List(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, rowStridesForBytesListArg, pixelStridesForBytesListArg, meanArg, stdArg, cropArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -573,7 +2404,7 @@ public class Pigeon {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetection" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionPacked" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
@@ -584,9 +2415,9 @@ public class Pigeon {
                 Double minimumScoreArg = (Double) args.get(2);
                 Double IOUThresholdArg = (Double) args.get(3);
                 Long boxesLimitArg = (Long) args.get(4);
-                Result<List<ResultObjectDetection>> resultCallback =
-                    new Result<List<ResultObjectDetection>>() {
-                      public void success(List<ResultObjectDetection> result) {
+                Result<byte[]> resultCallback =
+                    new Result<byte[]>() {
+                      public void success(byte[] result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -597,7 +2428,7 @@ public class Pigeon {
                       }
                     };
 
-                api.getRawImagePredictionListObjectDetection(indexArg, imageDataArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
+                api.getRawImagePredictionListObjectDetectionPacked(indexArg, imageDataArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -607,7 +2438,7 @@ public class Pigeon {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionList" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionPacked" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
@@ -618,11 +2449,15 @@ public class Pigeon {
                 List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
                 Long imageWidthForBytesListArg = (Long) args.get(3);
                 Long imageHeightForBytesListArg = (Long) args.get(4);
-                List<Double> meanArg = (List<Double>) args.get(5);
-                List<Double> stdArg = (List<Double>) args.get(6);
-                Result<List<Double>> resultCallback =
-                    new Result<List<Double>>() {
-                      public void success(List<Double> result) {
+                List<Long> rowStridesForBytesListArg = (List<Long>) args.get(5);
+                List<Long> pixelStridesForBytesListArg = (List<Long>) args.get(6);
+                Double minimumScoreArg = (Double) args.get(7);
+                Double IOUThresholdArg = (Double) args.get(8);
+                Long boxesLimitArg = (Long) args.get(9);
+                CropRect cropArg = (CropRect) args.get(10);
+                Result<byte[]> resultCallback =
+                    new Result<byte[]>() {
+                      public void success(byte[] result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -633,7 +2468,7 @@ public class Pigeon {
                       }
                     };
 
-                api.getImagePredictionList(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, meanArg, stdArg, resultCallback);
+                api.getImagePredictionListObjectDetectionPacked(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, rowStridesForBytesListArg, pixelStridesForBytesListArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, cropArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -643,23 +2478,118 @@ public class Pigeon {
         BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
-                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetection" + messageChannelSuffix, getCodec(), taskQueue);
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListBatch" + messageChannelSuffix, getCodec(), taskQueue);
         if (api != null) {
           channel.setMessageHandler(
               (message, reply) -> {
                 ArrayList<Object> wrapped = new ArrayList<>();
                 ArrayList<Object> args = (ArrayList<Object>) message;
                 Long indexArg = (Long) args.get(0);
-                byte[] imageDataArg = (byte[]) args.get(1);
-                List<byte[]> imageBytesListArg = (List<byte[]>) args.get(2);
-                Long imageWidthForBytesListArg = (Long) args.get(3);
-                Long imageHeightForBytesListArg = (Long) args.get(4);
-                Double minimumScoreArg = (Double) args.get(5);
-                Double IOUThresholdArg = (Double) args.get(6);
-                Long boxesLimitArg = (Long) args.get(7);
-                Result<List<ResultObjectDetection>> resultCallback =
-                    new Result<List<ResultObjectDetection>>() {
-                      public void success(List<ResultObjectDetection> result) {
+                List<byte[]> imagesDataArg = (List<byte[]>) args.get(1);
+                Result<List<ResultClassification>> resultCallback =
+                    new Result<List<ResultClassification>>() {
+                      public void success(List<ResultClassification> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getRawImagePredictionListBatch(indexArg, imagesDataArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionBatch" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                List<byte[]> imagesDataArg = (List<byte[]>) args.get(1);
+                Double minimumScoreArg = (Double) args.get(2);
+                Double IOUThresholdArg = (Double) args.get(3);
+                Long boxesLimitArg = (Long) args.get(4);
+                Result<List<ResultObjectDetectionList>> resultCallback =
+                    new Result<List<ResultObjectDetectionList>>() {
+                      public void success(List<ResultObjectDetectionList> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getRawImagePredictionListObjectDetectionBatch(indexArg, imagesDataArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListBatch" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                List<byte[]> imagesDataArg = (List<byte[]>) args.get(1);
+                List<Double> meanArg = (List<Double>) args.get(2);
+                List<Double> stdArg = (List<Double>) args.get(3);
+                Result<List<ResultClassification>> resultCallback =
+                    new Result<List<ResultClassification>>() {
+                      public void success(List<ResultClassification> result) {
+                        wrapped.add(0, result);
+                        reply.reply(wrapped);
+                      }
+
+                      public void error(Throwable error) {
+                        ArrayList<Object> wrappedError = wrapError(error);
+                        reply.reply(wrappedError);
+                      }
+                    };
+
+                api.getImagePredictionListBatch(indexArg, imagesDataArg, meanArg, stdArg, resultCallback);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger, "dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionBatch" + messageChannelSuffix, getCodec(), taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long indexArg = (Long) args.get(0);
+                List<byte[]> imagesDataArg = (List<byte[]>) args.get(1);
+                Double minimumScoreArg = (Double) args.get(2);
+                Double IOUThresholdArg = (Double) args.get(3);
+                Long boxesLimitArg = (Long) args.get(4);
+                Result<List<ResultObjectDetectionList>> resultCallback =
+                    new Result<List<ResultObjectDetectionList>>() {
+                      public void success(List<ResultObjectDetectionList> result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -670,7 +2600,7 @@ public class Pigeon {
                       }
                     };
 
-                api.getImagePredictionListObjectDetection(indexArg, imageDataArg, imageBytesListArg, imageWidthForBytesListArg, imageHeightForBytesListArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
+                api.getImagePredictionListObjectDetectionBatch(indexArg, imagesDataArg, minimumScoreArg, IOUThresholdArg, boxesLimitArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -6,11 +6,13 @@
 
 package com.abdelaziz_mahdy.pytorch_lite;
 
-import android.util.Log;
-
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PrePostProcessor {
     static String[] mClasses;
@@ -21,19 +23,41 @@ public class PrePostProcessor {
     // model output is of size 25200*(num_of_class+5)
     // int mOutputRow = 25200; // as decided by the YOLOv5 model for input image of size 640*640
     int mOutputColumn = (mNumberOfClasses + 5); // left, top, right, bottom, score and 80 class probability
-    float mScoreThreshold = 0.30f; // score above which a detection is generated
-    float mIOUThreshold = 0.30f; // IOU thershold
     int mImageWidth = 640;
     int mImageHeight = 640;
-    int mNmsLimit = 15;
+    // thresholds and box limit of the calls that do not pass their own
+    volatile DetectionOptions mDetectionDefaults = DetectionOptions.DEFAULT;
+    // NonMaxSuppression.GRID or EXHAUSTIVE
+    int mNmsEngine = NonMaxSuppression.GRID;
+    // boxes only suppress boxes of their own class
+    boolean mClassAwareNms;
+    // splits the decode of large outputs over mDecodeWorkers chunks
+    boolean mParallelDecode;
+    int mDecodeWorkers = ParallelTasks.PARALLELISM;
     int mObjectDetectionModelType;
+    // preallocated input tensors of size mImageWidth*mImageHeight
+    InputTensorPool mInputTensorPool;
+    // downsampling decoder for encoded images, reuses its bitmaps
+    BitmapDecoder mBitmapDecoder;
+    // batched input tensors by batch size, only a few sizes are kept around
+    static final int MAX_BATCH_INPUT_POOLS = 2;
+    private final HashMap<Integer, InputTensorPool> mBatchInputTensorPools = new HashMap<>();
+    // candidate buffers of finished decodes, one per decode in flight and
+    // per parallel decode worker at most
+    static final int MAX_POOLED_CANDIDATES = 4 + ParallelTasks.PARALLELISM;
+    private final ConcurrentLinkedQueue<DetectionCandidates> mFreeCandidates = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mPooledCandidates = new AtomicInteger();
 
     PrePostProcessor() {
+        mInputTensorPool = new InputTensorPool(mImageWidth, mImageHeight);
+        mBitmapDecoder = new BitmapDecoder(mImageWidth, mImageHeight);
     }
 
     PrePostProcessor(int imageWidth, int imageHeight) {
         mImageWidth = imageWidth;
         mImageHeight = imageHeight;
+        mInputTensorPool = new InputTensorPool(mImageWidth, mImageHeight);
+        mBitmapDecoder = new BitmapDecoder(mImageWidth, mImageHeight);
     }
 
     PrePostProcessor(int numberOfClasses, int imageWidth, int imageHeight,
@@ -49,11 +73,29 @@ public class PrePostProcessor {
             // mOutputRow = 8400; // as decided by the YOLOv5 model for input image of size 640*640
             mOutputColumn = (mNumberOfClasses + 4); // left, top, right, bottom, score and 80 class probability
         }
-
+        mInputTensorPool = new InputTensorPool(mImageWidth, mImageHeight);
+        mBitmapDecoder = new BitmapDecoder(mImageWidth, mImageHeight);
     }
 
-    // The two methods nonMaxSuppression and IOU below are ported from
-    // https://github.com/hollance/YOLO-CoreML-MPSNNGraph/blob/master/Common/Helpers.swift
+    /**
+     * Input tensors of shape [batchSize, 3, mImageHeight, mImageWidth].
+     */
+    InputTensorPool getInputTensorPool(int batchSize) {
+        if (batchSize == 1) {
+            return mInputTensorPool;
+        }
+        synchronized (mBatchInputTensorPools) {
+            InputTensorPool inputTensorPool = mBatchInputTensorPools.get(batchSize);
+            if (inputTensorPool == null) {
+                if (mBatchInputTensorPools.size() >= MAX_BATCH_INPUT_POOLS) {
+                    mBatchInputTensorPools.clear();
+                }
+                inputTensorPool = new InputTensorPool(mImageWidth, mImageHeight, batchSize);
+                mBatchInputTensorPools.put(batchSize, inputTensorPool);
+            }
+            return inputTensorPool;
+        }
+    }
 
     public static Double getFloatAsDouble(Float fValue) {
         return Double.valueOf(fValue);
@@ -61,189 +103,230 @@ public class PrePostProcessor {
 
     /**
      * Removes bounding boxes that overlap too much with other boxes that have
-     * a higher score.
-     * - Parameters:
-     * - boxes: an array of bounding boxes and their scores
-     * - limit: the maximum number of boxes that will be selected
-     * - threshold: used to decide whether boxes overlap too much
+     * a higher score, keeping at most {@code options.nmsLimit} boxes, see
+     * {@link NonMaxSuppression}. The kept boxes are normalized to the image
+     * size.
      */
-    ArrayList<Pigeon.ResultObjectDetection> nonMaxSuppression(ArrayList<Pigeon.ResultObjectDetection> boxes) {
-        // Log.i("PytorchLitePlugin","first score before sorting
-        // "+boxes.get(0).getScore());
-        // Do an argsort on the confidence scores, from high to low.
-        Collections.sort(boxes,
-                (o2, o1) -> o1.getScore().compareTo(o2.getScore()));
-        // Log.i("PytorchLitePlugin","first score after sorting
-        // "+boxes.get(0).getScore());
-        ArrayList<Pigeon.ResultObjectDetection> selected = new ArrayList<>();
-        boolean[] active = new boolean[boxes.size()];
-        Arrays.fill(active, true);
-        int numActive = active.length;
-
-        // The algorithm is simple: Start with the box that has the highest score.
-        // Remove any remaining boxes that overlap it more than the given threshold
-        // amount. If there are any boxes left (i.e. these did not overlap with any
-        // previous boxes), then repeat this procedure, until no more boxes remain
-        // or the limit has been reached.
-        boolean done = false;
-        for (int i = 0; i < boxes.size() && !done; i++) {
-            if (active[i]) {
-                Pigeon.ResultObjectDetection boxA = boxes.get(i);
-                selected.add(boxA);
-                if (selected.size() >= mNmsLimit)
-                    break;
-
-                for (int j = i + 1; j < boxes.size(); j++) {
-                    if (active[j]) {
-                        Pigeon.ResultObjectDetection boxB = boxes.get(j);
-                        if (IOU(boxA.getRect(), boxB.getRect()) > mIOUThreshold) {
-                            active[j] = false;
-                            numActive -= 1;
-                            if (numActive <= 0) {
-                                done = true;
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
+    ArrayList<Pigeon.ResultObjectDetection> nonMaxSuppression(DetectionCandidates candidates,
+            DetectionOptions options) {
+        int kept = select(candidates, options);
+        int[] keep = candidates.keep;
+        ArrayList<Pigeon.ResultObjectDetection> selected = new ArrayList<>(kept);
+        for (int i = 0; i < kept; i++) {
+            int box = keep[i];
+            float left = candidates.left[box];
+            float top = candidates.top[box];
+            float right = candidates.right[box];
+            float bottom = candidates.bottom[box];
+            Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder()
+                    .setLeft(getFloatAsDouble(left / mImageWidth))
+                    .setTop(getFloatAsDouble(top / mImageHeight))
+                    .setWidth(getFloatAsDouble((right - left) / mImageWidth))
+                    .setHeight(getFloatAsDouble((bottom - top) / mImageHeight))
+                    .setBottom(getFloatAsDouble(bottom / mImageHeight))
+                    .setRight(getFloatAsDouble(right / mImageWidth))
+                    .build();
+            selected.add(new Pigeon.ResultObjectDetection.Builder()
+                    .setClassIndex((long) candidates.classIndex[box])
+                    .setScore(getFloatAsDouble(candidates.score[box]))
+                    .setRect(rect)
+                    .build());
         }
-        Log.i("PytorchLitePlugin", "result length after processing " + selected.size());
-
         return selected;
     }
 
+    // runs the NMS, the kept boxes are the first returned entries of candidates.keep
+    private int select(DetectionCandidates candidates, DetectionOptions options) {
+        int limit = options.nmsLimit;
+        candidates.keep = DetectionCandidates.ensureCapacity(candidates.keep,
+                Math.min(candidates.size, Math.max(limit, 1)));
+        return mClassAwareNms
+                ? NonMaxSuppression.selectPerClass(candidates, options.iouThreshold, limit, candidates.keep,
+                        mNmsEngine)
+                : NonMaxSuppression.select(candidates, options.iouThreshold, limit, candidates.keep, mNmsEngine);
+    }
+
+    private DetectionCandidates acquireCandidates() {
+        DetectionCandidates candidates = mFreeCandidates.poll();
+        if (candidates == null) {
+            return new DetectionCandidates();
+        }
+        mPooledCandidates.decrementAndGet();
+        return candidates;
+    }
+
+    private void releaseCandidates(DetectionCandidates candidates) {
+        candidates.clear();
+        if (mPooledCandidates.incrementAndGet() <= MAX_POOLED_CANDIDATES) {
+            mFreeCandidates.offer(candidates);
+        } else {
+            mPooledCandidates.decrementAndGet();
+        }
+    }
+
+    // rows of the yolov8 output read one class column at a time
+    static final int DECODE_BLOCK_ROWS = 256;
+    // fewer rows per worker are not worth a task
+    static final int MIN_PARALLEL_DECODE_ROWS = 2048;
+
     /**
-     * Computes intersection-over-union overlap between two bounding boxes.
+     * Decodes rows {@code [from, to)} of a yolov8 output, which is column
+     * major: all x, then all y, ... then the scores of each class. The rows
+     * are taken in blocks, and the class scores of a block are scanned one
+     * contiguous column after the other instead of striding over every
+     * column for each row.
      */
-    Double IOU(Pigeon.PyTorchRect a, Pigeon.PyTorchRect b) {
-        Double areaA = ((a.getRight() - a.getLeft()) * (a.getBottom() - a.getTop()));
-        if (areaA <= 0.0)
-            return 0.0;
-
-        Double areaB = ((b.getRight() - b.getLeft()) * (b.getBottom() - b.getTop()));
-        if (areaB <= 0.0)
-            return 0.0;
-
-        Double intersectionMinX = Math.max(a.getLeft(), b.getLeft());
-        Double intersectionMinY = Math.max(a.getTop(), b.getTop());
-        Double intersectionMaxX = Math.min(a.getRight(), b.getRight());
-        Double intersectionMaxY = Math.min(a.getBottom(), b.getBottom());
-        Double intersectionArea = Math.max(intersectionMaxY - intersectionMinY, 0) *
-                Math.max(intersectionMaxX - intersectionMinX, 0);
-        return intersectionArea / (areaA + areaB - intersectionArea);
-    }
-
-    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictionsYoloV8(float[] outputs) {
-int mOutputRow = outputs.length/mOutputColumn;
-                Log.i("PytorchLitePlugin", "model mOutputRow is " + mOutputRow);
-
-        ArrayList<Pigeon.ResultObjectDetection> results = new ArrayList<>();
-        for (int i = 0; i < mOutputRow; i++) {
-
-            float x = outputs[i];
-            float y = outputs[mOutputRow + i];
-            float w = outputs[2 * mOutputRow + i];
-            float h = outputs[3 * mOutputRow + i];
-
-            float left = (x - w / 2);
-            float top = (y - h / 2);
-            float right = (x + w / 2);
-            float bottom = (y + h / 2);
-
-            float max = outputs[4 * mOutputRow + i];
-            int cls = 0;
-            for (int j = 4; j < mOutputColumn; j++) {
-                if (outputs[j * mOutputRow + i] > max) {
-                    max = outputs[j * mOutputRow + i];
-                    cls = j - 4;
+    void decodeYoloV8(float[] outputs, int offset, int rows, int from, int to, float scoreThreshold,
+            DetectionCandidates candidates) {
+        candidates.blockScores = DetectionCandidates.ensureCapacity(candidates.blockScores, DECODE_BLOCK_ROWS);
+        candidates.blockClasses = DetectionCandidates.ensureCapacity(candidates.blockClasses, DECODE_BLOCK_ROWS);
+        float[] best = candidates.blockScores;
+        int[] bestClass = candidates.blockClasses;
+        for (int start = from; start < to; start += DECODE_BLOCK_ROWS) {
+            int count = Math.min(DECODE_BLOCK_ROWS, to - start);
+            System.arraycopy(outputs, offset + 4 * rows + start, best, 0, count);
+            Arrays.fill(bestClass, 0, count, 0);
+            for (int j = 5; j < mOutputColumn; j++) {
+                int column = offset + j * rows + start;
+                for (int r = 0; r < count; r++) {
+                    if (outputs[column + r] > best[r]) {
+                        best[r] = outputs[column + r];
+                        bestClass[r] = j - 4;
+                    }
                 }
             }
-
-            if (max > mScoreThreshold) {
-                Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder().setLeft(
-                        getFloatAsDouble(left / mImageWidth)).setTop(
-                                getFloatAsDouble(top / mImageHeight))
-                        .setWidth(
-                                getFloatAsDouble(w / mImageWidth))
-                        .setHeight(
-                                getFloatAsDouble(h / mImageHeight))
-                        .setBottom(
-                                getFloatAsDouble(bottom / mImageHeight))
-                        .setRight(
-                                getFloatAsDouble(right / mImageWidth))
-                        .build();
-                Pigeon.ResultObjectDetection result = new Pigeon.ResultObjectDetection.Builder()
-                        .setClassIndex((long) cls).setScore(getFloatAsDouble(max)).setRect(rect).build();
-
-                results.add(result);
-
+            for (int r = 0; r < count; r++) {
+                if (best[r] > scoreThreshold) {
+                    int i = start + r;
+                    float x = outputs[offset + i];
+                    float y = outputs[offset + rows + i];
+                    float w = outputs[offset + 2 * rows + i];
+                    float h = outputs[offset + 3 * rows + i];
+                    candidates.add(x - w / 2, y - h / 2, x + w / 2, y + h / 2, best[r], bestClass[r]);
+                }
             }
         }
+    }
 
-        Log.i("PytorchLitePlugin", "result length before processing " + results.size());
-        return nonMaxSuppression(results);
-    }
-
-    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictionsYolov5(float[] outputs) {
-        int mOutputRow = outputs.length/mOutputColumn;
-        Log.i("PytorchLitePlugin", "model mOutputRow is " + mOutputRow);
-        ArrayList<Pigeon.ResultObjectDetection> results = new ArrayList<>();
-        for (int i = 0; i < mOutputRow; i++) {
-            // Log.i("PytorchLitePlugin","0:"+outputs[i* mOutputColumn]+"1");
-            if (outputs[i * mOutputColumn + 4] > mScoreThreshold) {
-                float x = outputs[i * mOutputColumn];
-                float y = outputs[i * mOutputColumn + 1];
-                float w = outputs[i * mOutputColumn + 2];
-                float h = outputs[i * mOutputColumn + 3];
-
-                float left = (x - w / 2);
-                float top = (y - h / 2);
-                float right = (x + w / 2);
-                float bottom = (y + h / 2);
-
-                // Log.i("PytorchLitePlugin","i* mOutputColumn +4="+outputs[i* mOutputColumn
-                // +4]+",outputs[i* mOutputColumn +5] "+outputs[i* mOutputColumn +5]);
-                float max = outputs[i * mOutputColumn + 5];
+    /**
+     * Decodes rows {@code [from, to)} of a yolov5 output, which is row
+     * major: x, y, w, h, objectness and the class scores of each row.
+     */
+    void decodeYolov5(float[] outputs, int offset, int from, int to, float scoreThreshold,
+            DetectionCandidates candidates) {
+        for (int i = from; i < to; i++) {
+            int row = offset + i * mOutputColumn;
+            if (outputs[row + 4] > scoreThreshold) {
+                float x = outputs[row];
+                float y = outputs[row + 1];
+                float w = outputs[row + 2];
+                float h = outputs[row + 3];
+
+                float max = outputs[row + 5];
                 int cls = 0;
                 for (int j = 0; j < mOutputColumn - 5; j++) {
-                    if (outputs[i * mOutputColumn + 5 + j] > max) {
-                        max = outputs[i * mOutputColumn + 5 + j];
+                    if (outputs[row + 5 + j] > max) {
+                        max = outputs[row + 5 + j];
                         cls = j;
                     }
                 }
 
-                Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder().setLeft(
-                        getFloatAsDouble(left / mImageWidth)).setTop(
-                                getFloatAsDouble(top / mImageHeight))
-                        .setWidth(
-                                getFloatAsDouble(w / mImageWidth))
-                        .setHeight(
-                                getFloatAsDouble(h / mImageHeight))
-                        .setBottom(
-                                getFloatAsDouble(bottom / mImageHeight))
-                        .setRight(
-                                getFloatAsDouble(right / mImageWidth))
-                        .build();
-                Pigeon.ResultObjectDetection result = new Pigeon.ResultObjectDetection.Builder()
-                        .setClassIndex((long) cls).setScore(getFloatAsDouble(outputs[i*mOutputColumn+4]))
-                        .setRect(rect).build();
-
-                results.add(result);
-
+                candidates.add(x - w / 2, y - h / 2, x + w / 2, y + h / 2, outputs[row + 4], cls);
             }
         }
-
-        Log.i("PytorchLitePlugin", "result length before processing " + results.size());
-        return nonMaxSuppression(results);
     }
 
-    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictions(float[] outputs) {
-        // passed on model return value
+    private void decodeRows(float[] outputs, int offset, int rows, int from, int to, float scoreThreshold,
+            DetectionCandidates candidates) {
         if (mObjectDetectionModelType == 0) {
-            return outputsToNMSPredictionsYolov5(outputs);
+            decodeYolov5(outputs, offset, from, to, scoreThreshold, candidates);
         } else {
-            return outputsToNMSPredictionsYoloV8(outputs);
+            decodeYoloV8(outputs, offset, rows, from, to, scoreThreshold, candidates);
+        }
+    }
+
+    /**
+     * Decodes the candidates of one image. With mParallelDecode the rows are
+     * split in chunks decoded on the {@link ParallelTasks} pool, each into
+     * its own buffer, and the buffers are appended in row order so the
+     * candidates come out exactly as a serial decode leaves them.
+     */
+    void decode(final float[] outputs, final int offset, int length, final float scoreThreshold,
+            DetectionCandidates candidates) {
+        final int rows = length / mOutputColumn;
+        int chunks = mParallelDecode ? Math.min(mDecodeWorkers, rows / MIN_PARALLEL_DECODE_ROWS) : 1;
+        if (chunks <= 1) {
+            decodeRows(outputs, offset, rows, 0, rows, scoreThreshold, candidates);
+            return;
+        }
+        final DetectionCandidates[] parts = new DetectionCandidates[chunks];
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        try {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                final DetectionCandidates part = acquireCandidates();
+                final int from = (int) ((long) rows * chunk / chunks);
+                final int to = (int) ((long) rows * (chunk + 1) / chunks);
+                parts[chunk] = part;
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        decodeRows(outputs, offset, rows, from, to, scoreThreshold, part);
+                        return null;
+                    }
+                });
+            }
+            ParallelTasks.run(tasks, true);
+            for (DetectionCandidates part : parts) {
+                candidates.addAll(part);
+            }
+        } finally {
+            for (DetectionCandidates part : parts) {
+                if (part != null) {
+                    releaseCandidates(part);
+                }
+            }
+        }
+    }
+
+    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictions(float[] outputs) {
+        return outputsToNMSPredictions(outputs, mDetectionDefaults);
+    }
+
+    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictions(float[] outputs, DetectionOptions options) {
+        return outputsToNMSPredictions(outputs, 0, outputs.length, options);
+    }
+
+    /**
+     * Decodes the {@code length} outputs starting at {@code offset}, which is
+     * how the output of one image is picked out of a batched forward call.
+     * Nothing is written on this processor, the thresholds come from
+     * {@code options}, so concurrent calls do not see each other's options.
+     */
+    ArrayList<Pigeon.ResultObjectDetection> outputsToNMSPredictions(float[] outputs, int offset, int length,
+            DetectionOptions options) {
+        DetectionCandidates candidates = acquireCandidates();
+        try {
+            decode(outputs, offset, length, options.scoreThreshold, candidates);
+            return nonMaxSuppression(candidates, options);
+        } finally {
+            releaseCandidates(candidates);
+        }
+    }
+
+    /**
+     * Decodes {@code outputs} like {@link #outputsToNMSPredictions(float[], DetectionOptions)}
+     * but packs the kept boxes straight from the candidate buffers, see
+     * {@link PackedDetections}. With a {@code crop} the boxes are mapped to
+     * the whole frame.
+     */
+    byte[] outputsToPackedPredictions(float[] outputs, DetectionOptions options, ImageCrop crop) {
+        DetectionCandidates candidates = acquireCandidates();
+        try {
+            decode(outputs, 0, outputs.length, options.scoreThreshold, candidates);
+            int kept = select(candidates, options);
+            return PackedDetections.pack(candidates, candidates.keep, kept, mImageWidth, mImageHeight, crop);
+        } finally {
+            releaseCandidates(candidates);
         }
     }
 
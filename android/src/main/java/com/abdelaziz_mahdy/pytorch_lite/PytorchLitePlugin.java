@@ -1,36 +1,29 @@
 package com.abdelaziz_mahdy.pytorch_lite;
 
-import android.annotation.TargetApi;
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.ImageFormat;
-import android.graphics.Matrix;
-import android.graphics.Rect;
-import android.graphics.YuvImage;
-import android.os.Build;
+import android.content.pm.PackageManager;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.RequiresApi;
-// import org.pytorch.LiteModuleLoader;
 import org.pytorch.DType;
 import org.pytorch.IValue;
-import org.pytorch.MemoryFormat;
-import org.pytorch.Module;
 import org.pytorch.Tensor;
-import org.pytorch.torchvision.TensorImageUtils;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.nio.FloatBuffer;
-import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.view.TextureRegistry;
 
 /**
@@ -40,8 +33,29 @@ import io.flutter.view.TextureRegistry;
 public class PytorchLitePlugin implements FlutterPlugin, Pigeon.ModelApi {
 
     private static final String TAG = "PytorchLitePlugin";
-    ArrayList<Module> modules = new ArrayList<>();
-    ArrayList<PrePostProcessor> prePostProcessors = new ArrayList<>();
+    // android camera frames arrive in sensor orientation
+    private static final int CAMERA_ROTATION_DEGREES = 90;
+    private final ModelRegistry mModels = new ModelRegistry();
+    private final ThreadBudget mThreadBudget = new ThreadBudget();
+    // latest frame wins camera inference, one scheduler per model
+    private final HashMap<Long, FrameScheduler> mFrameSchedulers = new HashMap<>();
+    private ExecutorService mCameraExecutor;
+    private final HashMap<Long, DetectionSession> mSessions = new HashMap<>();
+    private long mNextSessionId;
+    // set on the main thread while dart listens to the session events
+    private EventChannel.EventSink mSessionEvents;
+    private Handler mMainHandler;
+    private final EventChannel.StreamHandler mSessionEventsHandler = new EventChannel.StreamHandler() {
+        @Override
+        public void onListen(Object arguments, EventChannel.EventSink events) {
+            mSessionEvents = events;
+        }
+
+        @Override
+        public void onCancel(Object arguments) {
+            mSessionEvents = null;
+        }
+    };
 
     private FlutterState flutterState;
 
@@ -51,8 +65,11 @@ public class PytorchLitePlugin implements FlutterPlugin, Pigeon.ModelApi {
         this.flutterState = new FlutterState(
                 binding.getApplicationContext(),
                 binding.getBinaryMessenger(),
-                binding.getTextureRegistry());
+                binding.getTextureRegistry(),
+                binding.getFlutterAssets());
         flutterState.startListening(this, binding.getBinaryMessenger());
+        mCameraExecutor = Executors.newCachedThreadPool();
+        mMainHandler = new Handler(Looper.getMainLooper());
     }
 
     @Override
@@ -62,25 +79,71 @@ public class PytorchLitePlugin implements FlutterPlugin, Pigeon.ModelApi {
         }
         flutterState.stopListening(binding.getBinaryMessenger());
         flutterState = null;
+        synchronized (mFrameSchedulers) {
+            mFrameSchedulers.clear();
+        }
+        synchronized (mSessions) {
+            for (DetectionSession session : mSessions.values()) {
+                session.closed = true;
+            }
+            mSessions.clear();
+        }
+        mCameraExecutor.shutdown();
+        mModels.clear();
     }
     @Override
-    public void loadModel(String modelPath, Long numberOfClasses, Long imageWidth, Long imageHeight, Long objectDetectionModelType, Pigeon.Result<Long> result) {
-        int i = -1;
+    public void loadModel(String modelPath, Long numberOfClasses, Long imageWidth, Long imageHeight,
+            Long objectDetectionModelType, Pigeon.ModelLoadOptions options, Pigeon.Result<Long> result) {
         try {
-            // modules.add(LiteModuleLoader.load(modelPath));
-            modules.add(Module.load(modelPath));
+            int replicas = 1;
+            if (options != null && options.getReplicas() != null) {
+                replicas = options.getReplicas().intValue();
+            }
+            if (replicas < 1) {
+                throw new IllegalArgumentException("replicas should be at least 1");
+            }
+            // one call per replica unless told otherwise
+            int maxConcurrency = replicas;
+            if (options != null && options.getMaxConcurrency() != null) {
+                maxConcurrency = options.getMaxConcurrency().intValue();
+            }
+            int numThreads = ThreadBudget.DEFAULT;
+            if (options != null && options.getNumThreads() != null) {
+                numThreads = options.getNumThreads().intValue();
+            }
+            boolean lite = options != null && Boolean.TRUE.equals(options.getLite());
+            int warmUpRuns = 0;
+            if (options != null && options.getWarmUpRuns() != null) {
+                warmUpRuns = options.getWarmUpRuns().intValue();
+            }
+            if (warmUpRuns > 0 && (imageWidth == null || imageHeight == null)) {
+                throw new IllegalArgumentException("warmUpRuns needs the image size of the model");
+            }
+            PrePostProcessor prePostProcessor;
             if (numberOfClasses != null && imageWidth != null && imageHeight != null) {
-                prePostProcessors.add(new PrePostProcessor(numberOfClasses.intValue(), imageWidth.intValue(),
-                        imageHeight.intValue(), objectDetectionModelType.intValue()));
+                prePostProcessor = new PrePostProcessor(numberOfClasses.intValue(), imageWidth.intValue(),
+                        imageHeight.intValue(), objectDetectionModelType.intValue());
             } else {
                 if (imageWidth != null && imageHeight != null) {
-                    prePostProcessors.add(new PrePostProcessor(imageWidth.intValue(), imageHeight.intValue()));
+                    prePostProcessor = new PrePostProcessor(imageWidth.intValue(), imageHeight.intValue());
                 } else {
-                    prePostProcessors.add(new PrePostProcessor());
+                    prePostProcessor = new PrePostProcessor();
                 }
             }
-            i = (modules.size() - 1);
-            result.success((long) i);
+            if (options != null && options.getNmsEngine() != null) {
+                prePostProcessor.mNmsEngine = nmsEngine(options.getNmsEngine());
+            }
+            if (options != null && options.getClassAwareNms() != null) {
+                prePostProcessor.mClassAwareNms = options.getClassAwareNms();
+            }
+            if (options != null && options.getParallelDecode() != null) {
+                prePostProcessor.mParallelDecode = options.getParallelDecode();
+            }
+            boolean fromAsset = options != null && Boolean.TRUE.equals(options.getFromAsset());
+            ModuleLoader loader = fromAsset ? flutterState.assetLoader(modelPath, lite)
+                    : ModuleLoader.fromFile(modelPath, lite);
+            result.success(mModels.add(new LoadedModel(loader, replicas,
+                    prePostProcessor, maxConcurrency, numThreads, warmUpRuns, mThreadBudget)));
         } catch (Exception e) {
             Log.e(TAG, modelPath + " is not a proper model", e);
 
@@ -89,312 +152,783 @@ result.error(e);
 
     }
 
-    @TargetApi(Build.VERSION_CODES.N)
+    private static int nmsEngine(String name) {
+        switch (name) {
+            case "grid":
+                return NonMaxSuppression.GRID;
+            case "exhaustive":
+                return NonMaxSuppression.EXHAUSTIVE;
+            default:
+                throw new IllegalArgumentException("unknown nmsEngine " + name);
+        }
+    }
+
     @Override
-    public void getPredictionCustom(Long index, List<Double> input, List<Long> shape, String dtype, Pigeon.NullableResult<List<Object>> result) {
-        Module module = null;
-        Double[] data = new Double[input.size()];
-        DType dtype_enum = null;
-        long[] shape_primitive = null;
+    public void unloadModel(Long index, Pigeon.VoidResult result) {
         try {
-            module = modules.get(index.intValue());
-
-            dtype_enum = DType.valueOf(dtype.toUpperCase());
-
-            Log.i(TAG, "parsed dtype_enum");
-
-            // Long[] l = shape.toArray(new Long[0]);
-            // long[] l = ArrayUtils.toPrimitive(l);
-            // long[] result
+            mModels.remove(index);
+            synchronized (mFrameSchedulers) {
+                mFrameSchedulers.remove(index);
+            }
+            synchronized (mSessions) {
+                Iterator<DetectionSession> sessions = mSessions.values().iterator();
+                while (sessions.hasNext()) {
+                    DetectionSession session = sessions.next();
+                    if (session.modelIndex.equals(index)) {
+                        session.closed = true;
+                        sessions.remove();
+                    }
+                }
+            }
+            result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "error unloading model", e);
+            result.error(e);
+        }
+    }
 
-            shape_primitive = shape.stream().mapToLong(l -> l).toArray();
+    @Override
+    public void setModelMemoryBudget(Long bytes, Pigeon.VoidResult result) {
+        try {
+            mModels.setMemoryBudget(bytes);
+            result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "error setting the model memory budget", e);
+            result.error(e);
+        }
+    }
 
-            Log.i(TAG, "parsed shape_formatted");
-            data = input.toArray(new Double[0]);
-            Log.i(TAG, "parsed data");
+    @Override
+    public void getModelStats(Long index, Pigeon.Result<Pigeon.ModelStats> result) {
+        try {
+            result.success(mModels.peek(index).stats());
+        } catch (Exception e) {
+            Log.e(TAG, "error reading model stats", e);
+            result.error(e);
+        }
+    }
 
+    @Override
+    public void setDetectionDefaults(Long index, Double minimumScore, Double IOUThreshold, Long boxesLimit,
+            Pigeon.VoidResult result) {
+        try {
+            PrePostProcessor prePostProcessor = mModels.peek(index).prePostProcessor;
+            prePostProcessor.mDetectionDefaults = prePostProcessor.mDetectionDefaults.with(minimumScore,
+                    IOUThreshold, boxesLimit);
+            result.success();
         } catch (Exception e) {
-            Log.e(TAG, "error parsing arguments", e);
+            Log.e(TAG, "error setting the detection defaults", e);
+            result.error(e);
         }
+    }
 
-        // prepare input tensor
-        final Tensor inputTensor = getInputTensor(dtype_enum, data, shape_primitive);
+    @Override
+    public void setCpuThreadBudget(Long threads, Pigeon.VoidResult result) {
+        try {
+            mThreadBudget.setBudget(threads.intValue());
+            result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "error setting the cpu thread budget", e);
+            result.error(e);
+        }
+    }
 
-        // run model
-        Tensor outputTensor = null;
+    @Override
+    public void getPredictionCustom(Long index, List<Double> input, List<Long> shape, String dtype, Pigeon.NullableResult<List<Object>> result) {
+        DType dtype_enum;
+        Tensor outputTensor;
         try {
-            outputTensor = module.forward(IValue.from(inputTensor)).toTensor();
+            LoadedModel model = mModels.get(index);
+            dtype_enum = DType.valueOf(dtype.toUpperCase());
+
+            // prepare input tensor
+            final Tensor inputTensor = getInputTensor(dtype_enum, input.toArray(new Double[0]), toShape(shape));
+
+            // run model
+            outputTensor = model.forward(IValue.from(inputTensor)).toTensor();
         } catch (RuntimeException e) {
-            Log.e(TAG, "Your input type " + dtype_enum.toString().toLowerCase() + " (" + Convert.dtypeAsPrimitive(dtype)
+            Log.e(TAG, "Your input type " + dtype.toLowerCase() + " (" + Convert.dtypeAsPrimitive(dtype)
                     + ") " + "does not match with model input type", e);
             result.error(e);
+            return;
         }
-        result.success(Collections.singletonList(outputTensor));
+        successResult(result, outputTensor.dtype(), outputTensor);
     }
 
+    @Override
+    public void getPredictionCustomTensor(Long index, Pigeon.TensorData input, Pigeon.Result<Pigeon.TensorData> result) {
+        try {
+            LoadedModel model = mModels.get(index);
+            Tensor inputTensor = Convert.toTensor(input.getData(), toShape(input.getShape()),
+                    DType.valueOf(input.getDtype().toUpperCase()));
 
+            Tensor outputTensor = model.forward(IValue.from(inputTensor)).toTensor();
 
+            result.success(toTensorData(outputTensor));
+        } catch (Exception e) {
+            Log.e(TAG, "error running custom prediction", e);
+            result.error(e);
+        }
+    }
 
     @Override
-    public void getRawImagePredictionList(Long index, byte[] imageData, Pigeon.Result<List<Double>> result) {
+    public void runMethod(Long index, String methodName, List<Pigeon.TensorData> inputs,
+            Pigeon.Result<List<Pigeon.TensorData>> result) {
+        try {
+            LoadedModel model = mModels.get(index);
+            IValue[] inputValues = new IValue[inputs.size()];
+            for (int i = 0; i < inputValues.length; i++) {
+                Pigeon.TensorData input = inputs.get(i);
+                inputValues[i] = IValue.from(Convert.toTensor(input.getData(), toShape(input.getShape()),
+                        DType.valueOf(input.getDtype().toUpperCase())));
+            }
 
-        PrePostProcessor prePostProcessor = null;
-        Module imageModule = null;
+            IValue output = model.runMethod(methodName, inputValues);
 
-        try{
-            imageModule = modules.get(index.intValue());
+            List<Pigeon.TensorData> outputs = new ArrayList<>();
+            addOutputs(output, null, outputs);
+            result.success(outputs);
+        } catch (Exception e) {
+            Log.e(TAG, "error running method " + methodName, e);
+            result.error(e);
+        }
+    }
 
-            prePostProcessor = prePostProcessors.get(index.intValue());
-    } catch (Exception e) {
-        Log.e(TAG, "error reading image", e);
+    // flattens tuples, lists and dicts into their tensors, in order, scalars
+    // become tensors without dimensions
+    static void addOutputs(IValue value, String name, List<Pigeon.TensorData> outputs) {
+        if (value.isTensor()) {
+            outputs.add(toTensorData(value.toTensor(), name));
+        } else if (value.isTuple()) {
+            for (IValue element : value.toTuple()) {
+                addOutputs(element, name, outputs);
+            }
+        } else if (value.isTensorList()) {
+            for (Tensor tensor : value.toTensorList()) {
+                outputs.add(toTensorData(tensor, name));
+            }
+        } else if (value.isList()) {
+            for (IValue element : value.toList()) {
+                addOutputs(element, name, outputs);
+            }
+        } else if (value.isDictStringKey()) {
+            for (Map.Entry<String, IValue> entry : value.toDictStringKey().entrySet()) {
+                addOutputs(entry.getValue(), entry.getKey(), outputs);
+            }
+        } else if (value.isDictLongKey()) {
+            for (Map.Entry<Long, IValue> entry : value.toDictLongKey().entrySet()) {
+                addOutputs(entry.getValue(), String.valueOf(entry.getKey()), outputs);
+            }
+        } else if (value.isDouble()) {
+            outputs.add(toTensorData(Tensor.fromBlob(new double[] {value.toDouble()}, new long[0]), name));
+        } else if (value.isLong()) {
+            outputs.add(toTensorData(Tensor.fromBlob(new long[] {value.toLong()}, new long[0]), name));
+        } else if (value.isBool()) {
+            outputs.add(toTensorData(Tensor.fromBlobUnsigned(new byte[] {(byte) (value.toBool() ? 1 : 0)},
+                    new long[0]), name));
+        } else if (value.isDoubleList()) {
+            double[] values = value.toDoubleList();
+            outputs.add(toTensorData(Tensor.fromBlob(values, new long[] {values.length}), name));
+        } else if (value.isLongList()) {
+            long[] values = value.toLongList();
+            outputs.add(toTensorData(Tensor.fromBlob(values, new long[] {values.length}), name));
+        } else if (!value.isNull()) {
+            throw new IllegalArgumentException("unsupported model output, only tensors, numbers and "
+                    + "tuples, lists or dicts of them can be returned");
+        }
     }
-        try {
 
-            final FloatBuffer floatBuffer = Tensor.allocateFloatBuffer(3 * prePostProcessor.mImageWidth * prePostProcessor.mImageHeight);
-            ByteBuffer byteBuffer = ByteBuffer.wrap(imageData);
-            byteBuffer.order(ByteOrder.nativeOrder());
-            FloatBuffer tempFloatBuffer = byteBuffer.asFloatBuffer();
+    private static long[] toShape(List<Long> shape) {
+        long[] dims = new long[shape.size()];
+        for (int i = 0; i < dims.length; i++) {
+            dims[i] = shape.get(i);
+        }
+        return dims;
+    }
 
-            floatBuffer.put(tempFloatBuffer);
-            floatBuffer.flip();  // Reset the buffer's position to 0
+    static Pigeon.TensorData toTensorData(Tensor tensor) {
+        return toTensorData(tensor, null);
+    }
 
-            final Tensor imageInputTensor =   Tensor.fromBlob(floatBuffer, new long[] {1, 3, prePostProcessor.mImageHeight, prePostProcessor.mImageWidth}, MemoryFormat.CONTIGUOUS);
+    static Pigeon.TensorData toTensorData(Tensor tensor, String name) {
+        long[] dims = tensor.shape();
+        List<Long> shape = new ArrayList<>(dims.length);
+        for (long dim : dims) {
+            shape.add(dim);
+        }
+        return new Pigeon.TensorData.Builder()
+                .setData(Convert.toBytes(tensor))
+                .setShape(shape)
+                .setDtype(tensor.dtype().name().toLowerCase())
+                .setName(name)
+                .build();
+    }
 
 
-            final Tensor imageOutputTensor = imageModule.forward(IValue.from(imageInputTensor)).toTensor();
 
-            // getting tensor content as java array of doubles
-            float[] scores = imageOutputTensor.getDataAsFloatArray();
 
-            Double[] scoresDouble = new Double[scores.length];
-            for (int i = 0; i < scoresDouble.length; i++) {
+    @Override
+    public void getRawImagePredictionList(Long index, byte[] imageData, Pigeon.Result<List<Double>> result) {
+        try {
+            result.success(toDoubleList(classifyRawImage(index, imageData)));
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
+        }
+    }
 
-                scoresDouble[i] = Double.valueOf(Float.valueOf(scores[i]));
-            }
-            result.success(Arrays.asList(scoresDouble));
+    @Override
+    public void getRawImagePredictionFloat32List(Long index, byte[] imageData, Pigeon.Result<byte[]> result) {
+        try {
+            result.success(toFloat32Bytes(classifyRawImage(index, imageData)));
         } catch (Exception e) {
             Log.e(TAG, "error classifying image", e);
             result.error(e);
+        }
+    }
+
+    private float[] classifyRawImage(Long index, byte[] imageData) {
+        LoadedModel model = mModels.get(index);
+        PrePostProcessor prePostProcessor = model.prePostProcessor;
 
+        InputTensorPool.PooledInput pooledInput = prePostProcessor.mInputTensorPool.acquire();
+        try {
+            pooledInput.fill(imageData);
+            return model.forward(IValue.from(pooledInput.tensor)).toTensor().getDataAsFloatArray();
+        } finally {
+            prePostProcessor.mInputTensorPool.release(pooledInput);
         }
     }
 
     @Override
     public void getRawImagePredictionListObjectDetection(Long index, byte[] imageData, Double minimumScore, Double IOUThreshold, Long boxesLimit, Pigeon.Result<List<Pigeon.ResultObjectDetection>> result) {
-        Module imageModule = null;
-        PrePostProcessor prePostProcessor = null;
         try {
+            result.success(detectObjectsInRawImage(index, imageData, minimumScore, IOUThreshold, boxesLimit));
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
+        }
+    }
+
+    @Override
+    public void getRawImagePredictionListObjectDetectionPacked(Long index, byte[] imageData, Double minimumScore,
+            Double IOUThreshold, Long boxesLimit, Pigeon.Result<byte[]> result) {
+        try {
+            PrePostProcessor prePostProcessor = mModels.peek(index).prePostProcessor;
+            DetectionOptions options = prePostProcessor.mDetectionDefaults.with(minimumScore, IOUThreshold,
+                    boxesLimit);
+            result.success(prePostProcessor.outputsToPackedPredictions(rawDetectionOutputs(index, imageData),
+                    options, null));
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
+        }
+    }
 
-            imageModule = modules.get(index.intValue());
+    private ArrayList<Pigeon.ResultObjectDetection> detectObjectsInRawImage(Long index, byte[] imageData,
+            Double minimumScore, Double IOUThreshold, Long boxesLimit) {
+        PrePostProcessor prePostProcessor = mModels.peek(index).prePostProcessor;
+        DetectionOptions options = prePostProcessor.mDetectionDefaults.with(minimumScore, IOUThreshold, boxesLimit);
+        return prePostProcessor.outputsToNMSPredictions(rawDetectionOutputs(index, imageData), options);
+    }
 
-            prePostProcessor = prePostProcessors.get(index.intValue());
-            prePostProcessor.mNmsLimit = boxesLimit.intValue();
-            prePostProcessor.mScoreThreshold = minimumScore.floatValue();
-            prePostProcessor.mIOUThreshold = IOUThreshold.floatValue();
+    // raw model outputs for a float32 input tensor, before NMS
+    private float[] rawDetectionOutputs(Long index, byte[] imageData) {
+        LoadedModel model = mModels.get(index);
+        PrePostProcessor prePostProcessor = model.prePostProcessor;
 
+        InputTensorPool.PooledInput pooledInput = prePostProcessor.mInputTensorPool.acquire();
+        try {
+            pooledInput.fill(imageData);
+            return forwardObjectDetection(model, pooledInput.tensor).getDataAsFloatArray();
+        } finally {
+            prePostProcessor.mInputTensorPool.release(pooledInput);
+        }
+    }
 
 
+    @Override
+    public void getImagePredictionList(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, List<Double> mean, List<Double> std, Pigeon.CropRect crop,
+            Pigeon.Result<List<Double>> result) {
+        try {
+            result.success(toDoubleList(classifyImage(index, imageData, imageBytesList, imageWidthForBytesList,
+                    imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, mean, std,
+                    ImageCrop.from(crop))));
         } catch (Exception e) {
-            Log.e(TAG, "error reading image", e);
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
         }
+    }
 
+    @Override
+    public void getImagePredictionFloat32List(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, List<Double> mean, List<Double> std, Pigeon.CropRect crop,
+            Pigeon.Result<byte[]> result) {
         try {
-            final FloatBuffer floatBuffer = Tensor.allocateFloatBuffer(3 * prePostProcessor.mImageWidth * prePostProcessor.mImageHeight);
-            ByteBuffer byteBuffer = ByteBuffer.wrap(imageData);
-            byteBuffer.order(ByteOrder.nativeOrder());
-            FloatBuffer tempFloatBuffer = byteBuffer.asFloatBuffer();
-
-            floatBuffer.put(tempFloatBuffer);
-            floatBuffer.flip();  // Reset the buffer's position to 0
-
-            final Tensor imageInputTensor =   Tensor.fromBlob(floatBuffer, new long[] {1, 3, prePostProcessor.mImageHeight, prePostProcessor.mImageWidth}, MemoryFormat.CONTIGUOUS);
+            result.success(toFloat32Bytes(classifyImage(index, imageData, imageBytesList, imageWidthForBytesList,
+                    imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, mean, std,
+                    ImageCrop.from(crop))));
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
+        }
+    }
 
-            Tensor outputTensor = null;
-            if (prePostProcessor.mObjectDetectionModelType == 0) {
-                IValue[] outputTuple = imageModule.forward(IValue.from(imageInputTensor)).toTuple();
-                outputTensor = outputTuple[0].toTensor();
-            } else {
-                outputTensor = imageModule.forward(IValue.from(imageInputTensor)).toTensor();
-            }
+    private float[] classifyImage(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, List<Double> mean, List<Double> std, ImageCrop crop) {
+        LoadedModel model = mModels.get(index);
+        PrePostProcessor prePostProcessor = model.prePostProcessor;
+        float[] meanFormatted = Convert.toFloatPrimitives(mean.toArray(new Double[0]));
+        float[] stdFormatted = Convert.toFloatPrimitives(std.toArray(new Double[0]));
 
-            final float[] outputs = outputTensor.getDataAsFloatArray();
+        InputTensorPool.PooledInput pooledInput = prePostProcessor.mInputTensorPool.acquire();
+        try {
+            fillImageInput(prePostProcessor, pooledInput, imageData, imageBytesList, imageWidthForBytesList,
+                    imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, crop, meanFormatted,
+                    stdFormatted);
+            return model.forward(IValue.from(pooledInput.tensor)).toTensor().getDataAsFloatArray();
+        } finally {
+            prePostProcessor.mInputTensorPool.release(pooledInput);
+        }
+    }
 
-            final ArrayList<Pigeon.ResultObjectDetection> results = prePostProcessor.outputsToNMSPredictions(outputs);
+    @Override
+    public void getImagePredictionListObjectDetection(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, Double minimumScore, Double IOUThreshold,
+            Long boxesLimit, Pigeon.CropRect crop, Pigeon.Result<List<Pigeon.ResultObjectDetection>> result) {
+        try {
+            result.success(detectObjectsInImage(index, imageData, imageBytesList, imageWidthForBytesList,
+                    imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, minimumScore,
+                    IOUThreshold, boxesLimit, crop));
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying image", e);
+            result.error(e);
+        }
+    }
 
-            result.success(results);
+    @Override
+    public void getImagePredictionListObjectDetectionPacked(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, Double minimumScore, Double IOUThreshold,
+            Long boxesLimit, Pigeon.CropRect crop, Pigeon.Result<byte[]> result) {
+        try {
+            PrePostProcessor prePostProcessor = mModels.peek(index).prePostProcessor;
+            DetectionOptions options = prePostProcessor.mDetectionDefaults.with(minimumScore, IOUThreshold,
+                    boxesLimit);
+            ImageCrop imageCrop = ImageCrop.from(crop);
+            result.success(prePostProcessor.outputsToPackedPredictions(imageDetectionOutputs(index, imageData,
+                    imageBytesList, imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList,
+                    pixelStridesForBytesList, imageCrop), options, imageCrop));
         } catch (Exception e) {
             Log.e(TAG, "error classifying image", e);
             result.error(e);
         }
     }
 
+    private ArrayList<Pigeon.ResultObjectDetection> detectObjectsInImage(Long index, byte[] imageData,
+            List<byte[]> imageBytesList, Long imageWidthForBytesList, Long imageHeightForBytesList,
+            List<Long> rowStridesForBytesList, List<Long> pixelStridesForBytesList, Double minimumScore,
+            Double IOUThreshold, Long boxesLimit, Pigeon.CropRect crop) {
+        return detectObjectsInImage(index, imageData, imageBytesList, imageWidthForBytesList,
+                imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList,
+                mModels.peek(index).prePostProcessor.mDetectionDefaults.with(minimumScore, IOUThreshold,
+                        boxesLimit), ImageCrop.from(crop));
+    }
+
+    // the boxes are normalized to the whole image, crop or not
+    private ArrayList<Pigeon.ResultObjectDetection> detectObjectsInImage(Long index, byte[] imageData,
+            List<byte[]> imageBytesList, Long imageWidthForBytesList, Long imageHeightForBytesList,
+            List<Long> rowStridesForBytesList, List<Long> pixelStridesForBytesList, DetectionOptions options,
+            ImageCrop crop) {
+        ArrayList<Pigeon.ResultObjectDetection> detections = mModels.peek(index).prePostProcessor
+                .outputsToNMSPredictions(imageDetectionOutputs(index, imageData, imageBytesList,
+                        imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList,
+                        pixelStridesForBytesList, crop), options);
+        if (crop != null) {
+            crop.toFrame(detections);
+        }
+        return detections;
+    }
+
+    // raw model outputs for an encoded image or camera planes, before NMS,
+    // the boxes are relative to the crop
+    private float[] imageDetectionOutputs(Long index, byte[] imageData, List<byte[]> imageBytesList,
+            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Long> rowStridesForBytesList,
+            List<Long> pixelStridesForBytesList, ImageCrop crop) {
+        LoadedModel model = mModels.get(index);
+        PrePostProcessor prePostProcessor = model.prePostProcessor;
+
+        InputTensorPool.PooledInput pooledInput = prePostProcessor.mInputTensorPool.acquire();
+        try {
+            fillImageInput(prePostProcessor, pooledInput, imageData, imageBytesList, imageWidthForBytesList,
+                    imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, crop,
+                    prePostProcessor.NO_MEAN_RGB, prePostProcessor.NO_STD_RGB);
+            return forwardObjectDetection(model, pooledInput.tensor).getDataAsFloatArray();
+        } finally {
+            prePostProcessor.mInputTensorPool.release(pooledInput);
+        }
+    }
 
     @Override
-    public void getImagePredictionList(Long index, byte[] imageData, List<byte[]> imageBytesList,
-            Long imageWidthForBytesList, Long imageHeightForBytesList, List<Double> mean, List<Double> std,
-            Pigeon.Result<List<Double>> result) {
-        Module imageModule = null;
-        Bitmap bitmap = null;
-        PrePostProcessor prePostProcessor = null;
-        float[] meanFormatted = new float[mean.size()];
-        float[] stdFormatted = new float[std.size()];
+    public void detectObjectsInLatestCameraFrame(final Long index, final List<byte[]> imageBytesList,
+            final Long imageWidth, final Long imageHeight, final List<Long> rowStrides,
+            final List<Long> pixelStrides, final Double minimumScore, final Double IOUThreshold,
+            final Long boxesLimit, final Pigeon.CropRect crop, final Pigeon.Result<Pigeon.CameraFrameResult> result) {
         try {
+            // only queues the frame, the task queue is free for the next one
+            frameScheduler(index).submit(new FrameScheduler.Frame() {
+                @Override
+                public void run(long droppedFrames) {
+                    try {
+                        ArrayList<Pigeon.ResultObjectDetection> detections = detectObjectsInImage(index, null,
+                                imageBytesList, imageWidth, imageHeight, rowStrides, pixelStrides, minimumScore,
+                                IOUThreshold, boxesLimit, crop);
+                        result.success(new Pigeon.CameraFrameResult.Builder()
+                                .setDetections(detections)
+                                .setDropped(false)
+                                .setDroppedFrames(droppedFrames)
+                                .build());
+                    } catch (Exception e) {
+                        Log.e(TAG, "error detecting objects in camera frame", e);
+                        result.error(e);
+                    }
+                }
 
-            imageModule = modules.get(index.intValue());
+                @Override
+                public void drop(long droppedFrames) {
+                    result.success(new Pigeon.CameraFrameResult.Builder()
+                            .setDropped(true)
+                            .setDroppedFrames(droppedFrames)
+                            .build());
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "error scheduling camera frame", e);
+            result.error(e);
+        }
+    }
 
-            prePostProcessor = prePostProcessors.get(index.intValue());
-            if (imageData != null) {
-                bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length);
-            } else {
-                bitmap = getBitmapFromBytesList(imageBytesList, imageWidthForBytesList.intValue(),
-                        imageHeightForBytesList.intValue());
-                            Matrix matrix = new Matrix();
-                matrix.postRotate(90.0f);
-                bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+    @Override
+    public void openDetectionSession(Long index, Double minimumScore, Double IOUThreshold, Long boxesLimit,
+            Boolean track, Long detectEveryFrames, Pigeon.CropRect crop, Pigeon.Result<Long> result) {
+        try {
+            DetectionOptions options = mModels.peek(index).prePostProcessor.mDetectionDefaults.with(minimumScore,
+                    IOUThreshold, boxesLimit);
+            ObjectTracker tracker = null;
+            if (Boolean.TRUE.equals(track)) {
+                tracker = new ObjectTracker(detectEveryFrames == null ? 1 : detectEveryFrames.intValue(),
+                        options.scoreThreshold);
+            } else if (detectEveryFrames != null) {
+                throw new IllegalArgumentException("detectEveryFrames needs track");
             }
-            
-            bitmap = Bitmap.createScaledBitmap(bitmap, prePostProcessor.mImageWidth, prePostProcessor.mImageHeight,
-                    false);
-
-            for (int i = 0; i < meanFormatted.length; i++) {
-                meanFormatted[i] = mean.get(i).floatValue();
+            synchronized (mSessions) {
+                DetectionSession session = new DetectionSession(mNextSessionId++, index, options,
+                        ImageCrop.from(crop), new FrameScheduler(mCameraExecutor), tracker);
+                mSessions.put(session.id, session);
+                result.success(session.id);
             }
+        } catch (Exception e) {
+            Log.e(TAG, "error opening detection session", e);
+            result.error(e);
+        }
+    }
 
-            for (int i = 0; i < stdFormatted.length; i++) {
-                stdFormatted[i] = std.get(i).floatValue();
+    @Override
+    public void pushDetectionSessionFrame(Long sessionId, final Long frameId, final List<byte[]> imageBytesList,
+            final Long imageWidth, final Long imageHeight, final List<Long> rowStrides,
+            final List<Long> pixelStrides, Pigeon.VoidResult result) {
+        try {
+            final DetectionSession session;
+            synchronized (mSessions) {
+                session = mSessions.get(sessionId);
+            }
+            if (session == null) {
+                throw new IllegalArgumentException("no detection session " + sessionId);
             }
+            session.frameScheduler.submit(new FrameScheduler.Frame() {
+                @Override
+                public void run(long droppedFrames) {
+                    if (session.closed) {
+                        return;
+                    }
+                    try {
+                        // frames since the previous frame that ran
+                        long frames = droppedFrames + 1;
+                        ObjectTracker tracker = session.tracker;
+                        if (tracker != null && !tracker.needsDetection(frames)) {
+                            sendSessionEvent(session.detectedEvent(frameId, droppedFrames,
+                                    tracker.predict(frames), false));
+                            return;
+                        }
+                        if (tracker == null) {
+                            float[] outputs = imageDetectionOutputs(session.modelIndex, null, imageBytesList,
+                                    imageWidth, imageHeight, rowStrides, pixelStrides, session.crop);
+                            sendSessionEvent(session.detectedEvent(frameId, droppedFrames,
+                                    mModels.peek(session.modelIndex).prePostProcessor.outputsToPackedPredictions(
+                                            outputs, session.options, session.crop)));
+                            return;
+                        }
+                        List<Pigeon.ResultObjectDetection> detections = detectObjectsInImage(session.modelIndex,
+                                null, imageBytesList, imageWidth, imageHeight, rowStrides, pixelStrides,
+                                session.options, session.crop);
+                        sendSessionEvent(session.detectedEvent(frameId, droppedFrames,
+                                tracker.update(detections, frames), true));
+                    } catch (Exception e) {
+                        Log.e(TAG, "error detecting objects in session frame", e);
+                        sendSessionEvent(session.errorEvent(frameId, droppedFrames, e));
+                    }
+                }
 
+                @Override
+                public void drop(long droppedFrames) {
+                    if (!session.closed) {
+                        sendSessionEvent(session.droppedEvent(frameId, droppedFrames));
+                    }
+                }
+            });
+            result.success();
         } catch (Exception e) {
-            Log.e(TAG, "error reading image", e);
+            Log.e(TAG, "error pushing detection session frame", e);
             result.error(e);
-
         }
+    }
 
+    @Override
+    public void closeDetectionSession(Long sessionId, Pigeon.VoidResult result) {
         try {
-            final Tensor imageInputTensor = TensorImageUtils.bitmapToFloat32Tensor(bitmap, meanFormatted, stdFormatted);
+            DetectionSession session;
+            synchronized (mSessions) {
+                session = mSessions.remove(sessionId);
+            }
+            if (session == null) {
+                throw new IllegalArgumentException("no detection session " + sessionId);
+            }
+            session.closed = true;
+            result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "error closing detection session", e);
+            result.error(e);
+        }
+    }
 
-            final Tensor imageOutputTensor = imageModule.forward(IValue.from(imageInputTensor)).toTensor();
+    // event sinks may only be used on the main thread
+    private void sendSessionEvent(final Map<String, Object> event) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (mSessionEvents != null) {
+                    mSessionEvents.success(event);
+                }
+            }
+        });
+    }
+
+    private FrameScheduler frameScheduler(Long index) {
+        // fails for unknown models
+        mModels.peek(index);
+        synchronized (mFrameSchedulers) {
+            FrameScheduler frameScheduler = mFrameSchedulers.get(index);
+            if (frameScheduler == null) {
+                frameScheduler = new FrameScheduler(mCameraExecutor);
+                mFrameSchedulers.put(index, frameScheduler);
+            }
+            return frameScheduler;
+        }
+    }
 
-            // getting tensor content as java array of doubles
-            float[] scores = imageOutputTensor.getDataAsFloatArray();
+    @Override
+    public void getRawImagePredictionListBatch(Long index, List<byte[]> imagesData,
+            Pigeon.Result<List<Pigeon.ResultClassification>> result) {
+        getImagePredictionListBatch(index, imagesData, null, null, result);
+    }
 
-            Double[] scoresDouble = new Double[scores.length];
-            for (int i = 0; i < scoresDouble.length; i++) {
+    @Override
+    public void getRawImagePredictionListObjectDetectionBatch(Long index, List<byte[]> imagesData,
+            Double minimumScore, Double IOUThreshold, Long boxesLimit,
+            Pigeon.Result<List<Pigeon.ResultObjectDetectionList>> result) {
+        getImagePredictionListObjectDetectionBatch(index, imagesData, true, minimumScore, IOUThreshold, boxesLimit,
+                result);
+    }
 
-                scoresDouble[i] = Double.valueOf(Float.valueOf(scores[i]));
+    @Override
+    public void getImagePredictionListBatch(Long index, List<byte[]> imagesData, List<Double> mean, List<Double> std,
+            Pigeon.Result<List<Pigeon.ResultClassification>> result) {
+        LoadedModel model = null;
+        PrePostProcessor prePostProcessor = null;
+        float[] meanFormatted = null;
+        float[] stdFormatted = null;
+        try {
+            model = mModels.get(index);
+            prePostProcessor = model.prePostProcessor;
+            // raw images come without mean and std, they are already normalized
+            if (mean != null && std != null) {
+                meanFormatted = Convert.toFloatPrimitives(mean.toArray(new Double[0]));
+                stdFormatted = Convert.toFloatPrimitives(std.toArray(new Double[0]));
             }
-            result.success(Arrays.asList(scoresDouble));
         } catch (Exception e) {
-            Log.e(TAG, "error classifying image", e);
+            Log.e(TAG, "error reading image", e);
             result.error(e);
+            return;
+        }
 
+        try {
+            final float[] scores = forwardImageBatch(model, imagesData, meanFormatted,
+                    stdFormatted, false);
+
+            int batchSize = imagesData.size();
+            ArrayList<Pigeon.ResultClassification> results = new ArrayList<>(batchSize);
+            int imageOutputSize = batchSize == 0 ? 0 : scores.length / batchSize;
+            for (int image = 0; image < batchSize; image++) {
+                Double[] scoresDouble = new Double[imageOutputSize];
+                for (int i = 0; i < imageOutputSize; i++) {
+                    scoresDouble[i] = (double) scores[image * imageOutputSize + i];
+                }
+                results.add(new Pigeon.ResultClassification.Builder().setScores(Arrays.asList(scoresDouble)).build());
+            }
+            result.success(results);
+        } catch (Exception e) {
+            Log.e(TAG, "error classifying images", e);
+            result.error(e);
         }
     }
 
     @Override
-    public void getImagePredictionListObjectDetection(Long index, byte[] imageData, List<byte[]> imageBytesList,
-            Long imageWidthForBytesList, Long imageHeightForBytesList, Double minimumScore, Double IOUThreshold,
-            Long boxesLimit, Pigeon.Result<List<Pigeon.ResultObjectDetection>> result) {
-        Module imageModule = null;
-        PrePostProcessor prePostProcessor = null;
-        Bitmap bitmap = null;
+    public void getImagePredictionListObjectDetectionBatch(Long index, List<byte[]> imagesData, Double minimumScore,
+            Double IOUThreshold, Long boxesLimit, Pigeon.Result<List<Pigeon.ResultObjectDetectionList>> result) {
+        getImagePredictionListObjectDetectionBatch(index, imagesData, false, minimumScore, IOUThreshold, boxesLimit,
+                result);
+    }
 
+    private void getImagePredictionListObjectDetectionBatch(Long index, List<byte[]> imagesData, boolean raw,
+            Double minimumScore, Double IOUThreshold, Long boxesLimit,
+            Pigeon.Result<List<Pigeon.ResultObjectDetectionList>> result) {
+        LoadedModel model = null;
+        PrePostProcessor prePostProcessor = null;
+        DetectionOptions options = null;
         try {
+            model = mModels.get(index);
 
-            imageModule = modules.get(index.intValue());
-
-            prePostProcessor = prePostProcessors.get(index.intValue());
-            prePostProcessor.mNmsLimit = boxesLimit.intValue();
-            prePostProcessor.mScoreThreshold = minimumScore.floatValue();
-            prePostProcessor.mIOUThreshold = IOUThreshold.floatValue();
-
-            if (imageData != null) {
-                bitmap = BitmapFactory.decodeByteArray(imageData, 0, imageData.length);
-            } else {
-                bitmap = getBitmapFromBytesList(imageBytesList, imageWidthForBytesList.intValue(),
-                        imageHeightForBytesList.intValue());
-                Matrix matrix = new Matrix();
-                matrix.postRotate(90.0f);
-                bitmap = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
-            }
-
-            bitmap = Bitmap.createScaledBitmap(bitmap, prePostProcessor.mImageWidth, prePostProcessor.mImageHeight,
-                    false);
-
+            prePostProcessor = model.prePostProcessor;
+            options = prePostProcessor.mDetectionDefaults.with(minimumScore, IOUThreshold, boxesLimit);
         } catch (Exception e) {
             Log.e(TAG, "error reading image", e);
             result.error(e);
+            return;
         }
 
         try {
+            final float[] outputs = forwardImageBatch(model, imagesData,
+                    raw ? null : prePostProcessor.NO_MEAN_RGB, raw ? null : prePostProcessor.NO_STD_RGB, true);
+
+            // every image goes through nms on its own slice of the output
+            int batchSize = imagesData.size();
+            ArrayList<Pigeon.ResultObjectDetectionList> results = new ArrayList<>(batchSize);
+            int imageOutputSize = batchSize == 0 ? 0 : outputs.length / batchSize;
+            for (int image = 0; image < batchSize; image++) {
+                results.add(new Pigeon.ResultObjectDetectionList.Builder()
+                        .setDetections(prePostProcessor.outputsToNMSPredictions(outputs, image * imageOutputSize,
+                                imageOutputSize, options))
+                        .build());
+            }
+            result.success(results);
+        } catch (Exception e) {
+            Log.e(TAG, "error detecting objects in images", e);
+            result.error(e);
+        }
+    }
 
-            final Tensor imageInputTensor = TensorImageUtils.bitmapToFloat32Tensor(bitmap, prePostProcessor.NO_MEAN_RGB,
-                    prePostProcessor.NO_STD_RGB);
-            Tensor outputTensor = null;
-            if (prePostProcessor.mObjectDetectionModelType == 0) {
-                IValue[] outputTuple = imageModule.forward(IValue.from(imageInputTensor)).toTuple();
-                outputTensor = outputTuple[0].toTensor();
-            } else {
-                outputTensor = imageModule.forward(IValue.from(imageInputTensor)).toTensor();
+    // stacks the images into one [N, 3, H, W] input and runs a single forward
+    // pass over it. Images are encoded (jpeg, png, ...) when mean and std are
+    // given and already preprocessed float32 bytes when they are null.
+    private float[] forwardImageBatch(LoadedModel model, List<byte[]> imagesData, float[] mean, float[] std,
+            boolean objectDetection) {
+        PrePostProcessor prePostProcessor = model.prePostProcessor;
+        int batchSize = imagesData.size();
+        if (batchSize == 0) {
+            return new float[0];
+        }
+
+        InputTensorPool inputTensorPool = prePostProcessor.getInputTensorPool(batchSize);
+        InputTensorPool.PooledInput pooledInput = inputTensorPool.acquire();
+        try {
+            for (int image = 0; image < batchSize; image++) {
+                if (mean == null) {
+                    pooledInput.fill(image, imagesData.get(image));
+                } else {
+                    prePostProcessor.mBitmapDecoder.decodeToFloatBuffer(imagesData.get(image), mean, std,
+                            pooledInput.buffer, pooledInput.imageOffset(image));
+                }
             }
 
-            final float[] outputs = outputTensor.getDataAsFloatArray();
+            Tensor outputTensor = objectDetection
+                    ? forwardObjectDetection(model, pooledInput.tensor)
+                    : model.forward(IValue.from(pooledInput.tensor)).toTensor();
+            return outputTensor.getDataAsFloatArray();
+        } finally {
+            inputTensorPool.release(pooledInput);
+        }
+    }
 
-            final ArrayList<Pigeon.ResultObjectDetection> results = prePostProcessor.outputsToNMSPredictions(outputs);
+    // yolov5 models return a tuple with the detections first
+    private Tensor forwardObjectDetection(LoadedModel model, Tensor input) {
+        if (model.prePostProcessor.mObjectDetectionModelType == 0) {
+            IValue[] outputTuple = model.forward(IValue.from(input)).toTuple();
+            return outputTuple[0].toTensor();
+        }
+        return model.forward(IValue.from(input)).toTensor();
+    }
 
-            result.success(results);
-        } catch (Exception e) {
-            Log.e(TAG, "error classifying image", e);
-            result.error(e);
+    // fills the pooled input with either an encoded image (imageData) or the
+    // YUV_420_888 planes of a camera frame (imageBytesList), or with their
+    // crop only when there is one
+    private void fillImageInput(PrePostProcessor prePostProcessor, InputTensorPool.PooledInput pooledInput,
+            byte[] imageData, List<byte[]> imageBytesList, Long imageWidthForBytesList, Long imageHeightForBytesList,
+            List<Long> rowStridesForBytesList, List<Long> pixelStridesForBytesList, ImageCrop crop, float[] mean,
+            float[] std) {
+        if (imageData != null) {
+            prePostProcessor.mBitmapDecoder.decodeToFloatBuffer(imageData, crop, mean, std, pooledInput.buffer, 0);
+            return;
         }
+
+        int width = imageWidthForBytesList.intValue();
+        int height = imageHeightForBytesList.intValue();
+        byte[] yPlane = imageBytesList.get(0);
+        byte[] uPlane = imageBytesList.get(1);
+        byte[] vPlane = imageBytesList.get(2);
+
+        // older callers only send the planes, so derive the strides from their sizes
+        int yRowStride = rowStridesForBytesList != null ? rowStridesForBytesList.get(0).intValue()
+                : yPlane.length / height;
+        int uvRowStride = rowStridesForBytesList != null ? rowStridesForBytesList.get(1).intValue()
+                : YuvConverter.inferUvRowStride(uPlane.length, height);
+        int uvPixelStride = pixelStridesForBytesList != null ? pixelStridesForBytesList.get(1).intValue()
+                : YuvConverter.inferUvPixelStride(uvRowStride, width);
+
+        YuvConverter.yuv420ToFloatBuffer(yPlane, uPlane, vPlane, width, height, yRowStride, uvRowStride,
+                uvPixelStride, CAMERA_ROTATION_DEGREES, crop, prePostProcessor.mImageWidth,
+                prePostProcessor.mImageHeight, mean, std, pooledInput.buffer);
     }
 
-    Bitmap getBitmapFromBytesList(List<byte[]> bytesList, int imageWidth, int imageHeight) throws IOException {
-        ByteBuffer yBuffer = ByteBuffer.wrap(bytesList.get(0));
-        ByteBuffer uBuffer = ByteBuffer.wrap(bytesList.get(1));
-        ByteBuffer vBuffer = ByteBuffer.wrap(bytesList.get(2));
-
-        int ySize = yBuffer.remaining();
-        int uSize = uBuffer.remaining();
-        int vSize = vBuffer.remaining();
-
-        byte[] nv21 = new byte[ySize + uSize + vSize];
-        yBuffer.get(nv21, 0, ySize);
-        vBuffer.get(nv21, ySize, vSize);
-        uBuffer.get(nv21, ySize + vSize, uSize);
-
-        YuvImage yuvImage = new YuvImage(nv21, ImageFormat.NV21, imageWidth, imageHeight, null);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        yuvImage.compressToJpeg(new Rect(0, 0, yuvImage.getWidth(), yuvImage.getHeight()), 75, out);
-
-        byte[] imageBytes = out.toByteArray();
-        return BitmapFactory.decodeByteArray(imageBytes, 0, imageBytes.length);
-    }
-    /*
-     * public Allocation renderScriptNV21ToRGBA888(Context context, int width, int
-     * height, byte[] nv21) {
-     * // https://stackoverflow.com/a/36409748
-     * RenderScript rs = RenderScript.create(context);
-     * ScriptIntrinsicYuvToRGB yuvToRgbIntrinsic =
-     * ScriptIntrinsicYuvToRGB.create(rs, Element.U8_4(rs));
-     * 
-     * Type.Builder yuvType = new Type.Builder(rs,
-     * Element.U8(rs)).setX(nv21.length);
-     * Allocation in = Allocation.createTyped(rs, yuvType.create(),
-     * Allocation.USAGE_SCRIPT);
-     * 
-     * Type.Builder rgbaType = new Type.Builder(rs,
-     * Element.RGBA_8888(rs)).setX(width).setY(height);
-     * Allocation out = Allocation.createTyped(rs, rgbaType.create(),
-     * Allocation.USAGE_SCRIPT);
-     * 
-     * in.copyFrom(nv21);
-     * 
-     * yuvToRgbIntrinsic.setInput(in);
-     * yuvToRgbIntrinsic.forEach(out);
-     * return out;
-     * }
-     */
+    private static List<Double> toDoubleList(float[] values) {
+        Double[] valuesDouble = new Double[values.length];
+        for (int i = 0; i < valuesDouble.length; i++) {
+            valuesDouble[i] = (double) values[i];
+        }
+        return Arrays.asList(valuesDouble);
+    }
+
+    // one bulk copy into native order float32 bytes, which the dart side
+    // views as a Float32List without touching the elements
+    static byte[] toFloat32Bytes(float[] values) {
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * 4).order(ByteOrder.nativeOrder());
+        bytes.asFloatBuffer().put(values);
+        return bytes.array();
+    }
 
     // returns input tensor depending on dtype
     private Tensor getInputTensor(DType dtype, Double[] data, long[] shape) {
@@ -418,7 +952,7 @@ result.error(e);
 
     // gets tensor depending on dtype and creates list of it, which is being
     // returned
-    private void successResult(Pigeon.Result result, DType dtype, Tensor outputTensor) {
+    private void successResult(Pigeon.NullableResult result, DType dtype, Tensor outputTensor) {
         switch (dtype) {
             case FLOAT32:
                 ArrayList<Float> outputListFloat = new ArrayList<>();
@@ -472,21 +1006,44 @@ result.error(e);
         private final Context applicationContext;
         private final BinaryMessenger binaryMessenger;
         private final TextureRegistry textureRegistry;
+        private final FlutterPlugin.FlutterAssets flutterAssets;
 
         FlutterState(Context applicationContext,
                 BinaryMessenger messenger,
-                TextureRegistry textureRegistry) {
+                TextureRegistry textureRegistry,
+                FlutterPlugin.FlutterAssets flutterAssets) {
             this.applicationContext = applicationContext;
             this.binaryMessenger = messenger;
             this.textureRegistry = textureRegistry;
+            this.flutterAssets = flutterAssets;
+        }
+
+        // reads a flutter asset from the APK, modelPath is its key in pubspec.yaml
+        ModuleLoader assetLoader(String modelPath, boolean lite) {
+            return ModuleLoader.fromAsset(applicationContext.getAssets(),
+                    flutterAssets.getAssetFilePathByName(modelPath), lite, applicationContext.getCacheDir(),
+                    appUpdateTime());
+        }
+
+        // changes with every install of the APK, keys the cached asset copies
+        private long appUpdateTime() {
+            try {
+                return applicationContext.getPackageManager()
+                        .getPackageInfo(applicationContext.getPackageName(), 0).lastUpdateTime;
+            } catch (PackageManager.NameNotFoundException e) {
+                throw new IllegalStateException("the app package is not installed", e);
+            }
         }
 
         void startListening(PytorchLitePlugin methodCallHandler, BinaryMessenger messenger) {
             Pigeon.ModelApi.setUp(messenger, methodCallHandler);
+            new EventChannel(messenger, DetectionSession.EVENTS_CHANNEL)
+                    .setStreamHandler(methodCallHandler.mSessionEventsHandler);
         }
 
         void stopListening(BinaryMessenger messenger) {
             Pigeon.ModelApi.setUp(messenger, null);
+            new EventChannel(messenger, DetectionSession.EVENTS_CHANNEL).setStreamHandler(null);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import android.util.Log;
+
+import org.pytorch.PyTorchAndroid;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Sizes the CPU thread pool for the models that are running.
+ * <p>
+ * PyTorch has a single intra-op thread pool per process, shared by every
+ * forward call, so there is no per-model thread count. The pool gets one size
+ * for the whole set of running models: the budget split evenly between them,
+ * and never more than the smallest thread count a running model asked for.
+ * Every call that starts or ends on a model that was not running or stops
+ * running resizes the pool for the new set, under the forward calls of the
+ * other models. With no budget and no thread count on the running models the
+ * pool is not touched and PyTorch keeps its default.
+ * <p>
+ * {@link PyTorchAndroid} loads the native library of the lite runtime, so the
+ * pool can not be resized with the full runtime. Setting a budget then throws,
+ * and so do the calls of a model loaded with a thread count, rather than
+ * silently running on PyTorch's default.
+ */
+class ThreadBudget {
+    private static final String TAG = "PytorchLitePlugin";
+
+    /** Budget or thread count that leaves the choice to PyTorch. */
+    static final int DEFAULT = 0;
+
+    private int mBudget = DEFAULT;
+    private int mAppliedThreads = DEFAULT;
+    // running calls per model
+    private final IdentityHashMap<LoadedModel, Integer> mRunning = new IdentityHashMap<>();
+    // threads asked for by the running models
+    private final IdentityHashMap<LoadedModel, Integer> mRequested = new IdentityHashMap<>();
+
+    /**
+     * Sets the budget and resizes the pool for the running models right away.
+     * Throws {@link IllegalStateException} when the runtime can't resize it,
+     * the budget is then left unchanged.
+     */
+    synchronized void setBudget(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("the thread budget should not be negative");
+        }
+        int previous = mBudget;
+        mBudget = threads;
+        try {
+            resize(poolSize(mRunning.size(), DEFAULT));
+        } catch (RuntimeException e) {
+            mBudget = previous;
+            throw e;
+        }
+    }
+
+    synchronized int getBudget() {
+        return mBudget;
+    }
+
+    /**
+     * Registers a call on {@code model} and sizes the pool for the running
+     * models, this one included. Returns the pool size, {@link #DEFAULT} when
+     * left to PyTorch. When this throws the call is not registered and
+     * {@link #exit(LoadedModel)} must not be called.
+     */
+    synchronized int enter(LoadedModel model, int requestedThreads) {
+        Integer running = mRunning.get(model);
+        // the running models, this one included
+        int runningModels = mRunning.size() + (running == null ? 1 : 0);
+        int threads = poolSize(runningModels, requestedThreads);
+        resize(threads);
+        mRunning.put(model, running == null ? 1 : running + 1);
+        mRequested.put(model, requestedThreads);
+        return threads;
+    }
+
+    /** Unregisters a call, the pool is sized for the models still running. */
+    synchronized void exit(LoadedModel model) {
+        Integer running = mRunning.get(model);
+        if (running != null && running > 1) {
+            mRunning.put(model, running - 1);
+            return;
+        }
+        mRunning.remove(model);
+        mRequested.remove(model);
+        if (mRunning.isEmpty()) {
+            return;
+        }
+        try {
+            resize(poolSize(mRunning.size(), DEFAULT));
+        } catch (RuntimeException e) {
+            // the call itself is done, the next one sizes the pool again
+            Log.w(TAG, "could not resize the thread pool", e);
+        }
+    }
+
+    synchronized int runningModels() {
+        return mRunning.size();
+    }
+
+    // the pool size for runningModels models, the running ones plus one asking
+    // for requestedThreads
+    private int poolSize(int runningModels, int requestedThreads) {
+        int threads = requestedThreads;
+        for (int requested : mRequested.values()) {
+            if (requested != DEFAULT && (threads == DEFAULT || requested < threads)) {
+                threads = requested;
+            }
+        }
+        if (mBudget != DEFAULT) {
+            int share = Math.max(1, mBudget / Math.max(1, runningModels));
+            threads = threads == DEFAULT ? share : Math.min(threads, share);
+        }
+        return threads;
+    }
+
+    private void resize(int threads) {
+        if (threads == DEFAULT || threads == mAppliedThreads) {
+            return;
+        }
+        try {
+            applyNumThreads(threads);
+        } catch (LinkageError e) {
+            throw new IllegalStateException("the PyTorch runtime can not resize its thread pool, thread budgets"
+                    + " and numThreads need pytorchLiteRuntime=lite in gradle.properties", e);
+        }
+        mAppliedThreads = threads;
+    }
+
+    void applyNumThreads(int threads) {
+        PyTorchAndroid.setNumThreads(threads);
+    }
+}
@@ -0,0 +1,145 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Converts YUV_420_888 camera planes straight into a normalized CHW float
+ * tensor buffer, resizing (nearest neighbour) and rotating in the same pass.
+ * Row stride and pixel stride of every plane are honoured, so both the
+ * semi-planar (pixel stride 2) and planar (pixel stride 1) layouts work.
+ */
+public class YuvConverter {
+
+    /**
+     * Fills {@code out} with the 3 x outHeight x outWidth float tensor of the
+     * given frame rotated clockwise by {@code rotationDegrees}.
+     *
+     * @param yPlane          luma plane
+     * @param uPlane          Cb plane
+     * @param vPlane          Cr plane
+     * @param width           frame width before rotation
+     * @param height          frame height before rotation
+     * @param yRowStride      bytes between two rows of the luma plane
+     * @param uvRowStride     bytes between two rows of the chroma planes
+     * @param uvPixelStride   bytes between two chroma samples of the same row
+     * @param rotationDegrees 0, 90, 180 or 270
+     * @param outWidth        tensor width
+     * @param outHeight       tensor height
+     * @param mean            per channel mean, applied after scaling to [0, 1]
+     * @param std             per channel std
+     * @param out             destination buffer, written from index 0
+     */
+    static void yuv420ToFloatBuffer(byte[] yPlane, byte[] uPlane, byte[] vPlane, int width, int height,
+            int yRowStride, int uvRowStride, int uvPixelStride, int rotationDegrees,
+            int outWidth, int outHeight, float[] mean, float[] std, FloatBuffer out) {
+        yuv420ToFloatBuffer(yPlane, uPlane, vPlane, width, height, yRowStride, uvRowStride, uvPixelStride,
+                rotationDegrees, null, outWidth, outHeight, mean, std, out);
+    }
+
+    /**
+     * Same as {@link #yuv420ToFloatBuffer(byte[], byte[], byte[], int, int, int, int, int, int, int, int,
+     * float[], float[], FloatBuffer)} but only the {@code crop} of the rotated
+     * frame fills the tensor, the pixels around it are never read. A null
+     * crop takes the whole frame.
+     */
+    static void yuv420ToFloatBuffer(byte[] yPlane, byte[] uPlane, byte[] vPlane, int width, int height,
+            int yRowStride, int uvRowStride, int uvPixelStride, int rotationDegrees, ImageCrop crop,
+            int outWidth, int outHeight, float[] mean, float[] std, FloatBuffer out) {
+        boolean swapped = rotationDegrees == 90 || rotationDegrees == 270;
+        int rotatedWidth = swapped ? height : width;
+        int rotatedHeight = swapped ? width : height;
+        // the part of the rotated frame that is sampled
+        int cropX = crop == null ? 0 : crop.firstColumn(rotatedWidth);
+        int cropY = crop == null ? 0 : crop.firstRow(rotatedHeight);
+        int cropWidth = crop == null ? rotatedWidth : crop.columns(rotatedWidth);
+        int cropHeight = crop == null ? rotatedHeight : crop.rows(rotatedHeight);
+
+        // for every output column and row, the source coordinate it maps to.
+        // without a quarter turn columns map to x and rows to y, with one
+        // they map to y and x.
+        int[] columnMap = new int[outWidth];
+        int[] rowMap = new int[outHeight];
+        for (int ox = 0; ox < outWidth; ox++) {
+            int rx = cropX + (int) ((long) ox * cropWidth / outWidth);
+            switch (rotationDegrees) {
+                case 90:
+                    columnMap[ox] = height - 1 - rx; // source y
+                    break;
+                case 180:
+                    columnMap[ox] = width - 1 - rx; // source x
+                    break;
+                default:
+                    columnMap[ox] = rx; // source x for 0, source y for 270
+                    break;
+            }
+        }
+        for (int oy = 0; oy < outHeight; oy++) {
+            int ry = cropY + (int) ((long) oy * cropHeight / outHeight);
+            switch (rotationDegrees) {
+                case 180:
+                    rowMap[oy] = height - 1 - ry; // source y
+                    break;
+                case 270:
+                    rowMap[oy] = width - 1 - ry; // source x
+                    break;
+                default:
+                    rowMap[oy] = ry; // source y for 0, source x for 90
+                    break;
+            }
+        }
+
+        float scaleR = 1.0f / (255.0f * std[0]);
+        float scaleG = 1.0f / (255.0f * std[1]);
+        float scaleB = 1.0f / (255.0f * std[2]);
+        float offsetR = mean[0] / std[0];
+        float offsetG = mean[1] / std[1];
+        float offsetB = mean[2] / std[2];
+
+        int planeSize = outWidth * outHeight;
+        int offsetGreen = planeSize;
+        int offsetBlue = 2 * planeSize;
+        int i = 0;
+        for (int oy = 0; oy < outHeight; oy++) {
+            for (int ox = 0; ox < outWidth; ox++, i++) {
+                int sx = swapped ? rowMap[oy] : columnMap[ox];
+                int sy = swapped ? columnMap[ox] : rowMap[oy];
+
+                int y = yPlane[sy * yRowStride + sx] & 0xff;
+                int uvIndex = (sy >> 1) * uvRowStride + (sx >> 1) * uvPixelStride;
+                int u = (uPlane[uvIndex] & 0xff) - 128;
+                int v = (vPlane[uvIndex] & 0xff) - 128;
+
+                // BT.601 full range, as used by the JPEG path this replaces
+                float r = clamp(y + 1.402f * v);
+                float g = clamp(y - 0.344136f * u - 0.714136f * v);
+                float b = clamp(y + 1.772f * u);
+
+                out.put(i, r * scaleR - offsetR);
+                out.put(offsetGreen + i, g * scaleG - offsetG);
+                out.put(offsetBlue + i, b * scaleB - offsetB);
+            }
+        }
+    }
+
+    /**
+     * Guesses the chroma row stride when the caller did not send one, from the
+     * plane size. The last row of a plane is often shorter than the stride,
+     * hence the rounding up.
+     */
+    static int inferUvRowStride(int uvPlaneLength, int height) {
+        int rows = (height + 1) / 2;
+        return (uvPlaneLength + rows - 1) / rows;
+    }
+
+    /**
+     * Guesses the chroma pixel stride when the caller did not send one:
+     * interleaved planes are at least as wide as the frame.
+     */
+    static int inferUvPixelStride(int uvRowStride, int width) {
+        return uvRowStride >= width ? 2 : 1;
+    }
+
+    private static float clamp(float value) {
+        return value < 0.0f ? 0.0f : (value > 255.0f ? 255.0f : value);
+    }
+}
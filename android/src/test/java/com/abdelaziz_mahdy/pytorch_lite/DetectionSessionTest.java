@@ -0,0 +1,52 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class DetectionSessionTest {
+  private static DetectionSession session() {
+    return new DetectionSession(3, 1L, DetectionOptions.DEFAULT, null, new FrameScheduler(new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    }), null);
+  }
+
+  @Test
+  public void eventsAreTaggedWithSessionAndFrame() {
+    Map<String, Object> event = session().droppedEvent(7, 2);
+
+    assertEquals(3L, event.get("sessionId"));
+    assertEquals(7L, event.get("frameId"));
+    assertEquals(true, event.get("dropped"));
+    assertEquals(2L, event.get("droppedFrames"));
+    assertNull(event.get("detections"));
+  }
+
+  @Test
+  public void detectedEventCarriesPackedDetections() {
+    Map<String, Object> event = session().detectedEvent(8, 0, new ArrayList<Pigeon.ResultObjectDetection>(), true);
+
+    assertFalse((Boolean) event.get("dropped"));
+    assertTrue((Boolean) event.get("detected"));
+    assertEquals(0, ((byte[]) event.get("detections")).length);
+    assertFalse(event.containsKey("error"));
+    assertFalse(event.containsKey("trackIds"));
+  }
+
+  @Test
+  public void errorEventKeepsTheFrameId() {
+    Map<String, Object> event = session().errorEvent(9, 1, new IllegalStateException("boom"));
+
+    assertEquals(9L, event.get("frameId"));
+    assertTrue(((String) event.get("error")).contains("boom"));
+  }
+}
@@ -0,0 +1,30 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import org.pytorch.Module;
+
+// stands in for model files, the modules are never run
+class FakeModuleLoader extends ModuleLoader {
+  final long bytesPerModule;
+  int loads;
+  int releases;
+
+  FakeModuleLoader(long bytesPerModule) {
+    this.bytesPerModule = bytesPerModule;
+  }
+
+  @Override
+  Module load() {
+    loads++;
+    return null;
+  }
+
+  @Override
+  long loadedBytes() {
+    return bytesPerModule;
+  }
+
+  @Override
+  void release(Module module) {
+    releases++;
+  }
+}
@@ -0,0 +1,140 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class FrameSchedulerTest {
+  // runs the submitted tasks when told to
+  private static class ManualExecutor implements Executor {
+    final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.poll().run();
+      }
+    }
+  }
+
+  // records what happened to each frame, in order
+  private static class RecordingFrame implements FrameScheduler.Frame {
+    final String name;
+    final List<String> log;
+    Runnable whileRunning;
+
+    RecordingFrame(String name, List<String> log) {
+      this.name = name;
+      this.log = log;
+    }
+
+    @Override
+    public void run(long droppedFrames) {
+      if (whileRunning != null) {
+        whileRunning.run();
+      }
+      log.add("ran " + name + " after " + droppedFrames);
+    }
+
+    @Override
+    public void drop(long droppedFrames) {
+      log.add("dropped " + name + " as " + droppedFrames);
+    }
+  }
+
+  @Test
+  public void newerFramesReplaceThePendingOne() {
+    ManualExecutor executor = new ManualExecutor();
+    FrameScheduler scheduler = new FrameScheduler(executor);
+    List<String> log = new ArrayList<>();
+
+    scheduler.submit(new RecordingFrame("a", log));
+    scheduler.submit(new RecordingFrame("b", log));
+    scheduler.submit(new RecordingFrame("c", log));
+    assertEquals(1, executor.tasks.size());
+    executor.runAll();
+
+    assertEquals(3, log.size());
+    assertEquals("dropped a as 1", log.get(0));
+    assertEquals("dropped b as 2", log.get(1));
+    assertEquals("ran c after 2", log.get(2));
+  }
+
+  @Test
+  public void keepsOneFrameWaitingWhileAnotherRuns() {
+    ManualExecutor executor = new ManualExecutor();
+    final FrameScheduler scheduler = new FrameScheduler(executor);
+    final List<String> log = new ArrayList<>();
+    RecordingFrame first = new RecordingFrame("a", log);
+    first.whileRunning = new Runnable() {
+      @Override
+      public void run() {
+        scheduler.submit(new RecordingFrame("b", log));
+        scheduler.submit(new RecordingFrame("c", log));
+      }
+    };
+
+    scheduler.submit(first);
+    executor.runAll();
+
+    assertEquals(3, log.size());
+    assertEquals("dropped b as 1", log.get(0));
+    assertEquals("ran a after 0", log.get(1));
+    assertEquals("ran c after 1", log.get(2));
+  }
+
+  @Test
+  public void startsAgainOnceIdle() {
+    ManualExecutor executor = new ManualExecutor();
+    FrameScheduler scheduler = new FrameScheduler(executor);
+    List<String> log = new ArrayList<>();
+
+    scheduler.submit(new RecordingFrame("a", log));
+    executor.runAll();
+    scheduler.submit(new RecordingFrame("b", log));
+    assertEquals(1, executor.tasks.size());
+    executor.runAll();
+
+    assertEquals(2, log.size());
+    assertEquals("ran b after 0", log.get(1));
+  }
+
+  @Test
+  public void recoversFromAFrameThatThrows() {
+    ManualExecutor executor = new ManualExecutor();
+    final FrameScheduler scheduler = new FrameScheduler(executor);
+    final List<String> log = new ArrayList<>();
+    RecordingFrame failing = new RecordingFrame("a", log);
+    failing.whileRunning = new Runnable() {
+      @Override
+      public void run() {
+        scheduler.submit(new RecordingFrame("b", log));
+        throw new AssertionError("out of memory");
+      }
+    };
+
+    scheduler.submit(failing);
+    try {
+      executor.runAll();
+      fail("the frame should have thrown");
+    } catch (AssertionError expected) {
+      // the frame waiting behind it is dropped
+    }
+    scheduler.submit(new RecordingFrame("c", log));
+    assertEquals(1, executor.tasks.size());
+    executor.runAll();
+
+    assertEquals(2, log.size());
+    assertEquals("dropped b as 1", log.get(0));
+    assertEquals("ran c after 1", log.get(1));
+  }
+}
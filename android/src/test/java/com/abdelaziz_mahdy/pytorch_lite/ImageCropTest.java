@@ -0,0 +1,66 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ImageCropTest {
+  private static Pigeon.ResultObjectDetection detection(double left, double top, double right, double bottom) {
+    Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder()
+        .setLeft(left)
+        .setTop(top)
+        .setRight(right)
+        .setBottom(bottom)
+        .setWidth(right - left)
+        .setHeight(bottom - top)
+        .build();
+    return new Pigeon.ResultObjectDetection.Builder()
+        .setClassIndex(0L)
+        .setScore(0.9)
+        .setRect(rect)
+        .build();
+  }
+
+  @Test
+  public void mapsBoxesBackToTheFrame() {
+    ImageCrop crop = new ImageCrop(0.5f, 0.25f, 1.0f, 0.75f);
+    List<Pigeon.ResultObjectDetection> detections = new ArrayList<>();
+    detections.add(detection(0.0, 0.0, 1.0, 1.0));
+    detections.add(detection(0.5, 0.5, 0.75, 1.0));
+
+    crop.toFrame(detections);
+
+    Pigeon.PyTorchRect whole = detections.get(0).getRect();
+    assertEquals(0.5, whole.getLeft(), 1e-6);
+    assertEquals(0.25, whole.getTop(), 1e-6);
+    assertEquals(1.0, whole.getRight(), 1e-6);
+    assertEquals(0.75, whole.getBottom(), 1e-6);
+    Pigeon.PyTorchRect part = detections.get(1).getRect();
+    assertEquals(0.75, part.getLeft(), 1e-6);
+    assertEquals(0.5, part.getTop(), 1e-6);
+    assertEquals(0.875, part.getRight(), 1e-6);
+    assertEquals(0.75, part.getBottom(), 1e-6);
+    assertEquals(0.125, part.getWidth(), 1e-6);
+    assertEquals(0.25, part.getHeight(), 1e-6);
+  }
+
+  @Test
+  public void coversAtLeastOnePixel() {
+    ImageCrop crop = new ImageCrop(0.5f, 0.5f, 0.5001f, 0.5001f);
+    assertEquals(50, crop.firstColumn(100));
+    assertEquals(1, crop.columns(100));
+    assertEquals(1, crop.rows(100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEmptyCrops() {
+    new ImageCrop(0.5f, 0.0f, 0.5f, 1.0f);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsCropsOutsideTheFrame() {
+    new ImageCrop(-0.1f, 0.0f, 0.5f, 1.0f);
+  }
+}
@@ -0,0 +1,107 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LoadedModelTest {
+  private static LoadedModel model(int replicas, int maxConcurrency) {
+    return new LoadedModel(new FakeModuleLoader(1), replicas, new PrePostProcessor(), maxConcurrency, 0,
+        0, new ThreadBudget());
+  }
+
+  @Test
+  public void parallelCallsGetDifferentReplicas() {
+    LoadedModel model = model(3, 3);
+
+    int first = model.checkout();
+    int second = model.checkout();
+    int third = model.checkout();
+
+    assertNotEquals(first, second);
+    assertNotEquals(first, third);
+    assertNotEquals(second, third);
+    assertEquals(3L, (long) model.stats().getRunningInferences());
+  }
+
+  @Test
+  public void releasedReplicaIsReused() {
+    LoadedModel model = model(2, 2);
+    int busy = model.checkout();
+    int idle = model.checkout();
+    model.checkin(idle);
+
+    assertEquals(idle, model.checkout());
+    assertNotEquals(busy, idle);
+  }
+
+  @Test
+  public void callsShareReplicasWhenAllAreBusy() {
+    LoadedModel model = model(2, LoadedModel.UNLIMITED);
+    model.checkout();
+    model.checkout();
+
+    model.checkout();
+
+    assertEquals(3L, (long) model.stats().getRunningInferences());
+  }
+
+  @Test
+  public void statsReportEveryReplica() {
+    Pigeon.ModelStats stats = model(4, 2).stats();
+
+    assertEquals(4L, (long) stats.getReplicas());
+    assertEquals(2L, (long) stats.getMaxConcurrency());
+    assertEquals(4, stats.getInferencesPerReplica().size());
+    assertEquals(0.0, stats.getUtilization(), 0.0);
+  }
+
+  @Test
+  public void evictsOnlyIdleModelsAndLoadsThemAgain() {
+    FakeModuleLoader loader = new FakeModuleLoader(100);
+    LoadedModel model = new LoadedModel(loader, 2, new PrePostProcessor(), 2, 0, 0, new ThreadBudget());
+
+    assertTrue(model.ensureLoaded());
+    assertEquals(200, model.residentBytes());
+    assertTrue(model.evict());
+    assertFalse(model.isLoaded());
+    assertEquals(2, loader.releases);
+    assertEquals(0, model.residentBytes());
+    assertTrue(model.ensureLoaded());
+    assertEquals(4, loader.loads);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedModelDoesNotLoadAgain() {
+    LoadedModel model = model(1, 1);
+    model.ensureLoaded();
+    model.close();
+
+    model.ensureLoaded();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNegativeWarmUpRuns() {
+    new LoadedModel(new FakeModuleLoader(1), 1, new PrePostProcessor(), 1, 0, -1, new ThreadBudget());
+  }
+
+  @Test
+  public void reportsNoLatencyBeforeTheFirstPass() {
+    LoadedModel model = model(1, 1);
+    model.ensureLoaded();
+
+    Pigeon.ModelStats stats = model.stats();
+
+    assertNull(stats.getColdLatencyMillis());
+    assertNull(stats.getWarmLatencyMillis());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void needsAReplica() {
+    model(0, 1);
+  }
+}
@@ -0,0 +1,145 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class ModelRegistryTest {
+  private static LoadedModel model() {
+    return model(new FakeModuleLoader(1));
+  }
+
+  private static LoadedModel model(FakeModuleLoader loader) {
+    return new LoadedModel(loader, 1, new PrePostProcessor(), 1, 0, 0, new ThreadBudget());
+  }
+
+  @Test
+  public void handlesStartAtZeroAndKeepCounting() {
+    ModelRegistry registry = new ModelRegistry();
+    LoadedModel first = model();
+    LoadedModel second = model();
+
+    assertEquals(0L, registry.add(first));
+    assertEquals(1L, registry.add(second));
+    assertSame(second, registry.get(1L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownHandleIsRejected() {
+    new ModelRegistry().get(3L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeConcurrencyIsRejected() {
+    new LoadedModel(new FakeModuleLoader(1), 1, new PrePostProcessor(), -1, 0, 0, new ThreadBudget());
+  }
+
+  @Test
+  public void concurrentLoadsGetDistinctHandles() throws InterruptedException {
+    final ModelRegistry registry = new ModelRegistry();
+    final Set<Long> handles = new HashSet<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < 50; i++) {
+            long handle = registry.add(model());
+            synchronized (handles) {
+              handles.add(handle);
+            }
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(200, handles.size());
+    assertEquals(200, registry.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unloadedHandleIsRejected() {
+    ModelRegistry registry = new ModelRegistry();
+    long handle = registry.add(model());
+    registry.remove(handle);
+
+    registry.get(handle);
+  }
+
+  @Test
+  public void unloadReleasesModules() {
+    ModelRegistry registry = new ModelRegistry();
+    FakeModuleLoader loader = new FakeModuleLoader(1);
+    long handle = registry.add(model(loader));
+
+    registry.remove(handle);
+
+    assertEquals(1, loader.releases);
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedModelsOverBudget() throws InterruptedException {
+    ModelRegistry registry = new ModelRegistry();
+    registry.setMemoryBudget(250);
+    FakeModuleLoader first = new FakeModuleLoader(100);
+    FakeModuleLoader second = new FakeModuleLoader(100);
+    LoadedModel firstModel = model(first);
+    LoadedModel secondModel = model(second);
+    long firstHandle = registry.add(firstModel);
+    Thread.sleep(1);
+    registry.add(secondModel);
+    Thread.sleep(1);
+
+    registry.add(model(new FakeModuleLoader(100)));
+
+    assertFalse(firstModel.isLoaded());
+    assertTrue(secondModel.isLoaded());
+    assertEquals(1, first.releases);
+
+    assertFalse(registry.peek(firstHandle).isLoaded());
+
+    // used again, the first model comes back and the second one is evicted
+    registry.get(firstHandle);
+    assertTrue(firstModel.isLoaded());
+    assertEquals(2, first.loads);
+    assertFalse(secondModel.isLoaded());
+  }
+
+  @Test
+  public void callOnAnEvictedModelEnforcesTheBudget() throws InterruptedException {
+    ModelRegistry registry = new ModelRegistry();
+    registry.setMemoryBudget(150);
+    FakeModuleLoader first = new FakeModuleLoader(100);
+    LoadedModel firstModel = model(first);
+    LoadedModel secondModel = model(new FakeModuleLoader(100));
+    long firstHandle = registry.add(firstModel);
+    LoadedModel looked = registry.get(firstHandle);
+    Thread.sleep(1);
+
+    // evicted between the lookup and the call
+    registry.add(secondModel);
+    assertFalse(firstModel.isLoaded());
+
+    try {
+      looked.forward();
+    } catch (NullPointerException expected) {
+      // the fake modules can not run
+    }
+    assertTrue(firstModel.isLoaded());
+    assertEquals(2, first.loads);
+    assertFalse(secondModel.isLoaded());
+  }
+}
@@ -0,0 +1,273 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class NonMaxSuppressionTest {
+  private static void addBox(DetectionCandidates candidates, float left, float top, float size, float score) {
+    addBox(candidates, left, top, size, score, 0);
+  }
+
+  private static void addBox(DetectionCandidates candidates, float left, float top, float size, float score,
+      int classIndex) {
+    candidates.add(left, top, left + size, top + size, score, classIndex);
+  }
+
+  @Test
+  public void topKReturnsTheBestScoresBestFirst() {
+    float[] scores = {0.1f, 0.9f, 0.5f, 0.7f, 0.3f, 0.8f};
+    int[] out = new int[3];
+
+    int count = NonMaxSuppression.topK(scores, scores.length, 3, out);
+
+    assertEquals(3, count);
+    assertArrayEquals(new int[] {1, 5, 3}, out);
+  }
+
+  @Test
+  public void topKKeepsTheOrderOfEqualScores() {
+    float[] scores = {0.5f, 0.5f, 0.9f, 0.5f, 0.5f};
+    int[] out = new int[3];
+
+    NonMaxSuppression.topK(scores, scores.length, 3, out);
+
+    assertArrayEquals(new int[] {2, 0, 1}, out);
+  }
+
+  @Test
+  public void topKWithFewerScoresThanK() {
+    float[] scores = {0.2f, 0.4f};
+    int[] out = new int[4];
+
+    assertEquals(2, NonMaxSuppression.topK(scores, scores.length, 4, out));
+    assertArrayEquals(new int[] {1, 0}, Arrays.copyOf(out, 2));
+  }
+
+  @Test
+  public void topKMatchesAStableSortForAnyK() {
+    Random random = new Random(7);
+    float[] scores = new float[500];
+    for (int i = 0; i < scores.length; i++) {
+      // few distinct values, negative ones included
+      scores[i] = random.nextInt(40) / 10.0f - 1.0f;
+    }
+    Integer[] sorted = new Integer[scores.length];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = i;
+    }
+    final float[] sortScores = scores;
+    Arrays.sort(sorted, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        return Float.compare(sortScores[b], sortScores[a]);
+      }
+    });
+
+    for (int k : new int[] {1, 15, 100, 300, 500}) {
+      int[] out = new int[k];
+      assertEquals(k, NonMaxSuppression.topK(scores, scores.length, k, out));
+      for (int i = 0; i < k; i++) {
+        assertEquals((int) sorted[i], out[i]);
+      }
+    }
+  }
+
+  @Test
+  public void suppressesOverlappingBoxes() {
+    DetectionCandidates candidates = new DetectionCandidates();
+    addBox(candidates, 0, 0, 10, 0.6f);
+    addBox(candidates, 1, 1, 10, 0.9f);
+    addBox(candidates, 50, 50, 10, 0.7f);
+    int[] keep = new int[3];
+
+    int kept = NonMaxSuppression.select(candidates, 0.3f, 3, keep);
+
+    assertEquals(2, kept);
+    assertEquals(1, keep[0]);
+    assertEquals(2, keep[1]);
+  }
+
+  @Test
+  public void stopsAtTheLimit() {
+    DetectionCandidates candidates = new DetectionCandidates();
+    for (int i = 0; i < 200; i++) {
+      addBox(candidates, i * 20, 0, 10, i / 200.0f);
+    }
+    int[] keep = new int[2];
+
+    int kept = NonMaxSuppression.select(candidates, 0.3f, 2, keep);
+
+    assertEquals(2, kept);
+    assertEquals(199, keep[0]);
+    assertEquals(198, keep[1]);
+  }
+
+  @Test
+  public void gridKeepsTheSameBoxesAsExhaustive() {
+    Random random = new Random(42);
+    for (int scene = 0; scene < 50; scene++) {
+      int limit = 1 + random.nextInt(300);
+      // a crowd of boxes of mixed sizes, some of them empty, within the
+      // candidates the grid engine ranks
+      DetectionCandidates candidates = new DetectionCandidates();
+      int boxes = Math.min(50 + random.nextInt(2000), limit * NonMaxSuppression.CANDIDATES_PER_BOX);
+      for (int i = 0; i < boxes; i++) {
+        float left = random.nextFloat() * 640;
+        float top = random.nextFloat() * 640;
+        float width = random.nextInt(20) == 0 ? 0 : 4 + random.nextFloat() * (random.nextBoolean() ? 30 : 300);
+        float height = width * (0.5f + random.nextFloat());
+        candidates.add(left, top, left + width, top + height, random.nextFloat(), 0);
+      }
+      float iouThreshold = random.nextFloat() * 0.8f;
+      int[] exhaustive = new int[limit];
+      int[] grid = new int[limit];
+
+      int exhaustiveCount =
+          NonMaxSuppression.select(candidates, iouThreshold, limit, exhaustive, NonMaxSuppression.EXHAUSTIVE);
+      int gridCount = NonMaxSuppression.select(candidates, iouThreshold, limit, grid, NonMaxSuppression.GRID);
+
+      assertEquals(exhaustiveCount, gridCount);
+      assertArrayEquals(Arrays.copyOf(exhaustive, exhaustiveCount), Arrays.copyOf(grid, gridCount));
+    }
+  }
+
+  // textbook greedy NMS over every candidate, best score and then lowest row first
+  private static List<Integer> greedyNms(final DetectionCandidates candidates, float iouThreshold, int limit) {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < candidates.size; i++) {
+      order.add(i);
+    }
+    Collections.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        int byScore = Float.compare(candidates.score[b], candidates.score[a]);
+        return byScore != 0 ? byScore : Integer.compare(a, b);
+      }
+    });
+    List<Integer> kept = new ArrayList<>();
+    for (int candidate : order) {
+      boolean suppressed = false;
+      for (int box : kept) {
+        if (candidates.iou(box, candidate) > iouThreshold) {
+          suppressed = true;
+          break;
+        }
+      }
+      if (!suppressed) {
+        kept.add(candidate);
+        if (kept.size() >= limit) {
+          break;
+        }
+      }
+    }
+    return kept;
+  }
+
+  @Test
+  public void exhaustiveMatchesUncappedGreedyNmsOnDenseInput() {
+    Random random = new Random(11);
+    // the best candidates, far more than the grid engine ranks for the
+    // limit, are stacked on one object and suppress each other, the boxes
+    // kept after the first one all score below them
+    DetectionCandidates candidates = new DetectionCandidates();
+    for (int i = 0; i < 2000; i++) {
+      if (i % 4 == 0) {
+        addBox(candidates, random.nextFloat() * 600, random.nextFloat() * 600, 10, random.nextFloat() * 0.5f);
+      } else {
+        addBox(candidates, 300 + random.nextFloat() * 4, 300 + random.nextFloat() * 4, 50,
+            0.5f + random.nextFloat() * 0.5f);
+      }
+    }
+    int limit = 20;
+    int[] keep = new int[limit];
+
+    int kept = NonMaxSuppression.select(candidates, 0.3f, limit, keep, NonMaxSuppression.EXHAUSTIVE);
+
+    List<Integer> expected = greedyNms(candidates, 0.3f, limit);
+    assertEquals(expected.size(), kept);
+    for (int i = 0; i < kept; i++) {
+      assertEquals((int) expected.get(i), keep[i]);
+    }
+  }
+
+  @Test
+  public void negativeThresholdKeepsOneBoxWithEitherEngine() {
+    DetectionCandidates candidates = new DetectionCandidates();
+    addBox(candidates, 0, 0, 10, 0.5f);
+    addBox(candidates, 100, 100, 10, 0.9f);
+    int[] keep = new int[2];
+
+    assertEquals(1, NonMaxSuppression.select(candidates, -1.0f, 2, keep, NonMaxSuppression.GRID));
+    assertEquals(1, keep[0]);
+  }
+
+  @Test
+  public void perClassOnlySuppressesBoxesOfTheSameClass() {
+    DetectionCandidates candidates = new DetectionCandidates();
+    addBox(candidates, 0, 0, 10, 0.9f, 0);
+    addBox(candidates, 1, 1, 10, 0.8f, 1);
+    addBox(candidates, 1, 0, 10, 0.7f, 0);
+    int[] keep = new int[3];
+
+    int kept = NonMaxSuppression.selectPerClass(candidates, 0.3f, 3, keep, NonMaxSuppression.GRID);
+
+    assertEquals(2, kept);
+    assertEquals(0, keep[0]);
+    assertEquals(1, keep[1]);
+  }
+
+  @Test
+  public void perClassMatchesSuppressingEachClassAlone() {
+    Random random = new Random(3);
+    DetectionCandidates candidates = new DetectionCandidates();
+    for (int i = 0; i < 3000; i++) {
+      addBox(candidates, random.nextFloat() * 600, random.nextFloat() * 600, 10 + random.nextFloat() * 40,
+          random.nextFloat(), random.nextInt(5));
+    }
+    int limit = 100;
+    int[] keep = new int[limit];
+
+    // enough candidates to run the classes in parallel
+    int kept = NonMaxSuppression.selectPerClass(candidates, 0.45f, limit, keep, NonMaxSuppression.GRID);
+
+    // reference: every class on its own, then the best boxes overall
+    List<Integer> expected = new ArrayList<>();
+    for (int cls = 0; cls < 5; cls++) {
+      DetectionCandidates own = new DetectionCandidates();
+      int[] rows = new int[candidates.size];
+      for (int i = 0; i < candidates.size; i++) {
+        if (candidates.classIndex[i] == cls) {
+          rows[own.size] = i;
+          own.add(candidates.left[i], candidates.top[i], candidates.right[i], candidates.bottom[i],
+              candidates.score[i], cls);
+        }
+      }
+      int[] ownKeep = new int[limit];
+      int ownKept = NonMaxSuppression.select(own, 0.45f, limit, ownKeep, NonMaxSuppression.EXHAUSTIVE);
+      for (int i = 0; i < ownKept; i++) {
+        expected.add(rows[ownKeep[i]]);
+      }
+    }
+    final DetectionCandidates all = candidates;
+    Collections.sort(expected, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer a, Integer b) {
+        int byScore = Float.compare(all.score[b], all.score[a]);
+        return byScore != 0 ? byScore : Integer.compare(a, b);
+      }
+    });
+
+    assertEquals(limit, kept);
+    for (int i = 0; i < limit; i++) {
+      assertEquals((int) expected.get(i), keep[i]);
+    }
+  }
+}
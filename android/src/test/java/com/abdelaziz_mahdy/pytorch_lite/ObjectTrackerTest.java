@@ -0,0 +1,110 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ObjectTrackerTest {
+  private static Pigeon.ResultObjectDetection box(float left, float top, float size, float score, int cls) {
+    Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder()
+        .setLeft((double) left)
+        .setTop((double) top)
+        .setRight((double) (left + size))
+        .setBottom((double) (top + size))
+        .setWidth((double) size)
+        .setHeight((double) size)
+        .build();
+    return new Pigeon.ResultObjectDetection.Builder()
+        .setClassIndex((long) cls)
+        .setScore((double) score)
+        .setRect(rect)
+        .build();
+  }
+
+  private static Pigeon.ResultObjectDetection find(List<Pigeon.ResultObjectDetection> tracked, long trackId) {
+    for (Pigeon.ResultObjectDetection detection : tracked) {
+      if (detection.getTrackId() == trackId) {
+        return detection;
+      }
+    }
+    throw new AssertionError("no track " + trackId);
+  }
+
+  @Test
+  public void keepsTrackIdsOfMovingObjects() {
+    ObjectTracker tracker = new ObjectTracker(1, 0.5f);
+    List<Pigeon.ResultObjectDetection> first =
+        tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 0), box(0.6f, 0.6f, 0.2f, 0.8f, 1)), 1);
+    long left = first.get(0).getTrackId();
+    long right = first.get(1).getTrackId();
+    assertNotEquals(left, right);
+
+    List<Pigeon.ResultObjectDetection> second =
+        tracker.update(Arrays.asList(box(0.62f, 0.6f, 0.2f, 0.8f, 1), box(0.12f, 0.1f, 0.2f, 0.9f, 0)), 1);
+
+    assertEquals(2, second.size());
+    assertEquals(0L, (long) find(second, left).getClassIndex());
+    assertEquals(1L, (long) find(second, right).getClassIndex());
+  }
+
+  @Test
+  public void predictsBoxesBetweenDetections() {
+    ObjectTracker tracker = new ObjectTracker(3, 0.5f);
+    assertTrue(tracker.needsDetection(1));
+    for (int frame = 0; frame < 4; frame++) {
+      tracker.update(Arrays.asList(box(0.1f + 0.02f * frame, 0.1f, 0.2f, 0.95f, 0)), 1);
+    }
+
+    assertFalse(tracker.needsDetection(1));
+    List<Pigeon.ResultObjectDetection> predicted = tracker.predict(1);
+
+    assertEquals(1, predicted.size());
+    // keeps moving right by about 0.02 per frame
+    assertTrue(predicted.get(0).getRect().getLeft() > 0.17);
+    assertTrue(predicted.get(0).getScore() < 0.95);
+    assertFalse(tracker.needsDetection(1));
+    tracker.predict(1);
+    assertTrue(tracker.needsDetection(1));
+  }
+
+  @Test
+  public void detectsAgainWhenTheScoreDecaysBelowTheMinimum() {
+    ObjectTracker tracker = new ObjectTracker(10, 0.5f);
+    tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.6f, 0)), 1);
+
+    assertFalse(tracker.needsDetection(1));
+    assertTrue(tracker.needsDetection(2));
+  }
+
+  @Test
+  public void dropsTracksMissedByTheDetector() {
+    ObjectTracker tracker = new ObjectTracker(1, 0.5f);
+    long trackId = tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 0)), 1).get(0).getTrackId();
+
+    assertEquals(0, tracker.update(new ArrayList<Pigeon.ResultObjectDetection>(), 1).size());
+    List<Pigeon.ResultObjectDetection> back = tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 0)), 1);
+    assertEquals(trackId, (long) back.get(0).getTrackId());
+
+    tracker.update(new ArrayList<Pigeon.ResultObjectDetection>(), 1);
+    tracker.update(new ArrayList<Pigeon.ResultObjectDetection>(), 1);
+    List<Pigeon.ResultObjectDetection> fresh = tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 0)), 1);
+    assertNotEquals(trackId, (long) fresh.get(0).getTrackId());
+  }
+
+  @Test
+  public void doesNotMatchAcrossClasses() {
+    ObjectTracker tracker = new ObjectTracker(1, 0.5f);
+    long trackId = tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 0)), 1).get(0).getTrackId();
+
+    List<Pigeon.ResultObjectDetection> other = tracker.update(Arrays.asList(box(0.1f, 0.1f, 0.2f, 0.9f, 1)), 1);
+
+    assertEquals(1, other.size());
+    assertNotEquals(trackId, (long) other.get(0).getTrackId());
+  }
+}
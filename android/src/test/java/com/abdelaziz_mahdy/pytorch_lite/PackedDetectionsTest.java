@@ -0,0 +1,52 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class PackedDetectionsTest {
+  private static Pigeon.ResultObjectDetection detection(long classIndex, double score, double left, double top) {
+    Pigeon.PyTorchRect rect = new Pigeon.PyTorchRect.Builder()
+        .setLeft(left)
+        .setTop(top)
+        .setRight(left + 0.5)
+        .setBottom(top + 0.25)
+        .setWidth(0.5)
+        .setHeight(0.25)
+        .build();
+    return new Pigeon.ResultObjectDetection.Builder()
+        .setClassIndex(classIndex)
+        .setScore(score)
+        .setRect(rect)
+        .build();
+  }
+
+  @Test
+  public void packsOneRecordPerDetection() {
+    List<Pigeon.ResultObjectDetection> detections = new ArrayList<>();
+    detections.add(detection(3, 0.9, 0.1, 0.2));
+    detections.add(detection(7, 0.6, 0.4, 0.5));
+
+    byte[] packed = PackedDetections.pack(detections);
+
+    assertEquals(2 * PackedDetections.RECORD_SIZE * 4, packed.length);
+    FloatBuffer records = ByteBuffer.wrap(packed).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    int second = PackedDetections.RECORD_SIZE;
+    assertEquals(3.0f, records.get(PackedDetections.CLASS_INDEX), 0.0f);
+    assertEquals(0.9f, records.get(PackedDetections.SCORE), 1e-6f);
+    assertEquals(7.0f, records.get(second + PackedDetections.CLASS_INDEX), 0.0f);
+    assertEquals(0.9f, records.get(second + PackedDetections.RIGHT), 1e-6f);
+    assertEquals(0.75f, records.get(second + PackedDetections.BOTTOM), 1e-6f);
+    assertEquals(0.25f, records.get(second + PackedDetections.HEIGHT), 1e-6f);
+  }
+
+  @Test
+  public void packsNoDetectionsAsEmptyPayload() {
+    assertEquals(0, PackedDetections.pack(new ArrayList<Pigeon.ResultObjectDetection>()).length);
+  }
+}
@@ -0,0 +1,187 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class PrePostProcessorTest {
+  private static final int NUMBER_OF_CLASSES = 2;
+  private static final int COLUMNS = NUMBER_OF_CLASSES + 5;
+
+  // yolov5 row: x, y, w, h, objectness, class scores
+  private static void putRow(float[] outputs, int row, float x, float y, float size, float score, int cls) {
+    int base = row * COLUMNS;
+    outputs[base] = x;
+    outputs[base + 1] = y;
+    outputs[base + 2] = size;
+    outputs[base + 3] = size;
+    outputs[base + 4] = score;
+    outputs[base + 5 + cls] = 1.0f;
+  }
+
+  @Test
+  public void decodesEachImageOfABatchFromItsOwnSlice() {
+    PrePostProcessor prePostProcessor = new PrePostProcessor(NUMBER_OF_CLASSES, 100, 100, 0);
+    int rows = 3;
+    float[] outputs = new float[2 * rows * COLUMNS];
+    // image 0: one box of class 1, image 1: two separate boxes of class 0
+    putRow(outputs, 0, 50, 50, 20, 0.9f, 1);
+    putRow(outputs, rows, 20, 20, 10, 0.8f, 0);
+    putRow(outputs, rows + 1, 80, 80, 10, 0.7f, 0);
+
+    List<Pigeon.ResultObjectDetection> first =
+        prePostProcessor.outputsToNMSPredictions(outputs, 0, rows * COLUMNS, DetectionOptions.DEFAULT);
+    List<Pigeon.ResultObjectDetection> second = prePostProcessor.outputsToNMSPredictions(outputs, rows * COLUMNS,
+        rows * COLUMNS, DetectionOptions.DEFAULT);
+
+    assertEquals(1, first.size());
+    assertEquals(1L, (long) first.get(0).getClassIndex());
+    assertEquals(0.4, first.get(0).getRect().getLeft(), 1e-6);
+    assertEquals(2, second.size());
+    assertEquals(0.8, second.get(0).getScore(), 1e-6);
+    assertEquals(0.75, second.get(1).getRect().getLeft(), 1e-6);
+  }
+
+  @Test
+  public void reusedCandidateBuffersDoNotLeakIntoTheNextFrame() {
+    PrePostProcessor prePostProcessor = new PrePostProcessor(NUMBER_OF_CLASSES, 100, 100, 0);
+    int rows = 3;
+    float[] busy = new float[rows * COLUMNS];
+    putRow(busy, 0, 20, 20, 10, 0.9f, 0);
+    putRow(busy, 1, 80, 80, 10, 0.8f, 1);
+    float[] empty = new float[rows * COLUMNS];
+
+    assertEquals(2, prePostProcessor.outputsToNMSPredictions(busy).size());
+    assertEquals(0, prePostProcessor.outputsToNMSPredictions(empty).size());
+    assertEquals(2, prePostProcessor.outputsToNMSPredictions(busy).size());
+  }
+
+  @Test
+  public void optionsOfACallDoNotChangeTheModelDefaults() {
+    PrePostProcessor prePostProcessor = new PrePostProcessor(NUMBER_OF_CLASSES, 100, 100, 0);
+    int rows = 3;
+    float[] outputs = new float[rows * COLUMNS];
+    putRow(outputs, 0, 20, 20, 10, 0.9f, 0);
+    putRow(outputs, 1, 50, 50, 10, 0.4f, 0);
+    putRow(outputs, 2, 80, 80, 10, 0.2f, 1);
+
+    DetectionOptions highRecall = prePostProcessor.mDetectionDefaults.with(0.1, null, null);
+    DetectionOptions topOne = prePostProcessor.mDetectionDefaults.with(null, null, 1L);
+
+    assertEquals(3, prePostProcessor.outputsToNMSPredictions(outputs, highRecall).size());
+    assertEquals(1, prePostProcessor.outputsToNMSPredictions(outputs, topOne).size());
+    assertEquals(1, prePostProcessor.outputsToNMSPredictions(outputs).size());
+
+    prePostProcessor.mDetectionDefaults = prePostProcessor.mDetectionDefaults.with(0.3, null, null);
+    assertEquals(2, prePostProcessor.outputsToNMSPredictions(outputs).size());
+    assertSame(prePostProcessor.mDetectionDefaults, prePostProcessor.mDetectionDefaults.with(null, null, null));
+  }
+
+  private static float[] randomOutputs(Random random, int rows, int columns) {
+    float[] outputs = new float[rows * columns];
+    for (int i = 0; i < outputs.length; i++) {
+      outputs[i] = random.nextFloat() * 640;
+    }
+    return outputs;
+  }
+
+  private static void assertSameDetections(List<Pigeon.ResultObjectDetection> expected,
+      List<Pigeon.ResultObjectDetection> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getClassIndex(), actual.get(i).getClassIndex());
+      assertEquals(expected.get(i).getScore(), actual.get(i).getScore());
+      assertEquals(expected.get(i).getRect().getLeft(), actual.get(i).getRect().getLeft());
+    }
+  }
+
+  @Test
+  public void parallelDecodeMatchesSerialDecode() {
+    Random random = new Random(5);
+    for (int modelType = 0; modelType < 2; modelType++) {
+      PrePostProcessor serial = new PrePostProcessor(80, 640, 640, modelType);
+      PrePostProcessor parallel = new PrePostProcessor(80, 640, 640, modelType);
+      parallel.mParallelDecode = true;
+      parallel.mDecodeWorkers = 4;
+      DetectionOptions options = new DetectionOptions(0.95f * 640, 0.5f, 50);
+      float[] outputs = randomOutputs(random, 8400, serial.mOutputColumn);
+
+      assertSameDetections(serial.outputsToNMSPredictions(outputs, options),
+          parallel.outputsToNMSPredictions(outputs, options));
+    }
+  }
+
+  @Test
+  public void packedPredictionsMatchTheDetectionObjects() {
+    PrePostProcessor prePostProcessor = new PrePostProcessor(NUMBER_OF_CLASSES, 100, 100, 0);
+    int rows = 3;
+    float[] outputs = new float[rows * COLUMNS];
+    putRow(outputs, 0, 20, 20, 10, 0.9f, 0);
+    putRow(outputs, 1, 80, 60, 10, 0.8f, 1);
+    ImageCrop crop = new ImageCrop(0.5f, 0.25f, 1.0f, 0.75f);
+
+    List<Pigeon.ResultObjectDetection> expected = prePostProcessor.outputsToNMSPredictions(outputs);
+    crop.toFrame(expected);
+    FloatBuffer records = ByteBuffer.wrap(
+        prePostProcessor.outputsToPackedPredictions(outputs, DetectionOptions.DEFAULT, crop))
+        .order(ByteOrder.nativeOrder()).asFloatBuffer();
+
+    assertEquals(expected.size() * PackedDetections.RECORD_SIZE, records.remaining());
+    for (int i = 0; i < expected.size(); i++) {
+      int record = i * PackedDetections.RECORD_SIZE;
+      Pigeon.PyTorchRect rect = expected.get(i).getRect();
+      assertEquals(expected.get(i).getClassIndex(), records.get(record + PackedDetections.CLASS_INDEX), 0.0f);
+      assertEquals(expected.get(i).getScore(), records.get(record + PackedDetections.SCORE), 1e-6f);
+      assertEquals(rect.getLeft(), records.get(record + PackedDetections.LEFT), 1e-6f);
+      assertEquals(rect.getTop(), records.get(record + PackedDetections.TOP), 1e-6f);
+      assertEquals(rect.getRight(), records.get(record + PackedDetections.RIGHT), 1e-6f);
+      assertEquals(rect.getBottom(), records.get(record + PackedDetections.BOTTOM), 1e-6f);
+      assertEquals(rect.getWidth(), records.get(record + PackedDetections.WIDTH), 1e-6f);
+      assertEquals(rect.getHeight(), records.get(record + PackedDetections.HEIGHT), 1e-6f);
+    }
+  }
+
+  @Test
+  public void blockedYoloV8DecodeReadsEveryClassColumn() {
+    // 300 rows span two decode blocks, 3 classes
+    int rows = 300;
+    PrePostProcessor prePostProcessor = new PrePostProcessor(3, 100, 100, 1);
+    float[] outputs = new float[rows * 7];
+    // row 290: box at (50, 50), best score in the last class column
+    outputs[290] = 50;
+    outputs[rows + 290] = 50;
+    outputs[2 * rows + 290] = 10;
+    outputs[3 * rows + 290] = 10;
+    outputs[4 * rows + 290] = 0.2f;
+    outputs[6 * rows + 290] = 0.9f;
+
+    List<Pigeon.ResultObjectDetection> detections = prePostProcessor.outputsToNMSPredictions(outputs);
+
+    assertEquals(1, detections.size());
+    assertEquals(2L, (long) detections.get(0).getClassIndex());
+    assertEquals(0.9, detections.get(0).getScore(), 1e-6);
+    assertEquals(0.45, detections.get(0).getRect().getLeft(), 1e-6);
+  }
+
+  @Test
+  public void batchInputsKeepImagesApart() {
+    InputTensorPool pool = new InputTensorPool(2, 1, 2);
+    InputTensorPool.PooledInput input = pool.acquire();
+    ByteBuffer image = ByteBuffer.allocate(4 * 6).order(ByteOrder.nativeOrder());
+    for (int i = 0; i < 6; i++) {
+      image.putFloat(i + 1);
+    }
+
+    input.fill(1, image.array());
+
+    assertEquals(0.0f, input.buffer.get(5), 0.0f);
+    assertEquals(1.0f, input.buffer.get(6), 0.0f);
+    assertEquals(6.0f, input.buffer.get(11), 0.0f);
+  }
+}
@@ -0,0 +1,167 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ThreadBudgetTest {
+  // records the pool sizes instead of resizing the real pool
+  private static class RecordingBudget extends ThreadBudget {
+    final List<Integer> applied = new ArrayList<>();
+
+    @Override
+    void applyNumThreads(int threads) {
+      applied.add(threads);
+    }
+  }
+
+  // a runtime without the native thread pool setter
+  private static class UnresizableBudget extends ThreadBudget {
+    int attempts;
+
+    @Override
+    void applyNumThreads(int threads) {
+      attempts++;
+      throw new UnsatisfiedLinkError("pytorch_jni_lite");
+    }
+  }
+
+  // fails to size the pool for every call
+  private static class FailingBudget extends ThreadBudget {
+    @Override
+    void applyNumThreads(int threads) {
+      throw new IllegalStateException("no pool");
+    }
+  }
+
+  private static LoadedModel model(ThreadBudget budget, int numThreads) {
+    return new LoadedModel(new FakeModuleLoader(1), 1, new PrePostProcessor(), 1, numThreads, 0, budget);
+  }
+
+  @Test
+  public void leavesThreadsAloneWithoutBudgetOrRequest() {
+    RecordingBudget budget = new RecordingBudget();
+
+    assertEquals(ThreadBudget.DEFAULT, budget.enter(model(budget, 0), 0));
+    assertEquals(0, budget.applied.size());
+  }
+
+  @Test
+  public void appliesRequestedThreadsWithoutBudget() {
+    RecordingBudget budget = new RecordingBudget();
+
+    assertEquals(2, budget.enter(model(budget, 2), 2));
+    assertEquals(2, (int) budget.applied.get(0));
+  }
+
+  @Test
+  public void splitsBudgetBetweenRunningModels() {
+    RecordingBudget budget = new RecordingBudget();
+    budget.setBudget(6);
+    LoadedModel detector = model(budget, 0);
+    LoadedModel classifier = model(budget, 2);
+
+    assertEquals(6, budget.enter(detector, 0));
+    // the classifier asked for fewer threads than its half of the budget
+    assertEquals(2, budget.enter(classifier, 2));
+    budget.exit(classifier);
+    assertEquals(1, budget.runningModels());
+    assertEquals(6, budget.enter(detector, 0));
+  }
+
+  @Test
+  public void givesEveryModelAtLeastOneThread() {
+    RecordingBudget budget = new RecordingBudget();
+    budget.setBudget(2);
+    budget.enter(model(budget, 0), 0);
+    budget.enter(model(budget, 0), 0);
+
+    assertEquals(1, budget.enter(model(budget, 0), 0));
+  }
+
+  @Test
+  public void resizesOnlyWhenTheCountChanges() {
+    RecordingBudget budget = new RecordingBudget();
+    budget.setBudget(4);
+    LoadedModel model = model(budget, 0);
+
+    budget.enter(model, 0);
+    budget.exit(model);
+    budget.enter(model, 0);
+
+    assertEquals(1, budget.applied.size());
+  }
+
+  @Test
+  public void failsWhenThePoolCanNotBeResized() {
+    UnresizableBudget budget = new UnresizableBudget();
+    LoadedModel model = model(budget, 2);
+
+    try {
+      budget.setBudget(4);
+      fail("the budget can't be applied");
+    } catch (IllegalStateException expected) {
+      assertEquals(ThreadBudget.DEFAULT, budget.getBudget());
+    }
+    try {
+      budget.enter(model, 2);
+      fail("the requested threads can't be applied");
+    } catch (IllegalStateException expected) {
+      assertEquals(0, budget.runningModels());
+    }
+    // nothing to resize, the call runs on PyTorch's default
+    assertEquals(ThreadBudget.DEFAULT, budget.enter(model(budget, 0), 0));
+    assertEquals(2, budget.attempts);
+  }
+
+  @Test
+  public void sizesThePoolForTheModelsStillRunning() {
+    RecordingBudget budget = new RecordingBudget();
+    budget.setBudget(8);
+    LoadedModel detector = model(budget, 0);
+    LoadedModel classifier = model(budget, 0);
+
+    budget.enter(detector, 0);
+    budget.enter(classifier, 0);
+    budget.exit(detector);
+
+    // one pool: the whole budget, then half of it each, then all of it again
+    assertEquals(3, budget.applied.size());
+    assertEquals(8, (int) budget.applied.get(0));
+    assertEquals(4, (int) budget.applied.get(1));
+    assertEquals(8, (int) budget.applied.get(2));
+  }
+
+  @Test
+  public void capsThePoolAtTheSmallestRequestOfTheRunningModels() {
+    RecordingBudget budget = new RecordingBudget();
+    budget.setBudget(8);
+    LoadedModel detector = model(budget, 0);
+    LoadedModel classifier = model(budget, 2);
+
+    budget.enter(classifier, 2);
+
+    // the pool is shared, the detector runs on the classifier's 2 threads too
+    assertEquals(2, budget.enter(detector, 0));
+  }
+
+  @Test(timeout = 5000)
+  public void failedEnterReleasesTheCall() {
+    FailingBudget budget = new FailingBudget();
+    LoadedModel model = model(budget, 2);
+
+    for (int call = 0; call < 2; call++) {
+      try {
+        model.forward();
+        fail("the pool size should have failed");
+      } catch (IllegalStateException expected) {
+        // the next call gets the only permit again
+      }
+    }
+    assertEquals(0, budget.runningModels());
+    assertEquals(0L, (long) model.stats().getRunningInferences());
+  }
+}
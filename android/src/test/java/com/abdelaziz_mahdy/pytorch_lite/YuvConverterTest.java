@@ -0,0 +1,115 @@
+package com.abdelaziz_mahdy.pytorch_lite;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.FloatBuffer;
+import org.junit.Test;
+
+public class YuvConverterTest {
+  private static final float[] NO_MEAN = new float[] {0.0f, 0.0f, 0.0f};
+  private static final float[] NO_STD = new float[] {1.0f, 1.0f, 1.0f};
+
+  // 4x2 frame, luma is the pixel index * 10, chroma is neutral
+  private static byte[] lumaPlane(int rowStride) {
+    byte[] y = new byte[rowStride * 2];
+    for (int row = 0; row < 2; row++) {
+      for (int col = 0; col < 4; col++) {
+        y[row * rowStride + col] = (byte) ((row * 4 + col) * 10);
+      }
+    }
+    return y;
+  }
+
+  private static byte[] neutralChroma(int length) {
+    byte[] plane = new byte[length];
+    java.util.Arrays.fill(plane, (byte) 128);
+    return plane;
+  }
+
+  private static float red(FloatBuffer out, int index) {
+    return out.get(index) * 255.0f;
+  }
+
+  @Test
+  public void convertsWithoutRotation() {
+    FloatBuffer out = FloatBuffer.allocate(3 * 4 * 2);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(4), neutralChroma(4), neutralChroma(4), 4, 2, 4, 4, 2, 0,
+        4, 2, NO_MEAN, NO_STD, out);
+
+    for (int i = 0; i < 8; i++) {
+      assertEquals(i * 10, red(out, i), 0.01f);
+      // gray pixels have the same value in every channel
+      assertEquals(out.get(i), out.get(8 + i), 0.0001f);
+      assertEquals(out.get(i), out.get(16 + i), 0.0001f);
+    }
+  }
+
+  @Test
+  public void honoursPaddedRowStride() {
+    FloatBuffer out = FloatBuffer.allocate(3 * 4 * 2);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(8), neutralChroma(8), neutralChroma(8), 4, 2, 8, 8, 2, 0,
+        4, 2, NO_MEAN, NO_STD, out);
+
+    assertEquals(40, red(out, 4), 0.01f);
+    assertEquals(70, red(out, 7), 0.01f);
+  }
+
+  @Test
+  public void rotatesClockwise() {
+    // the 4x2 frame becomes 2x4, the bottom left source pixel lands top left
+    FloatBuffer out = FloatBuffer.allocate(3 * 2 * 4);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(4), neutralChroma(4), neutralChroma(4), 4, 2, 4, 4, 2, 90,
+        2, 4, NO_MEAN, NO_STD, out);
+
+    assertEquals(40, red(out, 0), 0.01f);
+    assertEquals(0, red(out, 1), 0.01f);
+    assertEquals(70, red(out, 6), 0.01f);
+    assertEquals(30, red(out, 7), 0.01f);
+  }
+
+  @Test
+  public void downsamplesToTensorSize() {
+    FloatBuffer out = FloatBuffer.allocate(3 * 2 * 1);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(4), neutralChroma(4), neutralChroma(4), 4, 2, 4, 4, 2, 0,
+        2, 1, NO_MEAN, NO_STD, out);
+
+    assertEquals(0, red(out, 0), 0.01f);
+    assertEquals(20, red(out, 1), 0.01f);
+  }
+
+  @Test
+  public void samplesOnlyTheCrop() {
+    // right half of the frame at the full tensor size
+    FloatBuffer out = FloatBuffer.allocate(3 * 2 * 2);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(4), neutralChroma(4), neutralChroma(4), 4, 2, 4, 4, 2, 0,
+        new ImageCrop(0.5f, 0.0f, 1.0f, 1.0f), 2, 2, NO_MEAN, NO_STD, out);
+
+    assertEquals(20, red(out, 0), 0.01f);
+    assertEquals(30, red(out, 1), 0.01f);
+    assertEquals(60, red(out, 2), 0.01f);
+    assertEquals(70, red(out, 3), 0.01f);
+  }
+
+  @Test
+  public void cropsTheRotatedFrame() {
+    // bottom half of the 2x4 rotated frame
+    FloatBuffer out = FloatBuffer.allocate(3 * 2 * 2);
+    YuvConverter.yuv420ToFloatBuffer(lumaPlane(4), neutralChroma(4), neutralChroma(4), 4, 2, 4, 4, 2, 90,
+        new ImageCrop(0.0f, 0.5f, 1.0f, 1.0f), 2, 2, NO_MEAN, NO_STD, out);
+
+    assertEquals(60, red(out, 0), 0.01f);
+    assertEquals(20, red(out, 1), 0.01f);
+    assertEquals(70, red(out, 2), 0.01f);
+    assertEquals(30, red(out, 3), 0.01f);
+  }
+
+  @Test
+  public void infersStridesFromPlaneSizes() {
+    // 640x480 semi-planar frame, the chroma plane misses its last byte
+    int uvRowStride = YuvConverter.inferUvRowStride(640 * 239 + 639, 480);
+    assertEquals(640, uvRowStride);
+    assertEquals(2, YuvConverter.inferUvPixelStride(uvRowStride, 640));
+    // planar frame
+    assertEquals(1, YuvConverter.inferUvPixelStride(YuvConverter.inferUvRowStride(320 * 240, 480), 640));
+  }
+}
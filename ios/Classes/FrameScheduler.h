@@ -0,0 +1,15 @@
+#import <Foundation/Foundation.h>
+
+NS_ASSUME_NONNULL_BEGIN
+
+// Runs the camera frames of one model, latest frame wins: at most one frame
+// runs and one waits, a newer frame replaces the waiting one, which is
+// dropped instead of being run late.
+@interface FrameScheduler : NSObject
+- (instancetype)initWithQueue:(dispatch_queue_t)queue;
+// run gets the frames dropped since the previous frame that ran, drop gets
+// the same count with the dropped frame included
+- (void)submit:(void (^)(NSInteger droppedFrames))run drop:(void (^)(NSInteger droppedFrames))drop;
+@end
+
+NS_ASSUME_NONNULL_END
@@ -0,0 +1,64 @@
+#import "FrameScheduler.h"
+
+@implementation FrameScheduler {
+    dispatch_queue_t _queue;
+    void (^_pendingRun)(NSInteger);
+    void (^_pendingDrop)(NSInteger);
+    BOOL _draining;
+    // dropped since the last frame that ran
+    NSInteger _droppedFrames;
+}
+
+- (instancetype)initWithQueue:(dispatch_queue_t)queue {
+    self = [super init];
+    if (self) {
+        _queue = queue;
+    }
+    return self;
+}
+
+- (void)submit:(void (^)(NSInteger droppedFrames))run drop:(void (^)(NSInteger droppedFrames))drop {
+    void (^replaced)(NSInteger) = nil;
+    NSInteger droppedFrames;
+    BOOL start;
+    @synchronized (self) {
+        replaced = _pendingDrop;
+        _pendingRun = run;
+        _pendingDrop = drop;
+        if (replaced) {
+            _droppedFrames += 1;
+        }
+        droppedFrames = _droppedFrames;
+        start = !_draining;
+        _draining = YES;
+    }
+    if (replaced) {
+        replaced(droppedFrames);
+    }
+    if (start) {
+        dispatch_async(_queue, ^{
+            [self drain];
+        });
+    }
+}
+
+- (void)drain {
+    while (YES) {
+        void (^run)(NSInteger) = nil;
+        NSInteger droppedFrames;
+        @synchronized (self) {
+            run = _pendingRun;
+            if (!run) {
+                _draining = NO;
+                return;
+            }
+            _pendingRun = nil;
+            _pendingDrop = nil;
+            droppedFrames = _droppedFrames;
+            _droppedFrames = 0;
+        }
+        run(droppedFrames);
+    }
+}
+
+@end
@@ -4,6 +4,8 @@ NS_ASSUME_NONNULL_BEGIN
 
 @interface UIImageExtension : NSObject
 + (nullable UIImage*)resize:(UIImage*)image toWidth:(int)width toHeight:(int)height;
+// resizes only the crop of the image, given normalized to the image size
++ (nullable UIImage*)resize:(UIImage*)image crop:(CGRect)crop toWidth:(int)width toHeight:(int)height;
 + (nullable float*)normalize:(UIImage*)image withMean:(NSArray<NSNumber*>*)mean withSTD:(NSArray<NSNumber*>*)std;
 @end
 
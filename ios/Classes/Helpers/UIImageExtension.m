@@ -3,9 +3,17 @@
 @implementation UIImageExtension
 
 + (UIImage*)resize:(UIImage*)image toWidth:(int) width toHeight:(int)height {
+    return [self resize:image crop:CGRectMake(0, 0, 1, 1) toWidth:width toHeight:height];
+}
+
++ (UIImage*)resize:(UIImage*)image crop:(CGRect)crop toWidth:(int) width toHeight:(int)height {
     UIGraphicsBeginImageContextWithOptions(CGSizeMake(width, height),NO,1);
     
-    [image drawInRect:CGRectMake(0,0,width,height)];
+    // the whole image is drawn scaled so that the crop fills the context,
+    // the rest falls outside of it
+    CGFloat drawnWidth = width / crop.size.width;
+    CGFloat drawnHeight = height / crop.size.height;
+    [image drawInRect:CGRectMake(-crop.origin.x * drawnWidth, -crop.origin.y * drawnHeight, drawnWidth, drawnHeight)];
 	
     UIImage *newImage = UIGraphicsGetImageFromCurrentImageContext();
 	UIGraphicsEndImageContext();
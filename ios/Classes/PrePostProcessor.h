@@ -22,10 +22,11 @@
 - (instancetype)initWithNumberOfClasses:(int)numberOfClasses imageWidth:(int)imageWidth imageHeight:(int)imageHeight objectDetectionModelType:(int)objectDetectionModelType;
 
 + (double)getFloatAsDouble:(float)fValue;
-- (NSMutableArray<ResultObjectDetection *> *)nonMaxSuppression:(NSMutableArray<ResultObjectDetection *> *)boxes;
+- (NSMutableArray<ResultObjectDetection *> *)nonMaxSuppression:(NSMutableArray<ResultObjectDetection *> *)boxes IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit;
 - (double)IOU:(PyTorchRect *)a boxB:(PyTorchRect *)b;
-- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYoloV8:(NSArray<NSNumber *> *)outputs;
-- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYolov5:(NSArray<NSNumber *> *)outputs;
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYoloV8:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit;
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYolov5:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit;
 - (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictions:(NSArray<NSNumber *> *)outputs;
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictions:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit;
 
 @end
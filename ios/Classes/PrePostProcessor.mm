@@ -32,11 +32,12 @@
         _mNumberOfClasses = 17;
         // _mOutputRow = 25200;
         _mOutputColumn = _mNumberOfClasses + 5;
-        _mScoreThreshold = 0.30f;
-        _mIOUThreshold = 0.30f;
+        // defaults of the calls that do not pass their own, same as the dart side
+        _mScoreThreshold = 0.5f;
+        _mIOUThreshold = 0.5f;
         _mImageWidth = 640;
         _mImageHeight = 640;
-        _mNmsLimit = 15;
+        _mNmsLimit = 10;
     }
     return self;
 }
@@ -72,7 +73,7 @@
     return (double)fValue;
 }
 
-- (NSMutableArray<ResultObjectDetection *> *)nonMaxSuppression:(NSMutableArray<ResultObjectDetection *> *)boxes {
+- (NSMutableArray<ResultObjectDetection *> *)nonMaxSuppression:(NSMutableArray<ResultObjectDetection *> *)boxes IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit {
     // Sort the boxes by confidence scores, from high to low.
     [boxes sortUsingComparator:^NSComparisonResult(ResultObjectDetection *box1, ResultObjectDetection *box2) {
         return [@([box2 score]) compare:@([box1 score])]; // Wrap in NSNumber
@@ -98,14 +99,14 @@
         if (active[i].boolValue) {
             ResultObjectDetection *boxA = boxes[i];
             [selected addObject:boxA];
-            if (selected.count >= self.mNmsLimit) {
+            if (selected.count >= nmsLimit) {
                 break;
             }
 
             for (NSUInteger j = i + 1; j < boxes.count; j++) {
                 if (active[j].boolValue) {
                     ResultObjectDetection *boxB = boxes[j];
-                    if ([self IOU:boxA.rect boxB:boxB.rect] > self.mIOUThreshold) {
+                    if ([self IOU:boxA.rect boxB:boxB.rect] > IOUThreshold) {
                         active[j] = @(NO);
                         numActive -= 1;
                         if (numActive <= 0) {
@@ -141,7 +142,7 @@
     return intersectionArea / (areaA + areaB - intersectionArea);
 }
 
-- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYoloV8:(NSArray<NSNumber *> *)outputs {
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYoloV8:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit {
     int mOutputRow = (int)(outputs.count / self.mOutputColumn);
     NSLog(@"model mOutputRow is %d", mOutputRow);
     NSMutableArray<ResultObjectDetection *> *results = [NSMutableArray array];
@@ -167,7 +168,7 @@
             }
         }
 
-        if (max > self.mScoreThreshold) {
+        if (max > scoreThreshold) {
             PyTorchRect *rect = [PyTorchRect makeWithLeft:[PrePostProcessor getFloatAsDouble:left / self.mImageWidth]
                                                     top:[PrePostProcessor getFloatAsDouble:top / self.mImageHeight]
                                                   right:[PrePostProcessor getFloatAsDouble:right / self.mImageWidth]
@@ -178,24 +179,25 @@
             ResultObjectDetection *result = [ResultObjectDetection makeWithClassIndex:cls
                                                                               className:nil
                                                                                  score:[PrePostProcessor getFloatAsDouble:max]
-                                                                                  rect:rect];
+                                                                                  rect:rect
+                                                                               trackId:nil];
 
             [results addObject:result];
         }
     }
 
     NSLog(@"PytorchLitePlugin result length before processing %lu", (unsigned long)results.count);
-    return [self nonMaxSuppression:results];
+    return [self nonMaxSuppression:results IOUThreshold:IOUThreshold nmsLimit:nmsLimit];
 }
 
-- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYolov5:(NSArray<NSNumber *> *)outputs {
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictionsYolov5:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit {
     int mOutputRow = (int)(outputs.count / self.mOutputColumn);
     NSLog(@"model mOutputRow is %d", mOutputRow);
     NSMutableArray<ResultObjectDetection *> *results = [NSMutableArray array];
     for (int i = 0; i < mOutputRow; i++) {
         float score = [outputs[i * self.mOutputColumn + 4] floatValue];
 
-        if (score > self.mScoreThreshold) {
+        if (score > scoreThreshold) {
             float x = [outputs[i * self.mOutputColumn] floatValue];
             float y = [outputs[i * self.mOutputColumn + 1] floatValue];
             float w = [outputs[i * self.mOutputColumn + 2] floatValue];
@@ -226,21 +228,27 @@
             ResultObjectDetection *result = [ResultObjectDetection makeWithClassIndex:cls
                                                                               className:nil
                                                                                  score:[PrePostProcessor getFloatAsDouble:score]
-                                                                                  rect:rect];
+                                                                                  rect:rect
+                                                                               trackId:nil];
 
             [results addObject:result];
         }
     }
 
     NSLog(@"PytorchLitePlugin result length before processing %lu", (unsigned long)results.count);
-    return [self nonMaxSuppression:results];
+    return [self nonMaxSuppression:results IOUThreshold:IOUThreshold nmsLimit:nmsLimit];
 }
 
 - (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictions:(NSArray<NSNumber *> *)outputs {
+    return [self outputsToNMSPredictions:outputs scoreThreshold:self.mScoreThreshold IOUThreshold:self.mIOUThreshold nmsLimit:self.mNmsLimit];
+}
+
+// the thresholds are passed per call and never written on the processor, so calls with different values do not mix
+- (NSMutableArray<ResultObjectDetection *> *)outputsToNMSPredictions:(NSArray<NSNumber *> *)outputs scoreThreshold:(float)scoreThreshold IOUThreshold:(float)IOUThreshold nmsLimit:(int)nmsLimit {
     if (self.mObjectDetectionModelType == 0) {
-        return [self outputsToNMSPredictionsYolov5:outputs];
+        return [self outputsToNMSPredictionsYolov5:outputs scoreThreshold:scoreThreshold IOUThreshold:IOUThreshold nmsLimit:nmsLimit];
     } else {
-        return [self outputsToNMSPredictionsYoloV8:outputs];
+        return [self outputsToNMSPredictionsYoloV8:outputs scoreThreshold:scoreThreshold IOUThreshold:IOUThreshold nmsLimit:nmsLimit];
     }
 }
 
@@ -1,16 +1,56 @@
 #import "PytorchLitePlugin.h"
 #import "pigeon.h"
 #import "PrePostProcessor.h"
+#import "FrameScheduler.h"
 //#import "TorchModule.h"
 #import "helpers/UIImageExtension.h"
 #import <LibTorch/LibTorch.h>
 // #import <Libtorch-Lite/Libtorch-Lite.h>
 
 
-@interface PytorchLitePlugin () <ModelApi>
+// holds one of the ModelLoadOptions.maxConcurrency slots of a model while in scope
+struct ModelGate {
+    dispatch_semaphore_t semaphore;
+    explicit ModelGate(dispatch_semaphore_t gate) : semaphore(gate) {
+        if (semaphore) {
+            dispatch_semaphore_wait(semaphore, DISPATCH_TIME_FOREVER);
+        }
+    }
+    ~ModelGate() {
+        if (semaphore) {
+            dispatch_semaphore_signal(semaphore);
+        }
+    }
+};
+
+// a stream of camera frames detected on one model with fixed options
+@interface DetectionSession : NSObject
+@property (nonatomic, assign) NSInteger modelIndex;
+@property (nonatomic, strong) NSNumber *minimumScore;
+@property (nonatomic, strong) NSNumber *IOUThreshold;
+@property (nonatomic, strong) NSNumber *boxesLimit;
+@property (nonatomic, strong, nullable) CropRect *crop;
+@property (nonatomic, strong) FrameScheduler *frameScheduler;
+// frames still queued when the session is closed send no event
+@property (atomic, assign) BOOL closed;
+@end
+
+@implementation DetectionSession
+@end
 
-@property (nonatomic, assign) std::vector<torch::jit::Module*> modulesVector;
+@interface PytorchLitePlugin () <ModelApi, FlutterStreamHandler>
+
+// shared so that an unload does not free a module that is still running
+@property (nonatomic, assign) std::vector<std::shared_ptr<torch::jit::Module>> modulesVector;
 @property (nonatomic, strong) NSMutableArray<PrePostProcessor *> *prePostProcessors;
+// one semaphore per model, NSNull for models without a concurrency limit
+@property (nonatomic, strong) NSMutableArray *modelGates;
+// latest frame wins camera inference, by model index
+@property (nonatomic, strong) NSMutableDictionary<NSNumber *, FrameScheduler *> *frameSchedulers;
+@property (nonatomic, strong) NSMutableDictionary<NSNumber *, DetectionSession *> *sessions;
+@property (nonatomic, assign) NSInteger nextSessionId;
+// set on the main thread while dart listens to the session events
+@property (nonatomic, copy, nullable) FlutterEventSink sessionEvents;
 
 @end
 
@@ -20,6 +60,118 @@
     PytorchLitePlugin* instance = [[PytorchLitePlugin alloc] init];
     SetUpModelApi(registrar.messenger, instance);
     instance.prePostProcessors = [NSMutableArray array];
+    instance.modelGates = [NSMutableArray array];
+    instance.frameSchedulers = [NSMutableDictionary dictionary];
+    instance.sessions = [NSMutableDictionary dictionary];
+    FlutterEventChannel *sessionEvents = [FlutterEventChannel eventChannelWithName:@"pytorch_lite/detection_sessions" binaryMessenger:registrar.messenger];
+    [sessionEvents setStreamHandler:instance];
+}
+
+- (FlutterError *_Nullable)onListenWithArguments:(id _Nullable)arguments eventSink:(FlutterEventSink)events {
+    self.sessionEvents = events;
+    return nil;
+}
+
+- (FlutterError *_Nullable)onCancelWithArguments:(id _Nullable)arguments {
+    self.sessionEvents = nil;
+    return nil;
+}
+
+// every channel runs on its own queue, so models may be loaded while others run
+- (std::shared_ptr<torch::jit::Module>)moduleAtIndex:(NSInteger)index {
+    std::shared_ptr<torch::jit::Module> module;
+    @synchronized (self) {
+        if (index >= 0 && index < (NSInteger)_modulesVector.size()) {
+            module = _modulesVector[index];
+        }
+    }
+    if (!module) {
+        throw std::out_of_range("no model loaded for this index");
+    }
+    return module;
+}
+
+- (PrePostProcessor*)prePostProcessorAtIndex:(NSInteger)index {
+    @synchronized (self) {
+        return self.prePostProcessors[index];
+    }
+}
+
+- (nullable dispatch_semaphore_t)gateAtIndex:(NSInteger)index {
+    @synchronized (self) {
+        id gate = self.modelGates[index];
+        return gate == [NSNull null] ? nil : gate;
+    }
+}
+
+- (void)getModelStatsIndex:(NSInteger)index completion:(void (^)(ModelStats *_Nullable, FlutterError *_Nullable))completion {
+    completion(nil, [FlutterError errorWithCode:@"UNIMPLEMENTED" message:@"Model stats are only available on Android" details:nil]);
+}
+
+// the slot stays taken so the indexes of the other models do not move
+- (void)unloadModelIndex:(NSInteger)index completion:(void (^)(FlutterError *_Nullable))completion {
+    std::shared_ptr<torch::jit::Module> module;
+    @synchronized (self) {
+        if (index >= 0 && index < (NSInteger)_modulesVector.size()) {
+            module.swap(_modulesVector[index]);
+        }
+    }
+    if (!module) {
+        completion([FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No model loaded for this index" details:nil]);
+        return;
+    }
+    @synchronized (self) {
+        [self.frameSchedulers removeObjectForKey:@(index)];
+        for (NSNumber *sessionId in self.sessions.allKeys) {
+            DetectionSession *session = self.sessions[sessionId];
+            if (session.modelIndex == index) {
+                session.closed = YES;
+                [self.sessions removeObjectForKey:sessionId];
+            }
+        }
+    }
+    // released here or once the last running inference drops its reference
+    module.reset();
+    completion(nil);
+}
+
+- (void)setModelMemoryBudgetBytes:(NSInteger)bytes completion:(void (^)(FlutterError *_Nullable))completion {
+    completion([FlutterError errorWithCode:@"UNIMPLEMENTED" message:@"The model memory budget is only available on Android" details:nil]);
+}
+
+- (void)setDetectionDefaultsIndex:(NSInteger)index minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(FlutterError *_Nullable))completion {
+    PrePostProcessor *prePostProcessor = nil;
+    @synchronized (self) {
+        if (index >= 0 && index < (NSInteger)self.prePostProcessors.count) {
+            prePostProcessor = self.prePostProcessors[index];
+        }
+    }
+    if (!prePostProcessor) {
+        completion([FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No model loaded for this index" details:nil]);
+        return;
+    }
+    if (minimumScore) {
+        prePostProcessor.mScoreThreshold = minimumScore.floatValue;
+    }
+    if (IOUThreshold) {
+        prePostProcessor.mIOUThreshold = IOUThreshold.floatValue;
+    }
+    if (boxesLimit) {
+        prePostProcessor.mNmsLimit = boxesLimit.intValue;
+    }
+    completion(nil);
+}
+
+// iOS only has the process wide pool size, the budget is applied as is
+- (void)setCpuThreadBudgetThreads:(NSInteger)threads completion:(void (^)(FlutterError *_Nullable))completion {
+    if (threads < 0) {
+        completion([FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"The thread budget should not be negative" details:nil]);
+        return;
+    }
+    if (threads > 0) {
+        at::set_num_threads((int)threads);
+    }
+    completion(nil);
 }
 
 - (void)getPredictionCustomIndex:(NSInteger)index input:(NSArray<NSNumber *> *)input shape:(NSArray<NSNumber *> *)shape dtype:(NSString *)dtype completion:(void (^)(NSArray<id> *_Nullable, FlutterError *_Nullable))completion {
@@ -29,11 +181,148 @@
 }
 
 
+// dtype names shared with the dart DType enum
+static const std::map<std::string, at::ScalarType> kScalarTypes = {
+    {"float32", at::kFloat}, {"float64", at::kDouble}, {"int32", at::kInt},
+    {"int64", at::kLong}, {"int8", at::kChar}, {"uint8", at::kByte},
+};
+
+// wraps the bytes of input without copying them, they must outlive the tensor
+static at::Tensor tensorFromData(TensorData *input) {
+    auto scalarType = kScalarTypes.find(std::string(input.dtype.UTF8String));
+    if (scalarType == kScalarTypes.end()) {
+        throw std::invalid_argument("unsupported dtype " + std::string(input.dtype.UTF8String));
+    }
+    std::vector<int64_t> shape;
+    for (NSNumber *dim in input.shape) {
+        shape.push_back(dim.longLongValue);
+    }
+    at::Tensor tensor = torch::from_blob((void *)input.data.data.bytes, shape, scalarType->second);
+    if ((NSUInteger)tensor.nbytes() != input.data.data.length) {
+        throw std::invalid_argument("input size does not match its shape and dtype");
+    }
+    return tensor;
+}
+
+static TensorData *tensorDataFromTensor(at::Tensor tensor, NSString *name) {
+    tensor = tensor.contiguous();
+    NSString *dtype = nil;
+    for (const auto& entry : kScalarTypes) {
+        if (entry.second == tensor.scalar_type()) {
+            dtype = [NSString stringWithUTF8String:entry.first.c_str()];
+        }
+    }
+    if (!dtype) {
+        throw std::invalid_argument("unsupported output dtype");
+    }
+    NSMutableArray<NSNumber *> *shape = [NSMutableArray arrayWithCapacity:tensor.dim()];
+    for (int64_t dim : tensor.sizes()) {
+        [shape addObject:@(dim)];
+    }
+    NSData *data = [NSData dataWithBytes:tensor.data_ptr() length:tensor.nbytes()];
+    return [TensorData makeWithData:[FlutterStandardTypedData typedDataWithBytes:data] shape:shape dtype:dtype name:name];
+}
+
+// flattens tuples, lists and dicts into their tensors, in order, scalars
+// become tensors without dimensions
+static void addOutputs(const c10::IValue& value, NSString *name, NSMutableArray<TensorData *> *outputs) {
+    if (value.isTensor()) {
+        [outputs addObject:tensorDataFromTensor(value.toTensor(), name)];
+    } else if (value.isTuple()) {
+        for (const auto& element : value.toTuple()->elements()) {
+            addOutputs(element, name, outputs);
+        }
+    } else if (value.isList()) {
+        for (const c10::IValue element : value.toList()) {
+            addOutputs(element, name, outputs);
+        }
+    } else if (value.isGenericDict()) {
+        for (const auto& entry : value.toGenericDict()) {
+            NSString *key = entry.key().isString()
+                ? [NSString stringWithUTF8String:entry.key().toStringRef().c_str()]
+                : [NSString stringWithFormat:@"%lld", (long long)entry.key().toInt()];
+            addOutputs(entry.value(), key, outputs);
+        }
+    } else if (value.isDouble()) {
+        [outputs addObject:tensorDataFromTensor(at::scalar_tensor(value.toDouble(), at::kDouble), name)];
+    } else if (value.isInt()) {
+        [outputs addObject:tensorDataFromTensor(at::scalar_tensor(value.toInt(), at::kLong), name)];
+    } else if (value.isBool()) {
+        [outputs addObject:tensorDataFromTensor(at::scalar_tensor(value.toBool() ? 1 : 0, at::kByte), name)];
+    } else if (!value.isNone()) {
+        throw std::invalid_argument("unsupported model output");
+    }
+}
+
+- (void)getPredictionCustomTensorIndex:(NSInteger)index input:(TensorData *)input completion:(void (^)(TensorData *_Nullable, FlutterError *_Nullable))completion {
+    try {
+        std::shared_ptr<torch::jit::Module> module = [self moduleAtIndex:index];
+        at::Tensor tensor = tensorFromData(input);
+
+        ModelGate gate([self gateAtIndex:index]);
+        torch::autograd::AutoGradMode guard(false);
+        at::AutoNonVariableTypeMode non_var_type_mode(true);
+
+        at::Tensor outputTensor = module->forward({tensor}).toTensor();
+        completion(tensorDataFromTensor(outputTensor, nil), nil);
+    } catch (const std::exception& e) {
+        NSLog(@"%s", e.what());
+        completion(nil, [FlutterError errorWithCode:@"PREDICTION_ERROR" message:[NSString stringWithUTF8String:e.what()] details:nil]);
+    }
+}
+
+- (void)runMethodIndex:(NSInteger)index methodName:(NSString *)methodName inputs:(NSArray<TensorData *> *)inputs completion:(void (^)(NSArray<TensorData *> *_Nullable, FlutterError *_Nullable))completion {
+    try {
+        std::shared_ptr<torch::jit::Module> module = [self moduleAtIndex:index];
+        std::vector<c10::IValue> inputValues;
+        for (TensorData *input in inputs) {
+            inputValues.push_back(tensorFromData(input));
+        }
+
+        ModelGate gate([self gateAtIndex:index]);
+        torch::autograd::AutoGradMode guard(false);
+        at::AutoNonVariableTypeMode non_var_type_mode(true);
+
+        c10::IValue output = module->get_method(std::string(methodName.UTF8String))(inputValues);
+
+        NSMutableArray<TensorData *> *outputs = [NSMutableArray array];
+        addOutputs(output, nil, outputs);
+        completion(outputs, nil);
+    } catch (const std::exception& e) {
+        NSLog(@"%s", e.what());
+        completion(nil, [FlutterError errorWithCode:@"PREDICTION_ERROR" message:[NSString stringWithUTF8String:e.what()] details:nil]);
+    }
+}
+
+
 - (NSArray<NSNumber*>*)predictImage:(void*)imageBuffer withWidth:(int)width andHeight:(int)height atIndex:(NSInteger)moduleIndex isObjectDetection:(BOOL)isObjectDetection objectDetectionType:(NSInteger)objectDetectionType {
+    return [self predictImages:imageBuffer batchSize:1 withWidth:width andHeight:height atIndex:moduleIndex isObjectDetection:isObjectDetection objectDetectionType:objectDetectionType];
+}
+
+// runs one forward pass over batchSize images stacked in imageBuffer
+- (NSArray<NSNumber*>*)predictImages:(void*)imageBuffer batchSize:(int)batchSize withWidth:(int)width andHeight:(int)height atIndex:(NSInteger)moduleIndex isObjectDetection:(BOOL)isObjectDetection objectDetectionType:(NSInteger)objectDetectionType {
+    NSData *outputData = [self predictImagesData:imageBuffer batchSize:batchSize withWidth:width andHeight:height atIndex:moduleIndex isObjectDetection:isObjectDetection objectDetectionType:objectDetectionType];
+    if (!outputData) {
+        return nil;
+    }
+
+    const float *floatBuffer = (const float *)outputData.bytes;
+    NSUInteger count = outputData.length / sizeof(float);
+    NSMutableArray<NSNumber*>* results = [[NSMutableArray<NSNumber*> alloc] initWithCapacity:count];
+    for (NSUInteger i = 0; i < count; i++) {
+        [results addObject: @(floatBuffer[i])];
+    }
+
+    return [results copy];
+}
+
+// same as predictImages but returns the output as float32 bytes, copied in one go
+- (nullable NSData*)predictImagesData:(void*)imageBuffer batchSize:(int)batchSize withWidth:(int)width andHeight:(int)height atIndex:(NSInteger)moduleIndex isObjectDetection:(BOOL)isObjectDetection objectDetectionType:(NSInteger)objectDetectionType {
     try {
-        torch::jit::Module* module = _modulesVector[moduleIndex];
-        at::Tensor tensor = torch::from_blob(imageBuffer, {1, 3, height, width}, at::kFloat);
+        std::shared_ptr<torch::jit::Module> module = [self moduleAtIndex:moduleIndex];
+        at::Tensor tensor = torch::from_blob(imageBuffer, {batchSize, 3, height, width}, at::kFloat);
 
+        ModelGate gate([self gateAtIndex:moduleIndex]);
         torch::autograd::AutoGradMode guard(false);
         at::AutoNonVariableTypeMode non_var_type_mode(true);
 
@@ -50,22 +339,13 @@
             outputTensor = module->forward({tensor}).toTensor();
         }
 
+        outputTensor = outputTensor.contiguous();
         float *floatBuffer = outputTensor.data_ptr<float>();
         if (!floatBuffer) {
             return nil;
         }
 
-        int prod = 1;
-        for (int i = 0; i < outputTensor.sizes().size(); i++) {
-            prod *= outputTensor.sizes().data()[i];
-        }
-
-        NSMutableArray<NSNumber*>* results = [[NSMutableArray<NSNumber*> alloc] init];
-        for (int i = 0; i < prod; i++) {
-            [results addObject: @(floatBuffer[i])];
-        }
-
-        return [results copy];
+        return [NSData dataWithBytes:floatBuffer length:outputTensor.numel() * sizeof(float)];
 
     } catch (const std::exception& e) {
         NSLog(@"%s", e.what());
@@ -76,22 +356,87 @@
 
 
 
-- (void)loadModelModelPath:(NSString *)modelPath numberOfClasses:(nullable NSNumber *)numberOfClasses imageWidth:(nullable NSNumber *)imageWidth imageHeight:(nullable NSNumber *)imageHeight objectDetectionModelType:(nullable NSNumber *)objectDetectionModelType completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion{
-    NSInteger i = -1;
+// runs forward passes on a zero image so the first real call is not the slow one
+static void warmUpModule(torch::jit::Module &module, NSInteger runs, int width, int height) {
+    torch::autograd::AutoGradMode guard(false);
+    at::AutoNonVariableTypeMode non_var_type_mode(true);
+    at::Tensor input = torch::zeros({1, 3, height, width}, at::kFloat);
+    double coldMillis = 0;
+    double warmMillis = 0;
+    for (NSInteger run = 0; run < runs; run++) {
+        CFAbsoluteTime start = CFAbsoluteTimeGetCurrent();
+        module.forward({input});
+        double millis = (CFAbsoluteTimeGetCurrent() - start) * 1000;
+        if (run == 0) {
+            coldMillis = millis;
+        } else {
+            warmMillis += millis;
+        }
+    }
+    if (runs > 1) {
+        NSLog(@"model warm-up: cold %.1f ms, warm %.1f ms", coldMillis, warmMillis / (runs - 1));
+    } else {
+        NSLog(@"model warm-up: cold %.1f ms", coldMillis);
+    }
+}
+
+- (void)loadModelModelPath:(NSString *)modelPath numberOfClasses:(nullable NSNumber *)numberOfClasses imageWidth:(nullable NSNumber *)imageWidth imageHeight:(nullable NSNumber *)imageHeight objectDetectionModelType:(nullable NSNumber *)objectDetectionModelType options:(nullable ModelLoadOptions *)options completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion{
+    if (options.replicas != nil && options.replicas.integerValue > 1) {
+        NSLog(@"replicas are not supported on iOS, %@ is loaded once", modelPath);
+    }
+    if (options.numThreads != nil) {
+        NSLog(@"numThreads is not supported on iOS, use setCpuThreadBudget to size the thread pool");
+    }
+    if (options.lite.boolValue) {
+        // the LibTorch pod is the full TorchScript runtime
+        completion(nil, [FlutterError errorWithCode:@"ModelLoadingError" message:@"lite interpreter models are only supported on Android" details:nil]);
+        return;
+    }
+    NSInteger maxConcurrency = options.maxConcurrency != nil ? options.maxConcurrency.integerValue : 1;
+    if (maxConcurrency < 0) {
+        completion(nil, [FlutterError errorWithCode:@"ModelLoadingError" message:@"maxConcurrency should not be negative" details:nil]);
+        return;
+    }
+    if (options.fromAsset.boolValue) {
+        // flutter assets are plain files in the app bundle, loaded in place
+        NSString *assetKey = [FlutterDartProject lookupKeyForAsset:modelPath];
+        NSString *bundlePath = [[NSBundle mainBundle] pathForResource:assetKey ofType:nil];
+        if (bundlePath == nil) {
+            completion(nil, [FlutterError errorWithCode:@"ModelLoadingError" message:[NSString stringWithFormat:@"%@ is not a flutter asset", modelPath] details:nil]);
+            return;
+        }
+        modelPath = bundlePath;
+    }
     try {
-        torch::jit::Module *module = new torch::jit::Module(torch::jit::load(modelPath.UTF8String));
-        _modulesVector.push_back(module);
+        auto module = std::make_shared<torch::jit::Module>(torch::jit::load(modelPath.UTF8String));
 
+        PrePostProcessor *prePostProcessor;
 if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
-            [ self.prePostProcessors addObject:[[PrePostProcessor alloc] initWithNumberOfClasses:numberOfClasses.integerValue imageWidth:imageWidth.integerValue imageHeight:imageHeight.integerValue objectDetectionModelType:objectDetectionModelType.integerValue]];
+            prePostProcessor = [[PrePostProcessor alloc] initWithNumberOfClasses:numberOfClasses.integerValue imageWidth:imageWidth.integerValue imageHeight:imageHeight.integerValue objectDetectionModelType:objectDetectionModelType.integerValue];
         } else {
             if (imageWidth != nil && imageHeight != nil) {
-                [ self.prePostProcessors addObject:[[PrePostProcessor alloc] initWithImageWidth:imageWidth.integerValue imageHeight:imageHeight.integerValue]];
+                prePostProcessor = [[PrePostProcessor alloc] initWithImageWidth:imageWidth.integerValue imageHeight:imageHeight.integerValue];
             } else {
-                [ self.prePostProcessors addObject:[[PrePostProcessor alloc] init]];
+                prePostProcessor = [[PrePostProcessor alloc] init];
+            }
+        }
+
+        NSInteger warmUpRuns = options.warmUpRuns != nil ? options.warmUpRuns.integerValue : 0;
+        if (warmUpRuns > 0) {
+            if (imageWidth == nil || imageHeight == nil) {
+                throw std::invalid_argument("warmUpRuns needs the image size of the model");
             }
+            // model stats are Android only, the latencies are logged instead
+            warmUpModule(*module, warmUpRuns, imageWidth.intValue, imageHeight.intValue);
+        }
+
+        NSInteger i;
+        @synchronized (self) {
+            _modulesVector.push_back(module);
+            [self.prePostProcessors addObject:prePostProcessor];
+            [self.modelGates addObject:maxConcurrency == 0 ? (id)[NSNull null] : dispatch_semaphore_create(maxConcurrency)];
+            i = _modulesVector.size() - 1;
         }
-        i = _modulesVector.size() - 1;
         completion(@(i), nil);
 
     } catch (const std::exception& e) {
@@ -103,9 +448,9 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
 
 
 
-- (void)getImagePredictionListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion {
+- (void)getImagePredictionListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std crop:(nullable CropRect *)crop completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion {
     UIImage *bitmap = nil;
-    PrePostProcessor *prePostProcessor = self.prePostProcessors[index];
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
 
     if (imageData) {
         bitmap = [UIImage imageWithData:imageData.data];
@@ -115,7 +460,7 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
 
         bitmap = [UIImage imageWithData:typedData.data];
     }
-    bitmap = [UIImageExtension resize:bitmap toWidth:prePostProcessor.mImageWidth toHeight:prePostProcessor.mImageHeight];
+    bitmap = [UIImageExtension resize:bitmap crop:[self normalizedRect:crop] toWidth:prePostProcessor.mImageWidth toHeight:prePostProcessor.mImageHeight];
 
     float* input = [UIImageExtension normalize:bitmap withMean:mean withSTD:std];
     NSArray<NSNumber*> *results = [self predictImage:input withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:FALSE objectDetectionType:0];
@@ -130,12 +475,12 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
 
 
 
-- (void)getImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList minimumScore:(double)minimumScore IOUThreshold:(double)IOUThreshold boxesLimit:(NSInteger)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion {
+- (void)getImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion {
      UIImage *bitmap = nil;
-    PrePostProcessor *prePostProcessor = self.prePostProcessors[index];
-    prePostProcessor.mNmsLimit = boxesLimit;
-    prePostProcessor.mScoreThreshold = minimumScore;
-    prePostProcessor.mIOUThreshold = IOUThreshold;
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    float scoreThreshold = minimumScore ? minimumScore.floatValue : prePostProcessor.mScoreThreshold;
+    float iouThreshold = IOUThreshold ? IOUThreshold.floatValue : prePostProcessor.mIOUThreshold;
+    int nmsLimit = boxesLimit ? boxesLimit.intValue : prePostProcessor.mNmsLimit;
 
     if (imageData) {
         bitmap = [UIImage imageWithData:imageData.data];
@@ -144,11 +489,14 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
         uint8_t* in = (uint8_t*)[[typedData data] bytes];
         bitmap = [UIImage imageWithData:typedData.data];
     }
-    bitmap = [UIImageExtension resize:bitmap toWidth:prePostProcessor.mImageWidth toHeight:prePostProcessor.mImageHeight];
+    bitmap = [UIImageExtension resize:bitmap crop:[self normalizedRect:crop] toWidth:prePostProcessor.mImageWidth toHeight:prePostProcessor.mImageHeight];
     float* input = [UIImageExtension normalize:bitmap withMean:prePostProcessor.NO_MEAN_RGB withSTD:prePostProcessor.NO_STD_RGB];
     NSArray<NSNumber*> *rawOutputs = [self predictImage:input withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:TRUE objectDetectionType:prePostProcessor.mObjectDetectionModelType];
 
-    NSMutableArray<ResultObjectDetection*> *results = [prePostProcessor outputsToNMSPredictions:rawOutputs];
+    NSMutableArray<ResultObjectDetection*> *results = [prePostProcessor outputsToNMSPredictions:rawOutputs scoreThreshold:scoreThreshold IOUThreshold:iouThreshold nmsLimit:nmsLimit];
+    if (crop) {
+        [self mapDetections:results fromCrop:crop];
+    }
  if (results) {
         completion(results, nil);
     } else {
@@ -157,9 +505,129 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
     }
 }
 
+// only queues the frame, the channel queue is free for the next one
+- (void)detectObjectsInLatestCameraFrameIndex:(NSInteger)index imageBytesList:(NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidth:(NSInteger)imageWidth imageHeight:(NSInteger)imageHeight rowStrides:(nullable NSArray<NSNumber *> *)rowStrides pixelStrides:(nullable NSArray<NSNumber *> *)pixelStrides minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(CameraFrameResult *_Nullable, FlutterError *_Nullable))completion {
+    FrameScheduler *frameScheduler = nil;
+    @synchronized (self) {
+        if (index < 0 || index >= (NSInteger)self.prePostProcessors.count) {
+            completion(nil, [FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No model loaded for this index" details:nil]);
+            return;
+        }
+        frameScheduler = self.frameSchedulers[@(index)];
+        if (!frameScheduler) {
+            frameScheduler = [[FrameScheduler alloc] initWithQueue:dispatch_get_global_queue(QOS_CLASS_USER_INITIATED, 0)];
+            self.frameSchedulers[@(index)] = frameScheduler;
+        }
+    }
+    [frameScheduler submit:^(NSInteger droppedFrames) {
+        @try {
+            [self getImagePredictionListObjectDetectionIndex:index imageData:nil imageBytesList:imageBytesList imageWidthForBytesList:@(imageWidth) imageHeightForBytesList:@(imageHeight) rowStridesForBytesList:rowStrides pixelStridesForBytesList:pixelStrides minimumScore:minimumScore IOUThreshold:IOUThreshold boxesLimit:boxesLimit crop:crop completion:^(NSArray<ResultObjectDetection *> *results, FlutterError *error) {
+                if (error) {
+                    completion(nil, error);
+                } else {
+                    completion([CameraFrameResult makeWithDetections:results dropped:NO droppedFrames:droppedFrames], nil);
+                }
+            }];
+        } @catch (NSException *exception) {
+            completion(nil, [FlutterError errorWithCode:@"PREDICTION_ERROR" message:exception.reason details:nil]);
+        }
+    } drop:^(NSInteger droppedFrames) {
+        completion([CameraFrameResult makeWithDetections:nil dropped:YES droppedFrames:droppedFrames], nil);
+    }];
+}
+
+- (void)openDetectionSessionIndex:(NSInteger)index minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit track:(nullable NSNumber *)track detectEveryFrames:(nullable NSNumber *)detectEveryFrames crop:(nullable CropRect *)crop completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion {
+    if (track.boolValue || detectEveryFrames) {
+        completion(nil, [FlutterError errorWithCode:@"UNIMPLEMENTED" message:@"Tracking is only available on Android" details:nil]);
+        return;
+    }
+    DetectionSession *session = [[DetectionSession alloc] init];
+    NSInteger sessionId;
+    @synchronized (self) {
+        if (index < 0 || index >= (NSInteger)self.prePostProcessors.count) {
+            completion(nil, [FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No model loaded for this index" details:nil]);
+            return;
+        }
+        // the defaults of the model are fixed for the session when it opens
+        PrePostProcessor *prePostProcessor = self.prePostProcessors[index];
+        session.modelIndex = index;
+        session.minimumScore = minimumScore ?: @(prePostProcessor.mScoreThreshold);
+        session.IOUThreshold = IOUThreshold ?: @(prePostProcessor.mIOUThreshold);
+        session.boxesLimit = boxesLimit ?: @(prePostProcessor.mNmsLimit);
+        session.crop = crop;
+        session.frameScheduler = [[FrameScheduler alloc] initWithQueue:dispatch_get_global_queue(QOS_CLASS_USER_INITIATED, 0)];
+        sessionId = self.nextSessionId++;
+        self.sessions[@(sessionId)] = session;
+    }
+    completion(@(sessionId), nil);
+}
+
+- (void)pushDetectionSessionFrameSessionId:(NSInteger)sessionId frameId:(NSInteger)frameId imageBytesList:(NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidth:(NSInteger)imageWidth imageHeight:(NSInteger)imageHeight rowStrides:(nullable NSArray<NSNumber *> *)rowStrides pixelStrides:(nullable NSArray<NSNumber *> *)pixelStrides completion:(void (^)(FlutterError *_Nullable))completion {
+    DetectionSession *session = nil;
+    @synchronized (self) {
+        session = self.sessions[@(sessionId)];
+    }
+    if (!session) {
+        completion([FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No detection session for this id" details:nil]);
+        return;
+    }
+    [session.frameScheduler submit:^(NSInteger droppedFrames) {
+        if (session.closed) {
+            return;
+        }
+        @try {
+            [self getImagePredictionListObjectDetectionIndex:session.modelIndex imageData:nil imageBytesList:imageBytesList imageWidthForBytesList:@(imageWidth) imageHeightForBytesList:@(imageHeight) rowStridesForBytesList:rowStrides pixelStridesForBytesList:pixelStrides minimumScore:session.minimumScore IOUThreshold:session.IOUThreshold boxesLimit:session.boxesLimit crop:session.crop completion:^(NSArray<ResultObjectDetection *> *results, FlutterError *error) {
+                NSMutableDictionary *event = [self sessionEvent:sessionId frameId:frameId dropped:NO droppedFrames:droppedFrames];
+                if (results) {
+                    event[@"detections"] = [self packDetections:results];
+                    event[@"detected"] = @YES;
+                } else {
+                    event[@"error"] = error.message ?: @"Prediction failed";
+                }
+                [self sendSessionEvent:event];
+            }];
+        } @catch (NSException *exception) {
+            NSMutableDictionary *event = [self sessionEvent:sessionId frameId:frameId dropped:NO droppedFrames:droppedFrames];
+            event[@"error"] = exception.reason ?: @"Prediction failed";
+            [self sendSessionEvent:event];
+        }
+    } drop:^(NSInteger droppedFrames) {
+        if (!session.closed) {
+            [self sendSessionEvent:[self sessionEvent:sessionId frameId:frameId dropped:YES droppedFrames:droppedFrames]];
+        }
+    }];
+    completion(nil);
+}
+
+- (void)closeDetectionSessionSessionId:(NSInteger)sessionId completion:(void (^)(FlutterError *_Nullable))completion {
+    DetectionSession *session = nil;
+    @synchronized (self) {
+        session = self.sessions[@(sessionId)];
+        [self.sessions removeObjectForKey:@(sessionId)];
+    }
+    if (!session) {
+        completion([FlutterError errorWithCode:@"INVALID_ARGUMENT" message:@"No detection session for this id" details:nil]);
+        return;
+    }
+    session.closed = YES;
+    completion(nil);
+}
+
+- (NSMutableDictionary *)sessionEvent:(NSInteger)sessionId frameId:(NSInteger)frameId dropped:(BOOL)dropped droppedFrames:(NSInteger)droppedFrames {
+    return [@{@"sessionId": @(sessionId), @"frameId": @(frameId), @"dropped": @(dropped), @"droppedFrames": @(droppedFrames)} mutableCopy];
+}
+
+// event sinks may only be used on the main thread
+- (void)sendSessionEvent:(NSDictionary *)event {
+    dispatch_async(dispatch_get_main_queue(), ^{
+        if (self.sessionEvents) {
+            self.sessionEvents(event);
+        }
+    });
+}
 
 - (void)getRawImagePredictionListIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion {
-    PrePostProcessor *prePostProcessor = self.prePostProcessors[index];
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
      NSArray<NSNumber*> *results = [self predictImage:(float *)[imageData.data bytes] withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:FALSE objectDetectionType:0];
 
     if (results) {
@@ -171,15 +639,46 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
 }
 
 
-- (void)getRawImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(double)minimumScore IOUThreshold:(double)IOUThreshold boxesLimit:(NSInteger)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion {
-    PrePostProcessor *prePostProcessor = self.prePostProcessors[index];
-    prePostProcessor.mNmsLimit = boxesLimit;
-    prePostProcessor.mScoreThreshold = minimumScore;
-    prePostProcessor.mIOUThreshold = IOUThreshold;
+- (void)getRawImagePredictionFloat32ListIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion {
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    NSData *results = [self predictImagesData:(float *)[imageData.data bytes] batchSize:1 withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:FALSE objectDetectionType:0];
+
+    if (results) {
+        completion([FlutterStandardTypedData typedDataWithBytes:results], nil);
+    } else {
+        FlutterError *error = [FlutterError errorWithCode:@"PREDICTION_ERROR" message:@"Prediction failed" details:nil];
+        completion(nil, error);
+    }
+}
+
+- (void)getImagePredictionFloat32ListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std crop:(nullable CropRect *)crop completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion {
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    FlutterStandardTypedData *typedData = imageData ? imageData : imageBytesList[0];
+    UIImage *bitmap = [UIImage imageWithData:typedData.data];
+    bitmap = [UIImageExtension resize:bitmap crop:[self normalizedRect:crop] toWidth:prePostProcessor.mImageWidth toHeight:prePostProcessor.mImageHeight];
+
+    float* input = [UIImageExtension normalize:bitmap withMean:mean withSTD:std];
+    NSData *results = [self predictImagesData:input batchSize:1 withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:FALSE objectDetectionType:0];
+    free(input);
+
+    if (results) {
+        completion([FlutterStandardTypedData typedDataWithBytes:results], nil);
+    } else {
+        FlutterError *error = [FlutterError errorWithCode:@"PREDICTION_ERROR" message:@"Prediction failed" details:nil];
+        completion(nil, error);
+    }
+}
+
+
+- (void)getRawImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion {
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    float scoreThreshold = minimumScore ? minimumScore.floatValue : prePostProcessor.mScoreThreshold;
+    float iouThreshold = IOUThreshold ? IOUThreshold.floatValue : prePostProcessor.mIOUThreshold;
+    int nmsLimit = boxesLimit ? boxesLimit.intValue : prePostProcessor.mNmsLimit;
 
     NSArray<NSNumber*> *rawOutputs = [self predictImage:(float *)[imageData.data bytes] withWidth:prePostProcessor.mImageWidth andHeight:prePostProcessor.mImageHeight atIndex:index isObjectDetection:TRUE objectDetectionType:prePostProcessor.mObjectDetectionModelType];
 
-    NSMutableArray<ResultObjectDetection*> *results = [prePostProcessor outputsToNMSPredictions:rawOutputs];
+    NSMutableArray<ResultObjectDetection*> *results = [prePostProcessor outputsToNMSPredictions:rawOutputs scoreThreshold:scoreThreshold IOUThreshold:iouThreshold nmsLimit:nmsLimit];
     if (results) {
         completion(results, nil);
     } else {
@@ -190,15 +689,153 @@ if (numberOfClasses != nil && imageWidth != nil && imageHeight != nil) {
 
 
 
+// the whole image when there is no crop
+- (CGRect)normalizedRect:(nullable CropRect *)crop {
+    if (!crop) {
+        return CGRectMake(0, 0, 1, 1);
+    }
+    return CGRectMake(crop.left, crop.top, crop.right - crop.left, crop.bottom - crop.top);
+}
+
+// boxes normalized to the crop become normalized to the whole image
+- (void)mapDetections:(NSArray<ResultObjectDetection *> *)detections fromCrop:(CropRect *)crop {
+    double width = crop.right - crop.left;
+    double height = crop.bottom - crop.top;
+    for (ResultObjectDetection *detection in detections) {
+        PyTorchRect *rect = detection.rect;
+        rect.left = crop.left + rect.left * width;
+        rect.top = crop.top + rect.top * height;
+        rect.right = crop.left + rect.right * width;
+        rect.bottom = crop.top + rect.bottom * height;
+        rect.width = rect.width * width;
+        rect.height = rect.height * height;
+    }
+}
+
+// one record of 8 floats per detection: classIndex, score, left, top, right, bottom, width, height
+- (FlutterStandardTypedData*)packDetections:(NSArray<ResultObjectDetection *> *)detections {
+    NSMutableData *packed = [NSMutableData dataWithLength:detections.count * 8 * sizeof(float)];
+    float *records = (float *)packed.mutableBytes;
+    for (ResultObjectDetection *detection in detections) {
+        *records++ = (float)detection.classIndex;
+        *records++ = (float)detection.score;
+        *records++ = (float)detection.rect.left;
+        *records++ = (float)detection.rect.top;
+        *records++ = (float)detection.rect.right;
+        *records++ = (float)detection.rect.bottom;
+        *records++ = (float)detection.rect.width;
+        *records++ = (float)detection.rect.height;
+    }
+    return [FlutterStandardTypedData typedDataWithBytes:packed];
+}
 
+- (void)getRawImagePredictionListObjectDetectionPackedIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion {
+    [self getRawImagePredictionListObjectDetectionIndex:index imageData:imageData minimumScore:minimumScore IOUThreshold:IOUThreshold boxesLimit:boxesLimit completion:^(NSArray<ResultObjectDetection *> *results, FlutterError *error) {
+        completion(results ? [self packDetections:results] : nil, error);
+    }];
+}
 
+- (void)getImagePredictionListObjectDetectionPackedIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion {
+    [self getImagePredictionListObjectDetectionIndex:index imageData:imageData imageBytesList:imageBytesList imageWidthForBytesList:imageWidthForBytesList imageHeightForBytesList:imageHeightForBytesList rowStridesForBytesList:rowStridesForBytesList pixelStridesForBytesList:pixelStridesForBytesList minimumScore:minimumScore IOUThreshold:IOUThreshold boxesLimit:boxesLimit crop:crop completion:^(NSArray<ResultObjectDetection *> *results, FlutterError *error) {
+        completion(results ? [self packDetections:results] : nil, error);
+    }];
+}
 
+// stacks the images into one [N, 3, H, W] buffer and runs a single forward pass,
+// images are preprocessed float32 bytes when mean and std are nil
+- (NSArray<NSNumber*>*)predictImageBatch:(NSArray<FlutterStandardTypedData *> *)imagesData mean:(nullable NSArray<NSNumber *> *)mean std:(nullable NSArray<NSNumber *> *)std atIndex:(NSInteger)index isObjectDetection:(BOOL)isObjectDetection {
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    int width = prePostProcessor.mImageWidth;
+    int height = prePostProcessor.mImageHeight;
+    NSUInteger imageSize = 3 * width * height;
+    float* input = (float*)calloc(imagesData.count * imageSize, sizeof(float));
+
+    for (NSUInteger i = 0; i < imagesData.count; i++) {
+        if (mean && std) {
+            UIImage *bitmap = [UIImage imageWithData:imagesData[i].data];
+            bitmap = [UIImageExtension resize:bitmap toWidth:width toHeight:height];
+            float* normalized = [UIImageExtension normalize:bitmap withMean:mean withSTD:std];
+            memcpy(input + i * imageSize, normalized, imageSize * sizeof(float));
+            free(normalized);
+        } else {
+            NSData *data = imagesData[i].data;
+            memcpy(input + i * imageSize, data.bytes, MIN(data.length, imageSize * sizeof(float)));
+        }
+    }
 
+    NSArray<NSNumber*> *outputs = [self predictImages:input batchSize:(int)imagesData.count withWidth:width andHeight:height atIndex:index isObjectDetection:isObjectDetection objectDetectionType:prePostProcessor.mObjectDetectionModelType];
+    free(input);
+    return outputs;
+}
 
-- (void)dealloc {
-    for (torch::jit::Module* module : _modulesVector) {
-        delete module;
+- (void)classifyImageBatch:(NSArray<FlutterStandardTypedData *> *)imagesData mean:(nullable NSArray<NSNumber *> *)mean std:(nullable NSArray<NSNumber *> *)std atIndex:(NSInteger)index completion:(void (^)(NSArray<ResultClassification *> *_Nullable, FlutterError *_Nullable))completion {
+    if (imagesData.count == 0) {
+        completion(@[], nil);
+        return;
+    }
+    NSArray<NSNumber*> *outputs = [self predictImageBatch:imagesData mean:mean std:std atIndex:index isObjectDetection:FALSE];
+    if (!outputs) {
+        FlutterError *error = [FlutterError errorWithCode:@"PREDICTION_ERROR" message:@"Prediction failed" details:nil];
+        completion(nil, error);
+        return;
     }
+
+    NSUInteger imageOutputSize = outputs.count / imagesData.count;
+    NSMutableArray<ResultClassification*> *results = [NSMutableArray arrayWithCapacity:imagesData.count];
+    for (NSUInteger i = 0; i < imagesData.count; i++) {
+        [results addObject:[ResultClassification makeWithScores:[outputs subarrayWithRange:NSMakeRange(i * imageOutputSize, imageOutputSize)]]];
+    }
+    completion(results, nil);
+}
+
+- (void)detectObjectsInImageBatch:(NSArray<FlutterStandardTypedData *> *)imagesData raw:(BOOL)raw atIndex:(NSInteger)index minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetectionList *> *_Nullable, FlutterError *_Nullable))completion {
+    PrePostProcessor *prePostProcessor = [self prePostProcessorAtIndex:index];
+    float scoreThreshold = minimumScore ? minimumScore.floatValue : prePostProcessor.mScoreThreshold;
+    float iouThreshold = IOUThreshold ? IOUThreshold.floatValue : prePostProcessor.mIOUThreshold;
+    int nmsLimit = boxesLimit ? boxesLimit.intValue : prePostProcessor.mNmsLimit;
+    if (imagesData.count == 0) {
+        completion(@[], nil);
+        return;
+    }
+
+    NSArray<NSNumber*> *outputs = [self predictImageBatch:imagesData mean:raw ? nil : prePostProcessor.NO_MEAN_RGB std:raw ? nil : prePostProcessor.NO_STD_RGB atIndex:index isObjectDetection:TRUE];
+    if (!outputs) {
+        FlutterError *error = [FlutterError errorWithCode:@"PREDICTION_ERROR" message:@"Prediction failed" details:nil];
+        completion(nil, error);
+        return;
+    }
+
+    // every image goes through nms on its own slice of the output
+    NSUInteger imageOutputSize = outputs.count / imagesData.count;
+    NSMutableArray<ResultObjectDetectionList*> *results = [NSMutableArray arrayWithCapacity:imagesData.count];
+    for (NSUInteger i = 0; i < imagesData.count; i++) {
+        NSArray<NSNumber*> *imageOutputs = [outputs subarrayWithRange:NSMakeRange(i * imageOutputSize, imageOutputSize)];
+        [results addObject:[ResultObjectDetectionList makeWithDetections:[prePostProcessor outputsToNMSPredictions:imageOutputs scoreThreshold:scoreThreshold IOUThreshold:iouThreshold nmsLimit:nmsLimit]]];
+    }
+    completion(results, nil);
+}
+
+- (void)getRawImagePredictionListBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData completion:(void (^)(NSArray<ResultClassification *> *_Nullable, FlutterError *_Nullable))completion {
+    [self classifyImageBatch:imagesData mean:nil std:nil atIndex:index completion:completion];
+}
+
+- (void)getRawImagePredictionListObjectDetectionBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetectionList *> *_Nullable, FlutterError *_Nullable))completion {
+    [self detectObjectsInImageBatch:imagesData raw:TRUE atIndex:index minimumScore:minimumScore IOUThreshold:IOUThreshold boxesLimit:boxesLimit completion:completion];
+}
+
+- (void)getImagePredictionListBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std completion:(void (^)(NSArray<ResultClassification *> *_Nullable, FlutterError *_Nullable))completion {
+    [self classifyImageBatch:imagesData mean:mean std:std atIndex:index completion:completion];
+}
+
+- (void)getImagePredictionListObjectDetectionBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetectionList *> *_Nullable, FlutterError *_Nullable))completion {
+    [self detectObjectsInImageBatch:imagesData raw:FALSE atIndex:index minimumScore:minimumScore IOUThreshold:IOUThreshold boxesLimit:boxesLimit completion:completion];
+}
+
+
+
+
+
+- (void)dealloc {
     _modulesVector.clear();
 }
 
@@ -11,7 +11,14 @@
 NS_ASSUME_NONNULL_BEGIN
 
 @class PyTorchRect;
+@class CropRect;
 @class ResultObjectDetection;
+@class ResultClassification;
+@class ResultObjectDetectionList;
+@class CameraFrameResult;
+@class TensorData;
+@class ModelLoadOptions;
+@class ModelStats;
 
 @interface PyTorchRect : NSObject
 /// `init` unavailable to enforce nonnull fields, see the `make` class method.
@@ -30,34 +37,222 @@ NS_ASSUME_NONNULL_BEGIN
 @property(nonatomic, assign) double  height;
 @end
 
+@interface CropRect : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithLeft:(double )left
+    top:(double )top
+    right:(double )right
+    bottom:(double )bottom;
+@property(nonatomic, assign) double  left;
+@property(nonatomic, assign) double  top;
+@property(nonatomic, assign) double  right;
+@property(nonatomic, assign) double  bottom;
+@end
+
 @interface ResultObjectDetection : NSObject
 /// `init` unavailable to enforce nonnull fields, see the `make` class method.
 - (instancetype)init NS_UNAVAILABLE;
 + (instancetype)makeWithClassIndex:(NSInteger )classIndex
     className:(nullable NSString *)className
     score:(double )score
-    rect:(PyTorchRect *)rect;
+    rect:(PyTorchRect *)rect
+    trackId:(nullable NSNumber *)trackId;
 @property(nonatomic, assign) NSInteger  classIndex;
 @property(nonatomic, copy, nullable) NSString * className;
 @property(nonatomic, assign) double  score;
 @property(nonatomic, strong) PyTorchRect * rect;
+/// Stable id of the tracked object, set by detection sessions opened with
+/// tracking.
+@property(nonatomic, strong, nullable) NSNumber * trackId;
+@end
+
+@interface ResultClassification : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithScores:(NSArray<NSNumber *> *)scores;
+@property(nonatomic, copy) NSArray<NSNumber *> * scores;
+@end
+
+@interface ResultObjectDetectionList : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithDetections:(NSArray<ResultObjectDetection *> *)detections;
+@property(nonatomic, copy) NSArray<ResultObjectDetection *> * detections;
+@end
+
+@interface CameraFrameResult : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithDetections:(nullable NSArray<ResultObjectDetection *> *)detections
+    dropped:(BOOL )dropped
+    droppedFrames:(NSInteger )droppedFrames;
+/// Null when the frame was dropped.
+@property(nonatomic, copy, nullable) NSArray<ResultObjectDetection *> * detections;
+/// The frame was replaced by a newer one before it could run.
+@property(nonatomic, assign) BOOL  dropped;
+/// Frames dropped since the previous frame that ran, this one included
+/// when it was dropped.
+@property(nonatomic, assign) NSInteger  droppedFrames;
+@end
+
+@interface TensorData : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithData:(FlutterStandardTypedData *)data
+    shape:(NSArray<NSNumber *> *)shape
+    dtype:(NSString *)dtype
+    name:(nullable NSString *)name;
+/// The tensor elements as native order bytes, row major.
+@property(nonatomic, strong) FlutterStandardTypedData * data;
+@property(nonatomic, copy) NSArray<NSNumber *> * shape;
+/// One of float32, float64, int32, int64, int8, uint8.
+@property(nonatomic, copy) NSString * dtype;
+/// The key of an output returned in a dict.
+@property(nonatomic, copy, nullable) NSString * name;
+@end
+
+@interface ModelLoadOptions : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithMaxConcurrency:(nullable NSNumber *)maxConcurrency
+    replicas:(nullable NSNumber *)replicas
+    numThreads:(nullable NSNumber *)numThreads
+    warmUpRuns:(nullable NSNumber *)warmUpRuns
+    lite:(nullable NSNumber *)lite
+    fromAsset:(nullable NSNumber *)fromAsset
+    nmsEngine:(nullable NSString *)nmsEngine
+    classAwareNms:(nullable NSNumber *)classAwareNms
+    parallelDecode:(nullable NSNumber *)parallelDecode;
+/// How many inferences may run on the model at once, 0 does not limit
+/// them. Defaults to the number of replicas, so a model loaded once runs
+/// them one after the other.
+@property(nonatomic, strong, nullable) NSNumber * maxConcurrency;
+/// How many copies of the model to load (1 by default), calls are spread
+/// over the idle ones.
+@property(nonatomic, strong, nullable) NSNumber * replicas;
+/// Most CPU threads the shared thread pool may have while the model runs,
+/// the pool is also capped by the plugin wide CPU thread budget. Unset
+/// leaves it to PyTorch. On Android this needs the lite runtime, the calls
+/// of the model fail with the full one.
+@property(nonatomic, strong, nullable) NSNumber * numThreads;
+/// Forward passes run on a zero image of the model input size before the
+/// load returns, and again whenever an evicted model is loaded back. Needs
+/// the image size, 0 by default.
+@property(nonatomic, strong, nullable) NSNumber * warmUpRuns;
+/// Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+/// full TorchScript model. Android only, false by default.
+@property(nonatomic, strong, nullable) NSNumber * lite;
+/// The model path is the key of a flutter asset, read straight from the
+/// application bundle instead of a file. False by default.
+@property(nonatomic, strong, nullable) NSNumber * fromAsset;
+/// How detection boxes are suppressed (Android only): "grid" (default)
+/// only compares boxes that are close to each other and ranks at most 30
+/// candidates per returned box, "exhaustive" ranks every candidate and
+/// compares every pair, the plain greedy NMS.
+@property(nonatomic, copy, nullable) NSString * nmsEngine;
+/// Only lets boxes of the same class suppress each other (Android only),
+/// false by default.
+@property(nonatomic, strong, nullable) NSNumber * classAwareNms;
+/// Splits the decode of large detection outputs over the CPU cores
+/// (Android only), false by default.
+@property(nonatomic, strong, nullable) NSNumber * parallelDecode;
+@end
+
+@interface ModelStats : NSObject
+/// `init` unavailable to enforce nonnull fields, see the `make` class method.
+- (instancetype)init NS_UNAVAILABLE;
++ (instancetype)makeWithReplicas:(NSInteger )replicas
+    maxConcurrency:(NSInteger )maxConcurrency
+    runningInferences:(NSInteger )runningInferences
+    inferencesPerReplica:(NSArray<NSNumber *> *)inferencesPerReplica
+    utilization:(double )utilization
+    numThreads:(NSInteger )numThreads
+    allocatedThreads:(NSInteger )allocatedThreads
+    loaded:(BOOL )loaded
+    residentBytes:(NSInteger )residentBytes
+    coldLatencyMillis:(nullable NSNumber *)coldLatencyMillis
+    warmLatencyMillis:(nullable NSNumber *)warmLatencyMillis;
+@property(nonatomic, assign) NSInteger  replicas;
+@property(nonatomic, assign) NSInteger  maxConcurrency;
+/// Inferences running right now.
+@property(nonatomic, assign) NSInteger  runningInferences;
+/// Inferences completed by each replica since the model was loaded.
+@property(nonatomic, copy) NSArray<NSNumber *> * inferencesPerReplica;
+/// Share of the replicas time spent running inferences since the model
+/// was loaded, between 0 and 1.
+@property(nonatomic, assign) double  utilization;
+/// Threads asked for at load time, 0 when unset.
+@property(nonatomic, assign) NSInteger  numThreads;
+/// Size of the shared thread pool when the last inference started, 0 when
+/// left to PyTorch.
+@property(nonatomic, assign) NSInteger  allocatedThreads;
+/// False while the model is evicted to fit the memory budget.
+@property(nonatomic, assign) BOOL  loaded;
+/// Estimated native memory taken by the loaded replicas, in bytes.
+@property(nonatomic, assign) NSInteger  residentBytes;
+/// Latency of the first forward pass after the model was loaded, warm-up
+/// included, in milliseconds. Null until it ran.
+@property(nonatomic, strong, nullable) NSNumber * coldLatencyMillis;
+/// Mean latency of the warm-up passes after the first one, in
+/// milliseconds. Null with less than two warm-up runs, as nothing warm was
+/// measured.
+@property(nonatomic, strong, nullable) NSNumber * warmLatencyMillis;
 @end
 
 /// The codec used by all APIs.
 NSObject<FlutterMessageCodec> *nullGetPigeonCodec(void);
 
 @protocol ModelApi
-- (void)loadModelModelPath:(NSString *)modelPath numberOfClasses:(nullable NSNumber *)numberOfClasses imageWidth:(nullable NSNumber *)imageWidth imageHeight:(nullable NSNumber *)imageHeight objectDetectionModelType:(nullable NSNumber *)objectDetectionModelType completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion;
+- (void)loadModelModelPath:(NSString *)modelPath numberOfClasses:(nullable NSNumber *)numberOfClasses imageWidth:(nullable NSNumber *)imageWidth imageHeight:(nullable NSNumber *)imageHeight objectDetectionModelType:(nullable NSNumber *)objectDetectionModelType options:(nullable ModelLoadOptions *)options completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion;
+///returns how the replicas of a model are used
+- (void)getModelStatsIndex:(NSInteger)index completion:(void (^)(ModelStats *_Nullable, FlutterError *_Nullable))completion;
+///releases a model, its index is not valid anymore
+- (void)unloadModelIndex:(NSInteger)index completion:(void (^)(FlutterError *_Nullable))completion;
+///sets the memory the loaded models may take, least recently used models are evicted and loaded again on use, 0 disables it
+- (void)setModelMemoryBudgetBytes:(NSInteger)bytes completion:(void (^)(FlutterError *_Nullable))completion;
+///sets the detection thresholds and box limit used by the calls of a model that do not pass their own
+- (void)setDetectionDefaultsIndex:(NSInteger)index minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(FlutterError *_Nullable))completion;
+///sets how many CPU threads the running models share, 0 leaves it to PyTorch
+- (void)setCpuThreadBudgetThreads:(NSInteger)threads completion:(void (^)(FlutterError *_Nullable))completion;
 ///predicts abstract number input
 - (void)getPredictionCustomIndex:(NSInteger)index input:(NSArray<NSNumber *> *)input shape:(NSArray<NSNumber *> *)shape dtype:(NSString *)dtype completion:(void (^)(NSArray<id> *_Nullable, FlutterError *_Nullable))completion;
+///predicts a typed tensor input, returns the output tensor with its shape and dtype
+- (void)getPredictionCustomTensorIndex:(NSInteger)index input:(TensorData *)input completion:(void (^)(TensorData *_Nullable, FlutterError *_Nullable))completion;
+///runs a method of the model on typed inputs, returns every tensor of its tuple, list or dict output
+- (void)runMethodIndex:(NSInteger)index methodName:(NSString *)methodName inputs:(NSArray<TensorData *> *)inputs completion:(void (^)(NSArray<TensorData *> *_Nullable, FlutterError *_Nullable))completion;
 ///predicts raw image but returns the raw net output
 - (void)getRawImagePredictionListIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion;
 ///predicts raw image but returns the raw net output
-- (void)getRawImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(double)minimumScore IOUThreshold:(double)IOUThreshold boxesLimit:(NSInteger)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion;
-///predicts image but returns the raw net output
-- (void)getImagePredictionListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion;
-///predicts image but returns the output detections
-- (void)getImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList minimumScore:(double)minimumScore IOUThreshold:(double)IOUThreshold boxesLimit:(NSInteger)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion;
+- (void)getRawImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion;
+///predicts image or the crop of it but returns the raw net output
+- (void)getImagePredictionListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std crop:(nullable CropRect *)crop completion:(void (^)(NSArray<NSNumber *> *_Nullable, FlutterError *_Nullable))completion;
+///predicts image or the crop of it but returns the output detections, in whole image coordinates
+- (void)getImagePredictionListObjectDetectionIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(NSArray<ResultObjectDetection *> *_Nullable, FlutterError *_Nullable))completion;
+///detects objects in a camera frame, at most one frame per model waits while another runs and a newer frame replaces it, the replaced one completes as dropped
+- (void)detectObjectsInLatestCameraFrameIndex:(NSInteger)index imageBytesList:(NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidth:(NSInteger)imageWidth imageHeight:(NSInteger)imageHeight rowStrides:(nullable NSArray<NSNumber *> *)rowStrides pixelStrides:(nullable NSArray<NSNumber *> *)pixelStrides minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(CameraFrameResult *_Nullable, FlutterError *_Nullable))completion;
+///opens a detection session on a model with fixed detection parameters, returns its id, the results of its frames come on the pytorch_lite/detection_sessions event channel, with track the boxes get track ids and the detector only runs every detectEveryFrames frames, with crop only that region of the frames is detected
+- (void)openDetectionSessionIndex:(NSInteger)index minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit track:(nullable NSNumber *)track detectEveryFrames:(nullable NSNumber *)detectEveryFrames crop:(nullable CropRect *)crop completion:(void (^)(NSNumber *_Nullable, FlutterError *_Nullable))completion;
+///queues a camera frame of a detection session and returns, latest frame wins, the result is sent as an event tagged with frameId
+- (void)pushDetectionSessionFrameSessionId:(NSInteger)sessionId frameId:(NSInteger)frameId imageBytesList:(NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidth:(NSInteger)imageWidth imageHeight:(NSInteger)imageHeight rowStrides:(nullable NSArray<NSNumber *> *)rowStrides pixelStrides:(nullable NSArray<NSNumber *> *)pixelStrides completion:(void (^)(FlutterError *_Nullable))completion;
+///closes a detection session, frames still queued send no event
+- (void)closeDetectionSessionSessionId:(NSInteger)sessionId completion:(void (^)(FlutterError *_Nullable))completion;
+///predicts raw image, returns the raw net output as native order float32 bytes
+- (void)getRawImagePredictionFloat32ListIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion;
+///predicts image or the crop of it, returns the raw net output as native order float32 bytes
+- (void)getImagePredictionFloat32ListIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std crop:(nullable CropRect *)crop completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion;
+///predicts raw image, returns the output detections as packed float32 records (see PackedObjectDetections)
+- (void)getRawImagePredictionListObjectDetectionPackedIndex:(NSInteger)index imageData:(FlutterStandardTypedData *)imageData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion;
+///predicts image or the crop of it, returns the output detections in whole image coordinates as packed float32 records (see PackedObjectDetections)
+- (void)getImagePredictionListObjectDetectionPackedIndex:(NSInteger)index imageData:(nullable FlutterStandardTypedData *)imageData imageBytesList:(nullable NSArray<FlutterStandardTypedData *> *)imageBytesList imageWidthForBytesList:(nullable NSNumber *)imageWidthForBytesList imageHeightForBytesList:(nullable NSNumber *)imageHeightForBytesList rowStridesForBytesList:(nullable NSArray<NSNumber *> *)rowStridesForBytesList pixelStridesForBytesList:(nullable NSArray<NSNumber *> *)pixelStridesForBytesList minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit crop:(nullable CropRect *)crop completion:(void (^)(FlutterStandardTypedData *_Nullable, FlutterError *_Nullable))completion;
+///predicts a batch of raw images in one forward call, returns the raw net output of each image
+- (void)getRawImagePredictionListBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData completion:(void (^)(NSArray<ResultClassification *> *_Nullable, FlutterError *_Nullable))completion;
+///predicts a batch of raw images in one forward call, returns the output detections of each image
+- (void)getRawImagePredictionListObjectDetectionBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetectionList *> *_Nullable, FlutterError *_Nullable))completion;
+///predicts a batch of images in one forward call, returns the raw net output of each image
+- (void)getImagePredictionListBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData mean:(NSArray<NSNumber *> *)mean std:(NSArray<NSNumber *> *)std completion:(void (^)(NSArray<ResultClassification *> *_Nullable, FlutterError *_Nullable))completion;
+///predicts a batch of images in one forward call, returns the output detections of each image
+- (void)getImagePredictionListObjectDetectionBatchIndex:(NSInteger)index imagesData:(NSArray<FlutterStandardTypedData *> *)imagesData minimumScore:(nullable NSNumber *)minimumScore IOUThreshold:(nullable NSNumber *)IOUThreshold boxesLimit:(nullable NSNumber *)boxesLimit completion:(void (^)(NSArray<ResultObjectDetectionList *> *_Nullable, FlutterError *_Nullable))completion;
 @end
 
 extern void SetUpModelApi(id<FlutterBinaryMessenger> binaryMessenger, NSObject<ModelApi> *_Nullable api);
@@ -33,12 +33,54 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
 - (NSArray<id> *)toList;
 @end
 
+@interface CropRect ()
++ (CropRect *)fromList:(NSArray<id> *)list;
++ (nullable CropRect *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
 @interface ResultObjectDetection ()
 + (ResultObjectDetection *)fromList:(NSArray<id> *)list;
 + (nullable ResultObjectDetection *)nullableFromList:(NSArray<id> *)list;
 - (NSArray<id> *)toList;
 @end
 
+@interface ResultClassification ()
++ (ResultClassification *)fromList:(NSArray<id> *)list;
++ (nullable ResultClassification *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
+@interface ResultObjectDetectionList ()
++ (ResultObjectDetectionList *)fromList:(NSArray<id> *)list;
++ (nullable ResultObjectDetectionList *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
+@interface CameraFrameResult ()
++ (CameraFrameResult *)fromList:(NSArray<id> *)list;
++ (nullable CameraFrameResult *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
+@interface TensorData ()
++ (TensorData *)fromList:(NSArray<id> *)list;
++ (nullable TensorData *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
+@interface ModelLoadOptions ()
++ (ModelLoadOptions *)fromList:(NSArray<id> *)list;
++ (nullable ModelLoadOptions *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
+@interface ModelStats ()
++ (ModelStats *)fromList:(NSArray<id> *)list;
++ (nullable ModelStats *)nullableFromList:(NSArray<id> *)list;
+- (NSArray<id> *)toList;
+@end
+
 @implementation PyTorchRect
 + (instancetype)makeWithLeft:(double )left
     top:(double )top
@@ -80,16 +122,51 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
 }
 @end
 
+@implementation CropRect
++ (instancetype)makeWithLeft:(double )left
+    top:(double )top
+    right:(double )right
+    bottom:(double )bottom {
+  CropRect* pigeonResult = [[CropRect alloc] init];
+  pigeonResult.left = left;
+  pigeonResult.top = top;
+  pigeonResult.right = right;
+  pigeonResult.bottom = bottom;
+  return pigeonResult;
+}
++ (CropRect *)fromList:(NSArray<id> *)list {
+  CropRect *pigeonResult = [[CropRect alloc] init];
+  pigeonResult.left = [GetNullableObjectAtIndex(list, 0) doubleValue];
+  pigeonResult.top = [GetNullableObjectAtIndex(list, 1) doubleValue];
+  pigeonResult.right = [GetNullableObjectAtIndex(list, 2) doubleValue];
+  pigeonResult.bottom = [GetNullableObjectAtIndex(list, 3) doubleValue];
+  return pigeonResult;
+}
++ (nullable CropRect *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [CropRect fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    @(self.left),
+    @(self.top),
+    @(self.right),
+    @(self.bottom),
+  ];
+}
+@end
+
 @implementation ResultObjectDetection
 + (instancetype)makeWithClassIndex:(NSInteger )classIndex
     className:(nullable NSString *)className
     score:(double )score
-    rect:(PyTorchRect *)rect {
+    rect:(PyTorchRect *)rect
+    trackId:(nullable NSNumber *)trackId {
   ResultObjectDetection* pigeonResult = [[ResultObjectDetection alloc] init];
   pigeonResult.classIndex = classIndex;
   pigeonResult.className = className;
   pigeonResult.score = score;
   pigeonResult.rect = rect;
+  pigeonResult.trackId = trackId;
   return pigeonResult;
 }
 + (ResultObjectDetection *)fromList:(NSArray<id> *)list {
@@ -98,6 +175,7 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
   pigeonResult.className = GetNullableObjectAtIndex(list, 1);
   pigeonResult.score = [GetNullableObjectAtIndex(list, 2) doubleValue];
   pigeonResult.rect = GetNullableObjectAtIndex(list, 3);
+  pigeonResult.trackId = GetNullableObjectAtIndex(list, 4);
   return pigeonResult;
 }
 + (nullable ResultObjectDetection *)nullableFromList:(NSArray<id> *)list {
@@ -109,6 +187,225 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
     self.className ?: [NSNull null],
     @(self.score),
     self.rect ?: [NSNull null],
+    self.trackId ?: [NSNull null],
+  ];
+}
+@end
+
+@implementation ResultClassification
++ (instancetype)makeWithScores:(NSArray<NSNumber *> *)scores {
+  ResultClassification* pigeonResult = [[ResultClassification alloc] init];
+  pigeonResult.scores = scores;
+  return pigeonResult;
+}
++ (ResultClassification *)fromList:(NSArray<id> *)list {
+  ResultClassification *pigeonResult = [[ResultClassification alloc] init];
+  pigeonResult.scores = GetNullableObjectAtIndex(list, 0);
+  return pigeonResult;
+}
++ (nullable ResultClassification *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [ResultClassification fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    self.scores ?: [NSNull null],
+  ];
+}
+@end
+
+@implementation ResultObjectDetectionList
++ (instancetype)makeWithDetections:(NSArray<ResultObjectDetection *> *)detections {
+  ResultObjectDetectionList* pigeonResult = [[ResultObjectDetectionList alloc] init];
+  pigeonResult.detections = detections;
+  return pigeonResult;
+}
++ (ResultObjectDetectionList *)fromList:(NSArray<id> *)list {
+  ResultObjectDetectionList *pigeonResult = [[ResultObjectDetectionList alloc] init];
+  pigeonResult.detections = GetNullableObjectAtIndex(list, 0);
+  return pigeonResult;
+}
++ (nullable ResultObjectDetectionList *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [ResultObjectDetectionList fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    self.detections ?: [NSNull null],
+  ];
+}
+@end
+
+@implementation CameraFrameResult
++ (instancetype)makeWithDetections:(nullable NSArray<ResultObjectDetection *> *)detections
+    dropped:(BOOL )dropped
+    droppedFrames:(NSInteger )droppedFrames {
+  CameraFrameResult* pigeonResult = [[CameraFrameResult alloc] init];
+  pigeonResult.detections = detections;
+  pigeonResult.dropped = dropped;
+  pigeonResult.droppedFrames = droppedFrames;
+  return pigeonResult;
+}
++ (CameraFrameResult *)fromList:(NSArray<id> *)list {
+  CameraFrameResult *pigeonResult = [[CameraFrameResult alloc] init];
+  pigeonResult.detections = GetNullableObjectAtIndex(list, 0);
+  pigeonResult.dropped = [GetNullableObjectAtIndex(list, 1) boolValue];
+  pigeonResult.droppedFrames = [GetNullableObjectAtIndex(list, 2) integerValue];
+  return pigeonResult;
+}
++ (nullable CameraFrameResult *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [CameraFrameResult fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    self.detections ?: [NSNull null],
+    @(self.dropped),
+    @(self.droppedFrames),
+  ];
+}
+@end
+
+@implementation TensorData
++ (instancetype)makeWithData:(FlutterStandardTypedData *)data
+    shape:(NSArray<NSNumber *> *)shape
+    dtype:(NSString *)dtype
+    name:(nullable NSString *)name {
+  TensorData* pigeonResult = [[TensorData alloc] init];
+  pigeonResult.data = data;
+  pigeonResult.shape = shape;
+  pigeonResult.dtype = dtype;
+  pigeonResult.name = name;
+  return pigeonResult;
+}
++ (TensorData *)fromList:(NSArray<id> *)list {
+  TensorData *pigeonResult = [[TensorData alloc] init];
+  pigeonResult.data = GetNullableObjectAtIndex(list, 0);
+  pigeonResult.shape = GetNullableObjectAtIndex(list, 1);
+  pigeonResult.dtype = GetNullableObjectAtIndex(list, 2);
+  pigeonResult.name = GetNullableObjectAtIndex(list, 3);
+  return pigeonResult;
+}
++ (nullable TensorData *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [TensorData fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    self.data ?: [NSNull null],
+    self.shape ?: [NSNull null],
+    self.dtype ?: [NSNull null],
+    self.name ?: [NSNull null],
+  ];
+}
+@end
+
+@implementation ModelLoadOptions
++ (instancetype)makeWithMaxConcurrency:(nullable NSNumber *)maxConcurrency
+    replicas:(nullable NSNumber *)replicas
+    numThreads:(nullable NSNumber *)numThreads
+    warmUpRuns:(nullable NSNumber *)warmUpRuns
+    lite:(nullable NSNumber *)lite
+    fromAsset:(nullable NSNumber *)fromAsset
+    nmsEngine:(nullable NSString *)nmsEngine
+    classAwareNms:(nullable NSNumber *)classAwareNms
+    parallelDecode:(nullable NSNumber *)parallelDecode {
+  ModelLoadOptions* pigeonResult = [[ModelLoadOptions alloc] init];
+  pigeonResult.maxConcurrency = maxConcurrency;
+  pigeonResult.replicas = replicas;
+  pigeonResult.numThreads = numThreads;
+  pigeonResult.warmUpRuns = warmUpRuns;
+  pigeonResult.lite = lite;
+  pigeonResult.fromAsset = fromAsset;
+  pigeonResult.nmsEngine = nmsEngine;
+  pigeonResult.classAwareNms = classAwareNms;
+  pigeonResult.parallelDecode = parallelDecode;
+  return pigeonResult;
+}
++ (ModelLoadOptions *)fromList:(NSArray<id> *)list {
+  ModelLoadOptions *pigeonResult = [[ModelLoadOptions alloc] init];
+  pigeonResult.maxConcurrency = GetNullableObjectAtIndex(list, 0);
+  pigeonResult.replicas = GetNullableObjectAtIndex(list, 1);
+  pigeonResult.numThreads = GetNullableObjectAtIndex(list, 2);
+  pigeonResult.warmUpRuns = GetNullableObjectAtIndex(list, 3);
+  pigeonResult.lite = GetNullableObjectAtIndex(list, 4);
+  pigeonResult.fromAsset = GetNullableObjectAtIndex(list, 5);
+  pigeonResult.nmsEngine = GetNullableObjectAtIndex(list, 6);
+  pigeonResult.classAwareNms = GetNullableObjectAtIndex(list, 7);
+  pigeonResult.parallelDecode = GetNullableObjectAtIndex(list, 8);
+  return pigeonResult;
+}
++ (nullable ModelLoadOptions *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [ModelLoadOptions fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    self.maxConcurrency ?: [NSNull null],
+    self.replicas ?: [NSNull null],
+    self.numThreads ?: [NSNull null],
+    self.warmUpRuns ?: [NSNull null],
+    self.lite ?: [NSNull null],
+    self.fromAsset ?: [NSNull null],
+    self.nmsEngine ?: [NSNull null],
+    self.classAwareNms ?: [NSNull null],
+    self.parallelDecode ?: [NSNull null],
+  ];
+}
+@end
+
+@implementation ModelStats
++ (instancetype)makeWithReplicas:(NSInteger )replicas
+    maxConcurrency:(NSInteger )maxConcurrency
+    runningInferences:(NSInteger )runningInferences
+    inferencesPerReplica:(NSArray<NSNumber *> *)inferencesPerReplica
+    utilization:(double )utilization
+    numThreads:(NSInteger )numThreads
+    allocatedThreads:(NSInteger )allocatedThreads
+    loaded:(BOOL )loaded
+    residentBytes:(NSInteger )residentBytes
+    coldLatencyMillis:(nullable NSNumber *)coldLatencyMillis
+    warmLatencyMillis:(nullable NSNumber *)warmLatencyMillis {
+  ModelStats* pigeonResult = [[ModelStats alloc] init];
+  pigeonResult.replicas = replicas;
+  pigeonResult.maxConcurrency = maxConcurrency;
+  pigeonResult.runningInferences = runningInferences;
+  pigeonResult.inferencesPerReplica = inferencesPerReplica;
+  pigeonResult.utilization = utilization;
+  pigeonResult.numThreads = numThreads;
+  pigeonResult.allocatedThreads = allocatedThreads;
+  pigeonResult.loaded = loaded;
+  pigeonResult.residentBytes = residentBytes;
+  pigeonResult.coldLatencyMillis = coldLatencyMillis;
+  pigeonResult.warmLatencyMillis = warmLatencyMillis;
+  return pigeonResult;
+}
++ (ModelStats *)fromList:(NSArray<id> *)list {
+  ModelStats *pigeonResult = [[ModelStats alloc] init];
+  pigeonResult.replicas = [GetNullableObjectAtIndex(list, 0) integerValue];
+  pigeonResult.maxConcurrency = [GetNullableObjectAtIndex(list, 1) integerValue];
+  pigeonResult.runningInferences = [GetNullableObjectAtIndex(list, 2) integerValue];
+  pigeonResult.inferencesPerReplica = GetNullableObjectAtIndex(list, 3);
+  pigeonResult.utilization = [GetNullableObjectAtIndex(list, 4) doubleValue];
+  pigeonResult.numThreads = [GetNullableObjectAtIndex(list, 5) integerValue];
+  pigeonResult.allocatedThreads = [GetNullableObjectAtIndex(list, 6) integerValue];
+  pigeonResult.loaded = [GetNullableObjectAtIndex(list, 7) boolValue];
+  pigeonResult.residentBytes = [GetNullableObjectAtIndex(list, 8) integerValue];
+  pigeonResult.coldLatencyMillis = GetNullableObjectAtIndex(list, 9);
+  pigeonResult.warmLatencyMillis = GetNullableObjectAtIndex(list, 10);
+  return pigeonResult;
+}
++ (nullable ModelStats *)nullableFromList:(NSArray<id> *)list {
+  return (list) ? [ModelStats fromList:list] : nil;
+}
+- (NSArray<id> *)toList {
+  return @[
+    @(self.replicas),
+    @(self.maxConcurrency),
+    @(self.runningInferences),
+    self.inferencesPerReplica ?: [NSNull null],
+    @(self.utilization),
+    @(self.numThreads),
+    @(self.allocatedThreads),
+    @(self.loaded),
+    @(self.residentBytes),
+    self.coldLatencyMillis ?: [NSNull null],
+    self.warmLatencyMillis ?: [NSNull null],
   ];
 }
 @end
@@ -121,7 +418,21 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
     case 129: 
       return [PyTorchRect fromList:[self readValue]];
     case 130: 
+      return [CropRect fromList:[self readValue]];
+    case 131: 
       return [ResultObjectDetection fromList:[self readValue]];
+    case 132: 
+      return [ResultClassification fromList:[self readValue]];
+    case 133: 
+      return [ResultObjectDetectionList fromList:[self readValue]];
+    case 134: 
+      return [CameraFrameResult fromList:[self readValue]];
+    case 135: 
+      return [TensorData fromList:[self readValue]];
+    case 136: 
+      return [ModelLoadOptions fromList:[self readValue]];
+    case 137: 
+      return [ModelStats fromList:[self readValue]];
     default:
       return [super readValueOfType:type];
   }
@@ -135,9 +446,30 @@ static id GetNullableObjectAtIndex(NSArray<id> *array, NSInteger key) {
   if ([value isKindOfClass:[PyTorchRect class]]) {
     [self writeByte:129];
     [self writeValue:[value toList]];
-  } else if ([value isKindOfClass:[ResultObjectDetection class]]) {
+  } else if ([value isKindOfClass:[CropRect class]]) {
     [self writeByte:130];
     [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[ResultObjectDetection class]]) {
+    [self writeByte:131];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[ResultClassification class]]) {
+    [self writeByte:132];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[ResultObjectDetectionList class]]) {
+    [self writeByte:133];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[CameraFrameResult class]]) {
+    [self writeByte:134];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[TensorData class]]) {
+    [self writeByte:135];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[ModelLoadOptions class]]) {
+    [self writeByte:136];
+    [self writeValue:[value toList]];
+  } else if ([value isKindOfClass:[ModelStats class]]) {
+    [self writeByte:137];
+    [self writeValue:[value toList]];
   } else {
     [super writeValue:value];
   }
@@ -179,7 +511,7 @@ void SetUpModelApiWithSuffix(id<FlutterBinaryMessenger> binaryMessenger, NSObjec
         codec:nullGetPigeonCodec()
 taskQueue:taskQueue];
     if (api) {
-      NSCAssert([api respondsToSelector:@selector(loadModelModelPath:numberOfClasses:imageWidth:imageHeight:objectDetectionModelType:completion:)], @"ModelApi api (%@) doesn't respond to @selector(loadModelModelPath:numberOfClasses:imageWidth:imageHeight:objectDetectionModelType:completion:)", api);
+      NSCAssert([api respondsToSelector:@selector(loadModelModelPath:numberOfClasses:imageWidth:imageHeight:objectDetectionModelType:options:completion:)], @"ModelApi api (%@) doesn't respond to @selector(loadModelModelPath:numberOfClasses:imageWidth:imageHeight:objectDetectionModelType:options:completion:)", api);
       [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
         NSArray<id> *args = message;
         NSString *arg_modelPath = GetNullableObjectAtIndex(args, 0);
@@ -187,7 +519,8 @@ taskQueue:taskQueue];
         NSNumber *arg_imageWidth = GetNullableObjectAtIndex(args, 2);
         NSNumber *arg_imageHeight = GetNullableObjectAtIndex(args, 3);
         NSNumber *arg_objectDetectionModelType = GetNullableObjectAtIndex(args, 4);
-        [api loadModelModelPath:arg_modelPath numberOfClasses:arg_numberOfClasses imageWidth:arg_imageWidth imageHeight:arg_imageHeight objectDetectionModelType:arg_objectDetectionModelType completion:^(NSNumber *_Nullable output, FlutterError *_Nullable error) {
+        ModelLoadOptions *arg_options = GetNullableObjectAtIndex(args, 5);
+        [api loadModelModelPath:arg_modelPath numberOfClasses:arg_numberOfClasses imageWidth:arg_imageWidth imageHeight:arg_imageHeight objectDetectionModelType:arg_objectDetectionModelType options:arg_options completion:^(NSNumber *_Nullable output, FlutterError *_Nullable error) {
           callback(wrapResult(output, error));
         }];
       }];
@@ -195,6 +528,119 @@ taskQueue:taskQueue];
       [channel setMessageHandler:nil];
     }
   }
+  ///returns how the replicas of a model are used
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getModelStats", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getModelStatsIndex:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getModelStatsIndex:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        [api getModelStatsIndex:arg_index completion:^(ModelStats *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///releases a model, its index is not valid anymore
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.unloadModel", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(unloadModelIndex:completion:)], @"ModelApi api (%@) doesn't respond to @selector(unloadModelIndex:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        [api unloadModelIndex:arg_index completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///sets the memory the loaded models may take, least recently used models are evicted and loaded again on use, 0 disables it
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.setModelMemoryBudget", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(setModelMemoryBudgetBytes:completion:)], @"ModelApi api (%@) doesn't respond to @selector(setModelMemoryBudgetBytes:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_bytes = [GetNullableObjectAtIndex(args, 0) integerValue];
+        [api setModelMemoryBudgetBytes:arg_bytes completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///sets the detection thresholds and box limit used by the calls of a model that do not pass their own
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.setDetectionDefaults", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(setDetectionDefaultsIndex:minimumScore:IOUThreshold:boxesLimit:completion:)], @"ModelApi api (%@) doesn't respond to @selector(setDetectionDefaultsIndex:minimumScore:IOUThreshold:boxesLimit:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 1);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 3);
+        [api setDetectionDefaultsIndex:arg_index minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///sets how many CPU threads the running models share, 0 leaves it to PyTorch
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.setCpuThreadBudget", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(setCpuThreadBudgetThreads:completion:)], @"ModelApi api (%@) doesn't respond to @selector(setCpuThreadBudgetThreads:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_threads = [GetNullableObjectAtIndex(args, 0) integerValue];
+        [api setCpuThreadBudgetThreads:arg_threads completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
   ///predicts abstract number input
   {
     NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
@@ -220,6 +666,53 @@ taskQueue:taskQueue];
       [channel setMessageHandler:nil];
     }
   }
+  ///predicts a typed tensor input, returns the output tensor with its shape and dtype
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustomTensor", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getPredictionCustomTensorIndex:input:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getPredictionCustomTensorIndex:input:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        TensorData *arg_input = GetNullableObjectAtIndex(args, 1);
+        [api getPredictionCustomTensorIndex:arg_index input:arg_input completion:^(TensorData *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///runs a method of the model on typed inputs, returns every tensor of its tuple, list or dict output
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.runMethod", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(runMethodIndex:methodName:inputs:completion:)], @"ModelApi api (%@) doesn't respond to @selector(runMethodIndex:methodName:inputs:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSString *arg_methodName = GetNullableObjectAtIndex(args, 1);
+        NSArray<TensorData *> *arg_inputs = GetNullableObjectAtIndex(args, 2);
+        [api runMethodIndex:arg_index methodName:arg_methodName inputs:arg_inputs completion:^(NSArray<TensorData *> *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
   ///predicts raw image but returns the raw net output
   {
     NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
@@ -258,9 +751,9 @@ taskQueue:taskQueue];
         NSArray<id> *args = message;
         NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
         FlutterStandardTypedData *arg_imageData = GetNullableObjectAtIndex(args, 1);
-        double arg_minimumScore = [GetNullableObjectAtIndex(args, 2) doubleValue];
-        double arg_IOUThreshold = [GetNullableObjectAtIndex(args, 3) doubleValue];
-        NSInteger arg_boxesLimit = [GetNullableObjectAtIndex(args, 4) integerValue];
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 4);
         [api getRawImagePredictionListObjectDetectionIndex:arg_index imageData:arg_imageData minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(NSArray<ResultObjectDetection *> *_Nullable output, FlutterError *_Nullable error) {
           callback(wrapResult(output, error));
         }];
@@ -269,7 +762,7 @@ taskQueue:taskQueue];
       [channel setMessageHandler:nil];
     }
   }
-  ///predicts image but returns the raw net output
+  ///predicts image or the crop of it but returns the raw net output
   {
     NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
     FlutterBasicMessageChannel *channel =
@@ -279,7 +772,7 @@ taskQueue:taskQueue];
         codec:nullGetPigeonCodec()
 taskQueue:taskQueue];
     if (api) {
-      NSCAssert([api respondsToSelector:@selector(getImagePredictionListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:mean:std:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:mean:std:completion:)", api);
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:mean:std:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:mean:std:crop:completion:)", api);
       [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
         NSArray<id> *args = message;
         NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
@@ -287,9 +780,12 @@ taskQueue:taskQueue];
         NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 2);
         NSNumber *arg_imageWidthForBytesList = GetNullableObjectAtIndex(args, 3);
         NSNumber *arg_imageHeightForBytesList = GetNullableObjectAtIndex(args, 4);
-        NSArray<NSNumber *> *arg_mean = GetNullableObjectAtIndex(args, 5);
-        NSArray<NSNumber *> *arg_std = GetNullableObjectAtIndex(args, 6);
-        [api getImagePredictionListIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList mean:arg_mean std:arg_std completion:^(NSArray<NSNumber *> *_Nullable output, FlutterError *_Nullable error) {
+        NSArray<NSNumber *> *arg_rowStridesForBytesList = GetNullableObjectAtIndex(args, 5);
+        NSArray<NSNumber *> *arg_pixelStridesForBytesList = GetNullableObjectAtIndex(args, 6);
+        NSArray<NSNumber *> *arg_mean = GetNullableObjectAtIndex(args, 7);
+        NSArray<NSNumber *> *arg_std = GetNullableObjectAtIndex(args, 8);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 9);
+        [api getImagePredictionListIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList rowStridesForBytesList:arg_rowStridesForBytesList pixelStridesForBytesList:arg_pixelStridesForBytesList mean:arg_mean std:arg_std crop:arg_crop completion:^(NSArray<NSNumber *> *_Nullable output, FlutterError *_Nullable error) {
           callback(wrapResult(output, error));
         }];
       }];
@@ -297,7 +793,7 @@ taskQueue:taskQueue];
       [channel setMessageHandler:nil];
     }
   }
-  ///predicts image but returns the output detections
+  ///predicts image or the crop of it but returns the output detections, in whole image coordinates
   {
     NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
     FlutterBasicMessageChannel *channel =
@@ -307,7 +803,228 @@ taskQueue:taskQueue];
         codec:nullGetPigeonCodec()
 taskQueue:taskQueue];
     if (api) {
-      NSCAssert([api respondsToSelector:@selector(getImagePredictionListObjectDetectionIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:minimumScore:IOUThreshold:boxesLimit:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListObjectDetectionIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:minimumScore:IOUThreshold:boxesLimit:completion:)", api);
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionListObjectDetectionIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:minimumScore:IOUThreshold:boxesLimit:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListObjectDetectionIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:minimumScore:IOUThreshold:boxesLimit:crop:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        FlutterStandardTypedData *arg_imageData = GetNullableObjectAtIndex(args, 1);
+        NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_imageWidthForBytesList = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_imageHeightForBytesList = GetNullableObjectAtIndex(args, 4);
+        NSArray<NSNumber *> *arg_rowStridesForBytesList = GetNullableObjectAtIndex(args, 5);
+        NSArray<NSNumber *> *arg_pixelStridesForBytesList = GetNullableObjectAtIndex(args, 6);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 7);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 8);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 9);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 10);
+        [api getImagePredictionListObjectDetectionIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList rowStridesForBytesList:arg_rowStridesForBytesList pixelStridesForBytesList:arg_pixelStridesForBytesList minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit crop:arg_crop completion:^(NSArray<ResultObjectDetection *> *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///detects objects in a camera frame, at most one frame per model waits while another runs and a newer frame replaces it, the replaced one completes as dropped
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.detectObjectsInLatestCameraFrame", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(detectObjectsInLatestCameraFrameIndex:imageBytesList:imageWidth:imageHeight:rowStrides:pixelStrides:minimumScore:IOUThreshold:boxesLimit:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(detectObjectsInLatestCameraFrameIndex:imageBytesList:imageWidth:imageHeight:rowStrides:pixelStrides:minimumScore:IOUThreshold:boxesLimit:crop:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 1);
+        NSInteger arg_imageWidth = [GetNullableObjectAtIndex(args, 2) integerValue];
+        NSInteger arg_imageHeight = [GetNullableObjectAtIndex(args, 3) integerValue];
+        NSArray<NSNumber *> *arg_rowStrides = GetNullableObjectAtIndex(args, 4);
+        NSArray<NSNumber *> *arg_pixelStrides = GetNullableObjectAtIndex(args, 5);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 6);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 7);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 8);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 9);
+        [api detectObjectsInLatestCameraFrameIndex:arg_index imageBytesList:arg_imageBytesList imageWidth:arg_imageWidth imageHeight:arg_imageHeight rowStrides:arg_rowStrides pixelStrides:arg_pixelStrides minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit crop:arg_crop completion:^(CameraFrameResult *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///opens a detection session on a model with fixed detection parameters, returns its id, the results of its frames come on the pytorch_lite/detection_sessions event channel, with track the boxes get track ids and the detector only runs every detectEveryFrames frames, with crop only that region of the frames is detected
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.openDetectionSession", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(openDetectionSessionIndex:minimumScore:IOUThreshold:boxesLimit:track:detectEveryFrames:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(openDetectionSessionIndex:minimumScore:IOUThreshold:boxesLimit:track:detectEveryFrames:crop:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 1);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_track = GetNullableObjectAtIndex(args, 4);
+        NSNumber *arg_detectEveryFrames = GetNullableObjectAtIndex(args, 5);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 6);
+        [api openDetectionSessionIndex:arg_index minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit track:arg_track detectEveryFrames:arg_detectEveryFrames crop:arg_crop completion:^(NSNumber *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///queues a camera frame of a detection session and returns, latest frame wins, the result is sent as an event tagged with frameId
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.pushDetectionSessionFrame", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(pushDetectionSessionFrameSessionId:frameId:imageBytesList:imageWidth:imageHeight:rowStrides:pixelStrides:completion:)], @"ModelApi api (%@) doesn't respond to @selector(pushDetectionSessionFrameSessionId:frameId:imageBytesList:imageWidth:imageHeight:rowStrides:pixelStrides:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_sessionId = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSInteger arg_frameId = [GetNullableObjectAtIndex(args, 1) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 2);
+        NSInteger arg_imageWidth = [GetNullableObjectAtIndex(args, 3) integerValue];
+        NSInteger arg_imageHeight = [GetNullableObjectAtIndex(args, 4) integerValue];
+        NSArray<NSNumber *> *arg_rowStrides = GetNullableObjectAtIndex(args, 5);
+        NSArray<NSNumber *> *arg_pixelStrides = GetNullableObjectAtIndex(args, 6);
+        [api pushDetectionSessionFrameSessionId:arg_sessionId frameId:arg_frameId imageBytesList:arg_imageBytesList imageWidth:arg_imageWidth imageHeight:arg_imageHeight rowStrides:arg_rowStrides pixelStrides:arg_pixelStrides completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///closes a detection session, frames still queued send no event
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.closeDetectionSession", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(closeDetectionSessionSessionId:completion:)], @"ModelApi api (%@) doesn't respond to @selector(closeDetectionSessionSessionId:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_sessionId = [GetNullableObjectAtIndex(args, 0) integerValue];
+        [api closeDetectionSessionSessionId:arg_sessionId completion:^(FlutterError *_Nullable error) {
+          callback(wrapResult(nil, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts raw image, returns the raw net output as native order float32 bytes
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionFloat32List", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getRawImagePredictionFloat32ListIndex:imageData:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getRawImagePredictionFloat32ListIndex:imageData:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        FlutterStandardTypedData *arg_imageData = GetNullableObjectAtIndex(args, 1);
+        [api getRawImagePredictionFloat32ListIndex:arg_index imageData:arg_imageData completion:^(FlutterStandardTypedData *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts image or the crop of it, returns the raw net output as native order float32 bytes
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionFloat32List", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionFloat32ListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:mean:std:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionFloat32ListIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:mean:std:crop:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        FlutterStandardTypedData *arg_imageData = GetNullableObjectAtIndex(args, 1);
+        NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_imageWidthForBytesList = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_imageHeightForBytesList = GetNullableObjectAtIndex(args, 4);
+        NSArray<NSNumber *> *arg_rowStridesForBytesList = GetNullableObjectAtIndex(args, 5);
+        NSArray<NSNumber *> *arg_pixelStridesForBytesList = GetNullableObjectAtIndex(args, 6);
+        NSArray<NSNumber *> *arg_mean = GetNullableObjectAtIndex(args, 7);
+        NSArray<NSNumber *> *arg_std = GetNullableObjectAtIndex(args, 8);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 9);
+        [api getImagePredictionFloat32ListIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList rowStridesForBytesList:arg_rowStridesForBytesList pixelStridesForBytesList:arg_pixelStridesForBytesList mean:arg_mean std:arg_std crop:arg_crop completion:^(FlutterStandardTypedData *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts raw image, returns the output detections as packed float32 records (see PackedObjectDetections)
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionPacked", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getRawImagePredictionListObjectDetectionPackedIndex:imageData:minimumScore:IOUThreshold:boxesLimit:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getRawImagePredictionListObjectDetectionPackedIndex:imageData:minimumScore:IOUThreshold:boxesLimit:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        FlutterStandardTypedData *arg_imageData = GetNullableObjectAtIndex(args, 1);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 4);
+        [api getRawImagePredictionListObjectDetectionPackedIndex:arg_index imageData:arg_imageData minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(FlutterStandardTypedData *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts image or the crop of it, returns the output detections in whole image coordinates as packed float32 records (see PackedObjectDetections)
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionPacked", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionListObjectDetectionPackedIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:minimumScore:IOUThreshold:boxesLimit:crop:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListObjectDetectionPackedIndex:imageData:imageBytesList:imageWidthForBytesList:imageHeightForBytesList:rowStridesForBytesList:pixelStridesForBytesList:minimumScore:IOUThreshold:boxesLimit:crop:completion:)", api);
       [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
         NSArray<id> *args = message;
         NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
@@ -315,10 +1032,113 @@ taskQueue:taskQueue];
         NSArray<FlutterStandardTypedData *> *arg_imageBytesList = GetNullableObjectAtIndex(args, 2);
         NSNumber *arg_imageWidthForBytesList = GetNullableObjectAtIndex(args, 3);
         NSNumber *arg_imageHeightForBytesList = GetNullableObjectAtIndex(args, 4);
-        double arg_minimumScore = [GetNullableObjectAtIndex(args, 5) doubleValue];
-        double arg_IOUThreshold = [GetNullableObjectAtIndex(args, 6) doubleValue];
-        NSInteger arg_boxesLimit = [GetNullableObjectAtIndex(args, 7) integerValue];
-        [api getImagePredictionListObjectDetectionIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(NSArray<ResultObjectDetection *> *_Nullable output, FlutterError *_Nullable error) {
+        NSArray<NSNumber *> *arg_rowStridesForBytesList = GetNullableObjectAtIndex(args, 5);
+        NSArray<NSNumber *> *arg_pixelStridesForBytesList = GetNullableObjectAtIndex(args, 6);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 7);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 8);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 9);
+        CropRect *arg_crop = GetNullableObjectAtIndex(args, 10);
+        [api getImagePredictionListObjectDetectionPackedIndex:arg_index imageData:arg_imageData imageBytesList:arg_imageBytesList imageWidthForBytesList:arg_imageWidthForBytesList imageHeightForBytesList:arg_imageHeightForBytesList rowStridesForBytesList:arg_rowStridesForBytesList pixelStridesForBytesList:arg_pixelStridesForBytesList minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit crop:arg_crop completion:^(FlutterStandardTypedData *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts a batch of raw images in one forward call, returns the raw net output of each image
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListBatch", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getRawImagePredictionListBatchIndex:imagesData:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getRawImagePredictionListBatchIndex:imagesData:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imagesData = GetNullableObjectAtIndex(args, 1);
+        [api getRawImagePredictionListBatchIndex:arg_index imagesData:arg_imagesData completion:^(NSArray<ResultClassification *> *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts a batch of raw images in one forward call, returns the output detections of each image
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionBatch", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getRawImagePredictionListObjectDetectionBatchIndex:imagesData:minimumScore:IOUThreshold:boxesLimit:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getRawImagePredictionListObjectDetectionBatchIndex:imagesData:minimumScore:IOUThreshold:boxesLimit:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imagesData = GetNullableObjectAtIndex(args, 1);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 4);
+        [api getRawImagePredictionListObjectDetectionBatchIndex:arg_index imagesData:arg_imagesData minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(NSArray<ResultObjectDetectionList *> *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts a batch of images in one forward call, returns the raw net output of each image
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListBatch", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionListBatchIndex:imagesData:mean:std:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListBatchIndex:imagesData:mean:std:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imagesData = GetNullableObjectAtIndex(args, 1);
+        NSArray<NSNumber *> *arg_mean = GetNullableObjectAtIndex(args, 2);
+        NSArray<NSNumber *> *arg_std = GetNullableObjectAtIndex(args, 3);
+        [api getImagePredictionListBatchIndex:arg_index imagesData:arg_imagesData mean:arg_mean std:arg_std completion:^(NSArray<ResultClassification *> *_Nullable output, FlutterError *_Nullable error) {
+          callback(wrapResult(output, error));
+        }];
+      }];
+    } else {
+      [channel setMessageHandler:nil];
+    }
+  }
+  ///predicts a batch of images in one forward call, returns the output detections of each image
+  {
+    NSObject<FlutterTaskQueue> *taskQueue = [binaryMessenger makeBackgroundTaskQueue];
+    FlutterBasicMessageChannel *channel =
+      [[FlutterBasicMessageChannel alloc]
+        initWithName:[NSString stringWithFormat:@"%@%@", @"dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionBatch", messageChannelSuffix]
+        binaryMessenger:binaryMessenger
+        codec:nullGetPigeonCodec()
+taskQueue:taskQueue];
+    if (api) {
+      NSCAssert([api respondsToSelector:@selector(getImagePredictionListObjectDetectionBatchIndex:imagesData:minimumScore:IOUThreshold:boxesLimit:completion:)], @"ModelApi api (%@) doesn't respond to @selector(getImagePredictionListObjectDetectionBatchIndex:imagesData:minimumScore:IOUThreshold:boxesLimit:completion:)", api);
+      [channel setMessageHandler:^(id _Nullable message, FlutterReply callback) {
+        NSArray<id> *args = message;
+        NSInteger arg_index = [GetNullableObjectAtIndex(args, 0) integerValue];
+        NSArray<FlutterStandardTypedData *> *arg_imagesData = GetNullableObjectAtIndex(args, 1);
+        NSNumber *arg_minimumScore = GetNullableObjectAtIndex(args, 2);
+        NSNumber *arg_IOUThreshold = GetNullableObjectAtIndex(args, 3);
+        NSNumber *arg_boxesLimit = GetNullableObjectAtIndex(args, 4);
+        [api getImagePredictionListObjectDetectionBatchIndex:arg_index imagesData:arg_imagesData minimumScore:arg_minimumScore IOUThreshold:arg_IOUThreshold boxesLimit:arg_boxesLimit completion:^(NSArray<ResultObjectDetectionList *> *_Nullable output, FlutterError *_Nullable error) {
           callback(wrapResult(output, error));
         }];
       }];
@@ -0,0 +1,55 @@
+import 'dart:typed_data';
+
+import 'package:pytorch_lite/enums/dtype.dart';
+import 'package:pytorch_lite/pigeon.dart';
+
+/// Wraps a typed list (e.g. a [Float32List] for [DType.float32]) as a model
+/// input of the given [shape], its bytes are sent as they are.
+TensorData tensorDataFrom(TypedData data, List<int> shape, DType dtype) {
+  return TensorData(
+      data: data.buffer.asUint8List(data.offsetInBytes, data.lengthInBytes),
+      shape: shape,
+      dtype: dtype.name);
+}
+
+extension TensorDataExtension on TensorData {
+  // View the bytes as the typed list matching dtype, without copying them
+  // unless they are not aligned to the element size
+  TypedData asTypedList() {
+    Uint8List bytes = data;
+    final int elementSize = _elementSize(dtype);
+    if (bytes.offsetInBytes % elementSize != 0) {
+      bytes = Uint8List.fromList(bytes);
+    }
+    final int length = bytes.lengthInBytes ~/ elementSize;
+    switch (dtype) {
+      case "float32":
+        return bytes.buffer.asFloat32List(bytes.offsetInBytes, length);
+      case "float64":
+        return bytes.buffer.asFloat64List(bytes.offsetInBytes, length);
+      case "int32":
+        return bytes.buffer.asInt32List(bytes.offsetInBytes, length);
+      case "int64":
+        return bytes.buffer.asInt64List(bytes.offsetInBytes, length);
+      case "int8":
+        return bytes.buffer.asInt8List(bytes.offsetInBytes, length);
+      case "uint8":
+        return bytes;
+      default:
+        throw UnsupportedError("Unsupported dtype $dtype");
+    }
+  }
+}
+
+int _elementSize(String dtype) {
+  switch (dtype) {
+    case "float64":
+    case "int64":
+      return 8;
+    case "float32":
+    case "int32":
+      return 4;
+    default:
+      return 1;
+  }
+}
@@ -10,6 +10,7 @@ extension ResultObjectDetectionExtension on ResultObjectDetection {
       'className': className,
       'score': score,
       'rect': rect.toMap(),
+      'trackId': trackId,
     };
   }
 
@@ -19,6 +20,7 @@ extension ResultObjectDetectionExtension on ResultObjectDetection {
       classIndex: map['classIndex'],
       score: map['score'],
       rect: PyTorchRectExtension.fromMap(map['rect']),
+      trackId: map['trackId'],
     )..className = map['className'];
   }
 
@@ -61,12 +61,49 @@ class PyTorchRect {
   }
 }
 
+class CropRect {
+  CropRect({
+    required this.left,
+    required this.top,
+    required this.right,
+    required this.bottom,
+  });
+
+  double left;
+
+  double top;
+
+  double right;
+
+  double bottom;
+
+  Object encode() {
+    return <Object?>[
+      left,
+      top,
+      right,
+      bottom,
+    ];
+  }
+
+  static CropRect decode(Object result) {
+    result as List<Object?>;
+    return CropRect(
+      left: result[0]! as double,
+      top: result[1]! as double,
+      right: result[2]! as double,
+      bottom: result[3]! as double,
+    );
+  }
+}
+
 class ResultObjectDetection {
   ResultObjectDetection({
     required this.classIndex,
     this.className,
     required this.score,
     required this.rect,
+    this.trackId,
   });
 
   int classIndex;
@@ -77,12 +114,17 @@ class ResultObjectDetection {
 
   PyTorchRect rect;
 
+  /// Stable id of the tracked object, set by detection sessions opened with
+  /// tracking.
+  int? trackId;
+
   Object encode() {
     return <Object?>[
       classIndex,
       className,
       score,
       rect,
+      trackId,
     ];
   }
 
@@ -93,6 +135,293 @@ class ResultObjectDetection {
       className: result[1] as String?,
       score: result[2]! as double,
       rect: result[3]! as PyTorchRect,
+      trackId: result[4] as int?,
+    );
+  }
+}
+
+class ResultClassification {
+  ResultClassification({
+    required this.scores,
+  });
+
+  List<double> scores;
+
+  Object encode() {
+    return <Object?>[
+      scores,
+    ];
+  }
+
+  static ResultClassification decode(Object result) {
+    result as List<Object?>;
+    return ResultClassification(
+      scores: (result[0] as List<Object?>?)!.cast<double>(),
+    );
+  }
+}
+
+class ResultObjectDetectionList {
+  ResultObjectDetectionList({
+    required this.detections,
+  });
+
+  List<ResultObjectDetection> detections;
+
+  Object encode() {
+    return <Object?>[
+      detections,
+    ];
+  }
+
+  static ResultObjectDetectionList decode(Object result) {
+    result as List<Object?>;
+    return ResultObjectDetectionList(
+      detections: (result[0] as List<Object?>?)!.cast<ResultObjectDetection>(),
+    );
+  }
+}
+
+class CameraFrameResult {
+  CameraFrameResult({
+    this.detections,
+    required this.dropped,
+    required this.droppedFrames,
+  });
+
+  /// Null when the frame was dropped.
+  List<ResultObjectDetection>? detections;
+
+  /// The frame was replaced by a newer one before it could run.
+  bool dropped;
+
+  /// Frames dropped since the previous frame that ran, this one included
+  /// when it was dropped.
+  int droppedFrames;
+
+  Object encode() {
+    return <Object?>[
+      detections,
+      dropped,
+      droppedFrames,
+    ];
+  }
+
+  static CameraFrameResult decode(Object result) {
+    result as List<Object?>;
+    return CameraFrameResult(
+      detections: (result[0] as List<Object?>?)?.cast<ResultObjectDetection>(),
+      dropped: result[1]! as bool,
+      droppedFrames: result[2]! as int,
+    );
+  }
+}
+
+class TensorData {
+  TensorData({
+    required this.data,
+    required this.shape,
+    required this.dtype,
+    this.name,
+  });
+
+  /// The tensor elements as native order bytes, row major.
+  Uint8List data;
+
+  List<int> shape;
+
+  /// One of float32, float64, int32, int64, int8, uint8.
+  String dtype;
+
+  /// The key of an output returned in a dict.
+  String? name;
+
+  Object encode() {
+    return <Object?>[
+      data,
+      shape,
+      dtype,
+      name,
+    ];
+  }
+
+  static TensorData decode(Object result) {
+    result as List<Object?>;
+    return TensorData(
+      data: result[0]! as Uint8List,
+      shape: (result[1] as List<Object?>?)!.cast<int>(),
+      dtype: result[2]! as String,
+      name: result[3] as String?,
+    );
+  }
+}
+
+class ModelLoadOptions {
+  ModelLoadOptions({
+    this.maxConcurrency,
+    this.replicas,
+    this.numThreads,
+    this.warmUpRuns,
+    this.lite,
+    this.fromAsset,
+    this.nmsEngine,
+    this.classAwareNms,
+    this.parallelDecode,
+  });
+
+  /// How many inferences may run on the model at once, 0 does not limit
+  /// them. Defaults to the number of replicas, so a model loaded once runs
+  /// them one after the other.
+  int? maxConcurrency;
+
+  /// How many copies of the model to load (1 by default), calls are spread
+  /// over the idle ones.
+  int? replicas;
+
+  /// Most CPU threads the shared thread pool may have while the model runs,
+  /// the pool is also capped by the plugin wide CPU thread budget. Unset
+  /// leaves it to PyTorch. On Android this needs the lite runtime, the calls
+  /// of the model fail with the full one.
+  int? numThreads;
+
+  /// Forward passes run on a zero image of the model input size before the
+  /// load returns, and again whenever an evicted model is loaded back. Needs
+  /// the image size, 0 by default.
+  int? warmUpRuns;
+
+  /// Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+  /// full TorchScript model. Android only, false by default.
+  bool? lite;
+
+  /// The model path is the key of a flutter asset, read straight from the
+  /// application bundle instead of a file. False by default.
+  bool? fromAsset;
+
+  /// How detection boxes are suppressed (Android only): "grid" (default)
+  /// only compares boxes that are close to each other and ranks at most 30
+  /// candidates per returned box, "exhaustive" ranks every candidate and
+  /// compares every pair, the plain greedy NMS.
+  String? nmsEngine;
+
+  /// Only lets boxes of the same class suppress each other (Android only),
+  /// false by default.
+  bool? classAwareNms;
+
+  /// Splits the decode of large detection outputs over the CPU cores
+  /// (Android only), false by default.
+  bool? parallelDecode;
+
+  Object encode() {
+    return <Object?>[
+      maxConcurrency,
+      replicas,
+      numThreads,
+      warmUpRuns,
+      lite,
+      fromAsset,
+      nmsEngine,
+      classAwareNms,
+      parallelDecode,
+    ];
+  }
+
+  static ModelLoadOptions decode(Object result) {
+    result as List<Object?>;
+    return ModelLoadOptions(
+      maxConcurrency: result[0] as int?,
+      replicas: result[1] as int?,
+      numThreads: result[2] as int?,
+      warmUpRuns: result[3] as int?,
+      lite: result[4] as bool?,
+      fromAsset: result[5] as bool?,
+      nmsEngine: result[6] as String?,
+      classAwareNms: result[7] as bool?,
+      parallelDecode: result[8] as bool?,
+    );
+  }
+}
+
+class ModelStats {
+  ModelStats({
+    required this.replicas,
+    required this.maxConcurrency,
+    required this.runningInferences,
+    required this.inferencesPerReplica,
+    required this.utilization,
+    required this.numThreads,
+    required this.allocatedThreads,
+    required this.loaded,
+    required this.residentBytes,
+    this.coldLatencyMillis,
+    this.warmLatencyMillis,
+  });
+
+  int replicas;
+
+  int maxConcurrency;
+
+  /// Inferences running right now.
+  int runningInferences;
+
+  /// Inferences completed by each replica since the model was loaded.
+  List<int> inferencesPerReplica;
+
+  /// Share of the replicas time spent running inferences since the model
+  /// was loaded, between 0 and 1.
+  double utilization;
+
+  /// Threads asked for at load time, 0 when unset.
+  int numThreads;
+
+  /// Size of the shared thread pool when the last inference started, 0 when
+  /// left to PyTorch.
+  int allocatedThreads;
+
+  /// False while the model is evicted to fit the memory budget.
+  bool loaded;
+
+  /// Estimated native memory taken by the loaded replicas, in bytes.
+  int residentBytes;
+
+  /// Latency of the first forward pass after the model was loaded, warm-up
+  /// included, in milliseconds. Null until it ran.
+  double? coldLatencyMillis;
+
+  /// Mean latency of the warm-up passes after the first one, in
+  /// milliseconds. Null with less than two warm-up runs, as nothing warm was
+  /// measured.
+  double? warmLatencyMillis;
+
+  Object encode() {
+    return <Object?>[
+      replicas,
+      maxConcurrency,
+      runningInferences,
+      inferencesPerReplica,
+      utilization,
+      numThreads,
+      allocatedThreads,
+      loaded,
+      residentBytes,
+      coldLatencyMillis,
+      warmLatencyMillis,
+    ];
+  }
+
+  static ModelStats decode(Object result) {
+    result as List<Object?>;
+    return ModelStats(
+      replicas: result[0]! as int,
+      maxConcurrency: result[1]! as int,
+      runningInferences: result[2]! as int,
+      inferencesPerReplica: (result[3] as List<Object?>?)!.cast<int>(),
+      utilization: result[4]! as double,
+      numThreads: result[5]! as int,
+      allocatedThreads: result[6]! as int,
+      loaded: result[7]! as bool,
+      residentBytes: result[8]! as int,
+      coldLatencyMillis: result[9] as double?,
+      warmLatencyMillis: result[10] as double?,
     );
   }
 }
@@ -108,9 +437,30 @@ class _PigeonCodec extends StandardMessageCodec {
     }    else if (value is PyTorchRect) {
       buffer.putUint8(129);
       writeValue(buffer, value.encode());
-    }    else if (value is ResultObjectDetection) {
+    }    else if (value is CropRect) {
       buffer.putUint8(130);
       writeValue(buffer, value.encode());
+    }    else if (value is ResultObjectDetection) {
+      buffer.putUint8(131);
+      writeValue(buffer, value.encode());
+    }    else if (value is ResultClassification) {
+      buffer.putUint8(132);
+      writeValue(buffer, value.encode());
+    }    else if (value is ResultObjectDetectionList) {
+      buffer.putUint8(133);
+      writeValue(buffer, value.encode());
+    }    else if (value is CameraFrameResult) {
+      buffer.putUint8(134);
+      writeValue(buffer, value.encode());
+    }    else if (value is TensorData) {
+      buffer.putUint8(135);
+      writeValue(buffer, value.encode());
+    }    else if (value is ModelLoadOptions) {
+      buffer.putUint8(136);
+      writeValue(buffer, value.encode());
+    }    else if (value is ModelStats) {
+      buffer.putUint8(137);
+      writeValue(buffer, value.encode());
     } else {
       super.writeValue(buffer, value);
     }
@@ -122,7 +472,21 @@ class _PigeonCodec extends StandardMessageCodec {
       case 129: 
         return PyTorchRect.decode(readValue(buffer)!);
       case 130: 
+        return CropRect.decode(readValue(buffer)!);
+      case 131: 
         return ResultObjectDetection.decode(readValue(buffer)!);
+      case 132: 
+        return ResultClassification.decode(readValue(buffer)!);
+      case 133: 
+        return ResultObjectDetectionList.decode(readValue(buffer)!);
+      case 134: 
+        return CameraFrameResult.decode(readValue(buffer)!);
+      case 135: 
+        return TensorData.decode(readValue(buffer)!);
+      case 136: 
+        return ModelLoadOptions.decode(readValue(buffer)!);
+      case 137: 
+        return ModelStats.decode(readValue(buffer)!);
       default:
         return super.readValueOfType(type, buffer);
     }
@@ -142,7 +506,7 @@ class ModelApi {
 
   final String pigeonVar_messageChannelSuffix;
 
-  Future<int> loadModel(String modelPath, int? numberOfClasses, int? imageWidth, int? imageHeight, int? objectDetectionModelType) async {
+  Future<int> loadModel(String modelPath, int? numberOfClasses, int? imageWidth, int? imageHeight, int? objectDetectionModelType, ModelLoadOptions? options) async {
     final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.loadModel$pigeonVar_messageChannelSuffix';
     final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
       pigeonVar_channelName,
@@ -150,7 +514,7 @@ class ModelApi {
       binaryMessenger: pigeonVar_binaryMessenger,
     );
     final List<Object?>? pigeonVar_replyList =
-        await pigeonVar_channel.send(<Object?>[modelPath, numberOfClasses, imageWidth, imageHeight, objectDetectionModelType]) as List<Object?>?;
+        await pigeonVar_channel.send(<Object?>[modelPath, numberOfClasses, imageWidth, imageHeight, objectDetectionModelType, options]) as List<Object?>?;
     if (pigeonVar_replyList == null) {
       throw _createConnectionError(pigeonVar_channelName);
     } else if (pigeonVar_replyList.length > 1) {
@@ -169,6 +533,126 @@ class ModelApi {
     }
   }
 
+  ///returns how the replicas of a model are used
+  Future<ModelStats> getModelStats(int index) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getModelStats$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as ModelStats?)!;
+    }
+  }
+
+  ///releases a model, its index is not valid anymore
+  Future<void> unloadModel(int index) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.unloadModel$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  ///sets the memory the loaded models may take, least recently used models are evicted and loaded again on use, 0 disables it
+  Future<void> setModelMemoryBudget(int bytes) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.setModelMemoryBudget$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[bytes]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  ///sets the detection thresholds and box limit used by the calls of a model that do not pass their own
+  Future<void> setDetectionDefaults(int index, double? minimumScore, double? IOUThreshold, int? boxesLimit) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.setDetectionDefaults$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  ///sets how many CPU threads the running models share, 0 leaves it to PyTorch
+  Future<void> setCpuThreadBudget(int threads) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.setCpuThreadBudget$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[threads]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   ///predicts abstract number input
   Future<List<Object?>?> getPredictionCustom(int index, List<double> input, List<int> shape, String dtype) async {
     final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustom$pigeonVar_messageChannelSuffix';
@@ -192,16 +676,16 @@ class ModelApi {
     }
   }
 
-  ///predicts raw image but returns the raw net output
-  Future<List<double>> getRawImagePredictionList(int index, Uint8List imageData) async {
-    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionList$pigeonVar_messageChannelSuffix';
+  ///predicts a typed tensor input, returns the output tensor with its shape and dtype
+  Future<TensorData> getPredictionCustomTensor(int index, TensorData input) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getPredictionCustomTensor$pigeonVar_messageChannelSuffix';
     final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
       pigeonVar_channelName,
       pigeonChannelCodec,
       binaryMessenger: pigeonVar_binaryMessenger,
     );
     final List<Object?>? pigeonVar_replyList =
-        await pigeonVar_channel.send(<Object?>[index, imageData]) as List<Object?>?;
+        await pigeonVar_channel.send(<Object?>[index, input]) as List<Object?>?;
     if (pigeonVar_replyList == null) {
       throw _createConnectionError(pigeonVar_channelName);
     } else if (pigeonVar_replyList.length > 1) {
@@ -216,20 +700,20 @@ class ModelApi {
         message: 'Host platform returned null value for non-null return value.',
       );
     } else {
-      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<double>();
+      return (pigeonVar_replyList[0] as TensorData?)!;
     }
   }
 
-  ///predicts raw image but returns the raw net output
-  Future<List<ResultObjectDetection>> getRawImagePredictionListObjectDetection(int index, Uint8List imageData, double minimumScore, double IOUThreshold, int boxesLimit) async {
-    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetection$pigeonVar_messageChannelSuffix';
+  ///runs a method of the model on typed inputs, returns every tensor of its tuple, list or dict output
+  Future<List<TensorData>> runMethod(int index, String methodName, List<TensorData> inputs) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.runMethod$pigeonVar_messageChannelSuffix';
     final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
       pigeonVar_channelName,
       pigeonChannelCodec,
       binaryMessenger: pigeonVar_binaryMessenger,
     );
     final List<Object?>? pigeonVar_replyList =
-        await pigeonVar_channel.send(<Object?>[index, imageData, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+        await pigeonVar_channel.send(<Object?>[index, methodName, inputs]) as List<Object?>?;
     if (pigeonVar_replyList == null) {
       throw _createConnectionError(pigeonVar_channelName);
     } else if (pigeonVar_replyList.length > 1) {
@@ -244,20 +728,20 @@ class ModelApi {
         message: 'Host platform returned null value for non-null return value.',
       );
     } else {
-      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultObjectDetection>();
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<TensorData>();
     }
   }
 
-  ///predicts image but returns the raw net output
-  Future<List<double>> getImagePredictionList(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, List<double> mean, List<double> std) async {
-    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionList$pigeonVar_messageChannelSuffix';
+  ///predicts raw image but returns the raw net output
+  Future<List<double>> getRawImagePredictionList(int index, Uint8List imageData) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionList$pigeonVar_messageChannelSuffix';
     final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
       pigeonVar_channelName,
       pigeonChannelCodec,
       binaryMessenger: pigeonVar_binaryMessenger,
     );
     final List<Object?>? pigeonVar_replyList =
-        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, mean, std]) as List<Object?>?;
+        await pigeonVar_channel.send(<Object?>[index, imageData]) as List<Object?>?;
     if (pigeonVar_replyList == null) {
       throw _createConnectionError(pigeonVar_channelName);
     } else if (pigeonVar_replyList.length > 1) {
@@ -276,16 +760,16 @@ class ModelApi {
     }
   }
 
-  ///predicts image but returns the output detections
-  Future<List<ResultObjectDetection>> getImagePredictionListObjectDetection(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, double minimumScore, double IOUThreshold, int boxesLimit) async {
-    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetection$pigeonVar_messageChannelSuffix';
+  ///predicts raw image but returns the raw net output
+  Future<List<ResultObjectDetection>> getRawImagePredictionListObjectDetection(int index, Uint8List imageData, double? minimumScore, double? IOUThreshold, int? boxesLimit) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetection$pigeonVar_messageChannelSuffix';
     final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
       pigeonVar_channelName,
       pigeonChannelCodec,
       binaryMessenger: pigeonVar_binaryMessenger,
     );
     final List<Object?>? pigeonVar_replyList =
-        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+        await pigeonVar_channel.send(<Object?>[index, imageData, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
     if (pigeonVar_replyList == null) {
       throw _createConnectionError(pigeonVar_channelName);
     } else if (pigeonVar_replyList.length > 1) {
@@ -303,4 +787,386 @@ class ModelApi {
       return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultObjectDetection>();
     }
   }
+
+  ///predicts image or the crop of it but returns the raw net output
+  Future<List<double>> getImagePredictionList(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, List<int>? rowStridesForBytesList, List<int>? pixelStridesForBytesList, List<double> mean, List<double> std, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionList$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, mean, std, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<double>();
+    }
+  }
+
+  ///predicts image or the crop of it but returns the output detections, in whole image coordinates
+  Future<List<ResultObjectDetection>> getImagePredictionListObjectDetection(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, List<int>? rowStridesForBytesList, List<int>? pixelStridesForBytesList, double? minimumScore, double? IOUThreshold, int? boxesLimit, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetection$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, minimumScore, IOUThreshold, boxesLimit, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultObjectDetection>();
+    }
+  }
+
+  ///detects objects in a camera frame, at most one frame per model waits while another runs and a newer frame replaces it, the replaced one completes as dropped
+  Future<CameraFrameResult> detectObjectsInLatestCameraFrame(int index, List<Uint8List> imageBytesList, int imageWidth, int imageHeight, List<int>? rowStrides, List<int>? pixelStrides, double? minimumScore, double? IOUThreshold, int? boxesLimit, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.detectObjectsInLatestCameraFrame$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageBytesList, imageWidth, imageHeight, rowStrides, pixelStrides, minimumScore, IOUThreshold, boxesLimit, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as CameraFrameResult?)!;
+    }
+  }
+
+  ///opens a detection session on a model with fixed detection parameters, returns its id, the results of its frames come on the pytorch_lite/detection_sessions event channel, with track the boxes get track ids and the detector only runs every detectEveryFrames frames, with crop only that region of the frames is detected
+  Future<int> openDetectionSession(int index, double? minimumScore, double? IOUThreshold, int? boxesLimit, bool? track, int? detectEveryFrames, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.openDetectionSession$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, minimumScore, IOUThreshold, boxesLimit, track, detectEveryFrames, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as int?)!;
+    }
+  }
+
+  ///queues a camera frame of a detection session and returns, latest frame wins, the result is sent as an event tagged with frameId
+  Future<void> pushDetectionSessionFrame(int sessionId, int frameId, List<Uint8List> imageBytesList, int imageWidth, int imageHeight, List<int>? rowStrides, List<int>? pixelStrides) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.pushDetectionSessionFrame$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[sessionId, frameId, imageBytesList, imageWidth, imageHeight, rowStrides, pixelStrides]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  ///closes a detection session, frames still queued send no event
+  Future<void> closeDetectionSession(int sessionId) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.closeDetectionSession$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[sessionId]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  ///predicts raw image, returns the raw net output as native order float32 bytes
+  Future<Uint8List> getRawImagePredictionFloat32List(int index, Uint8List imageData) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionFloat32List$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  ///predicts image or the crop of it, returns the raw net output as native order float32 bytes
+  Future<Uint8List> getImagePredictionFloat32List(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, List<int>? rowStridesForBytesList, List<int>? pixelStridesForBytesList, List<double> mean, List<double> std, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionFloat32List$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, mean, std, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  ///predicts raw image, returns the output detections as packed float32 records (see PackedObjectDetections)
+  Future<Uint8List> getRawImagePredictionListObjectDetectionPacked(int index, Uint8List imageData, double? minimumScore, double? IOUThreshold, int? boxesLimit) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionPacked$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  ///predicts image or the crop of it, returns the output detections in whole image coordinates as packed float32 records (see PackedObjectDetections)
+  Future<Uint8List> getImagePredictionListObjectDetectionPacked(int index, Uint8List? imageData, List<Uint8List>? imageBytesList, int? imageWidthForBytesList, int? imageHeightForBytesList, List<int>? rowStridesForBytesList, List<int>? pixelStridesForBytesList, double? minimumScore, double? IOUThreshold, int? boxesLimit, CropRect? crop) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionPacked$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imageData, imageBytesList, imageWidthForBytesList, imageHeightForBytesList, rowStridesForBytesList, pixelStridesForBytesList, minimumScore, IOUThreshold, boxesLimit, crop]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  ///predicts a batch of raw images in one forward call, returns the raw net output of each image
+  Future<List<ResultClassification>> getRawImagePredictionListBatch(int index, List<Uint8List> imagesData) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListBatch$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imagesData]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultClassification>();
+    }
+  }
+
+  ///predicts a batch of raw images in one forward call, returns the output detections of each image
+  Future<List<ResultObjectDetectionList>> getRawImagePredictionListObjectDetectionBatch(int index, List<Uint8List> imagesData, double? minimumScore, double? IOUThreshold, int? boxesLimit) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getRawImagePredictionListObjectDetectionBatch$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imagesData, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultObjectDetectionList>();
+    }
+  }
+
+  ///predicts a batch of images in one forward call, returns the raw net output of each image
+  Future<List<ResultClassification>> getImagePredictionListBatch(int index, List<Uint8List> imagesData, List<double> mean, List<double> std) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListBatch$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imagesData, mean, std]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultClassification>();
+    }
+  }
+
+  ///predicts a batch of images in one forward call, returns the output detections of each image
+  Future<List<ResultObjectDetectionList>> getImagePredictionListObjectDetectionBatch(int index, List<Uint8List> imagesData, double? minimumScore, double? IOUThreshold, int? boxesLimit) async {
+    final String pigeonVar_channelName = 'dev.flutter.pigeon.pytorch_lite.ModelApi.getImagePredictionListObjectDetectionBatch$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_channel.send(<Object?>[index, imagesData, minimumScore, IOUThreshold, boxesLimit]) as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<ResultObjectDetectionList>();
+    }
+  }
 }
@@ -7,15 +7,20 @@ import 'package:flutter/material.dart';
 import 'package:flutter/services.dart';
 import 'package:path/path.dart';
 import 'package:path_provider/path_provider.dart';
+import 'package:pytorch_lite/enums/dtype.dart';
 import 'package:pytorch_lite/enums/model_type.dart';
+import 'package:pytorch_lite/extensions/tensor_data.dart';
 import 'package:pytorch_lite/image_utils_isolate.dart';
 import 'package:pytorch_lite/pigeon.dart';
+import 'package:pytorch_lite/results/packed_object_detections.dart';
 import 'package:collection/collection.dart';
 
 export 'enums/dtype.dart';
 export 'package:pytorch_lite/pigeon.dart';
 export 'extensions/to_map_json.dart';
+export 'extensions/tensor_data.dart';
 export 'enums/model_type.dart';
+export 'results/packed_object_detections.dart';
 
 const List<double> torchVisionNormMeanRGB = [0.485, 0.456, 0.406];
 const List<double> torchVisionNormSTDRGB = [0.229, 0.224, 0.225];
@@ -23,14 +28,45 @@ const List<double> noMeanRGB = [0, 0, 0];
 const List<double> noSTDRGB = [1, 1, 1];
 
 class PytorchLite {
-  /*
+  ///Sets how many CPU threads the models running at the same time share.
+  ///
+  ///PyTorch runs every model on one shared thread pool. On Android the pool
+  ///is resized whenever the set of running models changes, to [threads]
+  ///split evenly between them and capped by the smallest
+  ///[ModelLoadOptions.numThreads] among them, and
+  ///[ModelStats.allocatedThreads] reports the size the last inference of a
+  ///model started with. 0 (the default) leaves the thread count to PyTorch.
+  ///Only the lite runtime can resize the pool, with the full PyTorch runtime
+  ///on Android this throws. On iOS the pool is set to [threads] as is.
+  static Future<void> setCpuThreadBudget(int threads) async {
+    await ModelApi().setCpuThreadBudget(threads);
+  }
+
+  ///Caps the estimated native memory of the loaded models at [bytes] (Android only).
+  ///
+  ///When a model is loaded or reloaded over the budget, the least recently
+  ///used idle models are evicted. An evicted model is loaded again on its next
+  ///call, see [ModelStats.loaded] and [ModelStats.residentBytes]. 0 (the
+  ///default) disables eviction.
+  static Future<void> setModelMemoryBudget(int bytes) async {
+    await ModelApi().setModelMemoryBudget(bytes);
+  }
+
   ///Sets pytorch model path and returns Model
-  static Future<CustomModel> loadCustomModel(String path) async {
-    String absPathModelPath = await _getAbsolutePath(path);
-    int index = await ModelApi().loadModel(absPathModelPath, null, 0, 0);
+  ///
+  ///[loadOptions] controls how the model runs natively, e.g. how many
+  ///inferences may run on it at once, see [ModelLoadOptions].
+  static Future<CustomModel> loadCustomModel(String path,
+      {ModelLocation modelLocation = ModelLocation.asset,
+      ModelLoadOptions? loadOptions}) async {
+    if (modelLocation == ModelLocation.asset &&
+        loadOptions?.fromAsset != true) {
+      path = await _getAbsolutePath(path);
+    }
+    int index =
+        await ModelApi().loadModel(path, null, null, null, null, loadOptions);
     return CustomModel(index);
   }
-   */
 
   ///Sets pytorch model path and returns Model
   static Future<ClassificationModel> loadClassificationModel(
@@ -38,13 +74,15 @@ class PytorchLite {
       {String? labelPath,
       bool ensureMatchingNumberOfClasses = true,
       ModelLocation modelLocation = ModelLocation.asset,
-      LabelsLocation labelsLocation = LabelsLocation.asset}) async {
-    if (modelLocation == ModelLocation.asset) {
+      LabelsLocation labelsLocation = LabelsLocation.asset,
+      ModelLoadOptions? loadOptions}) async {
+    if (modelLocation == ModelLocation.asset &&
+        loadOptions?.fromAsset != true) {
       path = await _getAbsolutePath(path);
     }
 
-    int index =
-        await ModelApi().loadModel(path, null, imageWidth, imageHeight, null);
+    int index = await ModelApi()
+        .loadModel(path, null, imageWidth, imageHeight, null, loadOptions);
     List<String> labels = [];
     if (labelPath != null) {
       String labelData =
@@ -72,13 +110,15 @@ class PytorchLite {
       ObjectDetectionModelType objectDetectionModelType =
           ObjectDetectionModelType.yolov5,
       ModelLocation modelLocation = ModelLocation.asset,
-      LabelsLocation labelsLocation = LabelsLocation.asset}) async {
-    if (modelLocation == ModelLocation.asset) {
+      LabelsLocation labelsLocation = LabelsLocation.asset,
+      ModelLoadOptions? loadOptions}) async {
+    if (modelLocation == ModelLocation.asset &&
+        loadOptions?.fromAsset != true) {
       path = await _getAbsolutePath(path);
     }
 
     int index = await ModelApi().loadModel(path, numberOfClasses, imageWidth,
-        imageHeight, objectDetectionModelType.index);
+        imageHeight, objectDetectionModelType.index, loadOptions);
     List<String> labels = [];
     if (labelPath != null) {
       String labelData =
@@ -144,12 +184,41 @@ Future<List<String>> _getLabelsTxt(
   return fileContent.split("\n");
 }
 
-/*
+///views native order float32 bytes as a [Float32List] without copying,
+///unless the bytes are not 4 byte aligned in their buffer
+Float32List _asFloat32List(Uint8List bytes) {
+  if (bytes.offsetInBytes % Float32List.bytesPerElement == 0) {
+    return bytes.buffer.asFloat32List(
+        bytes.offsetInBytes, bytes.lengthInBytes ~/ Float32List.bytesPerElement);
+  }
+  return Uint8List.fromList(bytes).buffer.asFloat32List();
+}
+
+///crops are applied natively, the image lib preprocessing resizes the whole
+///image in dart before
+void _checkNoCrop(CropRect? crop) {
+  if (crop != null) {
+    throw ArgumentError.value(
+        crop, "crop", "needs PreProcessingMethod.native");
+  }
+}
+
 class CustomModel {
   final int _index;
 
   CustomModel(this._index);
 
+  /// Returns how the replicas of the model are used (Android only), see
+  /// [ModelLoadOptions.replicas].
+  Future<ModelStats> getModelStats() async {
+    return await ModelApi().getModelStats(_index);
+  }
+
+  /// Releases the native model, the model can't be used afterwards.
+  Future<void> unload() async {
+    await ModelApi().unloadModel(_index);
+  }
+
   ///predicts abstract number input
   Future<List?> getPrediction(
       List<double> input, List<int> shape, DType dtype) async {
@@ -157,8 +226,31 @@ class CustomModel {
         _index, input, shape, dtype.toString().split(".").last);
     return prediction;
   }
+
+  /// Runs the model on a typed input and returns its output tensor.
+  ///
+  /// [input] is sent as its raw bytes, so it should be the typed list
+  /// matching [dtype] (e.g. a [Float32List] for [DType.float32]) and hold
+  /// exactly the number of elements described by [shape]. No element is boxed
+  /// on the way in or out, use [TensorDataExtension.asTypedList] to read the
+  /// output.
+  Future<TensorData> getPredictionTensor(
+      TypedData input, List<int> shape, DType dtype) async {
+    return await ModelApi().getPredictionCustomTensor(
+        _index, tensorDataFrom(input, shape, dtype));
+  }
+
+  /// Runs [methodName] of the model on [inputs] in a single native call.
+  ///
+  /// Build the inputs with [tensorDataFrom]. Every tensor of the output is
+  /// returned in order, whether the method returns a tensor or a tuple, list
+  /// or dict of them, outputs of a dict carry their key in
+  /// [TensorData.name]. Numbers come back as tensors without dimensions.
+  Future<List<TensorData>> runMethod(List<TensorData> inputs,
+      {String methodName = "forward"}) async {
+    return await ModelApi().runMethod(_index, methodName, inputs);
+  }
 }
-*/
 class ClassificationModel {
   final int _index;
   final List<String> labels;
@@ -168,6 +260,17 @@ class ClassificationModel {
   ClassificationModel(
       this._index, this.labels, this.imageWidth, this.imageHeight);
 
+  /// Returns how the replicas of the model are used (Android only), see
+  /// [ModelLoadOptions.replicas].
+  Future<ModelStats> getModelStats() async {
+    return await ModelApi().getModelStats(_index);
+  }
+
+  /// Releases the native model, the model can't be used afterwards.
+  Future<void> unload() async {
+    await ModelApi().unloadModel(_index);
+  }
+
   /// Returns the index of the maximum value in the prediction list using the softmax function.
   ///
   /// The softmax function takes a list of double values and returns a probability distribution
@@ -238,8 +341,11 @@ class ClassificationModel {
     assert(mean.length == 3, "mean should have size of 3");
     assert(std.length == 3, "std should have size of 3");
 
-    final List<double> prediction = await getImagePredictionList(imageAsBytes,
-        mean: mean, std: std, preProcessingMethod: preProcessingMethod);
+    final List<double> prediction = await getImagePredictionFloat32List(
+        imageAsBytes,
+        mean: mean,
+        std: std,
+        preProcessingMethod: preProcessingMethod);
 
     int maxScoreIndex = softMax(prediction);
     return labels[maxScoreIndex];
@@ -249,27 +355,44 @@ class ClassificationModel {
   ///
   /// The [mean] and [std] parameters are optional and default to the values of [torchVisionNormMeanRGB] and [torchVisionNormSTDRGB].
   /// The [preProcessingMethod] parameter is optional and defaults to [PreProcessingMethod.imageLib].
+  /// The optional [crop] limits the prediction to a region of the image, it
+  /// is applied natively so it needs [PreProcessingMethod.native].
   /// Returns a [Future] that completes with a [List<double>] representing the predicted scores.
   Future<List<double>> getImagePredictionList(Uint8List imageAsBytes,
       {List<double> mean = torchVisionNormMeanRGB,
       List<double> std = torchVisionNormSTDRGB,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
+    final Float32List prediction = await getImagePredictionFloat32List(
+        imageAsBytes,
+        mean: mean,
+        std: std,
+        preProcessingMethod: preProcessingMethod,
+        crop: crop);
+    return prediction.toList();
+  }
+
+  /// Same as [getImagePredictionList] but returns the scores as a fixed
+  /// length [Float32List] view of the native output, without converting
+  /// them to a list of doubles.
+  Future<Float32List> getImagePredictionFloat32List(Uint8List imageAsBytes,
+      {List<double> mean = torchVisionNormMeanRGB,
+      List<double> std = torchVisionNormSTDRGB,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     // Assert mean std
     assert(mean.length == 3, "Mean should have size of 3");
     assert(std.length == 3, "STD should have size of 3");
 
     if (preProcessingMethod == PreProcessingMethod.imageLib) {
+      _checkNoCrop(crop);
       Uint8List data = await ImageUtilsIsolate.convertImageBytesToFloatBuffer(
           imageAsBytes, imageWidth, imageHeight, mean, std);
-      return (await ModelApi().getRawImagePredictionList(_index, data))
-          .whereNotNull()
-          .toList();
+      return _asFloat32List(
+          await ModelApi().getRawImagePredictionFloat32List(_index, data));
     }
-    return (await ModelApi().getImagePredictionList(
-            _index, imageAsBytes, null, null, null, mean, std))
-        .whereNotNull()
-        .toList();
+    return _asFloat32List(await ModelApi().getImagePredictionFloat32List(
+        _index, imageAsBytes, null, null, null, null, null, mean, std, crop));
   }
 
   /// Returns the predicted image probabilities using the given [imageAsBytes].
@@ -283,32 +406,121 @@ class ClassificationModel {
       List<double> std = torchVisionNormSTDRGB,
       PreProcessingMethod preProcessingMethod =
           PreProcessingMethod.imageLib}) async {
-    List<double> prediction = await getImagePredictionList(imageAsBytes,
-        mean: mean, std: std, preProcessingMethod: preProcessingMethod);
+    List<double> prediction = await getImagePredictionFloat32List(
+        imageAsBytes,
+        mean: mean,
+        std: std,
+        preProcessingMethod: preProcessingMethod);
 
     return getProbabilities(prediction);
   }
 
+  /// Returns the predicted scores of every image in [imagesAsBytes], in order.
+  ///
+  /// The images are stacked into tensors of up to [batchSize] images, so a
+  /// chunk costs one channel round-trip and one forward call instead of one
+  /// per image. Larger batches use the cores better but need more memory.
+  /// The [mean], [std] and [preProcessingMethod] parameters are the same as in [getImagePredictionList].
+  /// Returns a [Future] that completes with one [List<double>] of scores per image.
+  Future<List<List<double>>> getImagePredictionListBatch(
+      List<Uint8List> imagesAsBytes,
+      {List<double> mean = torchVisionNormMeanRGB,
+      List<double> std = torchVisionNormSTDRGB,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      int batchSize = 8}) async {
+    // Assert mean std
+    assert(mean.length == 3, "Mean should have size of 3");
+    assert(std.length == 3, "STD should have size of 3");
+    assert(batchSize > 0, "batchSize should be greater than 0");
+
+    final List<List<double>> predictions = [];
+    for (int start = 0; start < imagesAsBytes.length; start += batchSize) {
+      final List<Uint8List> batch = imagesAsBytes.sublist(
+          start, min(start + batchSize, imagesAsBytes.length));
+      final List<ResultClassification> results;
+      if (preProcessingMethod == PreProcessingMethod.imageLib) {
+        final List<Uint8List> data = await Future.wait(batch.map((image) =>
+            ImageUtilsIsolate.convertImageBytesToFloatBuffer(
+                image, imageWidth, imageHeight, mean, std)));
+        results = await ModelApi().getRawImagePredictionListBatch(_index, data);
+      } else {
+        results = await ModelApi()
+            .getImagePredictionListBatch(_index, batch, mean, std);
+      }
+      predictions.addAll(results.map((result) => result.scores));
+    }
+    return predictions;
+  }
+
+  /// Returns the predicted label of every image in [imagesAsBytes], in order.
+  ///
+  /// See [getImagePredictionListBatch] for the meaning of the parameters.
+  Future<List<String>> getImagePredictionBatch(List<Uint8List> imagesAsBytes,
+      {List<double> mean = torchVisionNormMeanRGB,
+      List<double> std = torchVisionNormSTDRGB,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      int batchSize = 8}) async {
+    final List<List<double>> predictions = await getImagePredictionListBatch(
+        imagesAsBytes,
+        mean: mean,
+        std: std,
+        preProcessingMethod: preProcessingMethod,
+        batchSize: batchSize);
+
+    return predictions.map((prediction) => labels[softMax(prediction)]).toList();
+  }
+
   /// Returns a list of predictions for an image as a bytes list.
   /// The image are passed as a list of [Uint8List] objects.
   /// The [imageWidth] and [imageHeight] parameters specify the dimensions of the image.
   /// The optional [mean] and [std] parameters can be used to normalize the image.
+  /// The optional [rowStrides] and [pixelStrides] are the bytes per row and bytes per pixel of each plane,
+  /// when omitted they are derived from the planes sizes.
+  /// The optional [crop] limits the prediction to a region of the image.
   /// Returns a [Future] that resolves to a list of [double] values representing the predictions.
   Future<List<double>> getImagePredictionListFromBytesList(
       List<Uint8List> imageAsBytesList, int imageWidth, int imageHeight,
       {List<double> mean = torchVisionNormMeanRGB,
-      List<double> std = torchVisionNormSTDRGB}) async {
+      List<double> std = torchVisionNormSTDRGB,
+      List<int>? rowStrides,
+      List<int>? pixelStrides,
+      CropRect? crop}) async {
+    final Float32List prediction =
+        await getImagePredictionFloat32ListFromBytesList(
+            imageAsBytesList, imageWidth, imageHeight,
+            mean: mean,
+            std: std,
+            rowStrides: rowStrides,
+            pixelStrides: pixelStrides,
+            crop: crop);
+    return prediction.toList();
+  }
+
+  /// Same as [getImagePredictionListFromBytesList] but returns the scores as
+  /// a fixed length [Float32List] view of the native output.
+  Future<Float32List> getImagePredictionFloat32ListFromBytesList(
+      List<Uint8List> imageAsBytesList, int imageWidth, int imageHeight,
+      {List<double> mean = torchVisionNormMeanRGB,
+      List<double> std = torchVisionNormSTDRGB,
+      List<int>? rowStrides,
+      List<int>? pixelStrides,
+      CropRect? crop}) async {
     // Assert mean std
     assert(mean.length == 3, "Mean should have size of 3");
     assert(std.length == 3, "STD should have size of 3");
 
-    // Call the getImagePredictionList method of the ModelApi class to get the predictions
-    final List<double> prediction = (await ModelApi().getImagePredictionList(
-            _index, null, imageAsBytesList, imageWidth, imageHeight, mean, std))
-        .whereNotNull()
-        .toList();
-
-    return prediction;
+    // Call the getImagePredictionFloat32List method of the ModelApi class to get the predictions
+    return _asFloat32List(await ModelApi().getImagePredictionFloat32List(
+        _index,
+        null,
+        imageAsBytesList,
+        imageWidth,
+        imageHeight,
+        rowStrides,
+        pixelStrides,
+        mean,
+        std,
+        crop));
   }
 
   /// Returns the predicted label for an image as a bytes list..
@@ -321,9 +533,10 @@ class ClassificationModel {
       {List<double> mean = torchVisionNormMeanRGB,
       List<double> std = torchVisionNormSTDRGB}) async {
     // Get the predictions using the getImagePredictionListFromBytesList method
-    final List<double> prediction = await getImagePredictionListFromBytesList(
-        imageAsBytesList, imageWidth, imageHeight,
-        mean: mean, std: std);
+    final List<double> prediction =
+        await getImagePredictionFloat32ListFromBytesList(
+            imageAsBytesList, imageWidth, imageHeight,
+            mean: mean, std: std);
 
     // Find the index of the prediction with the maximum score
     int maxScoreIndex = softMax(prediction);
@@ -342,9 +555,10 @@ class ClassificationModel {
       {List<double> mean = torchVisionNormMeanRGB,
       List<double> std = torchVisionNormSTDRGB}) async {
     // Get the predictions using the getImagePredictionListFromBytesList method
-    final List<double> prediction = await getImagePredictionListFromBytesList(
-        imageAsBytesList, imageWidth, imageHeight,
-        mean: mean, std: std);
+    final List<double> prediction =
+        await getImagePredictionFloat32ListFromBytesList(
+            imageAsBytesList, imageWidth, imageHeight,
+            mean: mean, std: std);
 
     // Return the probabilities derived from the predictions
     return getProbabilities(prediction);
@@ -353,7 +567,7 @@ class ClassificationModel {
   /// Retrieves a list of predictions for a camera image.
   ///
   /// Takes a [cameraImage] as input. Optional parameters include [rotation], [mean], [std],
-  /// [cameraPreProcessingMethod], and [preProcessingMethod].
+  /// [cameraPreProcessingMethod], [preProcessingMethod] and [crop], see [getImagePredictionList].
   /// Returns a [Future] that resolves to a [List] of [double] values representing the predictions.
   /// Throws an [Exception] if unable to process the image bytes.
   Future<List<double>> getCameraImagePredictionList(CameraImage cameraImage,
@@ -362,8 +576,30 @@ class ClassificationModel {
       List<double> std = torchVisionNormSTDRGB,
       CameraPreProcessingMethod cameraPreProcessingMethod =
           CameraPreProcessingMethod.imageLib,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
+    final Float32List prediction = await getCameraImagePredictionFloat32List(
+        cameraImage,
+        rotation: rotation,
+        mean: mean,
+        std: std,
+        cameraPreProcessingMethod: cameraPreProcessingMethod,
+        preProcessingMethod: preProcessingMethod,
+        crop: crop);
+    return prediction.toList();
+  }
+
+  /// Same as [getCameraImagePredictionList] but returns the scores as a
+  /// fixed length [Float32List] view of the native output.
+  Future<Float32List> getCameraImagePredictionFloat32List(
+      CameraImage cameraImage,
+      {int? rotation,
+      List<double> mean = torchVisionNormMeanRGB,
+      List<double> std = torchVisionNormSTDRGB,
+      CameraPreProcessingMethod cameraPreProcessingMethod =
+          CameraPreProcessingMethod.imageLib,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     // Perform preprocessing based on the chosen camera pre-processing method
     if (cameraPreProcessingMethod == CameraPreProcessingMethod.imageLib) {
       Uint8List? bytes =
@@ -373,16 +609,23 @@ class ClassificationModel {
       }
 
       // Retrieve the image predictions for the preprocessed image bytes
-      return await getImagePredictionList(bytes,
-          mean: mean, std: std, preProcessingMethod: preProcessingMethod);
+      return await getImagePredictionFloat32List(bytes,
+          mean: mean,
+          std: std,
+          preProcessingMethod: preProcessingMethod,
+          crop: crop);
     }
     // Retrieve the image predictions for the camera image planes
-    return await getImagePredictionListFromBytesList(
+    return await getImagePredictionFloat32ListFromBytesList(
         cameraImage.planes.map((e) => e.bytes).toList(),
         cameraImage.width,
         cameraImage.height,
         mean: mean,
-        std: std);
+        std: std,
+        rowStrides: cameraImage.planes.map((e) => e.bytesPerRow).toList(),
+        pixelStrides:
+            cameraImage.planes.map((e) => e.bytesPerPixel ?? 1).toList(),
+        crop: crop);
   }
 
   /// Retrieves the top prediction label for a camera image.
@@ -399,7 +642,7 @@ class ClassificationModel {
       PreProcessingMethod preProcessingMethod =
           PreProcessingMethod.imageLib}) async {
     // Retrieve the prediction list for the camera image
-    final List<double> prediction = await getCameraImagePredictionList(
+    final List<double> prediction = await getCameraImagePredictionFloat32List(
         cameraImage,
         rotation: rotation,
         mean: mean,
@@ -428,7 +671,7 @@ class ClassificationModel {
       PreProcessingMethod preProcessingMethod =
           PreProcessingMethod.imageLib}) async {
     // Retrieve the prediction list for the camera image
-    final List<double> prediction = await getCameraImagePredictionList(
+    final List<double> prediction = await getCameraImagePredictionFloat32List(
         cameraImage,
         rotation: rotation,
         mean: mean,
@@ -450,6 +693,29 @@ class ModelObjectDetection {
       this._index, this.imageWidth, this.imageHeight, this.labels,
       {this.modelType = ObjectDetectionModelType.yolov5});
 
+  /// Returns how the replicas of the model are used (Android only), see
+  /// [ModelLoadOptions.replicas].
+  Future<ModelStats> getModelStats() async {
+    return await ModelApi().getModelStats(_index);
+  }
+
+  /// Releases the native model, the model can't be used afterwards.
+  Future<void> unload() async {
+    await ModelApi().unloadModel(_index);
+  }
+
+  /// Sets the [minimumScore], [iOUThreshold] and [boxesLimit] used by the
+  /// detection calls of this model that do not pass their own, the values
+  /// left out keep their current default (0.5, 0.5 and 10 initially).
+  ///
+  /// The values of a call only apply to that call, so calls with different
+  /// values can run on the same model at the same time.
+  Future<void> setDetectionDefaults(
+      {double? minimumScore, double? iOUThreshold, int? boxesLimit}) async {
+    await ModelApi().setDetectionDefaults(
+        _index, minimumScore, iOUThreshold, boxesLimit);
+  }
+
   /// Adds labels to the given list of [prediction] objects.
   ///
   /// The labels are added based on the class index of each prediction object.
@@ -469,26 +735,29 @@ class ModelObjectDetection {
   ///
   /// Parameters:
   /// - [imageAsBytes]: The image as bytes in Uint8List format.
-  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results. Default is 0.5.
-  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes. Default is 0.5.
-  /// - [boxesLimit]: The maximum number of bounding boxes to return. Default is 10.
+  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results.
+  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes.
+  /// - [boxesLimit]: The maximum number of bounding boxes to return.
+  /// - Omitted thresholds and limit use the defaults of the model, see [setDetectionDefaults].
   /// - [preProcessingMethod]: The preprocessing method to apply to the image before object detection. Default is [PreProcessingMethod.imageLib].
+  /// - [crop]: Only detects in this region of the image, see [getImagePredictionList].
   ///
   /// Returns:
   /// A list of [ResultObjectDetection] containing the detected objects and their bounding boxes.
   Future<List<ResultObjectDetection>> getImagePrediction(Uint8List imageAsBytes,
-      {double minimumScore = 0.5,
-      double iOUThreshold = 0.5,
-      int boxesLimit = 10,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     // Perform object detection on the image
     List<ResultObjectDetection> prediction = await getImagePredictionList(
         imageAsBytes,
         minimumScore: minimumScore,
         iOUThreshold: iOUThreshold,
         boxesLimit: boxesLimit,
-        preProcessingMethod: preProcessingMethod);
+        preProcessingMethod: preProcessingMethod,
+        crop: crop);
 
     // Add labels to the detected objects
     addLabels(prediction);
@@ -502,24 +771,33 @@ class ModelObjectDetection {
   /// - [imageAsBytes]: The image as bytes in Uint8List format.
   /// - [imageWidth]: The width of the image.
   /// - [imageHeight]: The height of the image.
-  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results. Default is 0.5.
-  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes. Default is 0.5.
-  /// - [boxesLimit]: The maximum number of bounding boxes to return. Default is 10.
-  /// - [preProcessingMethod]: The preprocessing method to apply to the image before object detection. Default is [PreProcessingMethod.imageLib].
+  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results.
+  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes.
+  /// - [boxesLimit]: The maximum number of bounding boxes to return.
+  /// - Omitted thresholds and limit use the defaults of the model, see [setDetectionDefaults].
+  /// - [rowStrides]: The bytes per row of each plane, derived from the planes sizes when omitted.
+  /// - [pixelStrides]: The bytes per pixel of each plane, derived from the planes sizes when omitted.
+  /// - [crop]: Only detects in this region of the image, the boxes are still relative to the whole image.
   ///
   /// Returns:
   /// A list of [ResultObjectDetection] containing the detected objects and their bounding boxes.
   Future<List<ResultObjectDetection>> getImagePredictionFromBytesList(
       List<Uint8List> imageAsBytesList, int imageWidth, int imageHeight,
-      {double minimumScore = 0.5,
-      double iOUThreshold = 0.5,
-      int boxesLimit = 10}) async {
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      List<int>? rowStrides,
+      List<int>? pixelStrides,
+      CropRect? crop}) async {
     List<ResultObjectDetection> prediction =
         await getImagePredictionListFromBytesList(
             imageAsBytesList, imageWidth, imageHeight,
             minimumScore: minimumScore,
             iOUThreshold: iOUThreshold,
-            boxesLimit: boxesLimit);
+            boxesLimit: boxesLimit,
+            rowStrides: rowStrides,
+            pixelStrides: pixelStrides,
+            crop: crop);
     addLabels(prediction);
 
     return prediction;
@@ -528,7 +806,8 @@ class ModelObjectDetection {
   /// Returns a list of [ResultObjectDetection] for the given [imageAsBytes].
   ///
   /// The [minimumScore], [iOUThreshold], and [boxesLimit] parameters control the
-  /// prediction quality. The [preProcessingMethod] parameter determines the
+  /// prediction quality, the ones left out use the defaults of the model (see
+  /// [setDetectionDefaults]). The [preProcessingMethod] parameter determines the
   /// method used for preprocessing the image.
   ///
   /// If [preProcessingMethod] is [PreProcessingMethod.imageLib], the image bytes
@@ -536,16 +815,22 @@ class ModelObjectDetection {
   /// before making the prediction. Otherwise, the prediction is made directly
   /// using the image bytes.
   ///
+  /// The optional [crop] limits the detection to a region of the image, which
+  /// is decoded and resized to the model input on its own, so small objects
+  /// in it keep more pixels. The boxes are still relative to the whole image.
+  /// The crop is applied natively, so it needs [PreProcessingMethod.native].
+  ///
   /// Returns a list of [ResultObjectDetection] where each result has a score
   /// greater than or equal to [minimumScore].
   Future<List<ResultObjectDetection>> getImagePredictionList(
       Uint8List imageAsBytes,
-      {double minimumScore = 0.5,
-      double iOUThreshold = 0.5,
-      int boxesLimit = 10,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     if (preProcessingMethod == PreProcessingMethod.imageLib) {
+      _checkNoCrop(crop);
       Uint8List data = await ImageUtilsIsolate.convertImageBytesToFloatBuffer(
           imageAsBytes, imageWidth, imageHeight, noMeanRGB, noSTDRGB);
       return (await ModelApi().getRawImagePredictionListObjectDetection(
@@ -559,23 +844,88 @@ class ModelObjectDetection {
             null,
             null,
             null,
+            null,
+            null,
             minimumScore,
             iOUThreshold,
-            boxesLimit))
+            boxesLimit,
+            crop))
         .whereNotNull()
         .toList();
   }
 
+  /// Performs object detection on every image in [imagesAsBytes] and returns the detections of each image, in order.
+  ///
+  /// The images are stacked into tensors of up to [batchSize] images, so a
+  /// chunk costs one channel round-trip and one forward call instead of one
+  /// per image, the output of each image still goes through its own NMS.
+  /// The other parameters are the same as in [getImagePredictionList].
+  ///
+  /// Returns:
+  /// One list of [ResultObjectDetection] per image.
+  Future<List<List<ResultObjectDetection>>> getImagePredictionListBatch(
+      List<Uint8List> imagesAsBytes,
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      int batchSize = 8}) async {
+    assert(batchSize > 0, "batchSize should be greater than 0");
+
+    final List<List<ResultObjectDetection>> predictions = [];
+    for (int start = 0; start < imagesAsBytes.length; start += batchSize) {
+      final List<Uint8List> batch = imagesAsBytes.sublist(
+          start, min(start + batchSize, imagesAsBytes.length));
+      final List<ResultObjectDetectionList> results;
+      if (preProcessingMethod == PreProcessingMethod.imageLib) {
+        final List<Uint8List> data = await Future.wait(batch.map((image) =>
+            ImageUtilsIsolate.convertImageBytesToFloatBuffer(
+                image, imageWidth, imageHeight, noMeanRGB, noSTDRGB)));
+        results = await ModelApi().getRawImagePredictionListObjectDetectionBatch(
+            _index, data, minimumScore, iOUThreshold, boxesLimit);
+      } else {
+        results = await ModelApi().getImagePredictionListObjectDetectionBatch(
+            _index, batch, minimumScore, iOUThreshold, boxesLimit);
+      }
+      predictions.addAll(results.map((result) => result.detections));
+    }
+    return predictions;
+  }
+
+  /// Performs object detection on every image in [imagesAsBytes] and returns the detections of each image with their assigned labels.
+  ///
+  /// See [getImagePredictionListBatch] for the meaning of the parameters.
+  Future<List<List<ResultObjectDetection>>> getImagePredictionBatch(
+      List<Uint8List> imagesAsBytes,
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      int batchSize = 8}) async {
+    final List<List<ResultObjectDetection>> predictions =
+        await getImagePredictionListBatch(imagesAsBytes,
+            minimumScore: minimumScore,
+            iOUThreshold: iOUThreshold,
+            boxesLimit: boxesLimit,
+            preProcessingMethod: preProcessingMethod,
+            batchSize: batchSize);
+    predictions.forEach(addLabels);
+    return predictions;
+  }
+
   /// Performs object detection on an image as bytesList and returns a list of [ResultObjectDetection].
   ///
   /// Parameters:
   /// - [imageAsBytes]: The image as bytes in Uint8List format.
   /// - [imageWidth]: The width of the image.
   /// - [imageHeight]: The height of the image.
-  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results. Default is 0.5.
-  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes. Default is 0.5.
-  /// - [boxesLimit]: The maximum number of bounding boxes to return. Default is 10.
-  /// - [preProcessingMethod]: The preprocessing method to apply to the image before object detection. Default is [PreProcessingMethod.imageLib].
+  /// - [minimumScore]: The minimum confidence score for a detected object to be included in the results.
+  /// - [iOUThreshold]: The threshold for intersection over union (IOU) to filter out redundant bounding boxes.
+  /// - [boxesLimit]: The maximum number of bounding boxes to return.
+  /// - Omitted thresholds and limit use the defaults of the model, see [setDetectionDefaults].
+  /// - [rowStrides]: The bytes per row of each plane, derived from the planes sizes when omitted.
+  /// - [pixelStrides]: The bytes per pixel of each plane, derived from the planes sizes when omitted.
+  /// - [crop]: Only detects in this region of the image, the boxes are still relative to the whole image.
   ///
   /// Returns:
   /// A list of [ResultObjectDetection] containing the detected objects and their bounding boxes.
@@ -583,9 +933,12 @@ class ModelObjectDetection {
     List<Uint8List> imageAsBytesList,
     int imageWidth,
     int imageHeight, {
-    double minimumScore = 0.5,
-    double iOUThreshold = 0.5,
-    int boxesLimit = 10,
+    double? minimumScore,
+    double? iOUThreshold,
+    int? boxesLimit,
+    List<int>? rowStrides,
+    List<int>? pixelStrides,
+    CropRect? crop,
   }) async {
     final List<ResultObjectDetection> prediction = (await ModelApi()
             .getImagePredictionListObjectDetection(
@@ -594,9 +947,12 @@ class ModelObjectDetection {
                 imageAsBytesList,
                 imageWidth,
                 imageHeight,
+                rowStrides,
+                pixelStrides,
                 minimumScore,
                 iOUThreshold,
-                boxesLimit))
+                boxesLimit,
+                crop))
         .whereNotNull()
         .toList();
 
@@ -605,18 +961,18 @@ class ModelObjectDetection {
 
   /// Retrieves a list of [ResultObjectDetection] by predicting the objects in the given [cameraImage].
   /// The [rotation] parameter specifies the rotation of the camera image.
-  /// The optional parameters [minimumScore], [iOUThreshold], [boxesLimit], [cameraPreProcessingMethod], and [preProcessingMethod]
-  /// allow customization of the prediction process.
+  /// The optional parameters [minimumScore], [iOUThreshold], [boxesLimit], [cameraPreProcessingMethod], [preProcessingMethod]
+  /// and [crop] allow customization of the prediction process.
   Future<List<ResultObjectDetection>> getCameraImagePredictionList(
       CameraImage cameraImage,
       {int? rotation,
-      double minimumScore = 0.5,
-      double iOUThreshold = 0.5,
-      int boxesLimit = 10,
+      double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
       CameraPreProcessingMethod cameraPreProcessingMethod =
           CameraPreProcessingMethod.imageLib,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     if (cameraPreProcessingMethod == CameraPreProcessingMethod.imageLib) {
       // Convert the camera image to bytes using ImageUtilsIsolate
       Uint8List? bytes =
@@ -630,7 +986,8 @@ class ModelObjectDetection {
           minimumScore: minimumScore,
           iOUThreshold: iOUThreshold,
           boxesLimit: boxesLimit,
-          preProcessingMethod: preProcessingMethod);
+          preProcessingMethod: preProcessingMethod,
+          crop: crop);
     }
     // Get the image prediction list directly from the camera image planes
     return await getImagePredictionFromBytesList(
@@ -639,23 +996,27 @@ class ModelObjectDetection {
         cameraImage.height,
         minimumScore: minimumScore,
         iOUThreshold: iOUThreshold,
-        boxesLimit: boxesLimit);
+        boxesLimit: boxesLimit,
+        rowStrides: cameraImage.planes.map((e) => e.bytesPerRow).toList(),
+        pixelStrides:
+            cameraImage.planes.map((e) => e.bytesPerPixel ?? 1).toList(),
+        crop: crop);
   }
 
   /// Retrieves a list of [ResultObjectDetection] with its assigned labels by predicting the objects in the given [cameraImage].
   /// The [rotation] parameter specifies the rotation of the camera image.
-  /// The optional parameters [minimumScore], [iOUThreshold], [boxesLimit], [cameraPreProcessingMethod], and [preProcessingMethod]
-  /// allow customization of the prediction process.
+  /// The optional parameters [minimumScore], [iOUThreshold], [boxesLimit], [cameraPreProcessingMethod], [preProcessingMethod]
+  /// and [crop] allow customization of the prediction process.
   Future<List<ResultObjectDetection>> getCameraImagePrediction(
       CameraImage cameraImage,
       {int? rotation,
-      double minimumScore = 0.5,
-      double iOUThreshold = 0.5,
-      int boxesLimit = 10,
+      double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
       CameraPreProcessingMethod cameraPreProcessingMethod =
           CameraPreProcessingMethod.imageLib,
-      PreProcessingMethod preProcessingMethod =
-          PreProcessingMethod.imageLib}) async {
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
     final List<ResultObjectDetection> prediction =
         await getCameraImagePredictionList(cameraImage,
             rotation: rotation,
@@ -663,11 +1024,175 @@ class ModelObjectDetection {
             iOUThreshold: iOUThreshold,
             boxesLimit: boxesLimit,
             cameraPreProcessingMethod: cameraPreProcessingMethod,
-            preProcessingMethod: preProcessingMethod);
+            preProcessingMethod: preProcessingMethod,
+            crop: crop);
     addLabels(prediction);
     return prediction;
   }
 
+  /// Detects the objects in [cameraImage] with its assigned labels, dropping
+  /// frames the model can not keep up with.
+  ///
+  /// At most one frame per model waits while another one runs natively, a
+  /// newer frame replaces the waiting one, so the latency stays around one
+  /// inference however fast the camera is. Every frame can be passed without
+  /// waiting for the previous result: a replaced frame completes right away
+  /// with [CameraFrameResult.dropped] set and no detections, and
+  /// [CameraFrameResult.droppedFrames] tells how many frames were dropped
+  /// since the previous frame that ran.
+  ///
+  /// The planes are converted natively, see [getImagePredictionFromBytesList]
+  /// for the other parameters.
+  Future<CameraFrameResult> getLatestCameraImagePrediction(
+      CameraImage cameraImage,
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      CropRect? crop}) async {
+    final CameraFrameResult result = await ModelApi()
+        .detectObjectsInLatestCameraFrame(
+            _index,
+            cameraImage.planes.map((e) => e.bytes).toList(),
+            cameraImage.width,
+            cameraImage.height,
+            cameraImage.planes.map((e) => e.bytesPerRow).toList(),
+            cameraImage.planes.map((e) => e.bytesPerPixel ?? 1).toList(),
+            minimumScore,
+            iOUThreshold,
+            boxesLimit,
+            crop);
+    if (result.detections != null) {
+      addLabels(result.detections!);
+    }
+    return result;
+  }
+
+  /// Opens a [DetectionSession] on this model, its frames are detected with
+  /// [minimumScore], [iOUThreshold] and [boxesLimit], the ones left out use
+  /// the defaults of the model at the time the session is opened.
+  ///
+  /// With [track] (Android only) every box gets a stable track id in
+  /// [DetectionSessionResult.trackIds], and the detector only runs every
+  /// [detectEveryFrames] frames (1 by default), or sooner when the score of a
+  /// tracked box decays below [minimumScore]. The boxes of the other frames
+  /// are predicted from the motion of the tracks, which costs next to
+  /// nothing compared to a detection.
+  ///
+  /// With [crop] only that region of the frames is detected, the boxes are
+  /// still relative to the whole frame.
+  Future<DetectionSession> openDetectionSession(
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      bool track = false,
+      int? detectEveryFrames,
+      CropRect? crop}) async {
+    final int sessionId = await ModelApi().openDetectionSession(_index,
+        minimumScore, iOUThreshold, boxesLimit, track, detectEveryFrames, crop);
+    return DetectionSession._(sessionId, labels);
+  }
+
+  /// Same as [getImagePrediction] but the detections come back as one packed
+  /// float32 buffer instead of one message per box and per rect.
+  ///
+  /// The returned [PackedObjectDetections] is labelled and reads the boxes
+  /// lazily, use its accessors (e.g. [PackedObjectDetections.scoreAt]) to read
+  /// them without allocating.
+  Future<PackedObjectDetections> getImagePredictionPacked(
+      Uint8List imageAsBytes,
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
+    final Uint8List packed;
+    if (preProcessingMethod == PreProcessingMethod.imageLib) {
+      _checkNoCrop(crop);
+      Uint8List data = await ImageUtilsIsolate.convertImageBytesToFloatBuffer(
+          imageAsBytes, imageWidth, imageHeight, noMeanRGB, noSTDRGB);
+      packed = await ModelApi().getRawImagePredictionListObjectDetectionPacked(
+          _index, data, minimumScore, iOUThreshold, boxesLimit);
+    } else {
+      packed = await ModelApi().getImagePredictionListObjectDetectionPacked(
+          _index,
+          imageAsBytes,
+          null,
+          null,
+          null,
+          null,
+          null,
+          minimumScore,
+          iOUThreshold,
+          boxesLimit,
+          crop);
+    }
+    return PackedObjectDetections(_asFloat32List(packed), labels);
+  }
+
+  /// Same as [getImagePredictionFromBytesList] but returns the detections as
+  /// [PackedObjectDetections], see [getImagePredictionPacked].
+  Future<PackedObjectDetections> getImagePredictionPackedFromBytesList(
+      List<Uint8List> imageAsBytesList, int imageWidth, int imageHeight,
+      {double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      List<int>? rowStrides,
+      List<int>? pixelStrides,
+      CropRect? crop}) async {
+    final Uint8List packed = await ModelApi()
+        .getImagePredictionListObjectDetectionPacked(
+            _index,
+            null,
+            imageAsBytesList,
+            imageWidth,
+            imageHeight,
+            rowStrides,
+            pixelStrides,
+            minimumScore,
+            iOUThreshold,
+            boxesLimit,
+            crop);
+    return PackedObjectDetections(_asFloat32List(packed), labels);
+  }
+
+  /// Same as [getCameraImagePrediction] but returns the detections as
+  /// [PackedObjectDetections], see [getImagePredictionPacked].
+  Future<PackedObjectDetections> getCameraImagePredictionPacked(
+      CameraImage cameraImage,
+      {int? rotation,
+      double? minimumScore,
+      double? iOUThreshold,
+      int? boxesLimit,
+      CameraPreProcessingMethod cameraPreProcessingMethod =
+          CameraPreProcessingMethod.imageLib,
+      PreProcessingMethod preProcessingMethod = PreProcessingMethod.imageLib,
+      CropRect? crop}) async {
+    if (cameraPreProcessingMethod == CameraPreProcessingMethod.imageLib) {
+      Uint8List? bytes =
+          await ImageUtilsIsolate.convertCameraImageToBytes(cameraImage);
+      if (bytes == null) {
+        throw Exception("Unable to process image bytes");
+      }
+      return await getImagePredictionPacked(bytes,
+          minimumScore: minimumScore,
+          iOUThreshold: iOUThreshold,
+          boxesLimit: boxesLimit,
+          preProcessingMethod: preProcessingMethod,
+          crop: crop);
+    }
+    return await getImagePredictionPackedFromBytesList(
+        cameraImage.planes.map((e) => e.bytes).toList(),
+        cameraImage.width,
+        cameraImage.height,
+        minimumScore: minimumScore,
+        iOUThreshold: iOUThreshold,
+        boxesLimit: boxesLimit,
+        rowStrides: cameraImage.planes.map((e) => e.bytesPerRow).toList(),
+        pixelStrides:
+            cameraImage.planes.map((e) => e.bytesPerPixel ?? 1).toList(),
+        crop: crop);
+  }
+
   /// Renders a list of boxes on an image.
   ///
   /// The [image] parameter is the file representing the image.
@@ -750,3 +1275,110 @@ class ModelObjectDetection {
     });
   }
 }
+
+/// The result of one frame pushed to a [DetectionSession].
+class DetectionSessionResult {
+  /// The id returned by [DetectionSession.push] for the frame.
+  final int frameId;
+
+  /// The frame was replaced by a newer one before it could run.
+  final bool dropped;
+
+  /// Frames dropped since the previous frame that ran, this one included
+  /// when it was dropped.
+  final int droppedFrames;
+
+  /// The labelled detections, null when the frame was dropped or failed.
+  final PackedObjectDetections? detections;
+
+  /// False when the tracker predicted the [detections] without running the
+  /// detector on the frame.
+  final bool detected;
+
+  /// The track id of each of the [detections], null when the session does
+  /// not track.
+  final List<int>? trackIds;
+
+  /// Why the frame failed, null when it did not.
+  final String? error;
+
+  const DetectionSessionResult(this.frameId, this.dropped, this.droppedFrames,
+      this.detections, this.detected, this.trackIds, this.error);
+}
+
+/// Streams the detections of camera frames run on one model with fixed
+/// detection parameters, see [ModelObjectDetection.openDetectionSession].
+///
+/// [push] only queues a frame natively and returns, the results come on
+/// [results] tagged with the frame id, so a frame can be converted and sent
+/// while the previous one runs and its result is delivered. Like
+/// [ModelObjectDetection.getLatestCameraImagePrediction] at most one frame
+/// waits while another runs, a newer frame replaces it.
+///
+/// Listen to [results] before pushing frames, results sent while nothing
+/// listens are lost. The events of every session share one event channel.
+///
+/// Call [close] once done, the native session keeps its frame queue and
+/// tracks until then. A session dropped without [close] is only closed when
+/// it is garbage collected.
+class DetectionSession {
+  static const EventChannel _eventChannel =
+      EventChannel('pytorch_lite/detection_sessions');
+  // one native listener for all the sessions
+  static final Stream<Map<Object?, Object?>> _events = _eventChannel
+      .receiveBroadcastStream()
+      .map((event) => event as Map<Object?, Object?>);
+
+  // closes the native sessions dropped without close()
+  static final Finalizer<int> _finalizer = Finalizer<int>((int id) {
+    ModelApi().closeDetectionSession(id).catchError((Object _) {});
+  });
+
+  final int _id;
+  final List<String> labels;
+  int _nextFrameId = 0;
+
+  DetectionSession._(this._id, this.labels) {
+    _finalizer.attach(this, _id, detach: this);
+  }
+
+  /// The results of the frames of this session, in the order they complete.
+  late final Stream<DetectionSessionResult> results = _events
+      .where((event) => event['sessionId'] == _id)
+      .map((event) {
+    final Uint8List? detections = event['detections'] as Uint8List?;
+    final bool dropped = event['dropped'] as bool;
+    return DetectionSessionResult(
+        event['frameId'] as int,
+        dropped,
+        event['droppedFrames'] as int,
+        detections == null
+            ? null
+            : PackedObjectDetections(_asFloat32List(detections), labels),
+        // frames that ran without a tracker were detected
+        event['detected'] as bool? ?? (!dropped && detections != null),
+        event['trackIds'] as List<int>?,
+        event['error'] as String?);
+  });
+
+  /// Queues [cameraImage] and returns its frame id once it is queued, the
+  /// planes are converted natively.
+  Future<int> push(CameraImage cameraImage) async {
+    final int frameId = _nextFrameId++;
+    await ModelApi().pushDetectionSessionFrame(
+        _id,
+        frameId,
+        cameraImage.planes.map((e) => e.bytes).toList(),
+        cameraImage.width,
+        cameraImage.height,
+        cameraImage.planes.map((e) => e.bytesPerRow).toList(),
+        cameraImage.planes.map((e) => e.bytesPerPixel ?? 1).toList());
+    return frameId;
+  }
+
+  /// Closes the session, frames still queued send no result.
+  Future<void> close() async {
+    _finalizer.detach(this);
+    await ModelApi().closeDetectionSession(_id);
+  }
+}
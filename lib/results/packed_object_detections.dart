@@ -0,0 +1,75 @@
+import 'dart:collection';
+import 'dart:typed_data';
+
+import 'package:pytorch_lite/pigeon.dart';
+
+/// Object detection results received as one packed float32 buffer.
+///
+/// Every detection is a record of [recordSize] floats: class index, score,
+/// left, top, right, bottom, width and height. Reading a value through the
+/// accessors ([classIndexAt], [scoreAt], [leftAt], ...) allocates nothing,
+/// indexing the list builds a [ResultObjectDetection] for that record only.
+///
+/// The list is unmodifiable.
+class PackedObjectDetections extends ListBase<ResultObjectDetection> {
+  static const int recordSize = 8;
+
+  final Float32List _records;
+
+  /// The labels used for [ResultObjectDetection.className], if any.
+  final List<String>? labels;
+
+  PackedObjectDetections(this._records, [this.labels])
+      : assert(_records.length % recordSize == 0,
+            "packed detections should hold whole records");
+
+  /// The raw records, [recordSize] floats per detection.
+  Float32List get records => _records;
+
+  @override
+  int get length => _records.length ~/ recordSize;
+
+  @override
+  set length(int newLength) =>
+      throw UnsupportedError("PackedObjectDetections is unmodifiable");
+
+  int classIndexAt(int index) => _records[index * recordSize].toInt();
+
+  String? classNameAt(int index) => labels?[classIndexAt(index)];
+
+  double scoreAt(int index) => _records[index * recordSize + 1];
+
+  double leftAt(int index) => _records[index * recordSize + 2];
+
+  double topAt(int index) => _records[index * recordSize + 3];
+
+  double rightAt(int index) => _records[index * recordSize + 4];
+
+  double bottomAt(int index) => _records[index * recordSize + 5];
+
+  double widthAt(int index) => _records[index * recordSize + 6];
+
+  double heightAt(int index) => _records[index * recordSize + 7];
+
+  @override
+  ResultObjectDetection operator [](int index) {
+    RangeError.checkValidIndex(index, this);
+    return ResultObjectDetection(
+      classIndex: classIndexAt(index),
+      className: classNameAt(index),
+      score: scoreAt(index),
+      rect: PyTorchRect(
+        left: leftAt(index),
+        top: topAt(index),
+        right: rightAt(index),
+        bottom: bottomAt(index),
+        width: widthAt(index),
+        height: heightAt(index),
+      ),
+    );
+  }
+
+  @override
+  void operator []=(int index, ResultObjectDetection value) =>
+      throw UnsupportedError("PackedObjectDetections is unmodifiable");
+}
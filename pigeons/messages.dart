@@ -20,15 +20,141 @@ class PyTorchRect {
       this.left, this.top, this.width, this.height, this.right, this.bottom);
 }
 
+/// Region of an image a prediction is limited to, normalized to the image,
+/// 0 to 1, in the orientation of the detections.
+class CropRect {
+  double left;
+  double top;
+  double right;
+  double bottom;
+  CropRect(this.left, this.top, this.right, this.bottom);
+}
+
 class ResultObjectDetection {
   int classIndex;
   String? className;
   double score;
   PyTorchRect rect;
+  /// Stable id of the tracked object, set by detection sessions opened with
+  /// tracking.
+  int? trackId;
 
   ResultObjectDetection(this.classIndex, this.score, this.rect);
 }
 
+class ResultClassification {
+  List<double> scores;
+
+  ResultClassification(this.scores);
+}
+
+class ResultObjectDetectionList {
+  List<ResultObjectDetection> detections;
+
+  ResultObjectDetectionList(this.detections);
+}
+
+class CameraFrameResult {
+  /// Null when the frame was dropped.
+  List<ResultObjectDetection>? detections;
+  /// The frame was replaced by a newer one before it could run.
+  bool dropped;
+  /// Frames dropped since the previous frame that ran, this one included
+  /// when it was dropped.
+  int droppedFrames;
+
+  CameraFrameResult(this.dropped, this.droppedFrames);
+}
+
+class TensorData {
+  /// The tensor elements as native order bytes, row major.
+  Uint8List data;
+  List<int> shape;
+  /// One of float32, float64, int32, int64, int8, uint8.
+  String dtype;
+  /// The key of an output returned in a dict.
+  String? name;
+
+  TensorData(this.data, this.shape, this.dtype);
+}
+
+class ModelLoadOptions {
+  /// How many inferences may run on the model at once, 0 does not limit
+  /// them. Defaults to the number of replicas, so a model loaded once runs
+  /// them one after the other.
+  int? maxConcurrency;
+  /// How many copies of the model to load (1 by default), calls are spread
+  /// over the idle ones.
+  int? replicas;
+  /// Most CPU threads the shared thread pool may have while the model runs,
+  /// the pool is also capped by the plugin wide CPU thread budget. Unset
+  /// leaves it to PyTorch. On Android this needs the lite runtime, the calls
+  /// of the model fail with the full one.
+  int? numThreads;
+  /// Forward passes run on a zero image of the model input size before the
+  /// load returns, and again whenever an evicted model is loaded back. Needs
+  /// the image size, 0 by default.
+  int? warmUpRuns;
+  /// Loads a model saved for the mobile lite interpreter (.ptl) instead of a
+  /// full TorchScript model. Android only, false by default.
+  bool? lite;
+  /// The model path is the key of a flutter asset, read straight from the
+  /// application bundle instead of a file. False by default.
+  bool? fromAsset;
+  /// How detection boxes are suppressed (Android only): "grid" (default)
+  /// only compares boxes that are close to each other and ranks at most 30
+  /// candidates per returned box, "exhaustive" ranks every candidate and
+  /// compares every pair, the plain greedy NMS.
+  String? nmsEngine;
+  /// Only lets boxes of the same class suppress each other (Android only),
+  /// false by default.
+  bool? classAwareNms;
+  /// Splits the decode of large detection outputs over the CPU cores
+  /// (Android only), false by default.
+  bool? parallelDecode;
+}
+
+class ModelStats {
+  int replicas;
+  int maxConcurrency;
+  /// Inferences running right now.
+  int runningInferences;
+  /// Inferences completed by each replica since the model was loaded.
+  List<int> inferencesPerReplica;
+  /// Share of the replicas time spent running inferences since the model
+  /// was loaded, between 0 and 1.
+  double utilization;
+  /// Threads asked for at load time, 0 when unset.
+  int numThreads;
+  /// Size of the shared thread pool when the last inference started, 0 when
+  /// left to PyTorch.
+  int allocatedThreads;
+  /// False while the model is evicted to fit the memory budget.
+  bool loaded;
+  /// Estimated native memory taken by the loaded replicas, in bytes.
+  int residentBytes;
+  /// Latency of the first forward pass after the model was loaded, warm-up
+  /// included, in milliseconds. Null until it ran.
+  double? coldLatencyMillis;
+  /// Mean latency of the warm-up passes after the first one, in
+  /// milliseconds. Null with less than two warm-up runs, as nothing warm was
+  /// measured.
+  double? warmLatencyMillis;
+
+  ModelStats(
+      this.replicas,
+      this.maxConcurrency,
+      this.runningInferences,
+      this.inferencesPerReplica,
+      this.utilization,
+      this.numThreads,
+      this.allocatedThreads,
+      this.loaded,
+      this.residentBytes,
+      this.coldLatencyMillis,
+      this.warmLatencyMillis);
+}
+
 // enum ObjectDetectionModelType { yolov5, yolov8 }
 
 @HostApi()
@@ -36,7 +162,34 @@ abstract class ModelApi {
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
   int loadModel(String modelPath, int? numberOfClasses, int? imageWidth,
-      int? imageHeight, int? objectDetectionModelType);
+      int? imageHeight, int? objectDetectionModelType,
+      ModelLoadOptions? options);
+
+  ///returns how the replicas of a model are used
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  ModelStats getModelStats(int index);
+
+  ///releases a model, its index is not valid anymore
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void unloadModel(int index);
+
+  ///sets the memory the loaded models may take, least recently used models are evicted and loaded again on use, 0 disables it
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void setModelMemoryBudget(int bytes);
+
+  ///sets the detection thresholds and box limit used by the calls of a model that do not pass their own
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void setDetectionDefaults(
+      int index, double? minimumScore, double? IOUThreshold, int? boxesLimit);
+
+  ///sets how many CPU threads the running models share, 0 leaves it to PyTorch
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void setCpuThreadBudget(int threads);
 
   ///predicts abstract number input
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
@@ -44,6 +197,17 @@ abstract class ModelApi {
   List? getPredictionCustom(
       int index, List<double> input, List<int> shape, String dtype);
 
+  ///predicts a typed tensor input, returns the output tensor with its shape and dtype
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  TensorData getPredictionCustomTensor(int index, TensorData input);
+
+  ///runs a method of the model on typed inputs, returns every tensor of its tuple, list or dict output
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  List<TensorData> runMethod(
+      int index, String methodName, List<TensorData> inputs);
+
   ///predicts raw image but returns the raw net output
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
@@ -55,11 +219,11 @@ abstract class ModelApi {
   List<ResultObjectDetection> getRawImagePredictionListObjectDetection(
       int index,
       Uint8List imageData,
-      double minimumScore,
-      double IOUThreshold,
-      int boxesLimit);
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit);
 
-  ///predicts image but returns the raw net output
+  ///predicts image or the crop of it but returns the raw net output
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
   List<double> getImagePredictionList(
@@ -68,10 +232,13 @@ abstract class ModelApi {
       List<Uint8List>? imageBytesList,
       int? imageWidthForBytesList,
       int? imageHeightForBytesList,
+      List<int>? rowStridesForBytesList,
+      List<int>? pixelStridesForBytesList,
       List<double> mean,
-      List<double> std);
+      List<double> std,
+      CropRect? crop);
 
-  ///predicts image but returns the output detections
+  ///predicts image or the crop of it but returns the output detections, in whole image coordinates
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
   List<ResultObjectDetection> getImagePredictionListObjectDetection(
@@ -80,7 +247,126 @@ abstract class ModelApi {
       List<Uint8List>? imageBytesList,
       int? imageWidthForBytesList,
       int? imageHeightForBytesList,
-      double minimumScore,
-      double IOUThreshold,
-      int boxesLimit);
+      List<int>? rowStridesForBytesList,
+      List<int>? pixelStridesForBytesList,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit,
+      CropRect? crop);
+
+  ///detects objects in a camera frame, at most one frame per model waits while another runs and a newer frame replaces it, the replaced one completes as dropped
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  CameraFrameResult detectObjectsInLatestCameraFrame(
+      int index,
+      List<Uint8List> imageBytesList,
+      int imageWidth,
+      int imageHeight,
+      List<int>? rowStrides,
+      List<int>? pixelStrides,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit,
+      CropRect? crop);
+
+  ///opens a detection session on a model with fixed detection parameters, returns its id, the results of its frames come on the pytorch_lite/detection_sessions event channel, with track the boxes get track ids and the detector only runs every detectEveryFrames frames, with crop only that region of the frames is detected
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  int openDetectionSession(int index, double? minimumScore, double? IOUThreshold,
+      int? boxesLimit, bool? track, int? detectEveryFrames, CropRect? crop);
+
+  ///queues a camera frame of a detection session and returns, latest frame wins, the result is sent as an event tagged with frameId
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void pushDetectionSessionFrame(
+      int sessionId,
+      int frameId,
+      List<Uint8List> imageBytesList,
+      int imageWidth,
+      int imageHeight,
+      List<int>? rowStrides,
+      List<int>? pixelStrides);
+
+  ///closes a detection session, frames still queued send no event
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  void closeDetectionSession(int sessionId);
+
+  ///predicts raw image, returns the raw net output as native order float32 bytes
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  Uint8List getRawImagePredictionFloat32List(int index, Uint8List imageData);
+
+  ///predicts image or the crop of it, returns the raw net output as native order float32 bytes
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  Uint8List getImagePredictionFloat32List(
+      int index,
+      Uint8List? imageData,
+      List<Uint8List>? imageBytesList,
+      int? imageWidthForBytesList,
+      int? imageHeightForBytesList,
+      List<int>? rowStridesForBytesList,
+      List<int>? pixelStridesForBytesList,
+      List<double> mean,
+      List<double> std,
+      CropRect? crop);
+
+  ///predicts raw image, returns the output detections as packed float32 records (see PackedObjectDetections)
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  Uint8List getRawImagePredictionListObjectDetectionPacked(
+      int index,
+      Uint8List imageData,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit);
+
+  ///predicts image or the crop of it, returns the output detections in whole image coordinates as packed float32 records (see PackedObjectDetections)
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  Uint8List getImagePredictionListObjectDetectionPacked(
+      int index,
+      Uint8List? imageData,
+      List<Uint8List>? imageBytesList,
+      int? imageWidthForBytesList,
+      int? imageHeightForBytesList,
+      List<int>? rowStridesForBytesList,
+      List<int>? pixelStridesForBytesList,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit,
+      CropRect? crop);
+
+  ///predicts a batch of raw images in one forward call, returns the raw net output of each image
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  List<ResultClassification> getRawImagePredictionListBatch(
+      int index, List<Uint8List> imagesData);
+
+  ///predicts a batch of raw images in one forward call, returns the output detections of each image
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  List<ResultObjectDetectionList> getRawImagePredictionListObjectDetectionBatch(
+      int index,
+      List<Uint8List> imagesData,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit);
+
+  ///predicts a batch of images in one forward call, returns the raw net output of each image
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  List<ResultClassification> getImagePredictionListBatch(int index,
+      List<Uint8List> imagesData, List<double> mean, List<double> std);
+
+  ///predicts a batch of images in one forward call, returns the output detections of each image
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  @async
+  List<ResultObjectDetectionList> getImagePredictionListObjectDetectionBatch(
+      int index,
+      List<Uint8List> imagesData,
+      double? minimumScore,
+      double? IOUThreshold,
+      int? boxesLimit);
 }